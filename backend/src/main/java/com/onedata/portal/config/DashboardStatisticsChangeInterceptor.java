@@ -0,0 +1,65 @@
+package com.onedata.portal.config;
+
+import com.onedata.portal.service.DashboardStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 控制台统计变更拦截器
+ * <p>
+ * 拦截 insert/update/delete，影响行数非 0 且属于统计来源表时通知 {@link DashboardStatisticsService} 重算对应分区；
+ * 处于事务中时在提交后通知，避免后台重算读到未提交的数据，回滚则不通知。
+ */
+@Slf4j
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class DashboardStatisticsChangeInterceptor implements Interceptor {
+
+    private final ObjectProvider<DashboardStatisticsService> statisticsService;
+
+    public DashboardStatisticsChangeInterceptor(ObjectProvider<DashboardStatisticsService> statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        DashboardStatisticsService.Section section = DashboardStatisticsService.sectionOf(statement.getId());
+        if (section != null && !(result instanceof Integer && (Integer) result == 0)) {
+            notifyChanged(section);
+        }
+        return result;
+    }
+
+    private void notifyChanged(DashboardStatisticsService.Section section) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markChanged(section);
+                }
+            });
+        } else {
+            markChanged(section);
+        }
+    }
+
+    private void markChanged(DashboardStatisticsService.Section section) {
+        try {
+            DashboardStatisticsService service = statisticsService.getIfAvailable();
+            if (service != null) {
+                service.markChanged(section);
+            }
+        } catch (Exception e) {
+            log.debug("Skip dashboard statistics change notification: {}", e.getMessage());
+        }
+    }
+}
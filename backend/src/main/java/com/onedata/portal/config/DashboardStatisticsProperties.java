@@ -0,0 +1,39 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 控制台统计物化配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "dashboard.statistics")
+public class DashboardStatisticsProperties {
+
+    /**
+     * 是否物化计数；关闭后每次请求都直接查询数据库。
+     */
+    private boolean materialized = true;
+
+    /**
+     * 首次变更后延迟重算的时间（毫秒），期间的变更合并为一次重算。
+     */
+    private long refreshDelayMs = 5_000L;
+
+    /**
+     * 全量对账间隔（毫秒），兜底修正绕过 MyBatis 的写入（如手工改库）。
+     */
+    private long reconcileIntervalMs = 300_000L;
+
+    /**
+     * 表访问汇总（热点表/长期未用表）缓存时间（秒）。
+     */
+    private long accessSummaryTtlSeconds = 300;
+
+    /**
+     * 表访问汇总写入后超过该时间即在访问时后台刷新（秒），应小于 accessSummaryTtlSeconds。
+     */
+    private long accessSummaryRefreshSeconds = 240;
+}
@@ -0,0 +1,54 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 异步导出任务配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "data-export.job")
+public class DataExportJobProperties {
+
+    /**
+     * 同时运行的导出任务数。
+     */
+    private int workerThreads = 2;
+
+    /**
+     * 排队等待的导出任务上限，超出后拒绝提交。
+     */
+    private int queueCapacity = 20;
+
+    /**
+     * 所有任务共享的分片写出线程数（按分区并行导出）。
+     */
+    private int partWriterThreads = 4;
+
+    /**
+     * 单个分片文件的最大行数，超出后滚动到新文件。
+     */
+    private long maxRowsPerPart = 5_000_000L;
+
+    /**
+     * 本地临时目录，为空时使用系统临时目录。
+     */
+    private String tempDir;
+
+    /**
+     * 未指定时使用的 MinIO Bucket。
+     */
+    private String bucket = "opendataworks-export";
+
+    /**
+     * 对象 Key 前缀。
+     */
+    private String objectPrefix = "exports";
+
+    /**
+     * 下载链接有效期（秒）。
+     */
+    private long downloadUrlExpireSeconds = 3600L;
+}
@@ -0,0 +1,91 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DolphinScheduler OpenAPI 客户端配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "dolphin.client")
+public class DolphinClientProperties {
+
+    /**
+     * GET 请求默认重试策略（连接失败、超时、5xx、429 时重试）。
+     */
+    private RetryPolicy retry = new RetryPolicy();
+
+    /**
+     * 按接口覆写的重试策略，key 为客户端方法名，如 getProcessDefinition、listTaskGroups。
+     */
+    private Map<String, RetryPolicy> endpoints = new LinkedHashMap<>();
+
+    /**
+     * 参考数据（数据源、任务组、租户、Worker 分组、告警组、环境）本地缓存。
+     */
+    private ReferenceCache referenceCache = new ReferenceCache();
+
+    public RetryPolicy resolveRetry(String endpoint) {
+        RetryPolicy policy = endpoint != null ? endpoints.get(endpoint) : null;
+        return policy != null ? policy : retry;
+    }
+
+    @Data
+    public static class RetryPolicy {
+
+        /**
+         * 首次请求失败后的最大重试次数，0 表示不重试。
+         */
+        private int maxRetries = 2;
+
+        /**
+         * 首次重试前的等待时间（毫秒），之后按指数增长。
+         */
+        private long minBackoffMs = 200;
+
+        /**
+         * 单次重试等待上限（毫秒）。
+         */
+        private long maxBackoffMs = 2000;
+
+        /**
+         * 等待时间的随机抖动比例（0~1），避免多个请求同时重试。
+         */
+        private double jitter = 0.5;
+
+        /**
+         * 包括全部重试与等待在内的总耗时上限（毫秒），超过后放弃剩余重试；0 表示不限制。
+         * 单次请求超时为 10 秒，该上限决定了调用线程最多被占用多久。
+         */
+        private long deadlineMs = 15000;
+    }
+
+    @Data
+    public static class ReferenceCache {
+
+        /**
+         * 是否启用缓存，关闭后每次调用都直接请求 DolphinScheduler。
+         */
+        private boolean enabled = true;
+
+        /**
+         * 写入后过期时间（秒）。
+         */
+        private long ttlSeconds = 300;
+
+        /**
+         * 写入后超过该时间即在访问时后台刷新（秒），应小于 ttlSeconds。
+         */
+        private long refreshAfterSeconds = 240;
+
+        /**
+         * 最大缓存条目数。
+         */
+        private long maximumSize = 256;
+    }
+}
@@ -29,4 +29,53 @@ public class DorisJdbcProperties {
     private boolean sessionCharsetEnabled = true;
     private String sessionCharset = "utf8mb4";
     private String sessionCharsetFallback = "utf8";
+
+    /**
+     * 连接池配置，每个集群（及凭据）维护独立的有界连接池。
+     */
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Pool {
+
+        /**
+         * 关闭后回退为每次调用新建物理连接。
+         */
+        private boolean enabled = true;
+
+        /**
+         * 单个连接池最大连接数。
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * 单个连接池最小空闲连接数，默认 0 以避免用户凭据池长期占用连接。
+         */
+        private int minimumIdle = 0;
+
+        /**
+         * 获取连接的最长等待时间（毫秒）。
+         */
+        private long connectionTimeoutMs = 10000L;
+
+        /**
+         * 空闲连接回收时间（毫秒）。
+         */
+        private long idleTimeoutMs = 300000L;
+
+        /**
+         * 连接最大存活时间（毫秒）。
+         */
+        private long maxLifetimeMs = 1800000L;
+
+        /**
+         * 空闲连接保活校验间隔（毫秒），0 表示关闭。
+         */
+        private long keepaliveTimeMs = 120000L;
+
+        /**
+         * 连接有效性校验超时（毫秒）。
+         */
+        private long validationTimeoutMs = 3000L;
+    }
 }
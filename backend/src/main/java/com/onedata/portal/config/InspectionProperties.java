@@ -0,0 +1,24 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 巡检配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inspection")
+public class InspectionProperties {
+
+    /**
+     * 同时执行的巡检规则数；Tablet 统计快照的按库采集共用该线程池。
+     */
+    private int ruleThreads = 4;
+
+    /**
+     * 巡检问题批量写入时单条 INSERT 的行数。
+     */
+    private int issueBatchSize = 500;
+}
@@ -0,0 +1,54 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 元数据同步配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "metadata-sync")
+public class MetadataSyncProperties {
+
+    /**
+     * 是否按数据库并行同步，关闭后退回逐库串行同步。
+     */
+    private boolean parallelEnabled = true;
+
+    /**
+     * 每个数据源同时同步的数据库数，同一数据源的多次同步共享该并发上限，避免压垮 Doris FE。
+     */
+    private int workerThreads = 4;
+
+    /**
+     * 按数据源 ID 覆写并发数。
+     */
+    private Map<Long, Integer> clusterWorkerThreads = new HashMap<>();
+
+    /**
+     * 同步过程中写入同步历史进度的最小间隔（毫秒）。
+     */
+    private long progressFlushIntervalMs = 5000L;
+
+    /**
+     * 自动同步是否按表指纹增量同步：只深度同步指纹变化、新增与已删除的表。
+     */
+    private boolean incrementalEnabled = true;
+
+    /**
+     * 增量同步模式下，距上次全量同步超过该时长（小时）时自动改为全量同步，
+     * 用于兜底指纹无法反映的变更（如副本数、分桶数、视图定义）。
+     */
+    private int fullSyncIntervalHours = 24;
+
+    public int resolveWorkerThreads(Long clusterId) {
+        Integer override = clusterId != null ? clusterWorkerThreads.get(clusterId) : null;
+        int threads = override != null ? override : workerThreads;
+        return Math.max(1, threads);
+    }
+}
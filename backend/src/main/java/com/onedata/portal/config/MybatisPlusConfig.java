@@ -4,7 +4,9 @@ import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.onedata.portal.service.DashboardStatisticsService;
 import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -26,6 +28,15 @@ public class MybatisPlusConfig {
         return interceptor;
     }
 
+    /**
+     * 控制台统计变更通知（延迟获取统计服务，避免与 Mapper 循环依赖）
+     */
+    @Bean
+    public DashboardStatisticsChangeInterceptor dashboardStatisticsChangeInterceptor(
+            ObjectProvider<DashboardStatisticsService> statisticsService) {
+        return new DashboardStatisticsChangeInterceptor(statisticsService);
+    }
+
     /**
      * 自动填充处理器
      */
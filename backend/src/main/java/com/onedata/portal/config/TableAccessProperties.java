@@ -0,0 +1,49 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 表访问统计汇总配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "table-access")
+public class TableAccessProperties {
+
+    /**
+     * 是否在后台增量汇总审计日志。
+     */
+    private boolean rollupEnabled = true;
+
+    /**
+     * 两次汇总之间的间隔（毫秒）。
+     */
+    private long ingestIntervalMs = 60_000L;
+
+    /**
+     * 单次读取的审计日志行数。
+     */
+    private int pageSize = 20_000;
+
+    /**
+     * 单次汇总最多读取的页数，追赶积压时分多轮完成。
+     */
+    private int maxPagesPerRun = 10;
+
+    /**
+     * 只汇总早于当前时间该秒数的审计日志，等待审计插件批量写入落盘，避免高水位越过尚未写入的记录。
+     */
+    private int ingestLagSeconds = 300;
+
+    /**
+     * 集群首次汇总时回溯的天数。
+     */
+    private int backfillDays = 30;
+
+    /**
+     * 日汇总保留天数。
+     */
+    private int retentionDays = 400;
+}
@@ -0,0 +1,29 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 任务执行统计日汇总配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-execution.statistics")
+public class TaskExecutionStatisticsProperties {
+
+    /**
+     * 是否维护并使用日汇总；关闭后统计全部直接从执行明细聚合。
+     */
+    private boolean rollupEnabled = true;
+
+    /**
+     * 两次汇总之间的间隔（毫秒）。
+     */
+    private long rollupIntervalMs = 600_000L;
+
+    /**
+     * 单次汇总最多向前推进的天数，首次回填历史时分多轮完成。
+     */
+    private int maxDaysPerRun = 31;
+}
@@ -0,0 +1,76 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作流实例缓存同步配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.instance-sync")
+public class WorkflowInstanceSyncProperties {
+
+    public static final String MODE_PROJECT = "project";
+    public static final String MODE_WORKFLOW = "workflow";
+
+    /**
+     * 同步方式：project 按项目分页拉取高水位之后的新实例并按工作流分发；workflow 逐个工作流拉取最近实例。
+     */
+    private String mode = MODE_PROJECT;
+
+    /**
+     * 同时向 DolphinScheduler 拉取实例的工作流数。
+     */
+    private int concurrency = 8;
+
+    /**
+     * 每秒允许发往 DolphinScheduler 的请求数（令牌桶补充速率）。
+     */
+    private double requestsPerSecond = 20;
+
+    /**
+     * 令牌桶容量，即允许的瞬时突发请求数。
+     */
+    private int burst = 20;
+
+    /**
+     * 每个工作流缓存的最近实例数。
+     */
+    private int instanceLimit = 10;
+
+    /**
+     * 按项目拉取时的分页大小。
+     */
+    private int pageSize = 100;
+
+    /**
+     * 按项目拉取时单轮最多翻页数。
+     */
+    private int maxPages = 50;
+
+    /**
+     * 按项目拉取时窗口起点相对高水位的回退分钟数，覆盖实例落库延迟。
+     */
+    private int overlapMinutes = 10;
+
+    /**
+     * 首次按项目拉取（无高水位）时回溯的小时数。
+     */
+    private int bootstrapHours = 24;
+
+    /**
+     * 缓存中仍未结束的实例需要刷新终态时，窗口起点最多回退的小时数。
+     */
+    private int maxLookbackHours = 24;
+
+    /**
+     * 无法确定所属工作流的实例最多重试的轮数，超过后放弃该实例并允许高水位推进。
+     */
+    private int maxResolveAttempts = 3;
+
+    public boolean isProjectMode() {
+        return MODE_PROJECT.equalsIgnoreCase(mode);
+    }
+}
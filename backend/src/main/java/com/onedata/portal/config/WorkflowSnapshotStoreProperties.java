@@ -0,0 +1,39 @@
+package com.onedata.portal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作流版本快照块存储配置，支持通过 application.yml 或环境变量覆写。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.snapshot-store")
+public class WorkflowSnapshotStoreProperties {
+
+    /**
+     * 内容块不少于该字节数时压缩存储，更小的块压缩收益低于开销。
+     */
+    private int compressMinBytes = 256;
+
+    /**
+     * 解压后内容块的进程内缓存上限（字节）；内容按哈希寻址不会变化，缓存无需失效。
+     */
+    private long chunkCacheMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * 是否在后台把 inline 存储的历史版本转换为按块存储。
+     */
+    private boolean legacyMigrationEnabled = true;
+
+    /**
+     * 两轮历史版本转换之间的间隔（毫秒）。
+     */
+    private long legacyMigrationIntervalMs = 60_000L;
+
+    /**
+     * 每轮转换的版本数。
+     */
+    private int legacyMigrationBatchSize = 20;
+}
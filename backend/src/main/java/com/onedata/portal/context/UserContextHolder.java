@@ -2,6 +2,8 @@ package com.onedata.portal.context;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.Callable;
+
 /**
  * 用户上下文持有者
  * 使用ThreadLocal存储当前线程的用户上下文
@@ -60,4 +62,44 @@ public class UserContextHolder {
         }
         CONTEXT_HOLDER.remove();
     }
+
+    /**
+     * 包装提交到线程池的任务：执行时沿用提交线程的用户上下文，结束后恢复工作线程原有上下文
+     */
+    public static Runnable wrap(Runnable task) {
+        UserContext captured = CONTEXT_HOLDER.get();
+        return () -> {
+            UserContext previous = CONTEXT_HOLDER.get();
+            apply(captured);
+            try {
+                task.run();
+            } finally {
+                apply(previous);
+            }
+        };
+    }
+
+    /**
+     * 同 {@link #wrap(Runnable)}，用于有返回值的任务
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        UserContext captured = CONTEXT_HOLDER.get();
+        return () -> {
+            UserContext previous = CONTEXT_HOLDER.get();
+            apply(captured);
+            try {
+                return task.call();
+            } finally {
+                apply(previous);
+            }
+        };
+    }
+
+    private static void apply(UserContext context) {
+        if (context == null) {
+            CONTEXT_HOLDER.remove();
+        } else {
+            CONTEXT_HOLDER.set(context);
+        }
+    }
 }
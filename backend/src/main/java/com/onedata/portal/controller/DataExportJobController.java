@@ -0,0 +1,54 @@
+package com.onedata.portal.controller;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.onedata.portal.annotation.RequireAuth;
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.DataExportJobRequest;
+import com.onedata.portal.dto.Result;
+import com.onedata.portal.entity.DataExportJob;
+import com.onedata.portal.service.DataExportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 异步数据导出任务
+ */
+@RestController
+@RequestMapping("/v1/data-export/jobs")
+@RequiredArgsConstructor
+public class DataExportJobController {
+
+    private final DataExportJobService dataExportJobService;
+
+    @RequireAuth
+    @PostMapping
+    public Result<DataExportJob> submit(@Validated @RequestBody DataExportJobRequest request) {
+        return Result.success(dataExportJobService.submit(request, UserContextHolder.getCurrentUserId()));
+    }
+
+    @RequireAuth
+    @GetMapping
+    public Result<Page<DataExportJob>> list(@RequestParam(value = "pageNum", required = false) Integer pageNum,
+                                            @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                            @RequestParam(value = "status", required = false) String status) {
+        String userId = UserContextHolder.getCurrentUserId();
+        return Result.success(dataExportJobService.listJobs(userId, pageNum, pageSize, status));
+    }
+
+    @RequireAuth
+    @GetMapping("/{id}")
+    public Result<DataExportJob> get(@PathVariable Long id) {
+        DataExportJob job = dataExportJobService.getJob(id, UserContextHolder.getCurrentUserId());
+        if (job == null) {
+            return Result.fail("导出任务不存在");
+        }
+        return Result.success(job);
+    }
+
+    @RequireAuth
+    @PostMapping("/{id}/cancel")
+    public Result<Boolean> cancel(@PathVariable Long id) {
+        return Result.success(dataExportJobService.cancel(id, UserContextHolder.getCurrentUserId()));
+    }
+}
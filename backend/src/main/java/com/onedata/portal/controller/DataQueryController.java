@@ -15,6 +15,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 /**
  * 数据查询 Controller
  */
@@ -38,6 +41,27 @@ public class DataQueryController {
         return Result.success(dataQueryService.executeQuery(request));
     }
 
+    /**
+     * 流式执行：以 NDJSON（application/x-ndjson）逐帧返回列头、行数组与语句结果
+     */
+    @RequireAuth
+    @PostMapping("/execute/stream")
+    public void executeStream(@Validated @RequestBody SqlQueryRequest request,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+        try {
+            dataQueryService.streamQuery(request, response.getOutputStream());
+        } catch (RuntimeException e) {
+            // 开始输出前的校验失败，清空流式响应头后交由全局异常处理
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
     @RequireAuth
     @PostMapping("/stop")
     public Result<Boolean> stop(@Validated @RequestBody StopQueryRequest request) {
@@ -2,7 +2,10 @@ package com.onedata.portal.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.onedata.portal.annotation.RequireAuth;
+import com.onedata.portal.dto.CacheStatistics;
+import com.onedata.portal.dto.ColumnarResultSet;
 import com.onedata.portal.dto.PageResult;
+import com.onedata.portal.dto.QueryPreview;
 import com.onedata.portal.dto.Result;
 import com.onedata.portal.dto.TableAccessStats;
 import com.onedata.portal.dto.TableOption;
@@ -25,11 +28,12 @@ import com.onedata.portal.service.DorisTableAccessService;
 import com.onedata.portal.service.MetadataSyncHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.time.Duration;
@@ -39,6 +43,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * 数据表管理 Controller
@@ -636,7 +642,7 @@ public class DataTableController {
 
     /**
      * 获取表在 Doris 中的统计信息
-     * 支持缓存机制，默认缓存5分钟
+     * 支持缓存机制，默认缓存5分钟，临近过期时后台刷新
      * 使用 forceRefresh=true 强制刷新
      */
     @RequireAuth
@@ -646,17 +652,44 @@ public class DataTableController {
             @RequestParam(required = false) Long clusterId,
             @RequestParam(required = false, defaultValue = "false") boolean forceRefresh) {
 
-        // 如果不强制刷新，先尝试从缓存获取
-        if (!forceRefresh) {
-            TableStatistics cached = cacheService.get(id, clusterId);
-            if (cached != null) {
-                return Result.success(cached);
+        // 后台刷新同样使用该 loader，历史记录只在本次请求自己查询 Doris 时写入
+        AtomicReference<TableStatistics> loaded = new AtomicReference<>();
+        Supplier<TableStatistics> loader = () -> {
+            TableStatistics result = loadStatistics(id, clusterId);
+            loaded.compareAndSet(null, result);
+            return result;
+        };
+        try {
+            TableStatistics statistics = forceRefresh
+                    ? cacheService.refresh(id, clusterId, loader)
+                    : cacheService.getOrLoad(id, clusterId, loader);
+            if (statistics != null && loaded.get() == statistics) {
+                historyService.saveHistory(id, clusterId, statistics);
             }
+            return Result.success(statistics);
+        } catch (IllegalArgumentException e) {
+            return Result.fail(e.getMessage());
+        } catch (Exception e) {
+            return Result.fail("获取表统计信息失败: " + e.getMessage());
         }
+    }
+
+    /**
+     * 获取表统计信息缓存的命中、淘汰与加载耗时统计
+     */
+    @RequireAuth
+    @GetMapping("/statistics-cache/stats")
+    public Result<CacheStatistics> getStatisticsCacheStats() {
+        return Result.success(cacheService.getStats());
+    }
 
+    /**
+     * 从 Doris 查询统计信息（缓存加载器，不写历史记录）
+     */
+    private TableStatistics loadStatistics(Long id, Long clusterId) {
         DataTable table = dataTableService.getById(id);
         if (table == null) {
-            return Result.fail("表不存在");
+            throw new IllegalArgumentException("表不存在");
         }
 
         // 优先使用 dbName 字段，如果不存在则从表名中解析
@@ -676,24 +709,10 @@ public class DataTableController {
             database = parts[0];
             actualTableName = parts[1];
         } else {
-            // 使用默认数据库
-            return Result.fail("表未配置数据库名，请先设置 dbName 字段");
+            throw new IllegalArgumentException("表未配置数据库名，请先设置 dbName 字段");
         }
 
-        try {
-            TableStatistics statistics = dorisConnectionService.getTableStatistics(
-                    clusterId, database, actualTableName);
-
-            // 放入缓存
-            cacheService.put(id, clusterId, statistics);
-
-            // 保存到历史记录
-            historyService.saveHistory(id, clusterId, statistics);
-
-            return Result.success(statistics);
-        } catch (Exception e) {
-            return Result.fail("获取表统计信息失败: " + e.getMessage());
-        }
+        return dorisConnectionService.getTableStatistics(clusterId, database, actualTableName);
     }
 
     /**
@@ -850,7 +869,7 @@ public class DataTableController {
      */
     @RequireAuth
     @GetMapping("/{id}/preview")
-    public Result<List<Map<String, Object>>> previewTableData(
+    public Result<QueryPreview> previewTableData(
             @PathVariable Long id,
             @RequestParam(required = false) Long clusterId,
             @RequestParam(defaultValue = "100") int limit) {
@@ -876,27 +895,29 @@ public class DataTableController {
         }
 
         try {
-            List<Map<String, Object>> data = dorisConnectionService.previewTableData(
+            ColumnarResultSet data = dorisConnectionService.previewTableData(
                     clusterId, database, actualTableName, limit);
-            return Result.success(data);
+            return Result.success(new QueryPreview(data.getColumns(), data));
         } catch (Exception e) {
             return Result.fail("预览表数据失败: " + e.getMessage());
         }
     }
 
     /**
-     * 导出表数据
+     * 导出表数据（流式写出，内存占用与行数无关）
      */
     @GetMapping("/{id}/export")
-    public ResponseEntity<byte[]> exportTableData(
+    public void exportTableData(
             @PathVariable Long id,
             @RequestParam(required = false) Long clusterId,
             @RequestParam(defaultValue = "csv") String format,
-            @RequestParam(defaultValue = "1000") int limit) {
+            @RequestParam(defaultValue = "1000") int limit,
+            HttpServletResponse response) throws IOException {
 
         DataTable table = dataTableService.getById(id);
         if (table == null) {
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         String database;
@@ -912,53 +933,66 @@ public class DataTableController {
             database = parts[0];
             actualTableName = parts[1];
         } else {
-            return ResponseEntity.badRequest().build();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        String contentType;
+        String fileExtension;
+        switch (format.toLowerCase()) {
+            case "excel":
+            case "xlsx":
+                contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+                fileExtension = "xlsx";
+                break;
+            case "json":
+                contentType = "application/json;charset=UTF-8";
+                fileExtension = "json";
+                break;
+            case "csv":
+            default:
+                contentType = "text/csv;charset=UTF-8";
+                fileExtension = "csv";
+                break;
+        }
+
+        // 生成文件名
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String filename = String.format("%s_%s.%s", actualTableName, timestamp, fileExtension);
+
+        // URL编码文件名以支持中文
+        String encodedFilename;
+        try {
+            encodedFilename = URLEncoder.encode(filename, "UTF-8").replaceAll("\\+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            encodedFilename = filename;
         }
 
-        try {
-            byte[] data;
-            String contentType;
-            String fileExtension;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename);
 
-            switch (format.toLowerCase()) {
-                case "excel":
+        try {
+            OutputStream out = response.getOutputStream();
+            switch (fileExtension) {
                 case "xlsx":
-                    data = dataExportService.exportToExcel(clusterId, database, actualTableName, limit);
-                    contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-                    fileExtension = "xlsx";
+                    dataExportService.exportToExcel(clusterId, database, actualTableName, limit, out);
                     break;
                 case "json":
-                    data = dataExportService.exportToJson(clusterId, database, actualTableName, limit);
-                    contentType = "application/json";
-                    fileExtension = "json";
+                    dataExportService.exportToJson(clusterId, database, actualTableName, limit, out);
                     break;
-                case "csv":
                 default:
-                    data = dataExportService.exportToCsv(clusterId, database, actualTableName, limit);
-                    contentType = "text/csv";
-                    fileExtension = "csv";
+                    dataExportService.exportToCsv(clusterId, database, actualTableName, limit, out);
                     break;
             }
-
-            // 生成文件名
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = String.format("%s_%s.%s", actualTableName, timestamp, fileExtension);
-
-            // URL编码文件名以支持中文
-            String encodedFilename;
-            try {
-                encodedFilename = URLEncoder.encode(filename, "UTF-8").replaceAll("\\+", "%20");
-            } catch (UnsupportedEncodingException e) {
-                encodedFilename = filename;
+        } catch (RuntimeException e) {
+            // 尚未开始输出时返回错误状态；已输出部分数据时只能中断响应
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            } else {
+                throw e;
             }
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename)
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
         }
     }
 
@@ -1005,15 +1039,18 @@ public class DataTableController {
         }
 
         LocalDateTime startedAt = LocalDateTime.now();
+        MetadataSyncHistory running = metadataSyncHistoryService.start(cluster, "manual", "all", null, startedAt);
         DorisMetadataSyncService.SyncResult result;
         try {
-            result = dorisMetadataSyncService.syncAllMetadata(clusterId);
+            result = dorisMetadataSyncService.syncAllMetadata(clusterId,
+                    metadataSyncHistoryService.progressListener(running));
         } catch (Exception e) {
             result = new DorisMetadataSyncService.SyncResult();
             result.addError("元数据同步失败: " + e.getMessage());
         }
 
-        MetadataSyncHistory history = metadataSyncHistoryService.record(cluster, "manual", "all", null, startedAt, result);
+        MetadataSyncHistory history = metadataSyncHistoryService.finish(running, cluster, "manual", "all", null,
+                startedAt, result);
         Map<String, Object> response = buildSyncResponse(result, history);
 
         if ("SUCCESS".equals(result.getStatus())) {
@@ -1,6 +1,7 @@
 package com.onedata.portal.controller;
 
 import com.onedata.portal.annotation.RequireAuth;
+import com.onedata.portal.dto.CacheStatistics;
 import com.onedata.portal.dto.Result;
 import com.onedata.portal.entity.DolphinConfig;
 import com.onedata.portal.service.DolphinConfigService;
@@ -25,10 +26,29 @@ public class DolphinConfigController {
     @PutMapping
     public Result<DolphinConfig> updateConfig(@RequestBody DolphinConfig config) {
         DolphinConfig updated = dolphinConfigService.updateConfig(config);
-        // Clear project code dependency cache in apiClient if needed
+        // Reference data (datasources, task groups, ...) belongs to the previous DolphinScheduler
+        dolphinOpenApiClient.invalidateReferenceData();
         return Result.success(updated);
     }
 
+    /**
+     * Hit ratio and upstream latency of the DolphinScheduler reference data cache.
+     */
+    @GetMapping("/cache/stats")
+    public Result<CacheStatistics> getReferenceCacheStats() {
+        return Result.success(dolphinOpenApiClient.getReferenceCacheStats());
+    }
+
+    /**
+     * Drop cached reference data, e.g. after datasources were changed directly in DolphinScheduler.
+     */
+    @RequireAuth
+    @PostMapping("/cache/invalidate")
+    public Result<Boolean> invalidateReferenceCache() {
+        dolphinOpenApiClient.invalidateReferenceData();
+        return Result.success(true);
+    }
+
     @RequireAuth
     @PostMapping("/test")
     public Result<Boolean> testConnection(@RequestBody DolphinConfig config) {
@@ -8,6 +8,7 @@ import com.onedata.portal.dto.backup.SchemaBackupRestoreRequest;
 import com.onedata.portal.dto.backup.SchemaBackupRestoreResponse;
 import com.onedata.portal.dto.backup.SchemaBackupSnapshot;
 import com.onedata.portal.dto.backup.SchemaBackupTriggerResponse;
+import com.onedata.portal.dto.DorisConnectionPoolMetrics;
 import com.onedata.portal.dto.PageResult;
 import com.onedata.portal.dto.Result;
 import com.onedata.portal.dto.SchemaObjectCount;
@@ -82,6 +83,12 @@ public class DorisClusterController {
         return Result.success(dorisConnectionService.testConnection(id));
     }
 
+    @RequireAuth
+    @GetMapping("/{id}/connection-pool")
+    public Result<List<DorisConnectionPoolMetrics>> getConnectionPoolMetrics(@PathVariable Long id) {
+        return Result.success(dorisConnectionService.getConnectionPoolMetrics(id));
+    }
+
     @RequireAuth
     @GetMapping("/{id}/databases")
     public Result<List<String>> listDatabases(@PathVariable Long id) {
@@ -0,0 +1,55 @@
+package com.onedata.portal.dto;
+
+import lombok.Data;
+
+/**
+ * 本地缓存运行统计
+ */
+@Data
+public class CacheStatistics {
+
+    private String name;
+
+    private int size;
+
+    /**
+     * 当前总权重（估算字节数）
+     */
+    private long weight;
+
+    private long maximumSize;
+
+    private long maximumWeight;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    /**
+     * 因容量/权重超限被淘汰的条目数
+     */
+    private long evictionCount;
+
+    /**
+     * 因过期被清理的条目数
+     */
+    private long expiredCount;
+
+    private long loadSuccessCount;
+
+    private long loadFailureCount;
+
+    private double averageLoadTimeMs;
+
+    /**
+     * 异步提前刷新次数
+     */
+    private long refreshCount;
+
+    /**
+     * 正在进行中的加载数
+     */
+    private int inFlightLoads;
+}
@@ -0,0 +1,419 @@
+package com.onedata.portal.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式查询结果
+ * <p>
+ * 按列存储结果数据：整数/浮点列使用基本类型数组，文本列使用字典编码（基数过高时退化为普通字符串数组），
+ * 其余类型按对象存储。列名只保存一份，序列化为紧凑的二维数组（行数组），列名由外层单独返回。
+ */
+@JsonSerialize(using = ColumnarResultSet.Serializer.class)
+public class ColumnarResultSet {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<String> columns;
+    private final int[] sqlTypes;
+    private final ColumnVector[] vectors;
+    private int rowCount;
+
+    public ColumnarResultSet(List<String> columns, int[] sqlTypes) {
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.sqlTypes = Arrays.copyOf(sqlTypes, sqlTypes.length);
+        this.vectors = new ColumnVector[columns.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = ColumnVector.forSqlType(sqlTypes[i]);
+        }
+    }
+
+    public static ColumnarResultSet empty() {
+        return new ColumnarResultSet(Collections.emptyList(), new int[0]);
+    }
+
+    /**
+     * 按结果集元数据创建列式容器，列名取列标签
+     */
+    public static ColumnarResultSet fromMetaData(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        int[] sqlTypes = new int[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnLabel(i));
+            int sqlType = metaData.getColumnType(i);
+            // 无符号 BIGINT 可能超出 long 范围，按对象存储
+            if (sqlType == Types.BIGINT && !metaData.isSigned(i)) {
+                sqlType = Types.OTHER;
+            }
+            sqlTypes[i - 1] = sqlType;
+        }
+        return new ColumnarResultSet(columns, sqlTypes);
+    }
+
+    /**
+     * 读取结果集当前行
+     */
+    public void appendRow(ResultSet resultSet) throws SQLException {
+        ensureCapacity(rowCount + 1);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].read(resultSet, i + 1, rowCount);
+        }
+        rowCount++;
+    }
+
+    public void appendRow(Object[] values) {
+        ensureCapacity(rowCount + 1);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].set(rowCount, i < values.length ? values[i] : null);
+        }
+        rowCount++;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    public Object getValue(int row, int column) {
+        checkRow(row);
+        return vectors[column].get(row);
+    }
+
+    /**
+     * 以 Map 形式访问单行（仅用于兼容按列名读取的场景）
+     */
+    public Map<String, Object> getRow(int row) {
+        checkRow(row);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < vectors.length; i++) {
+            result.put(columns.get(i), vectors[i].get(row));
+        }
+        return result;
+    }
+
+    /**
+     * 截取前 limit 行
+     */
+    public ColumnarResultSet head(int limit) {
+        int size = Math.max(0, Math.min(limit, rowCount));
+        if (size == rowCount) {
+            return this;
+        }
+        ColumnarResultSet copy = new ColumnarResultSet(columns, sqlTypes);
+        Object[] values = new Object[vectors.length];
+        for (int row = 0; row < size; row++) {
+            for (int i = 0; i < vectors.length; i++) {
+                values[i] = vectors[i].get(row);
+            }
+            copy.appendRow(values);
+        }
+        return copy;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("row " + row + " out of range, rowCount=" + rowCount);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        for (ColumnVector vector : vectors) {
+            vector.ensureCapacity(required);
+        }
+    }
+
+    private static int grow(int current, int required) {
+        int next = Math.max(current, INITIAL_CAPACITY);
+        while (next < required) {
+            next = next + (next >> 1);
+        }
+        return next;
+    }
+
+    /**
+     * 序列化为行数组：[[v11, v12, ...], [v21, v22, ...]]
+     */
+    public static class Serializer extends StdSerializer<ColumnarResultSet> {
+
+        public Serializer() {
+            super(ColumnarResultSet.class);
+        }
+
+        @Override
+        public void serialize(ColumnarResultSet value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartArray();
+            for (int row = 0; row < value.rowCount; row++) {
+                gen.writeStartArray();
+                for (ColumnVector vector : value.vectors) {
+                    vector.write(gen, row, provider);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private abstract static class ColumnVector {
+
+        static ColumnVector forSqlType(int sqlType) {
+            switch (sqlType) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    return new LongVector();
+                case Types.FLOAT:
+                case Types.REAL:
+                case Types.DOUBLE:
+                    return new DoubleVector();
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGNVARCHAR:
+                    return new StringVector();
+                default:
+                    return new ObjectVector();
+            }
+        }
+
+        abstract void ensureCapacity(int required);
+
+        abstract void read(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+        abstract void set(int row, Object value);
+
+        abstract Object get(int row);
+
+        abstract void write(JsonGenerator gen, int row, SerializerProvider provider) throws IOException;
+    }
+
+    private static class LongVector extends ColumnVector {
+        private long[] values = new long[0];
+        private final BitSet nulls = new BitSet();
+
+        @Override
+        void ensureCapacity(int required) {
+            if (values.length < required) {
+                values = Arrays.copyOf(values, grow(values.length, required));
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            values[row] = resultSet.getLong(columnIndex);
+            if (resultSet.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        void set(int row, Object value) {
+            if (value instanceof Number) {
+                values[row] = ((Number) value).longValue();
+            } else if (value != null) {
+                values[row] = Long.parseLong(String.valueOf(value).trim());
+            } else {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        void write(JsonGenerator gen, int row, SerializerProvider provider) throws IOException {
+            if (nulls.get(row)) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(values[row]);
+            }
+        }
+    }
+
+    private static class DoubleVector extends ColumnVector {
+        private double[] values = new double[0];
+        private final BitSet nulls = new BitSet();
+
+        @Override
+        void ensureCapacity(int required) {
+            if (values.length < required) {
+                values = Arrays.copyOf(values, grow(values.length, required));
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            values[row] = resultSet.getDouble(columnIndex);
+            if (resultSet.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        void set(int row, Object value) {
+            if (value instanceof Number) {
+                values[row] = ((Number) value).doubleValue();
+            } else if (value != null) {
+                values[row] = Double.parseDouble(String.valueOf(value).trim());
+            } else {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        void write(JsonGenerator gen, int row, SerializerProvider provider) throws IOException {
+            if (nulls.get(row)) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(values[row]);
+            }
+        }
+    }
+
+    /**
+     * 字典编码的文本列：不同取值超过上限后退化为普通字符串数组
+     */
+    private static class StringVector extends ColumnVector {
+        private static final int MAX_DICTIONARY_SIZE = 4096;
+
+        private int[] codes = new int[0];
+        private List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private String[] plain;
+
+        @Override
+        void ensureCapacity(int required) {
+            if (plain != null) {
+                if (plain.length < required) {
+                    plain = Arrays.copyOf(plain, grow(plain.length, required));
+                }
+            } else if (codes.length < required) {
+                codes = Arrays.copyOf(codes, grow(codes.length, required));
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            set(row, resultSet.getString(columnIndex));
+        }
+
+        @Override
+        void set(int row, Object value) {
+            String text = value == null ? null : String.valueOf(value);
+            if (plain != null) {
+                plain[row] = text;
+                return;
+            }
+            if (text == null) {
+                codes[row] = -1;
+                return;
+            }
+            Integer code = dictionaryIndex.get(text);
+            if (code == null) {
+                if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                    toPlain(row);
+                    plain[row] = text;
+                    return;
+                }
+                code = dictionary.size();
+                dictionary.add(text);
+                dictionaryIndex.put(text, code);
+            }
+            codes[row] = code;
+        }
+
+        private void toPlain(int rowCount) {
+            String[] values = new String[codes.length];
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = codes[i] < 0 ? null : dictionary.get(codes[i]);
+            }
+            plain = values;
+            codes = null;
+            dictionary = null;
+            dictionaryIndex = null;
+        }
+
+        @Override
+        Object get(int row) {
+            if (plain != null) {
+                return plain[row];
+            }
+            return codes[row] < 0 ? null : dictionary.get(codes[row]);
+        }
+
+        @Override
+        void write(JsonGenerator gen, int row, SerializerProvider provider) throws IOException {
+            String value = (String) get(row);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(value);
+            }
+        }
+    }
+
+    private static class ObjectVector extends ColumnVector {
+        private Object[] values = new Object[0];
+
+        @Override
+        void ensureCapacity(int required) {
+            if (values.length < required) {
+                values = Arrays.copyOf(values, grow(values.length, required));
+            }
+        }
+
+        @Override
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            values[row] = resultSet.getObject(columnIndex);
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void write(JsonGenerator gen, int row, SerializerProvider provider) throws IOException {
+            provider.defaultSerializeValue(values[row], gen);
+        }
+    }
+}
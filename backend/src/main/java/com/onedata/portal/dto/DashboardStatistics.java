@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -118,4 +119,19 @@ public class DashboardStatistics {
      * 表访问统计备注
      */
     private String tableAccessNote;
+
+    /**
+     * 计数快照中最早一个分区的计算时间
+     */
+    private LocalDateTime refreshedAt;
+
+    /**
+     * 表访问汇总的计算时间
+     */
+    private LocalDateTime tableAccessRefreshedAt;
+
+    /**
+     * 是否有已提交的变更尚未反映到快照（后台重算中）
+     */
+    private Boolean refreshPending;
 }
@@ -0,0 +1,40 @@
+package com.onedata.portal.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * 创建异步导出任务请求
+ */
+@Data
+public class DataExportJobRequest {
+
+    /**
+     * 已登记的表ID，库名与表名取自表元数据
+     */
+    @NotNull(message = "表ID不能为空")
+    private Long tableId;
+
+    /**
+     * Doris 集群ID，为空时使用表所属集群
+     */
+    private Long clusterId;
+
+    /**
+     * 导出行数上限，为空表示导出全表（全表导出时按分区并行写出）
+     */
+    @Positive(message = "导出行数必须大于 0")
+    private Long limit;
+
+    /**
+     * MinIO 环境ID，为空时使用默认环境
+     */
+    private Long minioConfigId;
+
+    /**
+     * 目标 Bucket，为空时使用配置的默认 Bucket
+     */
+    private String bucket;
+}
@@ -0,0 +1,62 @@
+package com.onedata.portal.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Doris 连接池运行指标
+ */
+@Data
+public class DorisConnectionPoolMetrics {
+
+    private Long clusterId;
+
+    private String poolName;
+
+    /**
+     * 连接池使用的 Doris 账号
+     */
+    private String username;
+
+    private int activeConnections;
+
+    private int idleConnections;
+
+    private int totalConnections;
+
+    /**
+     * 正在等待获取连接的线程数
+     */
+    private int pendingThreads;
+
+    private int maximumPoolSize;
+
+    /**
+     * 累计创建的物理连接数
+     */
+    private long connectionsCreated;
+
+    /**
+     * 每分钟新建物理连接数（按连接池存活时间平均）
+     */
+    private double connectionCreationRatePerMinute;
+
+    private double avgConnectionCreateMillis;
+
+    /**
+     * 累计借出连接次数
+     */
+    private long acquireCount;
+
+    private double avgAcquireWaitMillis;
+
+    private double maxAcquireWaitMillis;
+
+    /**
+     * 获取连接超时次数
+     */
+    private long timeoutCount;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.onedata.portal.dto;
+
+import lombok.Data;
+
+/**
+ * 表级血缘度数：inDegree 为以该表为下游的血缘数，outDegree 为以该表为上游的血缘数。
+ */
+@Data
+public class LineageDegree {
+
+    private Long tableId;
+
+    private long inDegree;
+
+    private long outDegree;
+}
@@ -5,7 +5,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * 查询结果预览
@@ -15,5 +14,5 @@ import java.util.Map;
 @AllArgsConstructor
 public class QueryPreview {
     private List<String> columns;
-    private List<Map<String, Object>> rows;
+    private ColumnarResultSet rows;
 }
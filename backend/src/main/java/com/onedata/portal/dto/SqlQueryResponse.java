@@ -4,7 +4,6 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 /**
  * SQL 查询响应
@@ -39,9 +38,9 @@ public class SqlQueryResponse {
     private List<String> columns;
 
     /**
-     * 数据行（预览数据）
+     * 数据行（预览数据），列式存储，序列化为行数组
      */
-    private List<Map<String, Object>> rows;
+    private ColumnarResultSet rows;
 
     /**
      * 返回的行数
@@ -3,7 +3,6 @@ package com.onedata.portal.dto;
 import lombok.Data;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * 单个 SQL 结果集
@@ -37,9 +36,9 @@ public class SqlQueryResultSet {
     private List<String> columns;
 
     /**
-     * 数据行（预览数据）
+     * 数据行（预览数据），列式存储，序列化为行数组
      */
-    private List<Map<String, Object>> rows;
+    private ColumnarResultSet rows;
 
     /**
      * 返回的行数
@@ -0,0 +1,49 @@
+package com.onedata.portal.dto.workflow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 两个版本之间的结构化变更：只记录发生变化的工作流字段、调度字段、任务与连线
+ * <p>
+ * 字段与任务记录变化前后的值（不存在时为空），连线记录新增/删除及其描述；
+ * 多段变更按顺序合成时取第一段的变化前值与最后一段的变化后值。
+ */
+@Data
+public class WorkflowVersionDelta {
+
+    private Map<String, ValueChange> workflowFields = new LinkedHashMap<>();
+
+    private Map<String, ValueChange> scheduleFields = new LinkedHashMap<>();
+
+    /**
+     * 任务 key -> 规范化后的任务节点
+     */
+    private Map<String, ValueChange> tasks = new LinkedHashMap<>();
+
+    /**
+     * 连线 -> 描述
+     */
+    private Map<String, String> addedEdges = new LinkedHashMap<>();
+
+    private Map<String, String> removedEdges = new LinkedHashMap<>();
+
+    @Data
+    public static class ValueChange {
+
+        private JsonNode before;
+
+        private JsonNode after;
+
+        public ValueChange() {
+        }
+
+        public ValueChange(JsonNode before, JsonNode after) {
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
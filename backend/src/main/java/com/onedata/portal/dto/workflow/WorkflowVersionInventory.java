@@ -0,0 +1,29 @@
+package com.onedata.portal.dto.workflow;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个版本的清单：有值的字段名、任务与连线描述，用于在合成变更时列出未变化项
+ */
+@Data
+public class WorkflowVersionInventory {
+
+    private List<String> workflowFieldKeys = new ArrayList<>();
+
+    private List<String> scheduleFieldKeys = new ArrayList<>();
+
+    /**
+     * 任务 key -> 描述
+     */
+    private Map<String, String> taskDescriptions = new LinkedHashMap<>();
+
+    /**
+     * 连线 -> 描述
+     */
+    private Map<String, String> edgeDescriptions = new LinkedHashMap<>();
+}
@@ -14,6 +14,11 @@ public class RuntimeDiffFieldChange {
 
     private String after;
 
+    /**
+     * 多行文本（如 SQL）的逐行 unified 差异，其他字段为空
+     */
+    private String diff;
+
     /**
      * Backward-compatible helper for tests that used string-based diff entries.
      */
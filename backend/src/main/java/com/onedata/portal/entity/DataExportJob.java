@@ -0,0 +1,79 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 异步数据导出任务
+ */
+@Data
+@TableName("data_export_job")
+public class DataExportJob {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long clusterId;
+
+    private String databaseName;
+
+    private String tableName;
+
+    /**
+     * 导出格式：csv_gzip
+     */
+    private String format;
+
+    private Long rowLimit;
+
+    private Long minioConfigId;
+
+    private String bucket;
+
+    private String objectPrefix;
+
+    /**
+     * 状态：pending/running/success/failed/cancelled
+     */
+    private String status;
+
+    private Integer partCount;
+
+    private Integer completedParts;
+
+    private Long rowCount;
+
+    private Long byteCount;
+
+    /**
+     * 已上传对象 Key（JSON 数组）
+     */
+    private String objectKeys;
+
+    private String errorMessage;
+
+    private String createdBy;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+
+    /**
+     * 下载链接（预签名，仅成功任务返回）
+     */
+    @TableField(exist = false)
+    private List<String> downloadUrls;
+}
@@ -78,6 +78,11 @@ public class DataTable {
     @TableField("doris_update_time")
     private LocalDateTime dorisUpdateTime;
 
+    /**
+     * 元数据同步指纹，增量同步时与 Doris 当前指纹一致则跳过该表
+     */
+    private String syncFingerprint;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
 
@@ -54,6 +54,10 @@ public class MetadataSyncHistory {
 
     private Integer deletedFields;
 
+    private Integer totalDatabases;
+
+    private Integer completedDatabases;
+
     private Integer errorCount;
 
     private String errorSummary;
@@ -0,0 +1,75 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 表访问日汇总实体
+ * 由审计日志增量汇总，按集群、表、日期、用户累计访问次数与耗时
+ */
+@Data
+@TableName("table_access_daily")
+public class TableAccessDaily {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * Doris集群ID
+     */
+    private Long clusterId;
+
+    /**
+     * 数据库名（小写）
+     */
+    private String dbName;
+
+    /**
+     * 表名（小写）
+     */
+    private String tableName;
+
+    /**
+     * 访问日期
+     */
+    private LocalDate accessDate;
+
+    /**
+     * 访问用户（审计日志未记录时为空串）
+     */
+    private String userName;
+
+    /**
+     * 访问次数
+     */
+    private Long accessCount;
+
+    /**
+     * 执行耗时合计（毫秒）
+     */
+    private Long durationSumMs;
+
+    /**
+     * 记录了执行耗时的访问次数
+     */
+    private Long durationCount;
+
+    /**
+     * 当日首次访问时间
+     */
+    private LocalDateTime firstAccessTime;
+
+    /**
+     * 当日最近访问时间
+     */
+    private LocalDateTime lastAccessTime;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
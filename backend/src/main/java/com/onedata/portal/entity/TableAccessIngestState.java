@@ -0,0 +1,50 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 表访问汇总进度实体
+ * 记录每个集群已汇总到的审计日志时间（高水位），汇总从高水位之后继续读取
+ */
+@Data
+@TableName("table_access_ingest_state")
+public class TableAccessIngestState {
+
+    @TableId(type = IdType.INPUT)
+    private Long clusterId;
+
+    /**
+     * 审计表（如 `__internal_schema`.`audit_log`）
+     */
+    private String auditSource;
+
+    /**
+     * 已汇总的审计日志时间上界
+     */
+    private LocalDateTime highWaterMark;
+
+    /**
+     * 最近一次汇总时间
+     */
+    private LocalDateTime lastRunAt;
+
+    /**
+     * 最近一次汇总读取的审计行数
+     */
+    private Integer lastRunRows;
+
+    /**
+     * 最近一次汇总失败原因（成功后清空）
+     */
+    @TableField(updateStrategy = FieldStrategy.IGNORED)
+    private String lastError;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,83 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 任务执行日汇总实体
+ * 按任务、日期（开始时间）、状态汇总执行次数与时长，时长按固定区间记录分布用于估算分位数；
+ * 聚合查询也复用该结构返回按日期、状态的汇总行（此时 taskId 为空）
+ */
+@Data
+@TableName("task_execution_daily")
+public class TaskExecutionDaily {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 任务ID
+     */
+    private Long taskId;
+
+    /**
+     * 统计日期（按开始时间归日）
+     */
+    private LocalDate statDate;
+
+    /**
+     * 执行状态
+     */
+    private String status;
+
+    /**
+     * 执行次数
+     */
+    private Long executionCount;
+
+    /**
+     * 记录了执行时长（大于0秒）的次数
+     */
+    private Long durationCount;
+
+    /**
+     * 执行时长合计（秒）
+     */
+    private Long durationSum;
+
+    /**
+     * 最短执行时长（秒）
+     */
+    private Integer durationMin;
+
+    /**
+     * 最长执行时长（秒）
+     */
+    private Integer durationMax;
+
+    private Long durationLe10s;
+
+    private Long durationLe30s;
+
+    private Long durationLe1m;
+
+    private Long durationLe5m;
+
+    private Long durationLe10m;
+
+    private Long durationLe30m;
+
+    private Long durationLe1h;
+
+    private Long durationLe2h;
+
+    private Long durationLe6h;
+
+    private Long durationGt6h;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
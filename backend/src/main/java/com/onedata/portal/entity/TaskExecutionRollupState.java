@@ -0,0 +1,51 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 任务执行日汇总进度实体
+ * 单行记录（id 固定为 1）：日汇总覆盖 [rolledFrom, rolledUntil) 的日期，此外的日期由明细实时聚合
+ */
+@Data
+@TableName("task_execution_rollup_state")
+public class TaskExecutionRollupState {
+
+    @TableId(type = IdType.INPUT)
+    private Long id;
+
+    /**
+     * 日汇总覆盖的起始日期（含）
+     */
+    private LocalDate rolledFrom;
+
+    /**
+     * 日汇总覆盖的截止日期（不含）
+     */
+    private LocalDate rolledUntil;
+
+    /**
+     * 最近一次汇总开始时间，下次汇总据此找出已汇总日期中更新过的执行记录
+     */
+    private LocalDateTime lastRunAt;
+
+    /**
+     * 最近一次重算的天数
+     */
+    private Integer lastRunDays;
+
+    /**
+     * 最近一次汇总失败原因（成功后清空）
+     */
+    @TableField(updateStrategy = FieldStrategy.IGNORED)
+    private String lastError;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
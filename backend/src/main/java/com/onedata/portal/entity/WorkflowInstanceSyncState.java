@@ -0,0 +1,57 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工作流实例同步进度实体
+ * 记录每个 DolphinScheduler 项目已拉取到的实例开始时间（高水位），按项目批量拉取时从高水位之后继续读取
+ */
+@Data
+@TableName("workflow_instance_sync_state")
+public class WorkflowInstanceSyncState {
+
+    @TableId(type = IdType.INPUT)
+    private Long projectCode;
+
+    /**
+     * 已拉取的实例开始时间上界
+     */
+    private LocalDateTime highWaterMark;
+
+    /**
+     * 因翻页截断尚未拉取的实例开始时间区间下界（无待补拉区间时为空）
+     */
+    @TableField(updateStrategy = FieldStrategy.IGNORED)
+    private LocalDateTime backfillFrom;
+
+    /**
+     * 因翻页截断尚未拉取的实例开始时间区间上界，补拉时从新到旧逐轮收缩
+     */
+    @TableField(updateStrategy = FieldStrategy.IGNORED)
+    private LocalDateTime backfillUntil;
+
+    /**
+     * 最近一次拉取时间
+     */
+    private LocalDateTime lastRunAt;
+
+    /**
+     * 最近一次拉取到的实例数
+     */
+    private Integer lastRunInstances;
+
+    /**
+     * 最近一次拉取失败原因（成功后清空）
+     */
+    @TableField(updateStrategy = FieldStrategy.IGNORED)
+    private String lastError;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工作流版本快照内容块
+ * 以未压缩内容的 SHA-256 为主键，相同内容在所有版本、所有工作流之间只存一份
+ */
+@Data
+@TableName("workflow_snapshot_chunk")
+public class WorkflowSnapshotChunk {
+
+    @TableId(type = IdType.INPUT)
+    private String chunkHash;
+
+    /**
+     * 压缩方式：none/deflate
+     */
+    private String codec;
+
+    /**
+     * 未压缩字节数
+     */
+    private Integer rawSize;
+
+    /**
+     * 存储字节数
+     */
+    private Integer storedSize;
+
+    private byte[] content;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
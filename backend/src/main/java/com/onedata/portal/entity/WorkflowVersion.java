@@ -23,8 +23,17 @@ public class WorkflowVersion {
 
     private Integer versionNo;
 
+    /**
+     * 快照原文，仅 inline 存储的历史版本有值；查询实体时不加载，通过 WorkflowSnapshotStore 按需读取
+     */
+    @TableField(select = false)
     private String structureSnapshot;
 
+    /**
+     * 快照存储方式，inline=structure_snapshot 原文，chunked=按内容块存储
+     */
+    private String snapshotStorage;
+
     private String changeSummary;
 
     private String triggerSource;
@@ -0,0 +1,51 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工作流版本变更集
+ * 创建版本时计算的相对上一版本（baseVersionId）的结构化差异，相邻版本比对直接读取，任意区间比对按版本号顺序合成
+ */
+@Data
+@TableName("workflow_version_change_set")
+public class WorkflowVersionChangeSet {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long workflowId;
+
+    private Long versionId;
+
+    private Integer versionNo;
+
+    /**
+     * 比较基线版本ID，为空表示相对空基线
+     */
+    private Long baseVersionId;
+
+    /**
+     * 结构化变更 JSON（WorkflowVersionDelta）
+     */
+    private String changes;
+
+    /**
+     * 本版本清单 JSON（WorkflowVersionInventory）
+     */
+    private String inventory;
+
+    /**
+     * 相对基线的原始快照差异
+     */
+    private String rawDiff;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
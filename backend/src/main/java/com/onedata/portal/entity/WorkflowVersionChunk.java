@@ -0,0 +1,34 @@
+package com.onedata.portal.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+/**
+ * 工作流版本快照的块清单
+ * 按 seq 顺序记录快照顶层字段对应的内容块；数组字段（如任务定义列表）的每个元素各占一行
+ */
+@Data
+@TableName("workflow_version_chunk")
+public class WorkflowVersionChunk {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long versionId;
+
+    private Integer seq;
+
+    /**
+     * 快照顶层字段名
+     */
+    private String fieldName;
+
+    /**
+     * 是否为数组字段的一个元素
+     */
+    private Boolean arrayItem;
+
+    private String chunkHash;
+}
@@ -0,0 +1,12 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.DataExportJob;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 异步数据导出任务 Mapper
+ */
+@Mapper
+public interface DataExportJobMapper extends BaseMapper<DataExportJob> {
+}
@@ -3,10 +3,18 @@ package com.onedata.portal.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.onedata.portal.entity.DataField;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 字段定义 Mapper
  */
 @Mapper
 public interface DataFieldMapper extends BaseMapper<DataField> {
+
+    /**
+     * 批量写入字段（按表ID+字段名去重，已存在则更新并恢复逻辑删除）
+     */
+    int upsertBatch(@Param("fields") List<DataField> fields);
 }
@@ -1,12 +1,20 @@
 package com.onedata.portal.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.dto.LineageDegree;
 import com.onedata.portal.entity.DataLineage;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.List;
+
 /**
  * 血缘关系 Mapper
  */
 @Mapper
 public interface DataLineageMapper extends BaseMapper<DataLineage> {
+
+    /**
+     * 一次聚合出所有存在血缘的表的入度与出度
+     */
+    List<LineageDegree> selectDegrees();
 }
@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,4 +27,24 @@ public interface DataTableMapper extends BaseMapper<DataTable> {
             "AND (status IS NULL OR status <> 'deprecated') " +
             "AND table_name = #{tableName}")
     List<DataTable> selectActiveByTable(@Param("tableName") String tableName);
+
+    /**
+     * 批量新增表（元数据同步），回填自增主键
+     */
+    int insertBatch(List<DataTable> tables);
+
+    /**
+     * 按主键批量更新元数据同步维护的列
+     */
+    int upsertSyncedBatch(List<DataTable> tables);
+
+    /**
+     * 批量刷新同步时间（增量同步中未变化的表）
+     */
+    int touchSyncTime(@Param("ids") List<Long> ids, @Param("syncTime") LocalDateTime syncTime);
+
+    /**
+     * 查询集群下所有表的库名与表名（只取标识列，供 SQL 表引用匹配）
+     */
+    List<DataTable> selectTableIdentifiers(@Param("clusterId") Long clusterId);
 }
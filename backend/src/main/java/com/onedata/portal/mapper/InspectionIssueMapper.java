@@ -3,10 +3,18 @@ package com.onedata.portal.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.onedata.portal.entity.InspectionIssue;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 巡检问题 Mapper
  */
 @Mapper
 public interface InspectionIssueMapper extends BaseMapper<InspectionIssue> {
+
+    /**
+     * 批量写入巡检问题
+     */
+    int insertBatch(@Param("list") List<InspectionIssue> issues);
 }
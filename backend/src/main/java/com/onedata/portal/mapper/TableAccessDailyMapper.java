@@ -0,0 +1,40 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.TableAccessDaily;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 表访问日汇总 Mapper
+ */
+@Mapper
+public interface TableAccessDailyMapper extends BaseMapper<TableAccessDaily> {
+
+    /**
+     * 批量累加访问次数与耗时，首次/最近访问时间取两者的最小/最大值
+     */
+    int upsertBatch(@Param("rows") List<TableAccessDaily> rows);
+
+    /**
+     * 查询单表自指定日期起的按日、按用户汇总
+     */
+    List<TableAccessDaily> selectTableDaily(@Param("clusterId") Long clusterId,
+            @Param("dbName") String dbName,
+            @Param("tableName") String tableName,
+            @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * 按表汇总：accessCount 为 hotStart 起的访问次数，lastAccessTime 为保留期内的最近访问时间
+     */
+    List<TableAccessDaily> selectTableSummaries(@Param("clusterId") Long clusterId,
+            @Param("hotStart") LocalDate hotStart);
+
+    /**
+     * 删除指定日期之前的汇总
+     */
+    int deleteBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,12 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.TableAccessIngestState;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 表访问汇总进度 Mapper
+ */
+@Mapper
+public interface TableAccessIngestStateMapper extends BaseMapper<TableAccessIngestState> {
+}
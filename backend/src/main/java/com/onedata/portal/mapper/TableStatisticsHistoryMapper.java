@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.onedata.portal.entity.TableStatisticsHistory;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,4 +36,15 @@ public interface TableStatisticsHistoryMapper extends BaseMapper<TableStatistics
      * 获取多个表的最新一条统计记录
      */
     List<TableStatisticsHistory> selectLatestByTableIds(@Param("tableIds") List<Long> tableIds);
+
+    /**
+     * 批量写入统计快照
+     */
+    int insertBatch(List<TableStatisticsHistory> histories);
+
+    /**
+     * 按表 ID、统计时间顺序流式读取 since 之后的统计快照（仅表 ID、行数、数据量与统计时间），
+     * 逐行交给 handler 处理，不在内存中保留完整结果集
+     */
+    void streamSeriesSince(@Param("since") LocalDateTime since, ResultHandler<TableStatisticsHistory> handler);
 }
@@ -0,0 +1,55 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.TaskExecutionDaily;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 任务执行日汇总 Mapper
+ * 汇总行只在数据库中计算（GROUP BY），返回行数与天数成正比，与执行次数无关
+ */
+@Mapper
+public interface TaskExecutionDailyMapper extends BaseMapper<TaskExecutionDaily> {
+
+    /**
+     * 删除 [from, to) 日期的日汇总
+     */
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 从执行明细重算 [from, to) 日期的日汇总（按任务、日期、状态）
+     */
+    int rebuildRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 从日汇总读取 [from, to) 日期按日期、状态合计的汇总行；taskId 为空时合计全部任务
+     */
+    List<TaskExecutionDaily> selectRolledUp(@Param("taskId") Long taskId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * 直接从执行明细按日期、状态聚合：开始时间在 [startFrom, startTo) 内、结束时间不晚于 endTo，空条件不限制
+     */
+    List<TaskExecutionDaily> aggregateLive(@Param("taskId") Long taskId,
+            @Param("startFrom") LocalDateTime startFrom,
+            @Param("startTo") LocalDateTime startTo,
+            @Param("endTo") LocalDateTime endTo);
+
+    /**
+     * 最早的执行开始时间，无记录时为空
+     */
+    LocalDateTime selectEarliestStartTime();
+
+    /**
+     * 开始日期在 [from, to) 内、updated_at 不早于 since 的执行记录所在日期
+     */
+    List<LocalDate> selectChangedDays(@Param("since") LocalDateTime since,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
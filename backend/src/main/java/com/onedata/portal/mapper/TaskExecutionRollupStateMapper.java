@@ -0,0 +1,12 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.TaskExecutionRollupState;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 任务执行日汇总进度 Mapper
+ */
+@Mapper
+public interface TaskExecutionRollupStateMapper extends BaseMapper<TaskExecutionRollupState> {
+}
@@ -3,10 +3,18 @@ package com.onedata.portal.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.onedata.portal.entity.WorkflowInstanceCache;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 工作流实例缓存 Mapper
  */
 @Mapper
 public interface WorkflowInstanceCacheMapper extends BaseMapper<WorkflowInstanceCache> {
+
+    /**
+     * 按 (workflow_id, instance_id) 批量写入或更新实例缓存
+     */
+    int upsertBatch(@Param("list") List<WorkflowInstanceCache> caches);
 }
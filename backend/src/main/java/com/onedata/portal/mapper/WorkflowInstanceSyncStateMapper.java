@@ -0,0 +1,12 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.WorkflowInstanceSyncState;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 工作流实例同步进度 Mapper
+ */
+@Mapper
+public interface WorkflowInstanceSyncStateMapper extends BaseMapper<WorkflowInstanceSyncState> {
+}
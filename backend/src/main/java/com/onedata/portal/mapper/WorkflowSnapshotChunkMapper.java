@@ -0,0 +1,31 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.WorkflowSnapshotChunk;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 工作流版本快照内容块 Mapper
+ */
+@Mapper
+public interface WorkflowSnapshotChunkMapper extends BaseMapper<WorkflowSnapshotChunk> {
+
+    /**
+     * 返回已存在的块哈希，并对这些块加共享锁，避免并发清理在引用写入前删除它们
+     */
+    List<String> selectExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * 批量写入内容块，已存在的哈希忽略
+     */
+    int insertIgnoreBatch(@Param("chunks") List<WorkflowSnapshotChunk> chunks);
+
+    /**
+     * 删除给定哈希中已不被任何版本引用的块
+     */
+    int deleteUnreferenced(@Param("hashes") Collection<String> hashes);
+}
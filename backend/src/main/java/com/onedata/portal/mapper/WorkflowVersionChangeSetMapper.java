@@ -0,0 +1,22 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.WorkflowVersionChangeSet;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 工作流版本变更集 Mapper
+ */
+@Mapper
+public interface WorkflowVersionChangeSetMapper extends BaseMapper<WorkflowVersionChangeSet> {
+
+    /**
+     * 按版本号升序查询 (fromVersionNo, toVersionNo] 区间内的变更集，不含清单与原始差异列
+     */
+    List<WorkflowVersionChangeSet> selectChain(@Param("workflowId") Long workflowId,
+            @Param("fromVersionNo") int fromVersionNo,
+            @Param("toVersionNo") int toVersionNo);
+}
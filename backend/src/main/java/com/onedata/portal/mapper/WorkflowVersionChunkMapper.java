@@ -0,0 +1,31 @@
+package com.onedata.portal.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.onedata.portal.entity.WorkflowVersionChunk;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 工作流版本快照块清单 Mapper
+ */
+@Mapper
+public interface WorkflowVersionChunkMapper extends BaseMapper<WorkflowVersionChunk> {
+
+    /**
+     * 批量写入块清单
+     */
+    int insertBatch(@Param("rows") List<WorkflowVersionChunk> rows);
+
+    /**
+     * 按顺序查询版本的块清单
+     */
+    List<WorkflowVersionChunk> selectByVersionId(@Param("versionId") Long versionId);
+
+    /**
+     * 查询若干版本引用的块哈希（去重）
+     */
+    List<String> selectHashesByVersionIds(@Param("versionIds") Collection<Long> versionIds);
+}
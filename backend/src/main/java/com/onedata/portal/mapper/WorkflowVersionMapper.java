@@ -3,10 +3,34 @@ package com.onedata.portal.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.onedata.portal.entity.WorkflowVersion;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 工作流版本 Mapper
  */
 @Mapper
 public interface WorkflowVersionMapper extends BaseMapper<WorkflowVersion> {
+
+    /**
+     * 读取 inline 存储的快照原文（实体查询默认不加载该列）
+     */
+    @Select("SELECT structure_snapshot FROM workflow_version WHERE id = #{id}")
+    String selectStructureSnapshot(@Param("id") Long id);
+
+    /**
+     * 查询ID大于 afterId 且仍以 inline 方式存储快照的版本ID
+     */
+    @Select("SELECT id FROM workflow_version WHERE snapshot_storage = 'inline' AND id > #{afterId} "
+            + "ORDER BY id LIMIT #{limit}")
+    List<Long> selectInlineVersionIds(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 标记版本已改为按块存储并清空快照原文
+     */
+    @Update("UPDATE workflow_version SET snapshot_storage = 'chunked', structure_snapshot = NULL WHERE id = #{id}")
+    int markChunked(@Param("id") Long id);
 }
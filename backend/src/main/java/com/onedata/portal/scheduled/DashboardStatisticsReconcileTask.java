@@ -0,0 +1,31 @@
+package com.onedata.portal.scheduled;
+
+import com.onedata.portal.service.DashboardStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 控制台统计对账定时任务
+ *
+ * 说明：
+ * - 按 dashboard.statistics.reconcile-interval-ms 间隔全量重算物化计数
+ * - 修正绕过 MyBatis 的写入（手工改库、其他服务直接写表）造成的偏差
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardStatisticsReconcileTask {
+
+    private final DashboardStatisticsService dashboardStatisticsService;
+
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${dashboard.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            dashboardStatisticsService.reconcile();
+        } catch (Exception e) {
+            log.error("Dashboard statistics reconcile failed", e);
+        }
+    }
+}
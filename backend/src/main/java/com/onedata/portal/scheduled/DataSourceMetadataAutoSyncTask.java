@@ -3,6 +3,7 @@ package com.onedata.portal.scheduled;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.onedata.portal.entity.DorisCluster;
+import com.onedata.portal.entity.MetadataSyncHistory;
 import com.onedata.portal.mapper.DorisClusterMapper;
 import com.onedata.portal.service.DorisMetadataSyncService;
 import com.onedata.portal.service.MetadataSyncHistoryService;
@@ -23,6 +24,7 @@ import java.util.List;
  * 说明：
  * - autoSync=1 且 status=active 的数据源才会参与调度
  * - lastSyncTime 用于计算下一次触发时间，并避免重复执行
+ * - 默认按表指纹增量同步，见 metadata-sync.incremental-enabled
  */
 @Slf4j
 @Component
@@ -95,9 +97,12 @@ public class DataSourceMetadataAutoSyncTask {
 
         updateLastSyncTime(cluster.getId(), now);
         LocalDateTime syncStartedAt = LocalDateTime.now();
+        MetadataSyncHistory running = metadataSyncHistoryService.start(cluster, "auto", "all", null, syncStartedAt);
         DorisMetadataSyncService.SyncResult syncResult = null;
         try {
-            syncResult = dorisMetadataSyncService.syncAllMetadata(cluster.getId());
+            // 定时同步按表指纹增量同步，并按配置间隔定期回退全量同步
+            syncResult = dorisMetadataSyncService.syncAllMetadata(cluster.getId(), true,
+                    metadataSyncHistoryService.progressListener(running));
             log.info("Auto metadata sync finished, datasource id={}, name={}", cluster.getId(), cluster.getClusterName());
         } catch (Exception e) {
             syncResult = new DorisMetadataSyncService.SyncResult();
@@ -106,7 +111,7 @@ public class DataSourceMetadataAutoSyncTask {
                     e);
         } finally {
             try {
-                metadataSyncHistoryService.record(cluster, "auto", "all", null, syncStartedAt, syncResult);
+                metadataSyncHistoryService.finish(running, cluster, "auto", "all", null, syncStartedAt, syncResult);
             } catch (Exception historyEx) {
                 log.error("Failed to record auto metadata sync history, datasource id={}, name={}",
                         cluster.getId(), cluster.getClusterName(), historyEx);
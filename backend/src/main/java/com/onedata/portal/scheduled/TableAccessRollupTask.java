@@ -0,0 +1,72 @@
+package com.onedata.portal.scheduled;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.onedata.portal.config.TableAccessProperties;
+import com.onedata.portal.entity.DorisCluster;
+import com.onedata.portal.mapper.DorisClusterMapper;
+import com.onedata.portal.service.TableAccessRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * 表访问统计汇总定时任务
+ *
+ * 说明：
+ * - 按 table-access.ingest-interval-ms 间隔，对 status=active 的 Doris 数据源增量汇总审计日志
+ * - 每天凌晨清理超过 table-access.retention-days 的日汇总
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableAccessRollupTask {
+
+    private final DorisClusterMapper dorisClusterMapper;
+    private final TableAccessRollupService tableAccessRollupService;
+    private final TableAccessProperties tableAccessProperties;
+
+    @Scheduled(initialDelay = 30_000, fixedDelayString = "${table-access.ingest-interval-ms:60000}")
+    public void ingest() {
+        if (!tableAccessProperties.isRollupEnabled()) {
+            return;
+        }
+        List<DorisCluster> clusters = dorisClusterMapper.selectList(
+                new LambdaQueryWrapper<DorisCluster>()
+                        .eq(DorisCluster::getStatus, "active"));
+        for (DorisCluster cluster : clusters) {
+            if (StringUtils.hasText(cluster.getSourceType()) && !"DORIS".equalsIgnoreCase(cluster.getSourceType())) {
+                continue;
+            }
+            try {
+                int rows = tableAccessRollupService.ingest(cluster.getId());
+                if (rows > 0) {
+                    log.info("Table access rollup ingested {} audit rows, datasource id={}, name={}", rows,
+                            cluster.getId(), cluster.getClusterName());
+                }
+            } catch (Exception e) {
+                log.error("Table access rollup failed for datasource id={}, name={}", cluster.getId(),
+                        cluster.getClusterName(), e);
+            }
+        }
+    }
+
+    /**
+     * 每天凌晨 03:45 清理过期日汇总
+     */
+    @Scheduled(cron = "0 45 3 * * ?")
+    public void cleanup() {
+        try {
+            int deleted = tableAccessRollupService.cleanup();
+            if (deleted > 0) {
+                log.info("Table access rollup cleanup completed, deleted={} retentionDays={}", deleted,
+                        tableAccessProperties.getRetentionDays());
+            }
+        } catch (Exception e) {
+            log.error("Table access rollup cleanup failed", e);
+        }
+    }
+}
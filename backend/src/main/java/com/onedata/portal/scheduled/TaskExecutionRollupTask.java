@@ -0,0 +1,34 @@
+package com.onedata.portal.scheduled;
+
+import com.onedata.portal.service.TaskExecutionRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 任务执行日汇总定时任务
+ *
+ * 说明：
+ * - 按 task-execution.statistics.rollup-interval-ms 间隔把已结束日期的执行记录重算到 task_execution_daily
+ * - 已汇总日期中更新过的执行记录（如状态迁移）所在日期一并重算
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskExecutionRollupTask {
+
+    private final TaskExecutionRollupService taskExecutionRollupService;
+
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${task-execution.statistics.rollup-interval-ms:600000}")
+    public void rollup() {
+        try {
+            int days = taskExecutionRollupService.rollup();
+            if (days > 0) {
+                log.info("Task execution rollup rebuilt {} days", days);
+            }
+        } catch (Exception e) {
+            log.error("Task execution rollup failed", e);
+        }
+    }
+}
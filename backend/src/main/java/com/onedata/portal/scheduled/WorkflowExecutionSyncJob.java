@@ -1,11 +1,10 @@
 package com.onedata.portal.scheduled;
 
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.onedata.portal.config.WorkflowInstanceSyncProperties;
 import com.onedata.portal.entity.DataWorkflow;
-import com.onedata.portal.dto.workflow.WorkflowInstanceSummary;
 import com.onedata.portal.mapper.DataWorkflowMapper;
-import com.onedata.portal.service.DolphinSchedulerService;
-import com.onedata.portal.service.WorkflowInstanceCacheService;
+import com.onedata.portal.service.WorkflowInstancePoller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -22,8 +21,8 @@ import java.util.List;
 public class WorkflowExecutionSyncJob {
 
     private final DataWorkflowMapper dataWorkflowMapper;
-    private final WorkflowInstanceCacheService cacheService;
-    private final DolphinSchedulerService dolphinSchedulerService;
+    private final WorkflowInstancePoller workflowInstancePoller;
+    private final WorkflowInstanceSyncProperties properties;
 
     @Scheduled(cron = "0 */5 * * * ?")
     public void syncRecentInstances() {
@@ -32,14 +31,12 @@ public class WorkflowExecutionSyncJob {
                 .eq(DataWorkflow::getStatus, "online")
                 .isNotNull(DataWorkflow::getWorkflowCode)
         );
-        for (DataWorkflow workflow : workflows) {
-            try {
-                List<WorkflowInstanceSummary> instances =
-                    dolphinSchedulerService.listWorkflowInstances(workflow.getWorkflowCode(), 10);
-                cacheService.replaceCache(workflow, instances);
-            } catch (Exception ex) {
-                log.warn("Failed to sync workflow {}: {}", workflow.getWorkflowName(), ex.getMessage());
-            }
-        }
+        long start = System.currentTimeMillis();
+        WorkflowInstancePoller.PollResult result = properties.isProjectMode()
+            ? workflowInstancePoller.ingestProject(workflows)
+            : workflowInstancePoller.poll(workflows);
+        log.info("Workflow instance sync finished: mode={}, workflows={}, changed={}, unchanged={}, failed={}, costMs={}",
+            properties.getMode(), workflows.size(), result.getChanged(), result.getUnchanged(), result.getFailed(),
+            System.currentTimeMillis() - start);
     }
 }
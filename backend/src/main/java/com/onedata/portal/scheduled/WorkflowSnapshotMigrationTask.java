@@ -0,0 +1,36 @@
+package com.onedata.portal.scheduled;
+
+import com.onedata.portal.service.WorkflowSnapshotStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作流版本快照转换定时任务
+ *
+ * 说明：
+ * - 按 workflow.snapshot-store.legacy-migration-interval-ms 间隔把 inline 存储的历史版本逐批转换为按块存储
+ * - 转换失败的版本跳过，不阻塞后续版本；一轮走完后从头重试失败的版本
+ * - 全部转换完成后每轮只执行一次空查询
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowSnapshotMigrationTask {
+
+    private final WorkflowSnapshotStore workflowSnapshotStore;
+
+    @Scheduled(initialDelay = 120_000,
+            fixedDelayString = "${workflow.snapshot-store.legacy-migration-interval-ms:60000}")
+    public void migrate() {
+        try {
+            int migrated = workflowSnapshotStore.migrateLegacy();
+            if (migrated > 0) {
+                log.info("Converted {} workflow version snapshots to chunked storage", migrated);
+            }
+        } catch (Exception e) {
+            log.error("Workflow snapshot migration failed", e);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.onedata.portal.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.onedata.portal.config.DashboardStatisticsProperties;
+import com.onedata.portal.dto.DashboardStatistics;
+import com.onedata.portal.dto.DashboardTableAccessSummary;
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.entity.InspectionIssue;
+import com.onedata.portal.entity.TaskExecutionLog;
+import com.onedata.portal.mapper.DataDomainMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.mapper.DataTaskMapper;
+import com.onedata.portal.mapper.InspectionIssueMapper;
+import com.onedata.portal.mapper.TaskExecutionLogMapper;
+import com.onedata.portal.util.BoundedLoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 控制台统计物化服务
+ * <p>
+ * 表、任务、域、执行记录、巡检问题五个分区的计数物化在内存快照中，请求直接读取快照。
+ * 对应表经 MyBatis 写入并提交后由 {@link com.onedata.portal.config.DashboardStatisticsChangeInterceptor}
+ * 标记分区变更，后台线程在首次变更后等待 refreshDelayMs，合并这段时间内的变更，只重算受影响的分区
+ * （每个分区一到两条 GROUP BY 查询）；定时全量对账兜底修正绕过 MyBatis 的写入。
+ * 表数量按数据源分区，表访问汇总按数据源缓存并后台刷新。
+ * <p>
+ * 快照保存在当前 JVM 内，只感知本实例的写入；其他实例的写入要等到下一次全量对账才会反映。
+ */
+@Slf4j
+@Service
+public class DashboardStatisticsService {
+
+    /**
+     * 物化分区，按来源表划分
+     */
+    public enum Section {
+        TABLES, TASKS, DOMAINS, EXECUTIONS, ISSUES
+    }
+
+    private static final Map<String, Section> MAPPER_SECTIONS;
+
+    static {
+        Map<String, Section> sections = new HashMap<>();
+        sections.put(DataTableMapper.class.getName(), Section.TABLES);
+        sections.put(DataTaskMapper.class.getName(), Section.TASKS);
+        sections.put(DataDomainMapper.class.getName(), Section.DOMAINS);
+        sections.put(TaskExecutionLogMapper.class.getName(), Section.EXECUTIONS);
+        sections.put(InspectionIssueMapper.class.getName(), Section.ISSUES);
+        MAPPER_SECTIONS = Collections.unmodifiableMap(sections);
+    }
+
+    private static final int HOT_WINDOW_DAYS = 30;
+    private static final int HOT_LIMIT = 10;
+    private static final int COLD_WINDOW_DAYS = 90;
+    private static final int COLD_LIMIT = 10;
+
+    private static final long ALL_CLUSTERS = -1L;
+
+    private final DataTableMapper dataTableMapper;
+    private final DataTaskMapper dataTaskMapper;
+    private final DataDomainMapper dataDomainMapper;
+    private final TaskExecutionLogMapper taskExecutionLogMapper;
+    private final InspectionIssueMapper inspectionIssueMapper;
+    private final DorisTableAccessService dorisTableAccessService;
+    private final DashboardStatisticsProperties properties;
+
+    private final ScheduledExecutorService refreshExecutor;
+    private final BoundedLoadingCache<Long, AccessSnapshot> accessCache;
+
+    private final Set<Section> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DashboardStatisticsService(DataTableMapper dataTableMapper,
+                                      DataTaskMapper dataTaskMapper,
+                                      DataDomainMapper dataDomainMapper,
+                                      TaskExecutionLogMapper taskExecutionLogMapper,
+                                      InspectionIssueMapper inspectionIssueMapper,
+                                      DorisTableAccessService dorisTableAccessService,
+                                      DashboardStatisticsProperties properties) {
+        this(dataTableMapper, dataTaskMapper, dataDomainMapper, taskExecutionLogMapper, inspectionIssueMapper,
+                dorisTableAccessService, properties, newRefreshExecutor());
+    }
+
+    DashboardStatisticsService(DataTableMapper dataTableMapper,
+                               DataTaskMapper dataTaskMapper,
+                               DataDomainMapper dataDomainMapper,
+                               TaskExecutionLogMapper taskExecutionLogMapper,
+                               InspectionIssueMapper inspectionIssueMapper,
+                               DorisTableAccessService dorisTableAccessService,
+                               DashboardStatisticsProperties properties,
+                               ScheduledExecutorService refreshExecutor) {
+        this.dataTableMapper = dataTableMapper;
+        this.dataTaskMapper = dataTaskMapper;
+        this.dataDomainMapper = dataDomainMapper;
+        this.taskExecutionLogMapper = taskExecutionLogMapper;
+        this.inspectionIssueMapper = inspectionIssueMapper;
+        this.dorisTableAccessService = dorisTableAccessService;
+        this.properties = properties;
+        this.refreshExecutor = refreshExecutor;
+        long ttlSeconds = Math.max(1L, properties.getAccessSummaryTtlSeconds());
+        long refreshSeconds = Math.max(1L, Math.min(properties.getAccessSummaryRefreshSeconds(), ttlSeconds));
+        this.accessCache = BoundedLoadingCache.<Long, AccessSnapshot>builder("dashboard-table-access")
+                .maximumSize(256)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds), refreshExecutor)
+                .build();
+    }
+
+    private static ScheduledExecutorService newRefreshExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stats-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 根据 MyBatis 语句 ID（mapper 全限定名 + 方法名）判断所属分区，无关语句返回 null
+     */
+    public static Section sectionOf(String statementId) {
+        if (statementId == null) {
+            return null;
+        }
+        int dot = statementId.lastIndexOf('.');
+        return dot > 0 ? MAPPER_SECTIONS.get(statementId.substring(0, dot)) : null;
+    }
+
+    /**
+     * 获取控制台统计数据；clusterId 为空时统计全部数据源
+     */
+    public DashboardStatistics getStatistics(Long clusterId) {
+        Snapshot current = properties.isMaterialized()
+                ? currentSnapshot()
+                : compute(EnumSet.allOf(Section.class), new Snapshot());
+        boolean dayRolled = !LocalDate.now().equals(current.executionDay);
+        if (dayRolled) {
+            // 跨天后今日计数归零，后台重算执行记录分区
+            markChanged(Section.EXECUTIONS);
+        }
+        AccessSnapshot access = loadAccessSummary(clusterId);
+        DashboardTableAccessSummary accessSummary = access.summary;
+
+        long totalTables = clusterId != null
+                ? current.tablesByCluster.getOrDefault(clusterId, 0L)
+                : current.totalTables;
+        double executionSuccessRate = 0.0;
+        if (current.totalExecutions > 0) {
+            executionSuccessRate = (current.successExecutions * 100.0) / current.totalExecutions;
+            executionSuccessRate = Math.round(executionSuccessRate * 100.0) / 100.0;
+        }
+        return DashboardStatistics.builder()
+                .totalTables(totalTables)
+                .totalTasks(current.totalTasks)
+                .totalDomains(current.totalDomains)
+                .totalExecutions(current.totalExecutions)
+                .successExecutions(current.successExecutions)
+                .failedExecutions(current.failedExecutions)
+                .runningExecutions(current.runningExecutions)
+                .executionSuccessRate(executionSuccessRate)
+                .openIssues(current.openIssues)
+                .criticalIssues(current.criticalIssues)
+                .todayExecutions(dayRolled ? 0L : current.todayExecutions)
+                .todaySuccessExecutions(dayRolled ? 0L : current.todaySuccessExecutions)
+                .todayFailedExecutions(dayRolled ? 0L : current.todayFailedExecutions)
+                .hotWindowDays(accessSummary.getHotWindowDays())
+                .coldWindowDays(accessSummary.getColdWindowDays())
+                .hotTables(accessSummary.getHotTables())
+                .longUnusedTables(accessSummary.getLongUnusedTables())
+                .dorisAuditEnabled(accessSummary.getDorisAuditEnabled())
+                .dorisAuditSource(accessSummary.getDorisAuditSource())
+                .tableAccessNote(accessSummary.getNote())
+                .refreshedAt(current.oldestRefresh())
+                .tableAccessRefreshedAt(access.loadedAt)
+                .refreshPending(dayRolled || !dirty.isEmpty())
+                .build();
+    }
+
+    /**
+     * 标记分区已变更，延迟 refreshDelayMs 后在后台合并重算；快照尚未建立时由首次读取全量计算
+     */
+    public void markChanged(Section section) {
+        if (section == null || !properties.isMaterialized()) {
+            return;
+        }
+        dirty.add(section);
+        if (snapshot != null) {
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * 全量重算所有分区，修正绕过 MyBatis 的写入；快照尚未建立时跳过
+     */
+    public void reconcile() {
+        if (!properties.isMaterialized() || snapshot == null) {
+            return;
+        }
+        Set<Section> all = EnumSet.allOf(Section.class);
+        dirty.removeAll(all);
+        refresh(all);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (refreshLock) {
+            if (snapshot == null) {
+                dirty.clear();
+                snapshot = compute(EnumSet.allOf(Section.class), new Snapshot());
+            }
+            return snapshot;
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.schedule(this::refreshDirty, Math.max(0L, properties.getRefreshDelayMs()),
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            refreshScheduled.set(false);
+            log.warn("Dashboard statistics refresh rejected, pending sections will be picked up by reconcile");
+        }
+    }
+
+    private void refreshDirty() {
+        // 先复位再取变更：重算期间的新变更会再排一次
+        refreshScheduled.set(false);
+        Set<Section> sections = EnumSet.noneOf(Section.class);
+        for (Section section : Section.values()) {
+            if (dirty.remove(section)) {
+                sections.add(section);
+            }
+        }
+        if (!sections.isEmpty()) {
+            refresh(sections);
+        }
+    }
+
+    private void refresh(Set<Section> sections) {
+        try {
+            synchronized (refreshLock) {
+                Snapshot base = snapshot;
+                if (base != null) {
+                    snapshot = compute(sections, base.copy());
+                }
+            }
+        } catch (RuntimeException e) {
+            // 失败的分区保留变更标记，等待下一次变更或对账重试
+            dirty.addAll(sections);
+            log.warn("Failed to refresh dashboard statistics {}: {}", sections, e.getMessage());
+        }
+    }
+
+    private Snapshot compute(Set<Section> sections, Snapshot target) {
+        LocalDateTime now = LocalDateTime.now();
+        if (sections.contains(Section.TABLES)) {
+            computeTables(target);
+        }
+        if (sections.contains(Section.TASKS)) {
+            target.totalTasks = dataTaskMapper.selectCount(null);
+        }
+        if (sections.contains(Section.DOMAINS)) {
+            target.totalDomains = dataDomainMapper.selectCount(null);
+        }
+        if (sections.contains(Section.EXECUTIONS)) {
+            computeExecutions(target, now.toLocalDate());
+        }
+        if (sections.contains(Section.ISSUES)) {
+            computeIssues(target);
+        }
+        for (Section section : sections) {
+            target.refreshedAt.put(section, now);
+        }
+        return target;
+    }
+
+    private void computeTables(Snapshot target) {
+        QueryWrapper<DataTable> wrapper = new QueryWrapper<>();
+        wrapper.select("cluster_id", "COUNT(*) AS cnt").groupBy("cluster_id");
+        Map<Long, Long> byCluster = new HashMap<>();
+        long total = 0L;
+        for (Map<String, Object> row : dataTableMapper.selectMaps(wrapper)) {
+            long count = toLong(row.get("cnt"));
+            total += count;
+            Object clusterId = row.get("cluster_id");
+            if (clusterId instanceof Number) {
+                byCluster.put(((Number) clusterId).longValue(), count);
+            }
+        }
+        target.tablesByCluster = Collections.unmodifiableMap(byCluster);
+        target.totalTables = total;
+    }
+
+    private void computeExecutions(Snapshot target, LocalDate today) {
+        QueryWrapper<TaskExecutionLog> allWrapper = new QueryWrapper<>();
+        allWrapper.select("status", "COUNT(*) AS cnt").groupBy("status");
+        Map<String, Long> all = countByKey(taskExecutionLogMapper.selectMaps(allWrapper), "status");
+
+        QueryWrapper<TaskExecutionLog> todayWrapper = new QueryWrapper<>();
+        todayWrapper.select("status", "COUNT(*) AS cnt")
+                .ge("start_time", LocalDateTime.of(today, LocalTime.MIN))
+                .le("start_time", LocalDateTime.of(today, LocalTime.MAX))
+                .groupBy("status");
+        Map<String, Long> todayCounts = countByKey(taskExecutionLogMapper.selectMaps(todayWrapper), "status");
+
+        target.totalExecutions = sum(all);
+        target.successExecutions = all.getOrDefault("success", 0L);
+        target.failedExecutions = all.getOrDefault("failed", 0L);
+        target.runningExecutions = all.getOrDefault("running", 0L);
+        target.todayExecutions = sum(todayCounts);
+        target.todaySuccessExecutions = todayCounts.getOrDefault("success", 0L);
+        target.todayFailedExecutions = todayCounts.getOrDefault("failed", 0L);
+        target.executionDay = today;
+    }
+
+    private void computeIssues(Snapshot target) {
+        try {
+            QueryWrapper<InspectionIssue> wrapper = new QueryWrapper<>();
+            wrapper.select("severity", "COUNT(*) AS cnt").eq("status", "open").groupBy("severity");
+            Map<String, Long> bySeverity = countByKey(inspectionIssueMapper.selectMaps(wrapper), "severity");
+            target.openIssues = sum(bySeverity);
+            target.criticalIssues = bySeverity.getOrDefault("critical", 0L);
+        } catch (Exception e) {
+            // 如果巡检表不存在或查询失败，使用默认值0
+            log.warn("Failed to query inspection issues: {}", e.getMessage());
+            target.openIssues = 0L;
+            target.criticalIssues = 0L;
+        }
+    }
+
+    private AccessSnapshot loadAccessSummary(Long clusterId) {
+        Supplier<AccessSnapshot> loader = () -> new AccessSnapshot(
+                dorisTableAccessService.getDashboardAccessSummary(clusterId, HOT_WINDOW_DAYS, HOT_LIMIT,
+                        COLD_WINDOW_DAYS, COLD_LIMIT),
+                LocalDateTime.now());
+        if (!properties.isMaterialized()) {
+            return loader.get();
+        }
+        return accessCache.get(clusterId != null ? clusterId : ALL_CLUSTERS, loader);
+    }
+
+    private static Map<String, Long> countByKey(List<Map<String, Object>> rows, String keyColumn) {
+        Map<String, Long> counts = new HashMap<>();
+        if (rows == null) {
+            return counts;
+        }
+        for (Map<String, Object> row : rows) {
+            Object key = row.get(keyColumn);
+            counts.merge(key != null ? String.valueOf(key) : "", toLong(row.get("cnt")), Long::sum);
+        }
+        return counts;
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        long total = 0L;
+        for (Long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * 计数快照，发布后不再修改；重算时复制后替换
+     */
+    private static final class Snapshot {
+        private Map<Long, Long> tablesByCluster = Collections.emptyMap();
+        private long totalTables;
+        private long totalTasks;
+        private long totalDomains;
+        private long totalExecutions;
+        private long successExecutions;
+        private long failedExecutions;
+        private long runningExecutions;
+        private long todayExecutions;
+        private long todaySuccessExecutions;
+        private long todayFailedExecutions;
+        private LocalDate executionDay;
+        private long openIssues;
+        private long criticalIssues;
+        private final Map<Section, LocalDateTime> refreshedAt = new EnumMap<>(Section.class);
+
+        private Snapshot copy() {
+            Snapshot copy = new Snapshot();
+            copy.tablesByCluster = tablesByCluster;
+            copy.totalTables = totalTables;
+            copy.totalTasks = totalTasks;
+            copy.totalDomains = totalDomains;
+            copy.totalExecutions = totalExecutions;
+            copy.successExecutions = successExecutions;
+            copy.failedExecutions = failedExecutions;
+            copy.runningExecutions = runningExecutions;
+            copy.todayExecutions = todayExecutions;
+            copy.todaySuccessExecutions = todaySuccessExecutions;
+            copy.todayFailedExecutions = todayFailedExecutions;
+            copy.executionDay = executionDay;
+            copy.openIssues = openIssues;
+            copy.criticalIssues = criticalIssues;
+            copy.refreshedAt.putAll(refreshedAt);
+            return copy;
+        }
+
+        private LocalDateTime oldestRefresh() {
+            LocalDateTime oldest = null;
+            for (LocalDateTime time : refreshedAt.values()) {
+                if (oldest == null || time.isBefore(oldest)) {
+                    oldest = time;
+                }
+            }
+            return oldest;
+        }
+    }
+
+    private static final class AccessSnapshot {
+        private final DashboardTableAccessSummary summary;
+        private final LocalDateTime loadedAt;
+
+        private AccessSnapshot(DashboardTableAccessSummary summary, LocalDateTime loadedAt) {
+            this.summary = summary;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.onedata.portal.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.DataExportJobProperties;
+import com.onedata.portal.context.UserContext;
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.DataExportJobRequest;
+import com.onedata.portal.entity.DataExportJob;
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.entity.MinioConfig;
+import com.onedata.portal.mapper.DataExportJobMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.util.TableNameUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 异步数据导出任务
+ * <p>
+ * 任务在有界线程池中运行，按分区拆分为多个分片并行写出 gzip 压缩的 CSV 临时文件，
+ * 每个文件写满后立即上传到 MinIO 并删除本地文件，导出过程不在堆内缓存结果数据。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataExportJobService {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_CANCELLED = "cancelled";
+
+    private static final String FORMAT_CSV_GZIP = "csv_gzip";
+    private static final int CANCEL_CHECK_INTERVAL = 1000;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final DataExportJobMapper dataExportJobMapper;
+    private final DataTableMapper dataTableMapper;
+    private final DataExportService dataExportService;
+    private final DorisConnectionService dorisConnectionService;
+    private final MinioConfigService minioConfigService;
+    private final MinioObjectStorageService minioObjectStorageService;
+    private final DataExportJobProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, JobProgress> activeJobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor jobExecutor;
+    private ThreadPoolExecutor partExecutor;
+
+    @PostConstruct
+    public void init() {
+        int workers = Math.max(1, properties.getWorkerThreads());
+        int partWriters = Math.max(1, properties.getPartWriterThreads());
+        jobExecutor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                namedThreadFactory("data-export-job-"), new ThreadPoolExecutor.AbortPolicy());
+        partExecutor = new ThreadPoolExecutor(partWriters, partWriters, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedThreadFactory("data-export-part-"));
+        recoverInterruptedJobs();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        activeJobs.values().forEach(progress -> progress.cancelled = true);
+        if (jobExecutor != null) {
+            jobExecutor.shutdownNow();
+        }
+        if (partExecutor != null) {
+            partExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 提交导出任务，立即返回任务记录
+     */
+    public DataExportJob submit(DataExportJobRequest request, String userId) {
+        DataTable table = dataTableMapper.selectById(request.getTableId());
+        if (table == null) {
+            throw new IllegalArgumentException("表不存在: " + request.getTableId());
+        }
+        // 库名与表名只取自已登记的表元数据，并在拼入 SQL 前校验
+        String[] qualified = resolveQualifiedName(table);
+        MinioConfig minioConfig = resolveMinioConfig(request.getMinioConfigId());
+
+        DataExportJob job = new DataExportJob();
+        job.setClusterId(request.getClusterId() != null ? request.getClusterId() : table.getClusterId());
+        job.setDatabaseName(TableNameUtils.requireSafeIdentifier(qualified[0], "数据库名称"));
+        job.setTableName(TableNameUtils.requireSafeIdentifier(qualified[1], "表名称"));
+        job.setFormat(FORMAT_CSV_GZIP);
+        job.setRowLimit(request.getLimit());
+        job.setMinioConfigId(minioConfig.getId());
+        job.setBucket(StringUtils.hasText(request.getBucket()) ? request.getBucket().trim() : properties.getBucket());
+        job.setObjectPrefix(trimSlashes(properties.getObjectPrefix()));
+        job.setStatus(STATUS_PENDING);
+        job.setPartCount(0);
+        job.setCompletedParts(0);
+        job.setRowCount(0L);
+        job.setByteCount(0L);
+        job.setCreatedBy(userId);
+        dataExportJobMapper.insert(job);
+
+        Long jobId = job.getId();
+        activeJobs.put(jobId, new JobProgress());
+        try {
+            jobExecutor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobId);
+            job.setStatus(STATUS_FAILED);
+            job.setErrorMessage("导出任务队列已满");
+            job.setFinishedAt(LocalDateTime.now());
+            dataExportJobMapper.updateById(job);
+            throw new RuntimeException("导出任务队列已满，请稍后重试");
+        }
+        log.info("Submitted data export job {} for {}.{}", jobId, job.getDatabaseName(), job.getTableName());
+        return job;
+    }
+
+    /**
+     * 获取任务详情，运行中的任务返回实时进度，成功的任务附带下载链接；只能查看本人提交的任务
+     */
+    public DataExportJob getJob(Long id, String userId) {
+        DataExportJob job = dataExportJobMapper.selectById(id);
+        if (job == null || !isOwner(job, userId)) {
+            return null;
+        }
+        JobProgress progress = activeJobs.get(id);
+        if (progress != null) {
+            applyProgress(job, progress);
+        }
+        if (STATUS_SUCCESS.equals(job.getStatus())) {
+            job.setDownloadUrls(buildDownloadUrls(job));
+        }
+        return job;
+    }
+
+    /**
+     * 分页查询本人提交的任务
+     */
+    public Page<DataExportJob> listJobs(String userId, Integer pageNum, Integer pageSize, String status) {
+        Page<DataExportJob> page = new Page<>(pageNum == null ? 1 : pageNum, pageSize == null ? 10 : pageSize);
+        if (!StringUtils.hasText(userId)) {
+            // 无法确定调用者时不返回任何任务，与 getJob/cancel 保持一致
+            return page;
+        }
+        LambdaQueryWrapper<DataExportJob> wrapper = new LambdaQueryWrapper<DataExportJob>()
+                .eq(DataExportJob::getCreatedBy, userId)
+                .eq(StringUtils.hasText(status), DataExportJob::getStatus, status)
+                .orderByDesc(DataExportJob::getId);
+        Page<DataExportJob> result = dataExportJobMapper.selectPage(page, wrapper);
+        for (DataExportJob job : result.getRecords()) {
+            JobProgress progress = activeJobs.get(job.getId());
+            if (progress != null) {
+                applyProgress(job, progress);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 取消本人提交的排队或运行中的任务
+     */
+    public boolean cancel(Long id, String userId) {
+        JobProgress progress = activeJobs.get(id);
+        if (progress == null) {
+            return false;
+        }
+        DataExportJob job = dataExportJobMapper.selectById(id);
+        if (job == null || !isOwner(job, userId)) {
+            return false;
+        }
+        progress.cancelled = true;
+        return true;
+    }
+
+    private boolean isOwner(DataExportJob job, String userId) {
+        return StringUtils.hasText(userId) && Objects.equals(job.getCreatedBy(), userId);
+    }
+
+    void runJob(Long jobId) {
+        JobProgress progress = activeJobs.computeIfAbsent(jobId, id -> new JobProgress());
+        DataExportJob job = dataExportJobMapper.selectById(jobId);
+        // 导出线程沿用提交者身份，Doris 连接使用其映射的凭据而不是集群默认账号
+        if (job != null && StringUtils.hasText(job.getCreatedBy())) {
+            UserContextHolder.setContext(new UserContext(job.getCreatedBy(), null, null));
+        }
+        Path workDir = null;
+        try {
+            if (job == null) {
+                return;
+            }
+            if (progress.cancelled) {
+                finish(job, progress, STATUS_CANCELLED, null);
+                return;
+            }
+            MinioConfig minioConfig = minioConfigService.getEnabledById(job.getMinioConfigId());
+            if (minioConfig == null) {
+                throw new IllegalStateException("MinIO 环境不存在: " + job.getMinioConfigId());
+            }
+
+            // 全表导出时按分区拆分并行写出；限定行数时只能整体顺序读取
+            List<String> partitions = job.getRowLimit() == null
+                    ? dorisConnectionService.getPartitionNames(job.getClusterId(), job.getDatabaseName(), job.getTableName())
+                    : Collections.emptyList();
+            List<String> targets = partitions.isEmpty() ? Collections.singletonList(null) : partitions;
+
+            job.setStatus(STATUS_RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job.setPartCount(targets.size());
+            job.setObjectPrefix(job.getObjectPrefix() + "/" + jobId);
+            dataExportJobMapper.updateById(job);
+
+            workDir = Files.createDirectories(tempRoot().resolve("job-" + jobId));
+            List<Future<?>> futures = new ArrayList<>(targets.size());
+            for (int i = 0; i < targets.size(); i++) {
+                String partition = targets.get(i);
+                int partIndex = i;
+                Path dir = workDir;
+                futures.add(partExecutor.submit(UserContextHolder.wrap(() -> {
+                    writePart(job, minioConfig, partition, partIndex, dir, progress);
+                    return null;
+                })));
+            }
+            awaitParts(futures, progress);
+            finish(job, progress, progress.cancelled ? STATUS_CANCELLED : STATUS_SUCCESS, null);
+            log.info("Data export job {} finished: {} rows, {} bytes, {} objects",
+                    jobId, progress.rows.get(), progress.bytes.get(), progress.objectKeys.size());
+        } catch (Exception e) {
+            if (progress.cancelled) {
+                log.info("Data export job {} cancelled", jobId);
+                finish(job, progress, STATUS_CANCELLED, null);
+            } else {
+                log.error("Data export job {} failed", jobId, e);
+                finish(job, progress, STATUS_FAILED, e.getMessage());
+            }
+        } finally {
+            activeJobs.remove(jobId);
+            deleteQuietly(workDir);
+            UserContextHolder.clear();
+        }
+    }
+
+    private void awaitParts(List<Future<?>> futures, JobProgress progress) throws Exception {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            // 任一分片失败即停止其余分片
+            progress.cancelledByFailure = true;
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.cancelled = true;
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    private void writePart(DataExportJob job, MinioConfig minioConfig, String partition, int partIndex,
+                           Path workDir, JobProgress progress) {
+        long maxRowsPerPart = Math.max(1L, properties.getMaxRowsPerPart());
+        dataExportService.streamTableData(job.getClusterId(), job.getDatabaseName(), job.getTableName(),
+                partition, job.getRowLimit(), rs -> {
+                    int columnCount = rs.getMetaData().getColumnCount();
+                    PartFile part = null;
+                    int fileIndex = 0;
+                    long rowsInFile = 0;
+                    try {
+                        while (rs.next()) {
+                            if (part == null) {
+                                part = openPart(workDir, partIndex, fileIndex++, progress);
+                                dataExportService.writeCsvHeader(rs.getMetaData(), part.writer);
+                            }
+                            dataExportService.writeCsvRow(rs, columnCount, part.writer);
+                            rowsInFile++;
+                            if (progress.rows.incrementAndGet() % CANCEL_CHECK_INTERVAL == 0) {
+                                checkCancelled(progress);
+                            }
+                            if (rowsInFile >= maxRowsPerPart) {
+                                uploadPart(job, minioConfig, part, progress);
+                                part = null;
+                                rowsInFile = 0;
+                            }
+                        }
+                        // 空表也保留一个只有表头的文件
+                        if (part == null && fileIndex == 0 && partIndex == 0) {
+                            part = openPart(workDir, partIndex, fileIndex, progress);
+                            dataExportService.writeCsvHeader(rs.getMetaData(), part.writer);
+                        }
+                        if (part != null) {
+                            checkCancelled(progress);
+                            uploadPart(job, minioConfig, part, progress);
+                            part = null;
+                        }
+                    } finally {
+                        if (part != null) {
+                            part.discard();
+                        }
+                    }
+                });
+        progress.completedParts.incrementAndGet();
+    }
+
+    private PartFile openPart(Path workDir, int partIndex, int fileIndex, JobProgress progress) throws IOException {
+        Path file = workDir.resolve(String.format("part-%03d-%05d.csv.gz", partIndex, fileIndex));
+        OutputStream out = new CountingOutputStream(Files.newOutputStream(file), progress.bytes);
+        Writer writer = dataExportService.openCsvWriter(new GZIPOutputStream(out, GZIP_BUFFER_SIZE));
+        return new PartFile(file, writer);
+    }
+
+    private void uploadPart(DataExportJob job, MinioConfig minioConfig, PartFile part, JobProgress progress)
+            throws IOException {
+        part.writer.close();
+        String objectKey = job.getObjectPrefix() + "/" + part.file.getFileName();
+        minioObjectStorageService.putObject(minioConfig, job.getBucket(), objectKey, part.file, "application/gzip");
+        progress.objectKeys.add(objectKey);
+        Files.deleteIfExists(part.file);
+    }
+
+    private void checkCancelled(JobProgress progress) {
+        if (progress.cancelled || progress.cancelledByFailure || Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("导出任务已取消");
+        }
+    }
+
+    private void finish(DataExportJob job, JobProgress progress, String status, String error) {
+        if (job == null) {
+            return;
+        }
+        applyProgress(job, progress);
+        job.setStatus(status);
+        job.setObjectKeys(toJson(sortedKeys(progress)));
+        job.setErrorMessage(truncate(error));
+        job.setFinishedAt(LocalDateTime.now());
+        dataExportJobMapper.updateById(job);
+    }
+
+    private void applyProgress(DataExportJob job, JobProgress progress) {
+        job.setRowCount(progress.rows.get());
+        job.setByteCount(progress.bytes.get());
+        job.setCompletedParts(progress.completedParts.get());
+    }
+
+    private List<String> buildDownloadUrls(DataExportJob job) {
+        List<String> keys = parseKeys(job.getObjectKeys());
+        if (keys.isEmpty()) {
+            return keys;
+        }
+        MinioConfig minioConfig = minioConfigService.getById(job.getMinioConfigId());
+        if (minioConfig == null) {
+            return Collections.emptyList();
+        }
+        Duration expiry = Duration.ofSeconds(Math.max(60L, properties.getDownloadUrlExpireSeconds()));
+        return keys.stream()
+                .map(key -> minioObjectStorageService.presignGetUrl(minioConfig, job.getBucket(), key, expiry))
+                .collect(Collectors.toList());
+    }
+
+    private String[] resolveQualifiedName(DataTable table) {
+        String tableName = table.getTableName();
+        if (StringUtils.hasText(table.getDbName())) {
+            return new String[] {table.getDbName(),
+                    tableName.contains(".") ? tableName.split("\\.", 2)[1] : tableName};
+        }
+        if (tableName != null && tableName.contains(".")) {
+            return tableName.split("\\.", 2);
+        }
+        throw new IllegalArgumentException("表未配置数据库: " + table.getId());
+    }
+
+    private MinioConfig resolveMinioConfig(Long minioConfigId) {
+        if (minioConfigId != null) {
+            MinioConfig config = minioConfigService.getEnabledById(minioConfigId);
+            if (config == null) {
+                throw new IllegalArgumentException("MinIO 环境不存在: " + minioConfigId);
+            }
+            return config;
+        }
+        return minioConfigService.listAll("active").stream()
+                .max(Comparator.comparing(cfg -> cfg.getIsDefault() != null && cfg.getIsDefault() == 1))
+                .orElseThrow(() -> new IllegalArgumentException("未配置可用的 MinIO 环境"));
+    }
+
+    /**
+     * 服务重启时仍处于排队/运行状态的任务已无法继续，标记为失败
+     */
+    private void recoverInterruptedJobs() {
+        try {
+            dataExportJobMapper.update(null, new LambdaUpdateWrapper<DataExportJob>()
+                    .in(DataExportJob::getStatus, Arrays.asList(STATUS_PENDING, STATUS_RUNNING))
+                    .set(DataExportJob::getStatus, STATUS_FAILED)
+                    .set(DataExportJob::getErrorMessage, "服务重启，导出任务中断")
+                    .set(DataExportJob::getFinishedAt, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Failed to recover interrupted export jobs: {}", e.getMessage());
+        }
+    }
+
+    private Path tempRoot() {
+        if (StringUtils.hasText(properties.getTempDir())) {
+            return Paths.get(properties.getTempDir());
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "opendataworks-export");
+    }
+
+    private List<String> sortedKeys(JobProgress progress) {
+        List<String> keys = new ArrayList<>(progress.objectKeys);
+        Collections.sort(keys);
+        return keys;
+    }
+
+    private String toJson(List<String> keys) {
+        try {
+            return objectMapper.writeValueAsString(keys);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> parseKeys(String json) {
+        if (!StringUtils.hasText(json)) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            log.warn("Invalid export object keys: {}", json);
+            return Collections.emptyList();
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private String trimSlashes(String value) {
+        String result = value == null ? "" : value.trim();
+        while (result.startsWith("/")) {
+            result = result.substring(1);
+        }
+        while (result.endsWith("/")) {
+            result = result.substring(0, result.length() - 1);
+        }
+        return result.isEmpty() ? "exports" : result;
+    }
+
+    private void deleteQuietly(Path dir) {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete export temp file {}", path);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to clean export temp dir {}", dir);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class JobProgress {
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicInteger completedParts = new AtomicInteger();
+        private final Queue<String> objectKeys = new ConcurrentLinkedQueue<>();
+        private volatile boolean cancelled;
+        private volatile boolean cancelledByFailure;
+    }
+
+    private static class PartFile {
+        private final Path file;
+        private final Writer writer;
+
+        private PartFile(Path file, Writer writer) {
+            this.file = file;
+            this.writer = writer;
+        }
+
+        private void discard() {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // 丢弃未完成的分片
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 由任务结束时的目录清理兜底
+            }
+        }
+    }
+
+    /**
+     * 统计写入底层文件的压缩后字节数
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong counter;
+
+        private CountingOutputStream(OutputStream out, AtomicLong counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            counter.addAndGet(len);
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package com.onedata.portal.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.util.TableNameUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * 数据导出服务
@@ -28,101 +39,215 @@ public class DataExportService {
     private final DorisConnectionService dorisConnectionService;
     private final ObjectMapper objectMapper;
 
+    /** 单次导出的最大行数 */
+    private static final int MAX_EXPORT_ROWS = 1_000_000;
+    /** SXSSF 在内存中保留的行数，超出部分写入临时文件 */
+    private static final int EXCEL_ROW_ACCESS_WINDOW = 100;
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
-     * 导出为CSV格式
+     * 导出为CSV格式，逐行写入输出流
      */
-    public byte[] exportToCsv(Long clusterId, String database, String tableName, int limit) {
-        List<Map<String, Object>> data = dorisConnectionService.previewTableData(clusterId, database, tableName, limit);
+    public void exportToCsv(Long clusterId, String database, String tableName, int limit, OutputStream out) {
+        streamTableData(clusterId, database, tableName, limit, rs -> {
+            Writer writer = openCsvWriter(out);
+            int columnCount = writeCsvHeader(rs.getMetaData(), writer);
+            while (rs.next()) {
+                writeCsvRow(rs, columnCount, writer);
+            }
+            writer.flush();
+        });
+    }
 
-        if (data.isEmpty()) {
-            return new byte[0];
-        }
+    /**
+     * 导出为Excel格式（SXSSF 滑动窗口，仅保留最近的行在内存中）
+     */
+    public void exportToExcel(Long clusterId, String database, String tableName, int limit, OutputStream out) {
+        streamTableData(clusterId, database, tableName, limit, rs -> {
+            SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_ACCESS_WINDOW);
+            workbook.setCompressTempFiles(true);
+            try {
+                SXSSFSheet sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(tableName));
+                sheet.trackAllColumnsForAutoSizing();
+
+                // 创建表头样式
+                CellStyle headerStyle = createHeaderStyle(workbook);
+                CellStyle dateStyle = createDateStyle(workbook);
+                CellStyle dateTimeStyle = createDateTimeStyle(workbook);
+
+                // 写入表头
+                int columnCount = rs.getMetaData().getColumnCount();
+                Row headerRow = sheet.createRow(0);
+                for (int i = 0; i < columnCount; i++) {
+                    Cell cell = headerRow.createCell(i);
+                    cell.setCellValue(rs.getMetaData().getColumnLabel(i + 1));
+                    cell.setCellStyle(headerStyle);
+                }
 
-        StringBuilder csv = new StringBuilder();
-
-        // 写入表头
-        List<String> columns = new ArrayList<>(data.get(0).keySet());
-        csv.append(String.join(",", columns.stream()
-                .map(this::escapeCsvValue)
-                .toArray(String[]::new)))
-           .append("\n");
-
-        // 写入数据行
-        for (Map<String, Object> row : data) {
-            csv.append(String.join(",", columns.stream()
-                    .map(col -> escapeCsvValue(formatValue(row.get(col))))
-                    .toArray(String[]::new)))
-               .append("\n");
-        }
+                // 写入数据行，超出 Excel 单表行数上限时截断
+                int maxRows = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+                int rowIndex = 0;
+                while (rowIndex < maxRows && rs.next()) {
+                    rowIndex++;
+                    Row row = sheet.createRow(rowIndex);
+                    for (int j = 0; j < columnCount; j++) {
+                        setCellValue(row.createCell(j), rs.getObject(j + 1), dateStyle, dateTimeStyle);
+                    }
+                    if (rowIndex == EXCEL_ROW_ACCESS_WINDOW) {
+                        autoSizeColumns(sheet, columnCount);
+                    }
+                }
+                if (rowIndex < EXCEL_ROW_ACCESS_WINDOW) {
+                    autoSizeColumns(sheet, columnCount);
+                }
 
-        return csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                workbook.write(out);
+                out.flush();
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
+        });
     }
 
     /**
-     * 导出为Excel格式
+     * 导出为JSON格式，逐行写入对象数组
      */
-    public byte[] exportToExcel(Long clusterId, String database, String tableName, int limit) throws IOException {
-        List<Map<String, Object>> data = dorisConnectionService.previewTableData(clusterId, database, tableName, limit);
-
-        if (data.isEmpty()) {
-            return new byte[0];
-        }
+    public void exportToJson(Long clusterId, String database, String tableName, int limit, OutputStream out) {
+        streamTableData(clusterId, database, tableName, limit, rs -> {
+            JsonGenerator generator = objectMapper.createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.useDefaultPrettyPrinter();
+
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] columns = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = metaData.getColumnLabel(i + 1);
+            }
 
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            generator.writeStartArray();
+            while (rs.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < columnCount; i++) {
+                    generator.writeFieldName(columns[i]);
+                    generator.writeObject(rs.getObject(i + 1));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.close();
+        });
+    }
 
-            Sheet sheet = workbook.createSheet(tableName);
+    /**
+     * 以 UTF-8 缓冲 Writer 包装输出流
+     */
+    public Writer openCsvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITER_BUFFER_SIZE);
+    }
 
-            // 创建表头样式
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
-            CellStyle dateTimeStyle = createDateTimeStyle(workbook);
+    /**
+     * 写入 CSV 表头，返回列数
+     */
+    public int writeCsvHeader(ResultSetMetaData metaData, Writer writer) throws SQLException, IOException {
+        int columnCount = metaData.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            writer.write(escapeCsvValue(metaData.getColumnLabel(i)));
+        }
+        writer.write('\n');
+        return columnCount;
+    }
 
-            // 写入表头
-            List<String> columns = new ArrayList<>(data.get(0).keySet());
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < columns.size(); i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns.get(i));
-                cell.setCellStyle(headerStyle);
+    /**
+     * 写入结果集当前行
+     */
+    public void writeCsvRow(ResultSet rs, int columnCount, Writer writer) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                writer.write(',');
             }
+            writer.write(escapeCsvValue(formatValue(rs.getObject(i))));
+        }
+        writer.write('\n');
+    }
 
-            // 写入数据行
-            for (int i = 0; i < data.size(); i++) {
-                Row row = sheet.createRow(i + 1);
-                Map<String, Object> rowData = data.get(i);
+    private void streamTableData(Long clusterId, String database, String tableName, int limit,
+                                 ResultSetWriter writer) {
+        streamTableData(clusterId, database, tableName, null, (long) Math.max(1, Math.min(limit, MAX_EXPORT_ROWS)), writer);
+    }
 
-                for (int j = 0; j < columns.size(); j++) {
-                    Cell cell = row.createCell(j);
-                    Object value = rowData.get(columns.get(j));
-                    setCellValue(cell, value, dateStyle, dateTimeStyle);
-                }
+    /**
+     * 以只进、流式读取的方式查询表数据（可限定分区与行数）并交给写出器逐行消费
+     */
+    public void streamTableData(Long clusterId, String database, String tableName, String partition, Long limit,
+                                ResultSetWriter writer) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM `")
+                .append(TableNameUtils.requireSafeIdentifier(database, "数据库名称")).append("`.`")
+                .append(TableNameUtils.requireSafeIdentifier(tableName, "表名称")).append('`');
+        if (partition != null) {
+            if (partition.indexOf('`') >= 0) {
+                throw new IllegalArgumentException("分区名称非法: " + partition);
             }
+            sql.append(" PARTITION (`").append(partition).append("`)");
+        }
+        if (limit != null) {
+            sql.append(" LIMIT ").append(limit);
+        }
 
-            // 自动调整列宽
-            for (int i = 0; i < columns.size(); i++) {
-                sheet.autoSizeColumn(i);
-                // 设置最大列宽
-                if (sheet.getColumnWidth(i) > 15000) {
-                    sheet.setColumnWidth(i, 15000);
+        try (Connection connection = dorisConnectionService.getConnection(clusterId, database);
+             Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // MySQL 协议驱动仅在 fetchSize 为 Integer.MIN_VALUE 时逐行拉取，否则会缓存完整结果集
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(sql.toString())) {
+                try {
+                    writer.write(rs);
+                } catch (IOException | RuntimeException e) {
+                    // 中途失败时先终止查询，避免关闭流式结果集时读完剩余行
+                    cancelQuietly(stmt);
+                    throw e;
                 }
             }
+        } catch (SQLException e) {
+            log.error("Failed to export data for {}.{}", database, tableName, e);
+            throw new RuntimeException("导出表数据失败: " + e.getMessage(), e);
+        } catch (IOException e) {
+            log.warn("Export of {}.{} aborted while writing: {}", database, tableName, e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            workbook.write(out);
-            return out.toByteArray();
+    private void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            log.debug("Failed to cancel export statement: {}", e.getMessage());
         }
     }
 
     /**
-     * 导出为JSON格式
+     * 按已写入的首批数据行估算列宽，之后不再跟踪以避免逐行计算字体宽度
      */
-    public byte[] exportToJson(Long clusterId, String database, String tableName, int limit) throws IOException {
-        List<Map<String, Object>> data = dorisConnectionService.previewTableData(clusterId, database, tableName, limit);
-        return objectMapper.writerWithDefaultPrettyPrinter()
-                .writeValueAsBytes(data);
+    private void autoSizeColumns(SXSSFSheet sheet, int columnCount) {
+        for (int i = 0; i < columnCount; i++) {
+            sheet.autoSizeColumn(i);
+            // 设置最大列宽
+            if (sheet.getColumnWidth(i) > 15000) {
+                sheet.setColumnWidth(i, 15000);
+            }
+        }
+        sheet.untrackAllColumnsForAutoSizing();
+    }
+
+    @FunctionalInterface
+    public interface ResultSetWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
     }
 
     /**
@@ -134,7 +259,7 @@ public class DataExportService {
         }
 
         // 如果包含逗号、引号或换行符，需要用引号包围并转义引号
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
             return "\"" + value.replace("\"", "\"\"") + "\"";
         }
 
@@ -2,8 +2,10 @@ package com.onedata.portal.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.dto.ColumnarResultSet;
 import com.onedata.portal.dto.QueryPreview;
 import com.onedata.portal.dto.SqlAnalyzeRequest;
 import com.onedata.portal.dto.SqlAnalyzeResponse;
@@ -33,18 +35,18 @@ import org.springframework.util.StringUtils;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.sql.Connection;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -147,6 +149,183 @@ public class DataQueryService {
         }
     }
 
+    /**
+     * 语句结果输出：缓冲模式收集为行数据，流式模式直接写出到客户端。
+     */
+    private interface QueryResultHandler {
+
+        boolean isStreaming();
+
+        void onColumns(SqlQueryResultSet resultSet);
+
+        void onRow(SqlQueryResultSet resultSet, ResultSet row) throws SQLException;
+
+        void onResult(SqlQueryResultSet resultSet);
+    }
+
+    private static class BufferedResultHandler implements QueryResultHandler {
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void onColumns(SqlQueryResultSet resultSet) {
+            // 列信息已记录在结果集中
+        }
+
+        @Override
+        public void onRow(SqlQueryResultSet resultSet, ResultSet row) throws SQLException {
+            resultSet.getRows().appendRow(row);
+        }
+
+        @Override
+        public void onResult(SqlQueryResultSet resultSet) {
+            // 结果集已由调用方收集
+        }
+    }
+
+    /**
+     * NDJSON 流式输出，行数据按批次写出后即释放；仅保留首个结果集的前 PREVIEW_LIMIT 行用于查询历史。
+     */
+    private static class StreamingResultHandler implements QueryResultHandler {
+        private static final int ROWS_PER_FRAME = 200;
+
+        private final JsonGenerator generator;
+        private boolean started;
+        private int pendingRows;
+
+        private StreamingResultHandler(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private boolean isStarted() {
+            return started;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+
+        @Override
+        public void onColumns(SqlQueryResultSet resultSet) {
+            try {
+                startFrame("columns", resultSet);
+                generator.writeObjectField("columns", resultSet.getColumns());
+                endFrame();
+            } catch (IOException e) {
+                throw new ClientAbortedException(e);
+            }
+        }
+
+        @Override
+        public void onRow(SqlQueryResultSet resultSet, ResultSet row) throws SQLException {
+            ColumnarResultSet preview = resultSet.getRows();
+            if (resultSet.getIndex() != null && resultSet.getIndex() == 1 && preview.getRowCount() < PREVIEW_LIMIT) {
+                preview.appendRow(row);
+            }
+            try {
+                if (pendingRows == 0) {
+                    startFrame("rows", resultSet);
+                    generator.writeArrayFieldStart("rows");
+                }
+                generator.writeStartArray();
+                int columnCount = resultSet.getColumns().size();
+                for (int i = 1; i <= columnCount; i++) {
+                    generator.writeObject(row.getObject(i));
+                }
+                generator.writeEndArray();
+                pendingRows++;
+                if (pendingRows >= ROWS_PER_FRAME) {
+                    closeRowsFrame();
+                }
+            } catch (IOException e) {
+                throw new ClientAbortedException(e);
+            }
+        }
+
+        @Override
+        public void onResult(SqlQueryResultSet resultSet) {
+            try {
+                closeRowsFrame();
+                startFrame("result", resultSet);
+                generator.writeStringField("status", resultSet.getStatus());
+                generator.writeStringField("resultType", resultSet.getResultType());
+                generator.writeObjectField("previewRowCount", resultSet.getPreviewRowCount());
+                generator.writeBooleanField("hasMore", resultSet.isHasMore());
+                generator.writeObjectField("affectedRows", resultSet.getAffectedRows());
+                generator.writeStringField("message", resultSet.getMessage());
+                generator.writeStringField("sqlSnippet", resultSet.getSqlSnippet());
+                generator.writeObjectField("durationMs", resultSet.getDurationMs());
+                endFrame();
+            } catch (IOException e) {
+                throw new ClientAbortedException(e);
+            }
+        }
+
+        private void writeDone(SqlQueryResponse response) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "done");
+            generator.writeNumberField("resultSetCount", response.getResultSetCount());
+            generator.writeBooleanField("cancelled", response.isCancelled());
+            generator.writeStringField("message", response.getMessage());
+            generator.writeObjectField("durationMs", response.getDurationMs());
+            generator.writeObjectField("historyId", response.getHistoryId());
+            generator.writeObjectField("executedAt", response.getExecutedAt());
+            endFrame();
+        }
+
+        private void writeError(String message) throws IOException {
+            closeRowsFrame();
+            generator.writeStartObject();
+            generator.writeStringField("type", "error");
+            generator.writeStringField("message", message);
+            endFrame();
+        }
+
+        private void startFrame(String type, SqlQueryResultSet resultSet) throws IOException {
+            started = true;
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeObjectField("index", resultSet.getIndex());
+            generator.writeObjectField("statementIndex", resultSet.getStatementIndex());
+        }
+
+        private void endFrame() throws IOException {
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        private void closeRowsFrame() throws IOException {
+            if (pendingRows == 0) {
+                return;
+            }
+            pendingRows = 0;
+            generator.writeEndArray();
+            endFrame();
+        }
+    }
+
+    /**
+     * 客户端断开流式连接
+     */
+    private static class ClientAbortedException extends RuntimeException {
+        private ClientAbortedException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    @Data
+    private static class QueryOutcome {
+        private List<SqlQueryResultSet> resultSets;
+        private boolean cancelled;
+        private boolean clientAborted;
+        private long durationMs;
+    }
+
     @Data
     private static class AnalyzeBundle {
         private List<String> statements;
@@ -281,6 +460,39 @@ public class DataQueryService {
      * 执行查询
      */
     public SqlQueryResponse executeQuery(SqlQueryRequest request) {
+        QueryOutcome outcome = runStatements(request, new BufferedResultHandler());
+        return buildResponse(request, outcome);
+    }
+
+    /**
+     * 流式执行查询：按 NDJSON 帧逐行写出结果，不在内存中保留完整结果集。
+     * <p>
+     * 帧类型：columns（列头）、rows（行数组批次）、result（单语句结果）、done（执行汇总）、error（执行异常）。
+     */
+    public void streamQuery(SqlQueryRequest request, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        StreamingResultHandler handler = new StreamingResultHandler(generator);
+        QueryOutcome outcome;
+        try {
+            outcome = runStatements(request, handler);
+        } catch (RuntimeException e) {
+            // 尚未写出任何帧时直接抛出，由全局异常处理返回普通错误响应
+            if (!handler.isStarted()) {
+                throw e;
+            }
+            handler.writeError(e.getMessage());
+            generator.close();
+            return;
+        }
+        if (!outcome.isClientAborted()) {
+            handler.writeDone(buildResponse(request, outcome));
+            generator.close();
+        }
+    }
+
+    private QueryOutcome runStatements(SqlQueryRequest request, QueryResultHandler handler) {
         if (!StringUtils.hasText(request.getDatabase())) {
             throw new RuntimeException("数据库不能为空");
         }
@@ -315,7 +527,7 @@ public class DataQueryService {
 
         List<SqlQueryResultSet> resultSets = new ArrayList<>();
         boolean cancelled = false;
-        String message;
+        boolean clientAborted = false;
 
         String clientQueryId = request.getClientQueryId();
         String runningKey = StringUtils.hasText(userId) && StringUtils.hasText(clientQueryId)
@@ -341,6 +553,10 @@ public class DataQueryService {
                 log.debug("JDBC driver does not support query timeout, fallback to socketTimeout only", e);
             }
             statement.setMaxRows(limit + 1);
+            if (handler.isStreaming()) {
+                // MySQL 协议驱动的流式读取模式：逐行从网络读取，不在驱动内缓存完整结果
+                statement.setFetchSize(Integer.MIN_VALUE);
+            }
 
             Integer haltIndex = null;
             String skipReason = null;
@@ -357,7 +573,7 @@ public class DataQueryService {
                 }
 
                 if (analyzed.isBlocked()) {
-                    addControlResult(resultSets, analyzed, BLOCKED, BLOCKED_STATUS, analyzed.getBlockedReason(), 0L);
+                    addControlResult(resultSets, handler, analyzed, BLOCKED, BLOCKED_STATUS, analyzed.getBlockedReason(), 0L);
                     haltIndex = analyzed.getStatementIndex();
                     skipReason = "前序语句被阻断，后续语句未执行";
                     break;
@@ -367,7 +583,7 @@ public class DataQueryService {
                     SqlQueryRequest.SqlConfirmation confirmation = confirmationMap.get(analyzed.getStatementIndex());
                     String confirmError = validateConfirmation(confirmation, analyzed, request, userId);
                     if (StringUtils.hasText(confirmError)) {
-                        addControlResult(resultSets, analyzed, BLOCKED, BLOCKED_STATUS, confirmError, 0L);
+                        addControlResult(resultSets, handler, analyzed, BLOCKED, BLOCKED_STATUS, confirmError, 0L);
                         haltIndex = analyzed.getStatementIndex();
                         skipReason = "前序语句未通过强确认，后续语句未执行";
                         break;
@@ -375,11 +591,12 @@ public class DataQueryService {
                 }
 
                 long statementStart = System.currentTimeMillis();
+                SqlQueryResultSet resultSet = new SqlQueryResultSet();
+                resultSet.setIndex(resultSets.size() + 1);
+                resultSet.setStatementIndex(analyzed.getStatementIndex());
+                resultSet.setSqlSnippet(analyzed.getSqlSnippet());
                 try {
-                    SqlQueryResultSet resultSet = executeStatement(statement, sql, limit);
-                    resultSet.setIndex(resultSets.size() + 1);
-                    resultSet.setStatementIndex(analyzed.getStatementIndex());
-                    resultSet.setSqlSnippet(analyzed.getSqlSnippet());
+                    executeStatement(statement, sql, limit, resultSet, handler);
                     resultSet.setStatus(SUCCESS_STATUS);
                     resultSet.setDurationMs(System.currentTimeMillis() - statementStart);
                     if (!StringUtils.hasText(resultSet.getMessage())) {
@@ -390,16 +607,17 @@ public class DataQueryService {
                         }
                     }
                     resultSets.add(resultSet);
+                    handler.onResult(resultSet);
                 } catch (SQLException e) {
                     if (runningQuery != null && runningQuery.isCancelRequested()) {
                         cancelled = true;
                         haltIndex = analyzed.getStatementIndex();
                         skipReason = "查询已停止，未继续执行后续语句";
-                        addControlResult(resultSets, analyzed, SKIPPED, SKIPPED_STATUS, "查询已停止", System.currentTimeMillis() - statementStart);
+                        addControlResult(resultSets, handler, analyzed, SKIPPED, SKIPPED_STATUS, "查询已停止", System.currentTimeMillis() - statementStart);
                         break;
                     }
                     log.error("Execute SQL statement failed, statementIndex={}, sql={}", analyzed.getStatementIndex(), abbreviate(sql), e);
-                    addControlResult(resultSets, analyzed, ERROR, ERROR_STATUS, "执行 SQL 失败: " + e.getMessage(), System.currentTimeMillis() - statementStart);
+                    addControlResult(resultSets, handler, analyzed, ERROR, ERROR_STATUS, "执行 SQL 失败: " + e.getMessage(), System.currentTimeMillis() - statementStart);
                     haltIndex = analyzed.getStatementIndex();
                     skipReason = "前序语句执行失败，后续语句未执行";
                     break;
@@ -411,19 +629,20 @@ public class DataQueryService {
                     if (analyzed.getStatementIndex() <= haltIndex) {
                         continue;
                     }
-                    addControlResult(resultSets, analyzed, SKIPPED, SKIPPED_STATUS, skipReason, 0L);
+                    addControlResult(resultSets, handler, analyzed, SKIPPED, SKIPPED_STATUS, skipReason, 0L);
                 }
             }
-
-            if (cancelled && !StringUtils.hasText(skipReason)) {
-                skipReason = "查询已停止";
-            }
+        } catch (ClientAbortedException e) {
+            log.info("Query stream aborted by client, clientQueryId={}", clientQueryId);
+            cancelled = true;
+            clientAborted = true;
         } catch (SQLException e) {
             if (runningQuery != null && runningQuery.isCancelRequested()) {
                 cancelled = true;
                 resultSets.clear();
                 for (AnalyzedStatement analyzed : analyzedStatements) {
-                    addControlResult(resultSets, analyzed, SKIPPED, SKIPPED_STATUS, "查询已停止", 0L);
+                    resultSets.add(buildControlResult(analyzed, SKIPPED, SKIPPED_STATUS, "查询已停止", 0L));
+                    resultSets.get(resultSets.size() - 1).setIndex(resultSets.size());
                 }
             } else {
                 log.error("Execute SQL query failed", e);
@@ -431,17 +650,29 @@ public class DataQueryService {
             }
         } finally {
             if (runningKey != null) {
-                runningQueries.remove(runningKey);
+                runningQueries.remove(runningKey, runningQuery);
             }
         }
 
-        long duration = System.currentTimeMillis() - start;
+        QueryOutcome outcome = new QueryOutcome();
+        outcome.setResultSets(resultSets);
+        outcome.setCancelled(cancelled);
+        outcome.setClientAborted(clientAborted);
+        outcome.setDurationMs(System.currentTimeMillis() - start);
+        return outcome;
+    }
+
+    private SqlQueryResponse buildResponse(SqlQueryRequest request, QueryOutcome outcome) {
+        List<SqlQueryResultSet> resultSets = outcome.getResultSets();
+        boolean cancelled = outcome.isCancelled();
+        long duration = outcome.getDurationMs();
 
         int successCount = countByStatus(resultSets, SUCCESS_STATUS);
         int blockedCount = countByStatus(resultSets, BLOCKED_STATUS);
         int errorCount = countByStatus(resultSets, ERROR_STATUS);
         int skippedCount = countByStatus(resultSets, SKIPPED_STATUS);
 
+        String message;
         if (cancelled) {
             message = String.format("查询已停止：成功 %d，阻断 %d，失败 %d，跳过 %d", successCount, blockedCount, errorCount, skippedCount);
         } else {
@@ -457,16 +688,19 @@ public class DataQueryService {
 
         SqlQueryResultSet first = resultSets.isEmpty() ? null : resultSets.get(0);
         List<String> columns = first != null ? safeColumns(first.getColumns()) : new ArrayList<>();
-        List<Map<String, Object>> rows = first != null ? safeRows(first.getRows()) : new ArrayList<>();
+        ColumnarResultSet rows = first != null && first.getRows() != null ? first.getRows() : ColumnarResultSet.empty();
         boolean hasMore = first != null && first.isHasMore();
 
         response.setColumns(columns);
         response.setRows(rows);
-        response.setPreviewRowCount(rows.size());
+        response.setPreviewRowCount(rows.getRowCount());
         response.setHasMore(hasMore);
 
         if (!cancelled) {
-            DataQueryHistory history = saveHistory(request, columns, rows, hasMore, duration);
+            int previewRowCount = first != null && first.getPreviewRowCount() != null
+                ? first.getPreviewRowCount()
+                : rows.getRowCount();
+            DataQueryHistory history = saveHistory(request, columns, rows, previewRowCount, hasMore, duration);
             response.setHistoryId(history.getId());
             response.setExecutedAt(history.getExecutedAt());
         } else {
@@ -772,60 +1006,47 @@ public class DataQueryService {
         return Math.min(limit, MAX_LIMIT);
     }
 
-    private SqlQueryResultSet executeStatement(java.sql.Statement statement, String sql, int limit) throws SQLException {
-        SqlQueryResultSet output = new SqlQueryResultSet();
-        List<String> columns = new ArrayList<>();
-        List<Map<String, Object>> rows = new ArrayList<>();
-        boolean hasMore = false;
+    private void executeStatement(java.sql.Statement statement,
+                                  String sql,
+                                  int limit,
+                                  SqlQueryResultSet output,
+                                  QueryResultHandler handler) throws SQLException {
+        output.setColumns(new ArrayList<>());
+        output.setRows(ColumnarResultSet.empty());
+        output.setPreviewRowCount(0);
+        output.setHasMore(false);
 
         boolean hasResultSet = statement.execute(sql);
         if (!hasResultSet) {
             int updateCount = statement.getUpdateCount();
-            output.setColumns(columns);
-            output.setRows(rows);
-            output.setPreviewRowCount(0);
-            output.setHasMore(false);
             output.setResultType(UPDATE_COUNT);
             output.setAffectedRows(updateCount >= 0 ? (long) updateCount : null);
-            return output;
+            return;
         }
 
+        output.setResultType(RESULT_SET);
         try (ResultSet resultSet = statement.getResultSet()) {
             if (resultSet == null) {
-                output.setColumns(columns);
-                output.setRows(rows);
-                output.setPreviewRowCount(0);
-                output.setHasMore(false);
-                output.setResultType(RESULT_SET);
-                return output;
-            }
-            ResultSetMetaData metaData = resultSet.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
+                return;
             }
+            ColumnarResultSet rows = ColumnarResultSet.fromMetaData(resultSet.getMetaData());
+            output.setColumns(rows.getColumns());
+            output.setRows(rows);
+            handler.onColumns(output);
 
             int rowIndex = 0;
+            boolean hasMore = false;
             while (resultSet.next()) {
                 if (rowIndex >= limit) {
                     hasMore = true;
                     break;
                 }
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.put(columns.get(i - 1), resultSet.getObject(i));
-                }
-                rows.add(row);
+                handler.onRow(output, resultSet);
                 rowIndex++;
             }
+            output.setPreviewRowCount(rowIndex);
+            output.setHasMore(hasMore);
         }
-
-        output.setColumns(columns);
-        output.setRows(rows);
-        output.setPreviewRowCount(rows.size());
-        output.setHasMore(hasMore);
-        output.setResultType(RESULT_SET);
-        return output;
     }
 
     private SqlQueryResultSet buildControlResult(AnalyzedStatement analyzed,
@@ -841,13 +1062,14 @@ public class DataQueryService {
         resultSet.setMessage(message);
         resultSet.setDurationMs(durationMs);
         resultSet.setColumns(new ArrayList<>());
-        resultSet.setRows(new ArrayList<>());
+        resultSet.setRows(ColumnarResultSet.empty());
         resultSet.setPreviewRowCount(0);
         resultSet.setHasMore(false);
         return resultSet;
     }
 
     private void addControlResult(List<SqlQueryResultSet> resultSets,
+                                  QueryResultHandler handler,
                                   AnalyzedStatement analyzed,
                                   String resultType,
                                   String status,
@@ -856,6 +1078,7 @@ public class DataQueryService {
         SqlQueryResultSet resultSet = buildControlResult(analyzed, resultType, status, message, durationMs);
         resultSet.setIndex(resultSets.size() + 1);
         resultSets.add(resultSet);
+        handler.onResult(resultSet);
     }
 
     private String validateConfirmation(SqlQueryRequest.SqlConfirmation confirmation,
@@ -1011,22 +1234,19 @@ public class DataQueryService {
         return columns == null ? new ArrayList<>() : columns;
     }
 
-    private List<Map<String, Object>> safeRows(List<Map<String, Object>> rows) {
-        return rows == null ? new ArrayList<>() : rows;
-    }
-
     private String resolveUserId() {
         String userId = com.onedata.portal.context.UserContextHolder.getCurrentUserId();
         return userId == null ? "" : userId;
     }
 
-    private DataQueryHistory saveHistory(SqlQueryRequest request, List<String> columns, List<Map<String, Object>> rows, boolean hasMore, long duration) {
+    private DataQueryHistory saveHistory(SqlQueryRequest request, List<String> columns, ColumnarResultSet rows,
+                                         int previewRowCount, boolean hasMore, long duration) {
         DataQueryHistory history = new DataQueryHistory();
         history.setClusterId(request.getClusterId());
         history.setClusterName(resolveClusterName(request.getClusterId()));
         history.setDatabaseName(request.getDatabase());
         history.setSqlText(request.getSql().trim());
-        history.setPreviewRowCount(rows.size());
+        history.setPreviewRowCount(previewRowCount);
         history.setDurationMs(duration);
         history.setHasMore(hasMore ? 1 : 0);
         history.setResultPreview(buildPreviewJson(columns, rows));
@@ -1044,18 +1264,9 @@ public class DataQueryService {
         return cluster != null ? cluster.getClusterName() : "集群#" + clusterId;
     }
 
-    private String buildPreviewJson(List<String> columns, List<Map<String, Object>> rows) {
-        List<Map<String, Object>> previewRows = new ArrayList<>();
-        int index = 0;
-        for (Map<String, Object> row : rows) {
-            if (index >= PREVIEW_LIMIT) {
-                break;
-            }
-            previewRows.add(new LinkedHashMap<>(row));
-            index++;
-        }
+    private String buildPreviewJson(List<String> columns, ColumnarResultSet rows) {
         try {
-            return objectMapper.writeValueAsString(new QueryPreview(columns, previewRows));
+            return objectMapper.writeValueAsString(new QueryPreview(columns, rows.head(PREVIEW_LIMIT)));
         } catch (JsonProcessingException e) {
             log.warn("Serialize query preview failed", e);
             return null;
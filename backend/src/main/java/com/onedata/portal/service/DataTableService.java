@@ -49,6 +49,7 @@ public class DataTableService {
     private final DataLineageMapper dataLineageMapper;
     private final DorisClusterMapper dorisClusterMapper;
     private final DorisConnectionService dorisConnectionService;
+    private final TableReferenceMatcherService tableReferenceMatcherService;
 
     /**
      * 分页查询表列表
@@ -238,6 +239,7 @@ public class DataTableService {
         }
 
         dataTableMapper.insert(dataTable);
+        tableReferenceMatcherService.invalidate(dataTable.getClusterId());
         log.info("Created data table: {}", dataTable.getTableName());
         return dataTable;
     }
@@ -284,7 +286,11 @@ public class DataTableService {
      */
     @Transactional
     public void delete(Long id) {
+        DataTable exists = dataTableMapper.selectById(id);
         dataTableMapper.deleteById(id);
+        if (exists != null) {
+            tableReferenceMatcherService.invalidate(exists.getClusterId());
+        }
         log.info("Deleted data table: {}", id);
     }
 
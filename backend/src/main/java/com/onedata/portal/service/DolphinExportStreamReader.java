@@ -0,0 +1,217 @@
+package com.onedata.portal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.function.Consumer;
+
+/**
+ * Dolphin 工作流导出文件的流式读取
+ * <p>
+ * 导出文件可能是 {@code [export]}、{@code {"code":0,"data":[export]}} 或直接的 export 对象。
+ * 按 token 顺序读取 export：workflowDefinition/processDefinition 与 schedule 体积很小，读成树；
+ * taskDefinitionList 与任务关系列表逐个元素读成小树交给回调，处理完即可回收，不构建整份文档的树。
+ * 非数组形式的任务/关系列表（如 JSON 字符串）原样读出，交由调用方按旧逻辑解析。非线程安全。
+ */
+class DolphinExportStreamReader {
+
+    private static final String[] DEFINITION_FIELDS = {"workflowDefinition", "processDefinition"};
+    private static final String[] RELATION_FIELDS = {"workflowTaskRelationList", "processTaskRelationList"};
+    private static final String TASK_FIELD = "taskDefinitionList";
+    private static final String SCHEDULE_FIELD = "schedule";
+
+    private final ObjectMapper objectMapper;
+
+    DolphinExportStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 读取 export 对象，任务与关系逐个回调；内容为空时返回 null
+     */
+    ExportSummary read(InputStream in, Consumer<JsonNode> taskConsumer, Consumer<JsonNode> relationConsumer)
+            throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (!moveToExport(parser)) {
+                return null;
+            }
+            ExportSummary summary = new ExportSummary();
+            for (JsonToken token = parser.currentToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                int definitionRank = indexOf(DEFINITION_FIELDS, field);
+                int relationRank = indexOf(RELATION_FIELDS, field);
+                if (definitionRank >= 0 && value == JsonToken.START_OBJECT
+                        && (summary.definition == null || definitionRank < summary.definitionRank)) {
+                    summary.definition = parser.readValueAsTree();
+                    summary.definitionRank = definitionRank;
+                } else if (SCHEDULE_FIELD.equals(field) && summary.schedule == null) {
+                    summary.schedule = parser.readValueAsTree();
+                } else if (TASK_FIELD.equals(field) && !summary.taskListSeen) {
+                    summary.taskListSeen = true;
+                    summary.taskCount = value == JsonToken.START_ARRAY ? readElements(parser, taskConsumer) : 0;
+                    summary.taskListNode = value == JsonToken.START_ARRAY ? null : parser.readValueAsTree();
+                } else if (relationRank >= 0 && !summary.relationListSeen) {
+                    summary.relationListSeen = true;
+                    summary.relationCount = value == JsonToken.START_ARRAY ? readElements(parser, relationConsumer) : 0;
+                    summary.relationListNode = value == JsonToken.START_ARRAY ? null : parser.readValueAsTree();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * 以紧凑格式复制 export 对象的原文，逐 token 输出，不经过树
+     */
+    String copyExportJson(InputStream in) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (!moveToExport(parser)) {
+                return null;
+            }
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+                generator.writeStartObject();
+                for (JsonToken token = parser.currentToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                    generator.copyCurrentStructure(parser);
+                }
+                generator.writeEndObject();
+            }
+            return writer.toString();
+        }
+    }
+
+    /**
+     * 定位到 export 对象的第一个字段（FIELD_NAME，空对象时为 END_OBJECT）：顶层数组取第一个元素；
+     * 顶层为接口信封（首字段为 code/msg/data）时校验 code 并进入 data
+     */
+    private boolean moveToExport(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return enterObject(parser, parser.nextToken());
+        }
+        if (!enterObject(parser, token)) {
+            return false;
+        }
+        if (!isEnvelopeField(parser)) {
+            return true;
+        }
+        // 信封字段顺序不固定，只有 code/msg 出现在 data 之前才能在进入 data 前校验
+        Integer code = null;
+        String msg = null;
+        for (token = parser.currentToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("code".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                code = parser.getIntValue();
+            } else if ("msg".equals(field) && value == JsonToken.VALUE_STRING) {
+                msg = parser.getText();
+            } else if ("data".equals(field)) {
+                checkEnvelopeCode(code, msg);
+                return value == JsonToken.START_ARRAY
+                        ? enterObject(parser, parser.nextToken())
+                        : enterObject(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        checkEnvelopeCode(code, msg);
+        return false;
+    }
+
+    private boolean enterObject(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return false;
+        }
+        parser.nextToken();
+        return true;
+    }
+
+    /**
+     * Dolphin 导出对象不以 code/msg/data 开头，以此区分接口信封
+     */
+    private boolean isEnvelopeField(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.FIELD_NAME) {
+            return false;
+        }
+        String field = parser.getCurrentName();
+        return "code".equals(field) || "msg".equals(field) || "data".equals(field);
+    }
+
+    private void checkEnvelopeCode(Integer code, String msg) {
+        if (code != null && code != 0) {
+            throw new RuntimeException("API Error " + code + ": " + (msg != null ? msg : "unknown export error"));
+        }
+    }
+
+    private int readElements(JsonParser parser, Consumer<JsonNode> consumer) throws IOException {
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode item = parser.readValueAsTree();
+            if (item != null && !item.isNull()) {
+                consumer.accept(item);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int indexOf(String[] fields, String field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 流式读取结果：定义与调度为小树，任务/关系只保留计数（非数组形式时保留原节点）
+     */
+    static final class ExportSummary {
+        private JsonNode definition;
+        private int definitionRank;
+        private JsonNode schedule;
+        private boolean taskListSeen;
+        private int taskCount;
+        private JsonNode taskListNode;
+        private boolean relationListSeen;
+        private int relationCount;
+        private JsonNode relationListNode;
+
+        JsonNode getDefinition() {
+            return definition;
+        }
+
+        JsonNode getSchedule() {
+            return schedule;
+        }
+
+        int getTaskCount() {
+            return taskCount;
+        }
+
+        JsonNode getTaskListNode() {
+            return taskListNode;
+        }
+
+        int getRelationCount() {
+            return relationCount;
+        }
+
+        JsonNode getRelationListNode() {
+            return relationListNode;
+        }
+    }
+}
@@ -12,12 +12,17 @@ import com.onedata.portal.dto.workflow.runtime.RuntimeTaskEdge;
 import com.onedata.portal.dto.workflow.runtime.RuntimeWorkflowDefinition;
 import com.onedata.portal.dto.workflow.runtime.RuntimeWorkflowSchedule;
 import com.onedata.portal.service.dolphin.DolphinOpenApiClient;
+import com.onedata.portal.util.ParallelCalls;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -26,6 +31,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -151,6 +157,9 @@ public class DolphinRuntimeDefinitionService {
 
     /**
      * 通过 Dolphin 导出 JSON 获取运行态定义（导出主路）。
+     * <p>
+     * 导出内容落盘后流式读取：任务与关系逐个映射，不构建整份导出的树，导出大小不受 WebClient 缓冲上限限制。
+     * 定义不在 workflowDefinition/processDefinition 中的旧格式回退为整体读取。
      */
     public RuntimeWorkflowDefinition loadRuntimeDefinitionFromExport(Long projectCode, Long workflowCode) {
         if (workflowCode == null || workflowCode <= 0) {
@@ -158,15 +167,102 @@ public class DolphinRuntimeDefinitionService {
         }
 
         long resolvedProjectCode = resolveProjectCode(projectCode);
-        JsonNode exported = openApiClient.exportDefinitionByCode(resolvedProjectCode, workflowCode);
-        if (exported == null || exported.isNull() || exported.isMissingNode()) {
+        RuntimeWorkflowDefinition result = openApiClient.exportDefinitionByCode(resolvedProjectCode, workflowCode,
+                payload -> readExportPayload(payload, resolvedProjectCode, workflowCode));
+        if (result == null) {
             throw new IllegalStateException("导出工作流定义为空");
         }
 
+        List<RuntimeTaskDefinition> tasks = result.getTasks();
+        enrichTaskGroupNames(tasks);
+        result.setTasks(enrichTaskMetadataFromCatalog(tasks));
+        return result;
+    }
+
+    private RuntimeWorkflowDefinition readExportPayload(Path payload, long projectCode, long workflowCode)
+            throws IOException {
+        DolphinExportStreamReader reader = new DolphinExportStreamReader(objectMapper);
+        List<RuntimeTaskDefinition> tasks = new ArrayList<>();
+        List<RuntimeTaskEdge> edges = new ArrayList<>();
+        DolphinExportStreamReader.ExportSummary export;
+        try (InputStream in = Files.newInputStream(payload)) {
+            export = reader.read(in,
+                    item -> tasks.add(parseTaskDefinition(item)),
+                    relation -> {
+                        RuntimeTaskEdge edge = parseTaskEdge(relation);
+                        if (edge != null) {
+                            edges.add(edge);
+                        }
+                    });
+        }
+        if (export == null) {
+            return null;
+        }
+        if (export.getDefinition() == null) {
+            JsonNode exported;
+            try (InputStream in = Files.newInputStream(payload)) {
+                exported = objectMapper.readTree(in);
+            }
+            return buildExportDefinition(projectCode, workflowCode, unwrapExport(exported));
+        }
+
+        if (export.getTaskListNode() != null) {
+            tasks.addAll(parseTaskDefinitionsFromNode(export.getTaskListNode()));
+        }
+        if (export.getRelationListNode() != null) {
+            edges.addAll(parseTaskEdgesFromNode(export.getRelationListNode()));
+        }
+        String rawJson;
+        try (InputStream in = Files.newInputStream(payload)) {
+            rawJson = reader.copyExportJson(in);
+        }
+        log.debug("Streamed Dolphin export of workflow {}: tasks={}, relations={}",
+                workflowCode, export.getTaskCount(), export.getRelationCount());
+        return buildExportDefinition(projectCode, workflowCode, export.getDefinition(), export.getSchedule(),
+                tasks, edges, rawJson);
+    }
+
+    /**
+     * 与 {@link DolphinExportStreamReader} 相同的外层解包：数组取第一个元素，接口信封取 data
+     */
+    private JsonNode unwrapExport(JsonNode root) {
+        if (root == null || root.isNull() || root.isMissingNode()) {
+            return null;
+        }
+        if (root.isArray()) {
+            return root.size() > 0 ? root.get(0) : null;
+        }
+        JsonNode data = root.get("data");
+        if (data != null && data.isArray()) {
+            return data.size() > 0 ? data.get(0) : null;
+        }
+        if (data != null && data.isObject()) {
+            return data;
+        }
+        return root;
+    }
+
+    private RuntimeWorkflowDefinition buildExportDefinition(long projectCode, long workflowCode, JsonNode exported) {
+        if (exported == null || exported.isNull() || exported.isMissingNode()) {
+            return null;
+        }
         JsonNode definition = readNode(exported, "workflowDefinition", "processDefinition");
         if (definition == null || definition.isNull() || definition.isMissingNode()) {
             definition = unwrapDefinition(exported);
         }
+        return buildExportDefinition(projectCode, workflowCode, definition, readNode(exported, "schedule"),
+                parseTaskDefinitionsFromNode(readNode(exported, "taskDefinitionList")),
+                parseTaskEdgesFromNode(readNode(exported, "workflowTaskRelationList", "processTaskRelationList")),
+                toJson(exported));
+    }
+
+    private RuntimeWorkflowDefinition buildExportDefinition(long projectCode,
+            long workflowCode,
+            JsonNode definition,
+            JsonNode scheduleNode,
+            List<RuntimeTaskDefinition> tasks,
+            List<RuntimeTaskEdge> explicitEdges,
+            String rawJson) {
         if (definition == null || definition.isNull() || definition.isMissingNode()) {
             throw new IllegalStateException("导出工作流定义缺少 workflowDefinition");
         }
@@ -177,14 +273,14 @@ public class DolphinRuntimeDefinitionService {
                 : workflowCode;
 
         RuntimeWorkflowDefinition result = new RuntimeWorkflowDefinition();
-        result.setProjectCode(resolvedProjectCode);
+        result.setProjectCode(projectCode);
         result.setWorkflowCode(resolvedWorkflowCode);
         result.setWorkflowName(readText(definition, "name", "workflowName"));
         result.setDescription(readText(definition, "description", "desc"));
         result.setReleaseState(readText(definition, "releaseState", "publishStatus", "scheduleReleaseState"));
         result.setGlobalParams(normalizeJsonField(definition.get("globalParams")));
 
-        RuntimeWorkflowSchedule schedule = parseScheduleNode(readNode(exported, "schedule"));
+        RuntimeWorkflowSchedule schedule = parseScheduleNode(scheduleNode);
         if (schedule == null || schedule.getScheduleId() == null || schedule.getScheduleId() <= 0) {
             schedule = extractSchedule(definition, resolvedWorkflowCode);
         } else {
@@ -195,22 +291,15 @@ public class DolphinRuntimeDefinitionService {
         }
         result.setSchedule(schedule);
 
-        List<RuntimeTaskDefinition> tasks = parseTaskDefinitionsFromNode(readNode(exported, "taskDefinitionList"));
         if (tasks.isEmpty()) {
             tasks = parseTaskDefinitions(definition);
         }
-
-        List<RuntimeTaskEdge> explicitEdges = parseTaskEdgesFromNode(
-                readNode(exported, "workflowTaskRelationList", "processTaskRelationList"));
         if (explicitEdges.isEmpty()) {
             explicitEdges = parseTaskEdges(definition);
         }
-        enrichTaskGroupNames(tasks);
-
-        tasks = enrichTaskMetadataFromCatalog(tasks);
         result.setTasks(tasks);
         result.setExplicitEdges(explicitEdges);
-        result.setRawDefinitionJson(toJson(exported));
+        result.setRawDefinitionJson(rawJson);
         return result;
     }
 
@@ -316,10 +405,18 @@ public class DolphinRuntimeDefinitionService {
             return tasks;
         }
 
+        // 两个目录都需要时并行读取
+        CompletableFuture<List<DolphinDatasourceOption>> datasourceCatalog = needDatasourceCatalog
+                ? ParallelCalls.start(this::safeListDatasources)
+                : null;
+        CompletableFuture<List<DolphinTaskGroupOption>> taskGroupCatalog = needTaskGroupCatalog
+                ? ParallelCalls.start(this::safeListTaskGroups)
+                : null;
+
         Map<Long, DolphinDatasourceOption> datasourceById = Collections.emptyMap();
         Map<String, DolphinDatasourceOption> datasourceByName = Collections.emptyMap();
-        if (needDatasourceCatalog) {
-            List<DolphinDatasourceOption> datasourceOptions = safeListDatasources();
+        if (datasourceCatalog != null) {
+            List<DolphinDatasourceOption> datasourceOptions = ParallelCalls.await(datasourceCatalog);
             datasourceById = new LinkedHashMap<>();
             datasourceByName = new LinkedHashMap<>();
             for (DolphinDatasourceOption option : datasourceOptions) {
@@ -338,8 +435,8 @@ public class DolphinRuntimeDefinitionService {
 
         Map<Integer, DolphinTaskGroupOption> taskGroupById = Collections.emptyMap();
         Map<String, DolphinTaskGroupOption> taskGroupByName = Collections.emptyMap();
-        if (needTaskGroupCatalog) {
-            List<DolphinTaskGroupOption> taskGroupOptions = safeListTaskGroups();
+        if (taskGroupCatalog != null) {
+            List<DolphinTaskGroupOption> taskGroupOptions = ParallelCalls.await(taskGroupCatalog);
             taskGroupById = new LinkedHashMap<>();
             taskGroupByName = new LinkedHashMap<>();
             for (DolphinTaskGroupOption option : taskGroupOptions) {
@@ -584,42 +681,46 @@ public class DolphinRuntimeDefinitionService {
             if (item == null || item.isNull()) {
                 continue;
             }
-            RuntimeTaskDefinition task = new RuntimeTaskDefinition();
-            task.setTaskCode(readLong(item, "code", "taskCode"));
-            task.setTaskVersion(readInt(item, "version", "taskVersion"));
-            task.setTaskName(readText(item, "name", "taskName"));
-            task.setDescription(readText(item, "description", "taskDesc"));
-            task.setNodeType(readText(item, "taskType", "nodeType", "type"));
-            task.setTimeoutSeconds(readInt(item, "timeout", "timeoutSeconds"));
-            task.setRetryTimes(readInt(item, "failRetryTimes", "retryTimes"));
-            task.setRetryInterval(readInt(item, "failRetryInterval", "retryInterval"));
-            task.setTaskPriority(normalizeTaskPriority(readText(item, "taskPriority", "priority")));
-            task.setTaskGroupId(readInt(item, "taskGroupId"));
-            task.setTaskGroupName(readText(item, "taskGroupName"));
-
-            JsonNode taskParamsNode = normalizeNode(item.get("taskParams"));
-            if (taskParamsNode != null && !taskParamsNode.isNull()) {
-                task.setSql(readText(taskParamsNode, "sql", "rawScript"));
-                task.setDatasourceId(readLong(taskParamsNode, "datasource", "datasourceId"));
-                task.setDatasourceName(readText(taskParamsNode, "datasourceName"));
-                task.setDatasourceType(readText(taskParamsNode, "type", "datasourceType"));
-            }
-            if (!StringUtils.hasText(task.getSql())) {
-                task.setSql(readText(item, "sql", "rawScript"));
-            }
-            if (!StringUtils.hasText(task.getDatasourceName())) {
-                task.setDatasourceName(readText(item, "datasourceName"));
-            }
-            if (!StringUtils.hasText(task.getDatasourceType())) {
-                task.setDatasourceType(readText(item, "datasourceType"));
-            }
-            task.setInputTableIds(readLongList(item, "inputTableIds"));
-            task.setOutputTableIds(readLongList(item, "outputTableIds"));
-            tasks.add(task);
+            tasks.add(parseTaskDefinition(item));
         }
         return tasks;
     }
 
+    private RuntimeTaskDefinition parseTaskDefinition(JsonNode item) {
+        RuntimeTaskDefinition task = new RuntimeTaskDefinition();
+        task.setTaskCode(readLong(item, "code", "taskCode"));
+        task.setTaskVersion(readInt(item, "version", "taskVersion"));
+        task.setTaskName(readText(item, "name", "taskName"));
+        task.setDescription(readText(item, "description", "taskDesc"));
+        task.setNodeType(readText(item, "taskType", "nodeType", "type"));
+        task.setTimeoutSeconds(readInt(item, "timeout", "timeoutSeconds"));
+        task.setRetryTimes(readInt(item, "failRetryTimes", "retryTimes"));
+        task.setRetryInterval(readInt(item, "failRetryInterval", "retryInterval"));
+        task.setTaskPriority(normalizeTaskPriority(readText(item, "taskPriority", "priority")));
+        task.setTaskGroupId(readInt(item, "taskGroupId"));
+        task.setTaskGroupName(readText(item, "taskGroupName"));
+
+        JsonNode taskParamsNode = normalizeNode(item.get("taskParams"));
+        if (taskParamsNode != null && !taskParamsNode.isNull()) {
+            task.setSql(readText(taskParamsNode, "sql", "rawScript"));
+            task.setDatasourceId(readLong(taskParamsNode, "datasource", "datasourceId"));
+            task.setDatasourceName(readText(taskParamsNode, "datasourceName"));
+            task.setDatasourceType(readText(taskParamsNode, "type", "datasourceType"));
+        }
+        if (!StringUtils.hasText(task.getSql())) {
+            task.setSql(readText(item, "sql", "rawScript"));
+        }
+        if (!StringUtils.hasText(task.getDatasourceName())) {
+            task.setDatasourceName(readText(item, "datasourceName"));
+        }
+        if (!StringUtils.hasText(task.getDatasourceType())) {
+            task.setDatasourceType(readText(item, "datasourceType"));
+        }
+        task.setInputTableIds(readLongList(item, "inputTableIds"));
+        task.setOutputTableIds(readLongList(item, "outputTableIds"));
+        return task;
+    }
+
     private List<RuntimeTaskEdge> parseTaskEdges(JsonNode definition) {
         JsonNode relationNode = firstPresentNode(definition,
                 "taskRelationJson",
@@ -648,23 +749,30 @@ public class DolphinRuntimeDefinitionService {
 
         List<RuntimeTaskEdge> edges = new ArrayList<>();
         for (JsonNode relation : normalized) {
-            if (relation == null || relation.isNull()) {
-                continue;
-            }
-            Long preTaskCode = readLong(relation, "preTaskCode", "preTask", "upstreamTaskCode");
-            Long postTaskCode = readLong(relation, "postTaskCode", "postTask", "downstreamTaskCode");
-            if (postTaskCode == null || postTaskCode <= 0) {
-                continue;
+            RuntimeTaskEdge edge = parseTaskEdge(relation);
+            if (edge != null) {
+                edges.add(edge);
             }
-            // keep entry edges (preTaskCode=0) for full relation comparison.
-            if (preTaskCode == null || preTaskCode < 0) {
-                continue;
-            }
-            edges.add(new RuntimeTaskEdge(preTaskCode, postTaskCode));
         }
         return edges;
     }
 
+    private RuntimeTaskEdge parseTaskEdge(JsonNode relation) {
+        if (relation == null || relation.isNull()) {
+            return null;
+        }
+        Long preTaskCode = readLong(relation, "preTaskCode", "preTask", "upstreamTaskCode");
+        Long postTaskCode = readLong(relation, "postTaskCode", "postTask", "downstreamTaskCode");
+        if (postTaskCode == null || postTaskCode <= 0) {
+            return null;
+        }
+        // keep entry edges (preTaskCode=0) for full relation comparison.
+        if (preTaskCode == null || preTaskCode < 0) {
+            return null;
+        }
+        return new RuntimeTaskEdge(preTaskCode, postTaskCode);
+    }
+
     private JsonNode unwrapDefinition(JsonNode raw) {
         if (raw == null || raw.isNull()) {
             return raw;
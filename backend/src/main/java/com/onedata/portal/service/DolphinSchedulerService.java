@@ -12,16 +12,23 @@ import com.onedata.portal.dto.dolphin.*;
 import com.onedata.portal.dto.workflow.WorkflowBackfillRequest;
 import com.onedata.portal.service.dolphin.DolphinOpenApiClient;
 import com.onedata.portal.dto.workflow.WorkflowInstanceSummary;
+import com.onedata.portal.util.TokenBucket;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -42,11 +49,15 @@ import java.util.concurrent.atomic.AtomicLong;
 public class DolphinSchedulerService {
 
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final int MAX_INSTANCE_PAGES = 5;
+    private static final long DATASOURCE_MISS_REFRESH_INTERVAL_MS = 30_000L;
+    private static final DateTimeFormatter DOLPHIN_DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final DolphinConfigService dolphinConfigService;
     private final ObjectMapper objectMapper;
     private final DolphinOpenApiClient openApiClient;
     private final AtomicLong taskCodeSequence = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong lastDatasourceMissRefresh = new AtomicLong();
 
     // Cache for project code to avoid repeated API calls
     private volatile Long cachedProjectCode;
@@ -594,8 +605,8 @@ public class DolphinSchedulerService {
             return Collections.emptyList();
         }
 
-        int targetLimit = Math.min(Math.max(limit, 1), 100);
-        int pageSize = Math.min(Math.max(targetLimit * 3, 20), 100);
+        int targetLimit = resolveInstanceLimit(limit);
+        int pageSize = resolveInstancePageSize(targetLimit);
 
         List<DolphinProcessInstance> filtered = collectWorkflowInstances(
                 projectCode, workflowCode, targetLimit, pageSize, true);
@@ -605,6 +616,120 @@ public class DolphinSchedulerService {
             filtered = collectWorkflowInstances(projectCode, workflowCode, targetLimit, pageSize, false);
         }
 
+        return toInstanceSummaries(filtered, targetLimit);
+    }
+
+    /**
+     * Non-blocking variant of {@link #listWorkflowInstances} for bulk pollers.
+     * Every upstream call first takes a permit from {@code rateLimiter}; errors are propagated
+     * instead of being reported as an empty list.
+     */
+    public Mono<List<WorkflowInstanceSummary>> listWorkflowInstancesAsync(Long projectCode,
+            Long workflowCode,
+            int limit,
+            TokenBucket rateLimiter) {
+        if (projectCode == null || workflowCode == null || workflowCode <= 0) {
+            return Mono.just(Collections.emptyList());
+        }
+        int targetLimit = resolveInstanceLimit(limit);
+        int pageSize = resolveInstancePageSize(targetLimit);
+        return collectWorkflowInstancesAsync(projectCode, workflowCode, targetLimit, pageSize, true, rateLimiter,
+                1, new ArrayList<>())
+                .flatMap(filtered -> filtered.isEmpty()
+                        ? collectWorkflowInstancesAsync(projectCode, workflowCode, targetLimit, pageSize, false,
+                                rateLimiter, 1, new ArrayList<>())
+                        : Mono.just(filtered))
+                .map(filtered -> toInstanceSummaries(filtered, targetLimit));
+    }
+
+    /**
+     * Page through all process instances of the project that started in [since, until] and
+     * group them by workflow (process definition) code. DolphinScheduler returns the newest
+     * instances first; paging stops at the first instance older than {@code since}, so servers
+     * ignoring the date filter do not cause a full scan. Instances listed without a definition
+     * code are resolved through the instance detail API. Errors are propagated.
+     *
+     * @return instance summaries keyed by workflow code (newest first), flagged as truncated when
+     * {@code maxPages} was reached before the window was exhausted
+     */
+    public ProjectInstanceListing listProjectInstancesSince(Long projectCode,
+            LocalDateTime since,
+            LocalDateTime until,
+            int pageSize,
+            int maxPages,
+            TokenBucket rateLimiter) {
+        ProjectInstanceListing listing = new ProjectInstanceListing();
+        if (projectCode == null) {
+            return listing;
+        }
+        String startDate = since != null ? since.format(DOLPHIN_DATETIME_FORMAT) : null;
+        String endDate = until != null ? until.format(DOLPHIN_DATETIME_FORMAT) : null;
+        for (int pageNo = 1; pageNo <= maxPages; pageNo++) {
+            int currentPage = pageNo;
+            DolphinPageData<DolphinProcessInstance> page = rateLimiter.acquire()
+                    .then(openApiClient.listProcessInstancesAsync(projectCode, currentPage, pageSize, null,
+                            startDate, endDate))
+                    .block();
+            listing.pages++;
+            if (page == null || page.getTotalList() == null || page.getTotalList().isEmpty()) {
+                return listing;
+            }
+            for (DolphinProcessInstance instance : page.getTotalList()) {
+                if (instance == null || instance.getId() == null) {
+                    continue;
+                }
+                LocalDateTime startTime = parseDolphinDateTime(instance.getStartTime());
+                if (since != null && startTime != null && startTime.isBefore(since)) {
+                    return listing;
+                }
+                if (startTime != null
+                        && (listing.oldestStartTime == null || startTime.isBefore(listing.oldestStartTime))) {
+                    listing.oldestStartTime = startTime;
+                }
+                Long workflowCode = resolveProcessDefinitionCode(projectCode, instance, rateLimiter);
+                if (workflowCode == null) {
+                    listing.unresolvedInstanceIds.add(instance.getId());
+                    continue;
+                }
+                listing.instances.computeIfAbsent(workflowCode, code -> new ArrayList<>())
+                        .add(toInstanceSummary(instance));
+            }
+            if (shouldStopPaging(page, pageNo, pageSize)) {
+                return listing;
+            }
+        }
+        log.warn("Project {} instance listing since {} truncated at {} pages", projectCode, startDate, maxPages);
+        listing.truncated = true;
+        return listing;
+    }
+
+    private Long resolveProcessDefinitionCode(Long projectCode,
+            DolphinProcessInstance instance,
+            TokenBucket rateLimiter) {
+        if (instance.getProcessDefinitionCode() != null) {
+            return instance.getProcessDefinitionCode();
+        }
+        try {
+            DolphinProcessInstance detail = rateLimiter.acquire()
+                    .then(openApiClient.getProcessInstanceAsync(projectCode, instance.getId()))
+                    .block();
+            return detail != null ? detail.getProcessDefinitionCode() : null;
+        } catch (Exception ex) {
+            log.warn("Failed to resolve workflow code of process instance {}: {}", instance.getId(),
+                    ex.getMessage());
+            return null;
+        }
+    }
+
+    private int resolveInstanceLimit(int limit) {
+        return Math.min(Math.max(limit, 1), 100);
+    }
+
+    private int resolveInstancePageSize(int targetLimit) {
+        return Math.min(Math.max(targetLimit * 3, 20), 100);
+    }
+
+    private List<WorkflowInstanceSummary> toInstanceSummaries(List<DolphinProcessInstance> filtered, int targetLimit) {
         if (filtered.isEmpty()) {
             return Collections.emptyList();
         }
@@ -614,18 +739,36 @@ public class DolphinSchedulerService {
             if (result.size() >= targetLimit) {
                 break;
             }
-            result.add(WorkflowInstanceSummary.builder()
-                    .instanceId(instance.getId())
-                    .state(instance.getState())
-                    .commandType(instance.getCommandType())
-                    .startTime(instance.getStartTime())
-                    .endTime(instance.getEndTime())
-                    .durationMs(parseDuration(instance.getDuration()))
-                    .build());
+            result.add(toInstanceSummary(instance));
         }
         return result;
     }
 
+    private WorkflowInstanceSummary toInstanceSummary(DolphinProcessInstance instance) {
+        return WorkflowInstanceSummary.builder()
+                .instanceId(instance.getId())
+                .state(instance.getState())
+                .commandType(instance.getCommandType())
+                .startTime(instance.getStartTime())
+                .endTime(instance.getEndTime())
+                .durationMs(parseDuration(instance.getDuration()))
+                .build();
+    }
+
+    private LocalDateTime parseDolphinDateTime(String raw) {
+        if (!StringUtils.hasText(raw)) {
+            return null;
+        }
+        String candidate = raw.trim().replace("Z", "");
+        try {
+            return candidate.contains("T")
+                    ? LocalDateTime.parse(candidate, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    : LocalDateTime.parse(candidate, DOLPHIN_DATETIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
     private List<DolphinProcessInstance> collectWorkflowInstances(Long projectCode,
             Long workflowCode,
             int limit,
@@ -633,9 +776,8 @@ public class DolphinSchedulerService {
             boolean useServerFilter) {
         List<DolphinProcessInstance> matched = new ArrayList<>();
         int pageNo = 1;
-        int maxPages = 5;
 
-        while (pageNo <= maxPages && matched.size() < limit) {
+        while (pageNo <= MAX_INSTANCE_PAGES && matched.size() < limit) {
             DolphinPageData<DolphinProcessInstance> page = openApiClient.listProcessInstances(
                     projectCode,
                     pageNo,
@@ -667,6 +809,57 @@ public class DolphinSchedulerService {
         return matched;
     }
 
+    private Mono<List<DolphinProcessInstance>> collectWorkflowInstancesAsync(Long projectCode,
+            Long workflowCode,
+            int limit,
+            int pageSize,
+            boolean useServerFilter,
+            TokenBucket rateLimiter,
+            int pageNo,
+            List<DolphinProcessInstance> matched) {
+        if (pageNo > MAX_INSTANCE_PAGES || matched.size() >= limit) {
+            return Mono.just(matched);
+        }
+        return rateLimiter.acquire()
+                .then(openApiClient.listProcessInstancesAsync(projectCode, pageNo, pageSize,
+                        useServerFilter ? workflowCode : null))
+                .flatMap(page -> {
+                    if (page.getTotalList() == null || page.getTotalList().isEmpty()) {
+                        return Mono.just(matched);
+                    }
+                    return Flux.fromIterable(page.getTotalList())
+                            .filter(instance -> instance != null && instance.getId() != null)
+                            .concatMap(instance -> isWorkflowInstanceAsync(projectCode, workflowCode, instance,
+                                    rateLimiter)
+                                    .filter(Boolean::booleanValue)
+                                    .map(ignored -> instance))
+                            .take(limit - matched.size())
+                            .collectList()
+                            .flatMap(found -> {
+                                matched.addAll(found);
+                                if (matched.size() >= limit || shouldStopPaging(page, pageNo, pageSize)) {
+                                    return Mono.just(matched);
+                                }
+                                return collectWorkflowInstancesAsync(projectCode, workflowCode, limit, pageSize,
+                                        useServerFilter, rateLimiter, pageNo + 1, matched);
+                            });
+                });
+    }
+
+    private Mono<Boolean> isWorkflowInstanceAsync(Long projectCode,
+            Long workflowCode,
+            DolphinProcessInstance instance,
+            TokenBucket rateLimiter) {
+        if (instance.getProcessDefinitionCode() != null) {
+            return Mono.just(Objects.equals(instance.getProcessDefinitionCode(), workflowCode));
+        }
+        return rateLimiter.acquire()
+                .then(openApiClient.getProcessInstanceAsync(projectCode, instance.getId()))
+                .map(detail -> Objects.equals(detail.getProcessDefinitionCode(), workflowCode))
+                .defaultIfEmpty(false)
+                .onErrorReturn(false);
+    }
+
     private boolean shouldStopPaging(DolphinPageData<DolphinProcessInstance> page,
             int currentPage,
             int pageSize) {
@@ -914,6 +1107,24 @@ public class DolphinSchedulerService {
      * Retrieve datasource options from DolphinScheduler OpenAPI.
      */
     public List<DolphinDatasourceOption> listDatasources(String type, String keyword) {
+        List<DolphinDatasourceOption> result = filterDatasources(type, keyword);
+        if (result.isEmpty() && StringUtils.hasText(keyword) && tryClaimDatasourceMissRefresh()) {
+            // The catalog is cached; a datasource created since the last load would be missed otherwise.
+            // Misses are throttled so repeated searches for unknown names cannot keep reloading the catalog.
+            openApiClient.invalidateReferenceData(DolphinOpenApiClient.REF_DATASOURCES);
+            result = filterDatasources(type, keyword);
+        }
+        return result;
+    }
+
+    private boolean tryClaimDatasourceMissRefresh() {
+        long now = System.currentTimeMillis();
+        long last = lastDatasourceMissRefresh.get();
+        return now - last >= DATASOURCE_MISS_REFRESH_INTERVAL_MS
+                && lastDatasourceMissRefresh.compareAndSet(last, now);
+    }
+
+    private List<DolphinDatasourceOption> filterDatasources(String type, String keyword) {
         try {
             List<DolphinDatasource> rawList = openApiClient.listDatasources(1, 100);
 
@@ -1071,6 +1282,28 @@ public class DolphinSchedulerService {
         }
     }
 
+    /**
+     * Result of {@link #listProjectInstancesSince}. The listing is complete only when it was not
+     * truncated and every instance could be attributed to a workflow. When truncated, instances
+     * started in [since, oldestStartTime) were not fetched.
+     */
+    @Getter
+    public static class ProjectInstanceListing {
+        private final Map<Long, List<WorkflowInstanceSummary>> instances = new LinkedHashMap<>();
+        private final List<Long> unresolvedInstanceIds = new ArrayList<>();
+        private boolean truncated;
+        private int pages;
+        private LocalDateTime oldestStartTime;
+
+        public int getUnresolvedInstances() {
+            return unresolvedInstanceIds.size();
+        }
+
+        public boolean isComplete() {
+            return !truncated && unresolvedInstanceIds.isEmpty();
+        }
+    }
+
     /**
      * Task relation payload describing dependencies.
      */
@@ -23,6 +23,7 @@ import java.util.List;
 public class DorisClusterService {
 
     private final DorisClusterMapper dorisClusterMapper;
+    private final DorisConnectionPoolManager dorisConnectionPoolManager;
 
     /**
      * 查询所有集群
@@ -110,6 +111,7 @@ public class DorisClusterService {
     @Transactional
     public void delete(Long id) {
         dorisClusterMapper.deleteById(id);
+        dorisConnectionPoolManager.invalidate(id);
         log.info("Deleted Doris cluster: {}", id);
     }
 
@@ -0,0 +1,476 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.DorisJdbcProperties;
+import com.onedata.portal.dto.DorisConnectionPoolMetrics;
+import com.onedata.portal.entity.DorisCluster;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Doris 连接池管理
+ * <p>
+ * 按集群 ID 维护有界连接池（同一集群下按 Doris 账号细分），跨数据库复用连接（借出时切换 catalog），
+ * 集群地址或凭据变化时自动重建连接池。会话字符集只在物理连接创建时设置一次。
+ * <p>
+ * 控制台 SQL 与系统任务共用连接池：归还时回滚未提交事务，执行过 SET/USE/BEGIN 等修改会话状态语句的
+ * 物理连接直接淘汰，不会把会话变量、当前库或未结束的事务带给下一个借用者。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DorisConnectionPoolManager {
+
+    /**
+     * 会改变会话状态的语句：会话变量、当前库、显式开启的事务
+     */
+    private static final Pattern SESSION_MUTATING_SQL = Pattern.compile(
+            "(^|;)\\s*(/\\*.*?\\*/\\s*)*(SET|USE|BEGIN|START\\s+TRANSACTION)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final DorisJdbcProperties dorisJdbcProperties;
+
+    private final Map<Long, ClusterPools> clusterPools = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PooledSource> retiredSources = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 获取指定集群、账号下的连接，并切换到目标数据库。
+     */
+    public Connection getConnection(DorisCluster cluster, String username, String password, String database)
+            throws SQLException {
+        String targetDb = StringUtils.hasText(database) ? database : dorisJdbcProperties.getDefaultDatabase();
+        if (!dorisJdbcProperties.getPool().isEnabled() || cluster.getId() == null) {
+            Connection connection = DriverManager.getConnection(buildJdbcUrl(cluster, targetDb), username, password);
+            applySessionCharset(connection);
+            return connection;
+        }
+
+        sweepRetiredSources();
+        PooledSource source = resolveSource(cluster, username, password);
+        long start = System.nanoTime();
+        Connection connection = source.dataSource.getConnection();
+        source.tracker.recordAcquire(System.nanoTime() - start);
+        try {
+            connection.setCatalog(targetDb);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        return SessionGuard.wrap(connection, source.dataSource);
+    }
+
+    /**
+     * 关闭指定集群的全部连接池（集群删除时调用）。
+     */
+    public void invalidate(Long clusterId) {
+        if (clusterId == null) {
+            return;
+        }
+        ClusterPools removed = clusterPools.remove(clusterId);
+        if (removed != null) {
+            removed.sources.values().forEach(this::retire);
+            log.info("Invalidated Doris connection pools for cluster {}", clusterId);
+        }
+    }
+
+    /**
+     * 查询指定集群的连接池指标。
+     */
+    public List<DorisConnectionPoolMetrics> getMetrics(Long clusterId) {
+        ClusterPools pools = clusterId == null ? null : clusterPools.get(clusterId);
+        if (pools == null) {
+            return Collections.emptyList();
+        }
+        List<DorisConnectionPoolMetrics> result = new ArrayList<>();
+        for (PooledSource source : pools.sources.values()) {
+            result.add(source.toMetrics(clusterId));
+        }
+        result.sort(Comparator.comparing(DorisConnectionPoolMetrics::getPoolName));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ClusterPools pools : clusterPools.values()) {
+            pools.sources.values().forEach(source -> source.dataSource.close());
+        }
+        clusterPools.clear();
+        PooledSource retired;
+        while ((retired = retiredSources.poll()) != null) {
+            retired.dataSource.close();
+        }
+    }
+
+    private PooledSource resolveSource(DorisCluster cluster, String username, String password) {
+        String fingerprint = buildClusterFingerprint(cluster);
+        ClusterPools pools = clusterPools.compute(cluster.getId(), (id, existing) -> {
+            if (existing != null && existing.fingerprint.equals(fingerprint)) {
+                return existing;
+            }
+            if (existing != null) {
+                log.info("Doris cluster {} connection settings changed, rebuilding connection pools", id);
+                existing.sources.values().forEach(this::retire);
+            }
+            return new ClusterPools(fingerprint);
+        });
+
+        String safeUsername = username == null ? "" : username;
+        String passwordDigest = digest(password == null ? "" : password);
+        return pools.sources.compute(safeUsername, (key, existing) -> {
+            if (existing != null && existing.passwordDigest.equals(passwordDigest)) {
+                return existing;
+            }
+            if (existing != null) {
+                log.info("Doris credential for user {} on cluster {} changed, rebuilding connection pool", key,
+                        cluster.getId());
+                retire(existing);
+            }
+            return createSource(cluster, safeUsername, password, passwordDigest);
+        });
+    }
+
+    private PooledSource createSource(DorisCluster cluster, String username, String password, String passwordDigest) {
+        DorisJdbcProperties.Pool poolProperties = dorisJdbcProperties.getPool();
+        String poolName = "doris-" + cluster.getId() + "-" + username;
+
+        SessionCharsetDataSource physicalSource = new SessionCharsetDataSource();
+        physicalSource.setUrl(buildJdbcUrl(cluster, dorisJdbcProperties.getDefaultDatabase()));
+        physicalSource.setUsername(username);
+        physicalSource.setPassword(password == null ? "" : password);
+
+        PoolMetricsTracker tracker = new PoolMetricsTracker();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDataSource(physicalSource);
+        config.setMaximumPoolSize(Math.max(1, poolProperties.getMaximumPoolSize()));
+        config.setMinimumIdle(Math.max(0, Math.min(poolProperties.getMinimumIdle(),
+                poolProperties.getMaximumPoolSize())));
+        config.setConnectionTimeout(poolProperties.getConnectionTimeoutMs());
+        config.setIdleTimeout(poolProperties.getIdleTimeoutMs());
+        config.setMaxLifetime(poolProperties.getMaxLifetimeMs());
+        config.setKeepaliveTime(poolProperties.getKeepaliveTimeMs());
+        config.setValidationTimeout(poolProperties.getValidationTimeoutMs());
+        // 集群不可达时不阻塞连接池构建，由 getConnection 抛出异常
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory((name, stats) -> tracker);
+
+        log.info("Creating Doris connection pool {}", poolName);
+        return new PooledSource(poolName, username, passwordDigest, new HikariDataSource(config), tracker);
+    }
+
+    /**
+     * 退役旧连接池：空闲连接立即关闭，借出中的连接归还后关闭，全部归还后关闭连接池。
+     */
+    private void retire(PooledSource source) {
+        HikariPoolMXBean pool = source.dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            pool.softEvictConnections();
+        }
+        retiredSources.add(source);
+        sweepRetiredSources();
+    }
+
+    private void sweepRetiredSources() {
+        if (retiredSources.isEmpty()) {
+            return;
+        }
+        Iterator<PooledSource> iterator = retiredSources.iterator();
+        while (iterator.hasNext()) {
+            PooledSource source = iterator.next();
+            HikariPoolMXBean pool = source.dataSource.getHikariPoolMXBean();
+            if (pool == null || pool.getActiveConnections() == 0) {
+                iterator.remove();
+                source.dataSource.close();
+                log.info("Closed retired Doris connection pool {}", source.poolName);
+            }
+        }
+    }
+
+    private String buildJdbcUrl(DorisCluster cluster, String database) {
+        String template = dorisJdbcProperties.getUrlTemplate();
+        if (!StringUtils.hasText(template)) {
+            throw new IllegalStateException("doris.jdbc.url-template 未配置，请在 application.yml 或环境变量中指定");
+        }
+        return String.format(template, cluster.getFeHost(), cluster.getFePort(), database);
+    }
+
+    private String buildClusterFingerprint(DorisCluster cluster) {
+        String raw = String.join("|",
+                String.valueOf(cluster.getFeHost()),
+                String.valueOf(cluster.getFePort()),
+                String.valueOf(cluster.getUsername()),
+                String.valueOf(cluster.getPassword()),
+                String.valueOf(dorisJdbcProperties.getUrlTemplate()),
+                String.valueOf(dorisJdbcProperties.getDefaultDatabase()));
+        return digest(raw);
+    }
+
+    private String digest(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void applySessionCharset(Connection connection) {
+        if (!dorisJdbcProperties.isSessionCharsetEnabled()) {
+            return;
+        }
+        String primaryCharset = dorisJdbcProperties.getSessionCharset();
+        if (!StringUtils.hasText(primaryCharset)) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SET NAMES " + primaryCharset);
+        } catch (SQLException primaryEx) {
+            String fallbackCharset = dorisJdbcProperties.getSessionCharsetFallback();
+            if (!StringUtils.hasText(fallbackCharset) || fallbackCharset.equalsIgnoreCase(primaryCharset)) {
+                log.warn("Failed to set Doris session charset to {}. reason={}", primaryCharset,
+                        primaryEx.getMessage());
+                return;
+            }
+            log.warn("Doris does not support {} charset, fallback to {}. reason={}", primaryCharset, fallbackCharset,
+                    primaryEx.getMessage());
+            try (Statement fallback = connection.createStatement()) {
+                fallback.execute("SET NAMES " + fallbackCharset);
+            } catch (SQLException secondaryEx) {
+                log.warn("Failed to set Doris session charset to {}. reason={}", fallbackCharset,
+                        secondaryEx.getMessage());
+            }
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // ignored
+        }
+    }
+
+    /**
+     * 物理连接工厂：连接池新建物理连接时设置会话字符集。
+     */
+    private class SessionCharsetDataSource extends DriverManagerDataSource {
+
+        @Override
+        protected Connection getConnectionFromDriverManager(String url, Properties props) throws SQLException {
+            Connection connection = super.getConnectionFromDriverManager(url, props);
+            applySessionCharset(connection);
+            return connection;
+        }
+    }
+
+    /**
+     * 借出连接的代理：记录是否执行过修改会话状态的语句，归还时回滚未提交事务，
+     * 会话被修改过的物理连接从连接池淘汰而不是放回。
+     */
+    private static final class SessionGuard implements InvocationHandler {
+        private final Connection connection;
+        private final HikariDataSource dataSource;
+        private Connection proxy;
+        private volatile boolean sessionDirty;
+        private boolean closed;
+
+        private SessionGuard(Connection connection, HikariDataSource dataSource) {
+            this.connection = connection;
+            this.dataSource = dataSource;
+        }
+
+        private static Connection wrap(Connection connection, HikariDataSource dataSource) {
+            SessionGuard guard = new SessionGuard(connection, dataSource);
+            guard.proxy = (Connection) Proxy.newProxyInstance(DorisConnectionPoolManager.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, guard);
+            return guard.proxy;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                release();
+                return null;
+            }
+            if ("isClosed".equals(name) && closed) {
+                return true;
+            }
+            if (isSqlArgument(method, args)) {
+                inspect((String) args[0]);
+            }
+            Object result = invokeTarget(connection, method, args);
+            if (result instanceof Statement) {
+                return wrapStatement((Statement) result, method.getReturnType());
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Statement statement, Class<?> type) {
+            return Proxy.newProxyInstance(DorisConnectionPoolManager.class.getClassLoader(), new Class<?>[] {type},
+                    (self, method, args) -> {
+                        if (isSqlArgument(method, args)) {
+                            inspect((String) args[0]);
+                        }
+                        if ("getConnection".equals(method.getName())) {
+                            return this.proxy;
+                        }
+                        return invokeTarget(statement, method, args);
+                    });
+        }
+
+        private void inspect(String sql) {
+            if (!sessionDirty && sql != null && SESSION_MUTATING_SQL.matcher(sql).find()) {
+                sessionDirty = true;
+            }
+        }
+
+        private synchronized void release() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (sessionDirty) {
+                // 淘汰物理连接，连接池按需新建干净的连接
+                dataSource.evictConnection(connection);
+                return;
+            }
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                dataSource.evictConnection(connection);
+                return;
+            }
+            connection.close();
+        }
+
+        private static boolean isSqlArgument(Method method, Object[] args) {
+            String name = method.getName();
+            return args != null && args.length > 0 && args[0] instanceof String
+                    && (name.startsWith("execute") || name.startsWith("prepare") || "addBatch".equals(name));
+        }
+
+        private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class ClusterPools {
+        private final String fingerprint;
+        private final Map<String, PooledSource> sources = new ConcurrentHashMap<>();
+
+        private ClusterPools(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static class PooledSource {
+        private final String poolName;
+        private final String username;
+        private final String passwordDigest;
+        private final HikariDataSource dataSource;
+        private final PoolMetricsTracker tracker;
+        private final long createdAtMillis = System.currentTimeMillis();
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private PooledSource(String poolName, String username, String passwordDigest, HikariDataSource dataSource,
+                PoolMetricsTracker tracker) {
+            this.poolName = poolName;
+            this.username = username;
+            this.passwordDigest = passwordDigest;
+            this.dataSource = dataSource;
+            this.tracker = tracker;
+        }
+
+        private DorisConnectionPoolMetrics toMetrics(Long clusterId) {
+            DorisConnectionPoolMetrics metrics = new DorisConnectionPoolMetrics();
+            metrics.setClusterId(clusterId);
+            metrics.setPoolName(poolName);
+            metrics.setUsername(username);
+            metrics.setMaximumPoolSize(dataSource.getMaximumPoolSize());
+            metrics.setCreatedAt(createdAt);
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null) {
+                metrics.setActiveConnections(pool.getActiveConnections());
+                metrics.setIdleConnections(pool.getIdleConnections());
+                metrics.setTotalConnections(pool.getTotalConnections());
+                metrics.setPendingThreads(pool.getThreadsAwaitingConnection());
+            }
+
+            long created = tracker.createdCount.sum();
+            long acquired = tracker.acquireCount.sum();
+            double uptimeMinutes = Math.max(1L, System.currentTimeMillis() - createdAtMillis) / 60000.0;
+            metrics.setConnectionsCreated(created);
+            metrics.setConnectionCreationRatePerMinute(created / uptimeMinutes);
+            metrics.setAvgConnectionCreateMillis(created == 0 ? 0D : (double) tracker.createMillis.sum() / created);
+            metrics.setAcquireCount(acquired);
+            metrics.setAvgAcquireWaitMillis(acquired == 0 ? 0D
+                    : tracker.acquireNanos.sum() / (double) acquired / TimeUnit.MILLISECONDS.toNanos(1));
+            metrics.setMaxAcquireWaitMillis(tracker.maxAcquireNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+            metrics.setTimeoutCount(tracker.timeoutCount.sum());
+            return metrics;
+        }
+    }
+
+    /**
+     * 连接池指标采集：物理连接创建耗时、借出等待时间与超时次数。
+     */
+    private static class PoolMetricsTracker implements IMetricsTracker {
+        private final LongAdder createdCount = new LongAdder();
+        private final LongAdder createMillis = new LongAdder();
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final LongAdder timeoutCount = new LongAdder();
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            createdCount.increment();
+            createMillis.add(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCount.increment();
+        }
+
+        private void recordAcquire(long elapsedNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+    }
+}
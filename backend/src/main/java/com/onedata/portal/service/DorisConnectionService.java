@@ -3,12 +3,15 @@ package com.onedata.portal.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.onedata.portal.config.DorisJdbcProperties;
 import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.ColumnarResultSet;
+import com.onedata.portal.dto.DorisConnectionPoolMetrics;
 import com.onedata.portal.dto.DorisCredential;
 import com.onedata.portal.dto.TableStatistics;
 import com.onedata.portal.entity.DorisCluster;
 import com.onedata.portal.entity.DataField;
 import com.onedata.portal.mapper.DorisClusterMapper;
 import com.onedata.portal.util.DorisCreateTableUtils;
+import com.onedata.portal.util.TableNameUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,11 +34,14 @@ public class DorisConnectionService {
     private final DorisClusterMapper dorisClusterMapper;
     private final DorisJdbcProperties dorisJdbcProperties;
     private final UserMappingService userMappingService;
+    private final DorisConnectionPoolManager dorisConnectionPoolManager;
     private static final Pattern NUMERIC_PATTERN = Pattern.compile("^-?\\d+(\\.\\d+)?$");
     private static final Pattern SIZE_WITH_UNIT_PATTERN = Pattern.compile("^([0-9]+(?:\\.[0-9]+)?)\\s*([KMGT]?B)?$",
             Pattern.CASE_INSENSITIVE);
     private static final Set<String> SYSTEM_DATABASES = new HashSet<>(
             Arrays.asList("information_schema", "mysql", "performance_schema", "sys"));
+    private static final String COLUMN_SELECT_LIST = "COLUMN_NAME, COLUMN_TYPE, DATA_TYPE, IS_NULLABLE, COLUMN_DEFAULT, "
+            + "COLUMN_COMMENT, ORDINAL_POSITION, COLUMN_KEY";
 
     /**
      * 执行 SQL (主要用于创建表等 DDL)
@@ -96,9 +102,6 @@ public class DorisConnectionService {
      * 否则使用集群默认凭据
      */
     private Connection getConnection(DorisCluster cluster, String database) throws SQLException {
-        String targetDb = StringUtils.hasText(database) ? database : dorisJdbcProperties.getDefaultDatabase();
-        String url = buildJdbcUrl(cluster, targetDb);
-
         // 尝试从用户上下文获取用户ID
         String userId = UserContextHolder.getCurrentUserId();
 
@@ -131,17 +134,15 @@ public class DorisConnectionService {
             }
         }
 
-        Connection connection = DriverManager.getConnection(url, username, password);
-        applySessionCharset(connection);
-        return connection;
+        return dorisConnectionPoolManager.getConnection(cluster, username, password, database);
     }
 
-    private String buildJdbcUrl(DorisCluster cluster, String database) {
-        String template = dorisJdbcProperties.getUrlTemplate();
-        if (!StringUtils.hasText(template)) {
-            throw new IllegalStateException("doris.jdbc.url-template 未配置，请在 application.yml 或环境变量中指定");
-        }
-        return String.format(template, cluster.getFeHost(), cluster.getFePort(), database);
+    /**
+     * 获取集群连接池指标
+     */
+    public List<DorisConnectionPoolMetrics> getConnectionPoolMetrics(Long clusterId) {
+        resolveCluster(clusterId);
+        return dorisConnectionPoolManager.getMetrics(clusterId);
     }
 
     private DorisCluster resolveCluster(Long clusterId) {
@@ -229,6 +230,31 @@ public class DorisConnectionService {
         }
     }
 
+    /**
+     * 批量获取同一数据库下多张表的 Tablet 统计，复用一个连接依次执行 SHOW TABLETS。
+     * 返回 key 为表名，无法获取统计的表不在结果中。
+     */
+    public Map<String, TableTabletStats> getDatabaseTabletStats(Long clusterId, String database,
+            Collection<String> tableNames) {
+        Map<String, TableTabletStats> result = new HashMap<>();
+        if (clusterId == null || !StringUtils.hasText(database) || tableNames == null || tableNames.isEmpty()) {
+            return result;
+        }
+        DorisCluster cluster = resolveCluster(clusterId);
+        try (Connection connection = getConnection(cluster, null)) {
+            for (String tableName : tableNames) {
+                if (!StringUtils.hasText(tableName)) {
+                    continue;
+                }
+                queryTableTabletStats(connection, database.trim(), tableName.trim())
+                        .ifPresent(stats -> result.put(tableName, stats));
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to fetch tablet stats for database {}, reason={}", database, e.getMessage());
+        }
+        return result;
+    }
+
     private Optional<TableTabletStats> queryTableTabletStats(Connection connection, String database, String tableName) {
         String sql = String.format("SHOW TABLETS FROM `%s`.`%s`", database, tableName);
         try (Statement stmt = connection.createStatement();
@@ -432,34 +458,6 @@ public class DorisConnectionService {
         }
     }
 
-    private void applySessionCharset(Connection connection) {
-        if (!dorisJdbcProperties.isSessionCharsetEnabled()) {
-            return;
-        }
-        String primaryCharset = dorisJdbcProperties.getSessionCharset();
-        if (!StringUtils.hasText(primaryCharset)) {
-            return;
-        }
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute("SET NAMES " + primaryCharset);
-        } catch (SQLException primaryEx) {
-            String fallbackCharset = dorisJdbcProperties.getSessionCharsetFallback();
-            if (!StringUtils.hasText(fallbackCharset) || fallbackCharset.equalsIgnoreCase(primaryCharset)) {
-                log.warn("Failed to set Doris session charset to {}. reason={}", primaryCharset,
-                        primaryEx.getMessage());
-                return;
-            }
-            log.warn("Doris does not support {} charset, fallback to {}. reason={}", primaryCharset, fallbackCharset,
-                    primaryEx.getMessage());
-            try (Statement fallback = connection.createStatement()) {
-                fallback.execute("SET NAMES " + fallbackCharset);
-            } catch (SQLException secondaryEx) {
-                log.warn("Failed to set Doris session charset to {}. reason={}", fallbackCharset,
-                        secondaryEx.getMessage());
-            }
-        }
-    }
-
     private String abbreviate(String sql) {
         if (!StringUtils.hasText(sql)) {
             return "";
@@ -834,11 +832,36 @@ public class DorisConnectionService {
     }
 
     /**
-     * 预览表数据
+     * 获取表的分区名称列表（非分区表返回空列表）
+     */
+    public List<String> getPartitionNames(Long clusterId, String database, String tableName) {
+        DorisCluster cluster = resolveCluster(clusterId);
+        String sql = "SHOW PARTITIONS FROM `" + TableNameUtils.requireSafeIdentifier(database, "数据库名称")
+                + "`.`" + TableNameUtils.requireSafeIdentifier(tableName, "表名称") + "`";
+        List<String> partitions = new ArrayList<>();
+
+        try (Connection connection = getConnection(cluster, database);
+                Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String partitionName = rs.getString("PartitionName");
+                // 非分区表只有一个与表同名的默认分区
+                if (StringUtils.hasText(partitionName) && !partitionName.equals(tableName)) {
+                    partitions.add(partitionName);
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to list partitions for {}.{}", database, tableName, e);
+            throw new RuntimeException("获取表分区失败: " + e.getMessage(), e);
+        }
+        return partitions;
+    }
+
+    /**
+     * 预览表数据（列式存储）
      */
-    public List<Map<String, Object>> previewTableData(Long clusterId, String database, String tableName, int limit) {
+    public ColumnarResultSet previewTableData(Long clusterId, String database, String tableName, int limit) {
         DorisCluster cluster = resolveCluster(clusterId);
-        List<Map<String, Object>> result = new ArrayList<>();
 
         // 限制最大预览行数
         int maxLimit = Math.min(limit, 1000);
@@ -848,24 +871,15 @@ public class DorisConnectionService {
                 Statement stmt = connection.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-
+            ColumnarResultSet result = ColumnarResultSet.fromMetaData(rs.getMetaData());
             while (rs.next()) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnName(i);
-                    Object value = rs.getObject(i);
-                    row.put(columnName, value);
-                }
-                result.add(row);
+                result.appendRow(rs);
             }
+            return result;
         } catch (SQLException e) {
             log.error("Failed to preview data for {}.{}", database, tableName, e);
             throw new RuntimeException("预览表数据失败: " + e.getMessage(), e);
         }
-
-        return result;
     }
 
     /**
@@ -979,15 +993,7 @@ public class DorisConnectionService {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> table = new HashMap<>();
-                    table.put("tableName", rs.getString("TABLE_NAME"));
-                    table.put("tableType", rs.getString("TABLE_TYPE"));
-                    table.put("tableComment", rs.getString("TABLE_COMMENT"));
-                    table.put("createTime", rs.getTimestamp("CREATE_TIME"));
-                    table.put("updateTime", rs.getTimestamp("UPDATE_TIME"));
-                    table.put("tableRows", rs.getLong("TABLE_ROWS"));
-                    table.put("dataLength", rs.getLong("DATA_LENGTH"));
-                    tables.add(table);
+                    tables.add(mapTable(rs));
                 }
             }
         } catch (SQLException e) {
@@ -998,6 +1004,62 @@ public class DorisConnectionService {
         return tables;
     }
 
+    /**
+     * 一次查询获取指定数据库下所有表的同步指纹：在 {@link #getTablesInDatabase} 的基础上附带列数
+     * （columnCount）与按列名、类型、可空、键、默认值、注释和位置计算的结构哈希（schemaHash）。
+     * 结构哈希为逐列哈希之和，与列的返回顺序无关；没有列信息的表两者均为 null
+     */
+    public List<Map<String, Object>> getTableFingerprints(Long clusterId, String database) {
+        DorisCluster cluster = resolveCluster(clusterId);
+        List<Map<String, Object>> tables = new ArrayList<>();
+
+        // MySQL 无 murmur_hash3_32，Doris 早期版本无 CRC32
+        String hashFunction = "MYSQL".equalsIgnoreCase(cluster.getSourceType()) ? "CRC32" : "murmur_hash3_32";
+        String sql = "SELECT t.TABLE_NAME, t.TABLE_TYPE, t.TABLE_COMMENT, t.CREATE_TIME, t.UPDATE_TIME, t.TABLE_ROWS, "
+                + "t.DATA_LENGTH, c.COLUMN_COUNT, c.SCHEMA_HASH "
+                + "FROM information_schema.tables t LEFT JOIN ("
+                + "SELECT TABLE_NAME, COUNT(*) AS COLUMN_COUNT, SUM(" + hashFunction + "(CONCAT_WS('|', "
+                + "ORDINAL_POSITION, COLUMN_NAME, COLUMN_TYPE, DATA_TYPE, IS_NULLABLE, COLUMN_KEY, COLUMN_DEFAULT, "
+                + "COLUMN_COMMENT))) AS SCHEMA_HASH "
+                + "FROM information_schema.columns WHERE TABLE_SCHEMA = ? GROUP BY TABLE_NAME"
+                + ") c ON c.TABLE_NAME = t.TABLE_NAME WHERE t.TABLE_SCHEMA = ?";
+
+        try (Connection connection = getConnection(cluster, null);
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+
+            stmt.setString(1, database);
+            stmt.setString(2, database);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> table = mapTable(rs);
+                    long columnCount = rs.getLong("COLUMN_COUNT");
+                    table.put("columnCount", rs.wasNull() ? null : columnCount);
+                    long schemaHash = rs.getLong("SCHEMA_HASH");
+                    table.put("schemaHash", rs.wasNull() ? null : schemaHash);
+                    tables.add(table);
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Failed to get table fingerprints from database {}", database, e);
+            throw new RuntimeException("获取表指纹失败: " + e.getMessage(), e);
+        }
+
+        return tables;
+    }
+
+    private Map<String, Object> mapTable(ResultSet rs) throws SQLException {
+        Map<String, Object> table = new HashMap<>();
+        table.put("tableName", rs.getString("TABLE_NAME"));
+        table.put("tableType", rs.getString("TABLE_TYPE"));
+        table.put("tableComment", rs.getString("TABLE_COMMENT"));
+        table.put("createTime", rs.getTimestamp("CREATE_TIME"));
+        table.put("updateTime", rs.getTimestamp("UPDATE_TIME"));
+        table.put("tableRows", rs.getLong("TABLE_ROWS"));
+        table.put("dataLength", rs.getLong("DATA_LENGTH"));
+        return table;
+    }
+
     /**
      * 获取指定表的所有列信息
      */
@@ -1006,8 +1068,8 @@ public class DorisConnectionService {
         List<Map<String, Object>> columns = new ArrayList<>();
 
         boolean isMysql = "MYSQL".equalsIgnoreCase(cluster.getSourceType());
-        String sql = "SELECT COLUMN_NAME, COLUMN_TYPE, DATA_TYPE, IS_NULLABLE, COLUMN_DEFAULT, COLUMN_COMMENT, ORDINAL_POSITION, COLUMN_KEY "
-                + "FROM information_schema.columns WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
+        String sql = "SELECT " + COLUMN_SELECT_LIST
+                + " FROM information_schema.columns WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
 
         try (Connection connection = getConnection(cluster, null);
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -1017,40 +1079,126 @@ public class DorisConnectionService {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> column = new HashMap<>();
-                    column.put("columnName", rs.getString("COLUMN_NAME"));
-                    column.put("dataType", resolveColumnDataType(rs));
-                    column.put("isNullable", "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")) ? 1 : 0);
-                    column.put("defaultValue", rs.getString("COLUMN_DEFAULT"));
-                    column.put("columnComment", rs.getString("COLUMN_COMMENT"));
-                    column.put("ordinalPosition", rs.getInt("ORDINAL_POSITION"));
-                    column.put("columnKey", rs.getString("COLUMN_KEY"));
-                    column.put("isPrimary", "PRI".equalsIgnoreCase(rs.getString("COLUMN_KEY")) ? 1 : 0);
-                    columns.add(column);
+                    columns.add(mapColumn(rs));
                 }
             }
 
             // Doris 某些版本中 information_schema.columns.COLUMN_TYPE 可能为空，回退到 SHOW FULL COLUMNS.Type。
             if (!isMysql) {
-                Map<String, String> fallbackTypeMap = loadColumnTypesByShowFullColumns(connection, database, tableName);
-                for (Map<String, Object> column : columns) {
-                    String currentType = (String) column.get("dataType");
-                    if (StringUtils.hasText(currentType)) {
-                        continue;
+                fillMissingColumnTypes(connection, database, tableName, columns);
+            }
+        } catch (SQLException e) {
+            log.error("Failed to get columns from table {}.{}", database, tableName, e);
+            throw new RuntimeException("获取列信息失败: " + e.getMessage(), e);
+        }
+
+        return columns;
+    }
+
+    /**
+     * 一次查询获取指定数据库下所有表的列信息，按表名分组（表名 -> 按 ORDINAL_POSITION 排序的列）
+     */
+    public Map<String, List<Map<String, Object>>> getColumnsInDatabase(Long clusterId, String database) {
+        Map<String, Map<String, List<Map<String, Object>>>> columns =
+                getColumnsInDatabases(clusterId, Collections.singletonList(database));
+        return columns.getOrDefault(database, Collections.emptyMap());
+    }
+
+    /**
+     * 一次流式查询 information_schema.columns 获取多个数据库（为空时为整个数据源的非系统库）的列信息，
+     * 按库名 -> 表名分组，替代逐表调用 {@link #getColumnsInTable}；列类型为空时仅对这些表回退 SHOW FULL COLUMNS
+     */
+    public Map<String, Map<String, List<Map<String, Object>>>> getColumnsInDatabases(Long clusterId,
+            Collection<String> databases) {
+        DorisCluster cluster = resolveCluster(clusterId);
+        boolean isMysql = "MYSQL".equalsIgnoreCase(cluster.getSourceType());
+        boolean allDatabases = databases == null || databases.isEmpty();
+        Collection<String> schemas = allDatabases ? SYSTEM_DATABASES : databases;
+
+        String placeholders = String.join(", ", Collections.nCopies(schemas.size(), "?"));
+        String sql = "SELECT TABLE_SCHEMA, TABLE_NAME, " + COLUMN_SELECT_LIST
+                + " FROM information_schema.columns WHERE TABLE_SCHEMA "
+                + (allDatabases ? "NOT IN (" : "IN (") + placeholders + ")";
+
+        Map<String, Map<String, List<Map<String, Object>>>> result = new HashMap<>();
+        int columnCount = 0;
+        try (Connection connection = getConnection(cluster, null)) {
+            try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                // MySQL 协议驱动仅在 fetchSize 为 Integer.MIN_VALUE 时逐行拉取，否则会缓存完整结果集
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                int index = 1;
+                for (String schema : schemas) {
+                    stmt.setString(index++, schema);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        result.computeIfAbsent(rs.getString("TABLE_SCHEMA"), db -> new HashMap<>())
+                                .computeIfAbsent(rs.getString("TABLE_NAME"), table -> new ArrayList<>())
+                                .add(mapColumn(rs));
+                        columnCount++;
                     }
-                    String columnName = (String) column.get("columnName");
-                    String fallbackType = fallbackTypeMap.get(columnName);
-                    if (StringUtils.hasText(fallbackType)) {
-                        column.put("dataType", fallbackType);
+                }
+            }
+
+            Comparator<Map<String, Object>> byPosition = Comparator.comparingInt(
+                    column -> (Integer) column.get("ordinalPosition"));
+            for (Map.Entry<String, Map<String, List<Map<String, Object>>>> db : result.entrySet()) {
+                for (Map.Entry<String, List<Map<String, Object>>> table : db.getValue().entrySet()) {
+                    table.getValue().sort(byPosition);
+                    if (!isMysql && hasMissingColumnType(table.getValue())) {
+                        fillMissingColumnTypes(connection, db.getKey(), table.getKey(), table.getValue());
                     }
                 }
             }
         } catch (SQLException e) {
-            log.error("Failed to get columns from table {}.{}", database, tableName, e);
+            log.error("Failed to get columns from databases {}", allDatabases ? "*" : databases, e);
             throw new RuntimeException("获取列信息失败: " + e.getMessage(), e);
         }
 
-        return columns;
+        log.debug("Loaded {} columns of {} databases in one query", columnCount, result.size());
+        return result;
+    }
+
+    private Map<String, Object> mapColumn(ResultSet rs) throws SQLException {
+        Map<String, Object> column = new HashMap<>();
+        column.put("columnName", rs.getString("COLUMN_NAME"));
+        column.put("dataType", resolveColumnDataType(rs));
+        column.put("isNullable", "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")) ? 1 : 0);
+        column.put("defaultValue", rs.getString("COLUMN_DEFAULT"));
+        column.put("columnComment", rs.getString("COLUMN_COMMENT"));
+        column.put("ordinalPosition", rs.getInt("ORDINAL_POSITION"));
+        column.put("columnKey", rs.getString("COLUMN_KEY"));
+        column.put("isPrimary", "PRI".equalsIgnoreCase(rs.getString("COLUMN_KEY")) ? 1 : 0);
+        return column;
+    }
+
+    private boolean hasMissingColumnType(List<Map<String, Object>> columns) {
+        for (Map<String, Object> column : columns) {
+            if (!StringUtils.hasText((String) column.get("dataType"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fillMissingColumnTypes(Connection connection, String database, String tableName,
+            List<Map<String, Object>> columns) {
+        if (!hasMissingColumnType(columns)) {
+            return;
+        }
+        Map<String, String> fallbackTypeMap = loadColumnTypesByShowFullColumns(connection, database, tableName);
+        for (Map<String, Object> column : columns) {
+            String currentType = (String) column.get("dataType");
+            if (StringUtils.hasText(currentType)) {
+                continue;
+            }
+            String columnName = (String) column.get("columnName");
+            String fallbackType = fallbackTypeMap.get(columnName);
+            if (StringUtils.hasText(fallbackType)) {
+                column.put("dataType", fallbackType);
+            }
+        }
     }
 
     private String toEscapedLikePattern(String keyword) {
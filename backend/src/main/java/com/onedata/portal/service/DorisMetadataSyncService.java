@@ -2,6 +2,8 @@ package com.onedata.portal.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.onedata.portal.config.MetadataSyncProperties;
+import com.onedata.portal.context.UserContextHolder;
 import com.onedata.portal.entity.DataLineage;
 import com.onedata.portal.entity.DataField;
 import com.onedata.portal.entity.DataTable;
@@ -19,11 +21,24 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -41,12 +56,25 @@ public class DorisMetadataSyncService {
     private final TableTaskRelationMapper tableTaskRelationMapper;
     private final DataLineageMapper dataLineageMapper;
     private final TableStatisticsHistoryMapper tableStatisticsHistoryMapper;
+    private final MetadataSyncProperties metadataSyncProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final TableReferenceMatcherService tableReferenceMatcherService;
+
+    /**
+     * 各数据源同时同步的数据库数许可，跨多次同步共享；配置的并发数变化时重建
+     */
+    private final Map<Long, ClusterPermits> clusterPermits = new ConcurrentHashMap<>();
+
+    /**
+     * 各数据源最近一次全量同步完成时间，增量同步据此定期回退全量同步
+     */
+    private final Map<Long, LocalDateTime> lastFullSyncTimes = new ConcurrentHashMap<>();
 
     private static final Set<String> IGNORED_DATABASES = new HashSet<>(Arrays.asList("performance_schema", "sys"));
     private static final int MAX_COMMENT_LENGTH = 5000;
 
     /**
-     * 同步结果
+     * 同步结果（线程安全，支持并行同步时汇总各数据库结果）
      */
     public static class SyncResult {
         private int newTables = 0;
@@ -57,76 +85,103 @@ public class DorisMetadataSyncService {
         private int deletedTables = 0;
         private int blockedDeletedTables = 0;
         private int inactivatedTables = 0;
+        private int unchangedTables = 0;
         private List<String> errors = new ArrayList<>();
         private final ChangeDetails changeDetails = new ChangeDetails();
 
-        public void addNewTable() {
+        public synchronized void addNewTable() {
             newTables++;
         }
 
-        public void addUpdatedTable() {
+        public synchronized void addUpdatedTable() {
             updatedTables++;
         }
 
-        public void addNewField() {
+        public synchronized void addNewField() {
             newFields++;
         }
 
-        public void addUpdatedField() {
+        public synchronized void addUpdatedField() {
             updatedFields++;
         }
 
-        public void addDeletedField() {
+        public synchronized void addDeletedField() {
             deletedFields++;
         }
 
-        public void addDeletedTable() {
+        public synchronized void addDeletedTable() {
             deletedTables++;
         }
 
-        public void addBlockedDeletedTable() {
+        public synchronized void addBlockedDeletedTable() {
             blockedDeletedTables++;
         }
 
-        public void addInactivatedTable() {
+        public synchronized void addInactivatedTable() {
             inactivatedTables++;
         }
 
-        public void addError(String error) {
+        public synchronized void addUnchangedTables(int count) {
+            unchangedTables += count;
+        }
+
+        public synchronized void addError(String error) {
             errors.add(error);
         }
 
-        public void addAddedTableDetail(String database, String tableName, String summary) {
+        public synchronized void addAddedTableDetail(String database, String tableName, String summary) {
             changeDetails.addAdded(new ChangeItem("TABLE", database, tableName, null, summary, Collections.emptyMap()));
         }
 
-        public void addUpdatedTableDetail(String database, String tableName, String summary, Map<String, Object> changes) {
+        public synchronized void addUpdatedTableDetail(String database, String tableName, String summary, Map<String, Object> changes) {
             changeDetails.addUpdated(new ChangeItem("TABLE", database, tableName, null, summary, sanitizeChanges(changes)));
         }
 
-        public void addDeletedTableDetail(String database, String tableName, String summary) {
+        public synchronized void addDeletedTableDetail(String database, String tableName, String summary) {
             changeDetails.addDeleted(new ChangeItem("TABLE", database, tableName, null, summary, Collections.emptyMap()));
         }
 
-        public void addAddedFieldDetail(String database,
+        public synchronized void addAddedFieldDetail(String database,
                 String tableName,
                 String fieldName,
                 Map<String, Object> changes) {
             changeDetails.addAdded(new ChangeItem("FIELD", database, tableName, fieldName, "新增字段", sanitizeChanges(changes)));
         }
 
-        public void addUpdatedFieldDetail(String database,
+        public synchronized void addUpdatedFieldDetail(String database,
                 String tableName,
                 String fieldName,
                 Map<String, Object> changes) {
             changeDetails.addUpdated(new ChangeItem("FIELD", database, tableName, fieldName, "字段属性更新", sanitizeChanges(changes)));
         }
 
-        public void addDeletedFieldDetail(String database, String tableName, String fieldName) {
+        public synchronized void addDeletedFieldDetail(String database, String tableName, String fieldName) {
             changeDetails.addDeleted(new ChangeItem("FIELD", database, tableName, fieldName, "删除字段", Collections.emptyMap()));
         }
 
-        public ChangeDetails getChangeDetails() {
+        /**
+         * 合并另一个同步结果（并行同步时每个数据库独立累计，完成后汇总）
+         */
+        public synchronized void merge(SyncResult other) {
+            if (other == null || other == this) {
+                return;
+            }
+            synchronized (other) {
+                newTables += other.newTables;
+                updatedTables += other.updatedTables;
+                newFields += other.newFields;
+                updatedFields += other.updatedFields;
+                deletedFields += other.deletedFields;
+                deletedTables += other.deletedTables;
+                blockedDeletedTables += other.blockedDeletedTables;
+                inactivatedTables += other.inactivatedTables;
+                unchangedTables += other.unchangedTables;
+                errors.addAll(other.errors);
+                changeDetails.addAll(other.changeDetails);
+            }
+        }
+
+        public synchronized ChangeDetails getChangeDetails() {
             return changeDetails;
         }
 
@@ -137,43 +192,50 @@ public class DorisMetadataSyncService {
             return new LinkedHashMap<>(changes);
         }
 
-        public int getNewTables() {
+        public synchronized int getNewTables() {
             return newTables;
         }
 
-        public int getUpdatedTables() {
+        public synchronized int getUpdatedTables() {
             return updatedTables;
         }
 
-        public int getNewFields() {
+        public synchronized int getNewFields() {
             return newFields;
         }
 
-        public int getUpdatedFields() {
+        public synchronized int getUpdatedFields() {
             return updatedFields;
         }
 
-        public int getDeletedFields() {
+        public synchronized int getDeletedFields() {
             return deletedFields;
         }
 
-        public int getDeletedTables() {
+        public synchronized int getDeletedTables() {
             return deletedTables;
         }
 
-        public int getInactivatedTables() {
+        public synchronized int getInactivatedTables() {
             return inactivatedTables;
         }
 
-        public int getBlockedDeletedTables() {
+        public synchronized int getBlockedDeletedTables() {
             return blockedDeletedTables;
         }
 
-        public List<String> getErrors() {
+        /**
+         * 增量同步中指纹未变化而跳过的表数
+         */
+        public synchronized int getUnchangedTables() {
+            return unchangedTables;
+        }
+
+        public synchronized List<String> getErrors() {
             return errors;
         }
 
-        public String getStatus() {
+        public synchronized String getStatus() {
             if (errors == null || errors.isEmpty()) {
                 return "SUCCESS";
             }
@@ -183,15 +245,22 @@ public class DorisMetadataSyncService {
         }
 
         @Override
-        public String toString() {
+        public synchronized String toString() {
             return String.format(
-                    "SyncResult{status=%s, newTables=%d, updatedTables=%d, deletedTables=%d, blockedDeletedTables=%d, inactivatedTables=%d, newFields=%d, updatedFields=%d, deletedFields=%d, errors=%d, changeDetails={added=%d, updated=%d, deleted=%d}}",
+                    "SyncResult{status=%s, newTables=%d, updatedTables=%d, deletedTables=%d, blockedDeletedTables=%d, inactivatedTables=%d, unchangedTables=%d, newFields=%d, updatedFields=%d, deletedFields=%d, errors=%d, changeDetails={added=%d, updated=%d, deleted=%d}}",
                     getStatus(), newTables, updatedTables, deletedTables, blockedDeletedTables, inactivatedTables,
-                    newFields, updatedFields, deletedFields, errors.size(),
+                    unchangedTables, newFields, updatedFields, deletedFields, errors.size(),
                     changeDetails.getAdded().size(), changeDetails.getUpdated().size(), changeDetails.getDeleted().size());
         }
     }
 
+    /**
+     * 全量同步进度回调，在发起同步的线程中按数据库完成顺序调用
+     */
+    public interface SyncProgressListener {
+        void onProgress(int completedDatabases, int totalDatabases, SyncResult result);
+    }
+
     /**
      * 同步变更明细
      */
@@ -218,6 +287,12 @@ public class DorisMetadataSyncService {
             }
         }
 
+        void addAll(ChangeDetails other) {
+            added.addAll(other.added);
+            updated.addAll(other.updated);
+            deleted.addAll(other.deleted);
+        }
+
         public List<ChangeItem> getAdded() {
             return added;
         }
@@ -465,6 +540,7 @@ public class DorisMetadataSyncService {
 
         // 获取 Doris 中的所有表
         List<Map<String, Object>> dorisTables = dorisConnectionService.getTablesInDatabase(clusterId, database);
+        Map<String, List<Map<String, Object>>> columnsByTable = loadColumnsByTable(clusterId, database, dorisTables);
 
         // 获取本地已存在的表
         List<DataTable> localTables = dataTableMapper.selectList(
@@ -504,7 +580,10 @@ public class DorisMetadataSyncService {
                     }
 
                     // 比对结构差异
-                    TableDifference diff = compareTable(clusterId, database, tableName, dorisTable, localTable);
+                    List<Map<String, Object>> dorisColumns = resolveColumns(clusterId, database, tableName,
+                            columnsByTable);
+                    TableDifference diff = compareTable(clusterId, database, tableName, dorisTable, dorisColumns,
+                            localTable);
                     if (diff != null && (!diff.getChanges().isEmpty() || !diff.getFieldDifferences().isEmpty())) {
                         result.addTableDifference(diff);
                     }
@@ -604,15 +683,13 @@ public class DorisMetadataSyncService {
      * 比对单个表的结构差异（只比对结构，不比对统计信息）
      */
     private TableDifference compareTable(Long clusterId, String database, String tableName,
-            Map<String, Object> dorisTable, DataTable localTable) {
+            Map<String, Object> dorisTable, List<Map<String, Object>> dorisColumns, DataTable localTable) {
         TableDifference diff = new TableDifference(database, tableName, DifferenceType.UPDATED);
 
         try {
             // 获取表的详细信息
             Map<String, Object> tableCreateInfo = dorisConnectionService.getTableCreateInfo(clusterId, database,
                     tableName);
-            List<Map<String, Object>> dorisColumns = dorisConnectionService.getColumnsInTable(clusterId, database,
-                    tableName);
             String dorisTableType = normalizeTableType((String) dorisTable.get("tableType"));
             boolean viewType = isViewType(dorisTableType);
 
@@ -737,12 +814,29 @@ public class DorisMetadataSyncService {
     /**
      * 同步指定集群的所有元数据
      */
-    @Transactional(rollbackFor = Exception.class)
     public SyncResult syncAllMetadata(Long clusterId) {
+        return syncAllMetadata(clusterId, null);
+    }
+
+    /**
+     * 同步指定集群的所有元数据，每个数据库在独立事务中同步；开启并行时按数据库分发到有界线程池，
+     * 每完成一个数据库回调一次进度
+     */
+    public SyncResult syncAllMetadata(Long clusterId, SyncProgressListener listener) {
+        return syncAllMetadata(clusterId, false, listener);
+    }
+
+    /**
+     * 同步指定集群的所有元数据；incremental 为 true 时按表指纹只深度同步有变化的表（需开启
+     * metadata-sync.incremental-enabled），距上次全量同步超过配置间隔时自动改为全量同步
+     */
+    public SyncResult syncAllMetadata(Long clusterId, boolean incremental, SyncProgressListener listener) {
         DorisCluster cluster = resolveCluster(clusterId);
         boolean isDoris = isDorisCluster(cluster);
+        boolean incrementalSync = incremental && !isFullSyncDue(clusterId);
+        LocalDateTime startedAt = LocalDateTime.now();
         SyncResult result = new SyncResult();
-        log.info("Starting metadata sync for cluster: {}", clusterId);
+        log.info("Starting {} metadata sync for cluster: {}", incrementalSync ? "incremental" : "full", clusterId);
 
         try {
             // 获取所有数据库
@@ -750,20 +844,30 @@ public class DorisMetadataSyncService {
                     .filter(db -> !IGNORED_DATABASES.contains(db))
                     .collect(Collectors.toList());
             log.info("Found {} databases to sync", databases.size());
+            notifyProgress(listener, 0, databases.size(), result);
 
-            for (String database : databases) {
-                try {
-                    syncDatabaseInternal(clusterId, database, result, isDoris);
-                } catch (Exception e) {
-                    log.error("Failed to sync database: {}", database, e);
-                    result.addError("同步数据库 " + database + " 失败: " + e.getMessage());
+            if (metadataSyncProperties.isParallelEnabled() && databases.size() > 1) {
+                syncDatabasesInParallel(clusterId, databases, isDoris, incrementalSync, result, listener);
+            } else {
+                int completed = 0;
+                for (String database : databases) {
+                    result.merge(syncDatabaseIsolated(clusterId, database, isDoris, incrementalSync));
+                    notifyProgress(listener, ++completed, databases.size(), result);
                 }
             }
 
             // 将当前账号不可见数据库中的 active 表降级为 inactive，避免巡检误报历史冗余元数据
-            inactivateTablesInHiddenDatabases(clusterId, databases, result);
+            transactionTemplate.executeWithoutResult(
+                    status -> inactivateTablesInHiddenDatabases(clusterId, databases, result));
 
+            if (!incrementalSync) {
+                lastFullSyncTimes.put(clusterId, startedAt);
+            }
             log.info("Metadata sync completed: {}", result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Metadata sync interrupted for cluster: {}", clusterId);
+            result.addError("同步元数据被中断");
         } catch (Exception e) {
             log.error("Failed to sync metadata", e);
             result.addError("同步元数据失败: " + e.getMessage());
@@ -772,6 +876,126 @@ public class DorisMetadataSyncService {
         return result;
     }
 
+    /**
+     * 按数据库并行同步：同时只提交不超过并发数的数据库，完成一个再提交下一个，任务不会在队列中堆积；
+     * 同一数据源的多次同步共享并发许可，保证打到 Doris FE 的并发不超过配置值
+     */
+    private void syncDatabasesInParallel(Long clusterId,
+            List<String> databases,
+            boolean isDoris,
+            boolean incremental,
+            SyncResult result,
+            SyncProgressListener listener) throws InterruptedException {
+        int threads = Math.min(metadataSyncProperties.resolveWorkerThreads(clusterId), databases.size());
+        Semaphore permits = resolvePermits(clusterId);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, namedThreadFactory("metadata-sync-" + clusterId + "-"));
+        CompletionService<SyncResult> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<SyncResult>, String> running = new HashMap<>();
+        Iterator<String> pending = databases.iterator();
+        int completed = 0;
+        log.info("Syncing {} databases of cluster {} with {} workers", databases.size(), clusterId, threads);
+
+        try {
+            while (running.size() < threads && pending.hasNext()) {
+                submitDatabase(completionService, running, permits, clusterId, pending.next(), isDoris,
+                        incremental);
+            }
+            while (!running.isEmpty()) {
+                Future<SyncResult> done = completionService.take();
+                String database = running.remove(done);
+                try {
+                    result.merge(done.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.error("Failed to sync database: {}", database, cause);
+                    result.addError("同步数据库 " + database + " 失败: " + cause.getMessage());
+                }
+                notifyProgress(listener, ++completed, databases.size(), result);
+                if (pending.hasNext()) {
+                    submitDatabase(completionService, running, permits, clusterId, pending.next(), isDoris,
+                        incremental);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submitDatabase(CompletionService<SyncResult> completionService,
+            Map<Future<SyncResult>, String> running,
+            Semaphore permits,
+            Long clusterId,
+            String database,
+            boolean isDoris,
+            boolean incremental) {
+        // 工作线程沿用发起同步的用户上下文，Doris 元数据查询使用其映射的凭据
+        Future<SyncResult> future = completionService.submit(UserContextHolder.wrap(() -> {
+            permits.acquire();
+            try {
+                return syncDatabaseIsolated(clusterId, database, isDoris, incremental);
+            } finally {
+                permits.release();
+            }
+        }));
+        running.put(future, database);
+    }
+
+    /**
+     * 获取数据源的并发许可；并发数配置变化后新建信号量，进行中的同步仍在旧信号量上归还许可
+     */
+    private Semaphore resolvePermits(Long clusterId) {
+        int configured = metadataSyncProperties.resolveWorkerThreads(clusterId);
+        return clusterPermits.compute(clusterId, (id, existing) ->
+                existing != null && existing.permits == configured ? existing : new ClusterPermits(configured))
+                .semaphore;
+    }
+
+    /**
+     * 在独立事务中同步单个数据库；失败时事务回滚，只返回错误信息
+     */
+    private SyncResult syncDatabaseIsolated(Long clusterId, String database, boolean isDoris, boolean incremental) {
+        SyncResult databaseResult = new SyncResult();
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> syncDatabaseInternal(clusterId, database, databaseResult, isDoris, incremental));
+            return databaseResult;
+        } catch (Exception e) {
+            log.error("Failed to sync database: {}", database, e);
+            SyncResult failed = new SyncResult();
+            failed.addError("同步数据库 " + database + " 失败: " + e.getMessage());
+            return failed;
+        }
+    }
+
+    private void notifyProgress(SyncProgressListener listener, int completed, int total, SyncResult result) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onProgress(completed, total, result);
+        } catch (Exception e) {
+            log.warn("Failed to report metadata sync progress: {}", e.getMessage());
+        }
+    }
+
+    private boolean isFullSyncDue(Long clusterId) {
+        if (!metadataSyncProperties.isIncrementalEnabled()) {
+            return true;
+        }
+        LocalDateTime lastFullSync = lastFullSyncTimes.get(clusterId);
+        return lastFullSync == null || !lastFullSync.plusHours(metadataSyncProperties.getFullSyncIntervalHours())
+                .isAfter(LocalDateTime.now());
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     private void appendInaccessibleDatabaseWarnings(Long clusterId, List<String> visibleDatabases, AuditResult result) {
         Set<String> visible = visibleDatabases == null ? Collections.emptySet() : new HashSet<>(visibleDatabases);
         List<DataTable> localTables = dataTableMapper.selectList(
@@ -827,18 +1051,20 @@ public class DorisMetadataSyncService {
     public SyncResult syncDatabase(Long clusterId, String database, SyncResult result) {
         DorisCluster cluster = resolveCluster(clusterId);
         boolean isDoris = isDorisCluster(cluster);
-        return syncDatabaseInternal(clusterId, database, result, isDoris);
+        return syncDatabaseInternal(clusterId, database, result, isDoris, false);
     }
 
-    private SyncResult syncDatabaseInternal(Long clusterId, String database, SyncResult result, boolean isDoris) {
+    private SyncResult syncDatabaseInternal(Long clusterId, String database, SyncResult result, boolean isDoris,
+            boolean incremental) {
         if (result == null) {
             result = new SyncResult();
         }
 
         log.info("Syncing database: {}", database);
+        int tableSetChangesBefore = result.getNewTables() + result.getDeletedTables();
 
-        // 获取 Doris 中的所有表
-        List<Map<String, Object>> dorisTables = dorisConnectionService.getTablesInDatabase(clusterId, database);
+        // 获取 Doris 中的所有表及其指纹
+        List<Map<String, Object>> dorisTables = dorisConnectionService.getTableFingerprints(clusterId, database);
         log.info("Found {} tables in database {}", dorisTables.size(), database);
 
         // 获取本地已存在的表
@@ -850,26 +1076,55 @@ public class DorisMetadataSyncService {
         Map<String, DataTable> localTableMap = localTables.stream()
                 .collect(Collectors.toMap(DataTable::getTableName, t -> t));
 
-        // 遍历 Doris 中的表
-        for (Map<String, Object> dorisTable : dorisTables) {
+        // 增量同步：指纹未变化的表跳过深度同步，只刷新同步时间
+        List<Map<String, Object>> changedTables = dorisTables;
+        if (incremental) {
+            changedTables = new ArrayList<>();
+            List<Long> unchangedIds = new ArrayList<>();
+            for (Map<String, Object> dorisTable : dorisTables) {
+                DataTable localTable = localTableMap.get((String) dorisTable.get("tableName"));
+                if (isUnchanged(localTable, dorisTable, isDoris)) {
+                    unchangedIds.add(localTable.getId());
+                } else {
+                    changedTables.add(dorisTable);
+                }
+            }
+            touchSyncTime(unchangedIds);
+            result.addUnchangedTables(unchangedIds.size());
+            log.info("Database {}: {} tables changed, {} unchanged", database, changedTables.size(),
+                    unchangedIds.size());
+        }
+        Map<String, List<Map<String, Object>>> columnsByTable = loadColumnsByTable(clusterId, database, changedTables);
+        MetadataWriteBatch batch = newWriteBatch();
+
+        // 遍历 Doris 中需要同步的表
+        for (Map<String, Object> dorisTable : changedTables) {
             String tableName = (String) dorisTable.get("tableName");
 
             try {
                 DataTable localTable = localTableMap.get(tableName);
+                List<Map<String, Object>> columns = resolveColumns(clusterId, database, tableName, columnsByTable);
 
                 if (localTable == null) {
                     // 新表：插入元数据
-                    syncNewTable(clusterId, database, tableName, dorisTable, result, isDoris);
+                    syncNewTable(clusterId, database, tableName, dorisTable, columns, result, isDoris, batch);
                 } else {
                     // 已存在表：更新元数据
-                    syncExistingTable(clusterId, database, tableName, dorisTable, localTable, result, isDoris);
+                    syncExistingTable(clusterId, database, tableName, dorisTable, columns, localTable, result,
+                            isDoris, batch);
                 }
+            } catch (MetadataWriteBatch.FlushException e) {
+                // 自动刷新写入的是多张表的累积数据，失败时整库同步失败并回滚
+                throw e;
             } catch (Exception e) {
                 log.error("Failed to sync table {}.{}", database, tableName, e);
                 result.addError("同步表 " + database + "." + tableName + " 失败: " + e.getMessage());
             }
         }
 
+        // 本库的表、字段与统计快照合并写入
+        batch.flush();
+
         // 处理已删除的表（平台有但 Doris 没有）
         Set<String> dorisTableNames = dorisTables.stream()
                 .map(t -> (String) t.get("tableName"))
@@ -905,6 +1160,10 @@ public class DorisMetadataSyncService {
             }
         }
 
+        // 新增或删除了表时重建审计语句的表引用匹配器
+        if (result.getNewTables() + result.getDeletedTables() != tableSetChangesBefore) {
+            tableReferenceMatcherService.invalidate(clusterId);
+        }
         return result;
     }
 
@@ -953,16 +1212,87 @@ public class DorisMetadataSyncService {
         }
     }
 
+    /**
+     * 本地表指纹与 Doris 当前指纹一致，且不需要恢复 active 状态或修正同步标记时视为未变化
+     */
+    private boolean isUnchanged(DataTable localTable, Map<String, Object> dorisTable, boolean isDoris) {
+        if (localTable == null || localTable.getSyncFingerprint() == null) {
+            return false;
+        }
+        if (!"active".equals(localTable.getStatus())
+                || !Objects.equals(localTable.getIsSynced(), isDoris ? 1 : 0)) {
+            return false;
+        }
+        return localTable.getSyncFingerprint().equals(buildFingerprint(dorisTable));
+    }
+
+    /**
+     * 由表类型、注释、更新时间、行数、存储量、列数与结构哈希计算同步指纹；缺少列信息（非指纹查询结果）时返回 null，
+     * 该表在下次增量同步时会重新深度同步
+     */
+    static String buildFingerprint(Map<String, Object> dorisTable) {
+        Object columnCount = dorisTable.get("columnCount");
+        Object schemaHash = dorisTable.get("schemaHash");
+        if (columnCount == null || schemaHash == null) {
+            return null;
+        }
+        String source = String.join("\u0001",
+                String.valueOf(dorisTable.get("tableType")),
+                String.valueOf(dorisTable.get("tableComment")),
+                String.valueOf(dorisTable.get("updateTime")),
+                String.valueOf(dorisTable.get("tableRows")),
+                String.valueOf(dorisTable.get("dataLength")),
+                String.valueOf(columnCount),
+                String.valueOf(schemaHash));
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void touchSyncTime(List<Long> tableIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < tableIds.size(); start += MetadataWriteBatch.ROW_CHUNK_SIZE) {
+            List<Long> chunk = tableIds.subList(start,
+                    Math.min(tableIds.size(), start + MetadataWriteBatch.ROW_CHUNK_SIZE));
+            dataTableMapper.touchSyncTime(chunk, now);
+        }
+    }
+
+    private MetadataWriteBatch newWriteBatch() {
+        return new MetadataWriteBatch(dataTableMapper, dataFieldMapper, tableStatisticsHistoryMapper);
+    }
+
+    /**
+     * 一次查询取回整个数据库的列信息并按表分组，替代逐表查询 information_schema.columns
+     */
+    private Map<String, List<Map<String, Object>>> loadColumnsByTable(Long clusterId, String database,
+            List<Map<String, Object>> dorisTables) {
+        if (dorisTables == null || dorisTables.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return dorisConnectionService.getColumnsInDatabase(clusterId, database);
+    }
+
+    /**
+     * 取批量查询到的列；批量结果中缺失（如两次查询之间新建的表）时单表补查，避免误删字段
+     */
+    private List<Map<String, Object>> resolveColumns(Long clusterId, String database, String tableName,
+            Map<String, List<Map<String, Object>>> columnsByTable) {
+        List<Map<String, Object>> columns = columnsByTable.get(tableName);
+        if (columns != null) {
+            return columns;
+        }
+        return dorisConnectionService.getColumnsInTable(clusterId, database, tableName);
+    }
+
     /**
      * 同步新表
      */
     private void syncNewTable(Long clusterId, String database, String tableName,
-            Map<String, Object> dorisTable, SyncResult result, boolean isDoris) {
+            Map<String, Object> dorisTable, List<Map<String, Object>> columns, SyncResult result, boolean isDoris,
+            MetadataWriteBatch batch) {
         log.info("Syncing new table: {}.{}", database, tableName);
 
         // 获取表的详细信息
         Map<String, Object> tableCreateInfo = dorisConnectionService.getTableCreateInfo(clusterId, database, tableName);
-        List<Map<String, Object>> columns = dorisConnectionService.getColumnsInTable(clusterId, database, tableName);
         String tableType = normalizeTableType((String) dorisTable.get("tableType"));
         boolean viewType = isViewType(tableType);
 
@@ -1035,25 +1365,27 @@ public class DorisMetadataSyncService {
             newTable.setDorisCreateTime(createTime.toLocalDateTime());
         }
 
-        dataTableMapper.insert(newTable);
+        batch.insertTable(newTable);
         result.addNewTable();
         result.addAddedTableDetail(database, tableName, "新增表并同步平台元数据");
-        recordStatisticsSnapshot(clusterId, database, tableName, newTable);
+        recordStatisticsSnapshot(clusterId, database, tableName, newTable, batch);
 
         // 同步字段
-        syncTableFields(newTable.getId(), database, tableName, columns, result);
+        syncTableFields(newTable, database, tableName, columns, result, batch);
+        // 字段全部入批后才记录指纹，中途失败的表下次增量同步仍会重新同步
+        newTable.setSyncFingerprint(buildFingerprint(dorisTable));
     }
 
     /**
      * 同步已存在的表
      */
     private void syncExistingTable(Long clusterId, String database, String tableName,
-            Map<String, Object> dorisTable, DataTable localTable, SyncResult result, boolean isDoris) {
+            Map<String, Object> dorisTable, List<Map<String, Object>> columns, DataTable localTable,
+            SyncResult result, boolean isDoris, MetadataWriteBatch batch) {
         log.debug("Syncing existing table: {}.{}", database, tableName);
 
         // 获取表的详细信息
         Map<String, Object> tableCreateInfo = dorisConnectionService.getTableCreateInfo(clusterId, database, tableName);
-        List<Map<String, Object>> columns = dorisConnectionService.getColumnsInTable(clusterId, database, tableName);
         String tableType = normalizeTableType((String) dorisTable.get("tableType"));
         boolean viewType = isViewType(tableType);
 
@@ -1261,25 +1593,27 @@ public class DorisMetadataSyncService {
         }
 
         if (updated) {
-            dataTableMapper.updateById(localTable);
+            batch.updateTable(localTable);
             if (!tableChanges.isEmpty()) {
                 result.addUpdatedTable();
                 result.addUpdatedTableDetail(database, tableName, "表元数据更新", tableChanges);
             }
         }
         if (statisticsUpdated) {
-            recordStatisticsSnapshot(clusterId, database, tableName, localTable);
+            recordStatisticsSnapshot(clusterId, database, tableName, localTable, batch);
         }
 
         // 同步字段（增量更新）
-        syncTableFieldsIncremental(localTable.getId(), database, tableName, columns, result);
+        syncTableFieldsIncremental(localTable, database, tableName, columns, result, batch);
+        localTable.setSyncFingerprint(buildFingerprint(dorisTable));
     }
 
     /**
      * 记录统计快照，供趋势分析使用。
      */
-    private void recordStatisticsSnapshot(Long clusterId, String database, String tableName, DataTable table) {
-        if (table == null || table.getId() == null) {
+    private void recordStatisticsSnapshot(Long clusterId, String database, String tableName, DataTable table,
+            MetadataWriteBatch batch) {
+        if (table == null) {
             return;
         }
         if (table.getRowCount() == null && table.getStorageSize() == null && table.getDorisUpdateTime() == null) {
@@ -1288,7 +1622,6 @@ public class DorisMetadataSyncService {
 
         try {
             TableStatisticsHistory history = new TableStatisticsHistory();
-            history.setTableId(table.getId());
             history.setClusterId(clusterId);
             history.setDatabaseName(database);
             history.setTableName(tableName);
@@ -1298,7 +1631,7 @@ public class DorisMetadataSyncService {
             history.setBucketNum(table.getBucketNum());
             history.setTableLastUpdateTime(table.getDorisUpdateTime());
             history.setStatisticsTime(LocalDateTime.now());
-            tableStatisticsHistoryMapper.insert(history);
+            batch.insertStatistics(table, history);
         } catch (Exception e) {
             log.warn("Failed to record statistics snapshot for table {}.{}", database, tableName, e);
         }
@@ -1307,10 +1640,10 @@ public class DorisMetadataSyncService {
     /**
      * 同步表字段（全量插入，用于新表）
      */
-    private void syncTableFields(Long tableId, String database, String tableName, List<Map<String, Object>> columns, SyncResult result) {
+    private void syncTableFields(DataTable table, String database, String tableName, List<Map<String, Object>> columns,
+            SyncResult result, MetadataWriteBatch batch) {
         for (Map<String, Object> column : columns) {
             DataField field = new DataField();
-            field.setTableId(tableId);
             field.setFieldName((String) column.get("columnName"));
             field.setFieldType((String) column.get("dataType"));
             field.setFieldComment(truncateComment((String) column.get("columnComment")));
@@ -1319,7 +1652,7 @@ public class DorisMetadataSyncService {
             field.setDefaultValue((String) column.get("defaultValue"));
             field.setFieldOrder((Integer) column.get("ordinalPosition"));
 
-            dataFieldMapper.insert(field);
+            batch.upsertField(table, field);
             result.addNewField();
             Map<String, Object> fieldChanges = new LinkedHashMap<>();
             addChangedValue(fieldChanges, "type", null, field.getFieldType());
@@ -1335,11 +1668,13 @@ public class DorisMetadataSyncService {
     /**
      * 同步表字段（增量更新，用于已存在的表）
      */
-    private void syncTableFieldsIncremental(Long tableId,
+    private void syncTableFieldsIncremental(DataTable table,
             String database,
             String tableName,
             List<Map<String, Object>> dorisColumns,
-            SyncResult result) {
+            SyncResult result,
+            MetadataWriteBatch batch) {
+        Long tableId = table.getId();
         // 获取本地已存在的字段
         List<DataField> localFields = dataFieldMapper.selectList(
                 new LambdaQueryWrapper<DataField>()
@@ -1360,7 +1695,6 @@ public class DorisMetadataSyncService {
             if (localField == null) {
                 // 新字段：插入
                 DataField newField = new DataField();
-                newField.setTableId(tableId);
                 newField.setFieldName(fieldName);
                 newField.setFieldType((String) dorisColumn.get("dataType"));
                 newField.setFieldComment(truncateComment((String) dorisColumn.get("columnComment")));
@@ -1369,7 +1703,7 @@ public class DorisMetadataSyncService {
                 newField.setDefaultValue((String) dorisColumn.get("defaultValue"));
                 newField.setFieldOrder((Integer) dorisColumn.get("ordinalPosition"));
 
-                dataFieldMapper.insert(newField);
+                batch.upsertField(table, newField);
                 result.addNewField();
                 Map<String, Object> fieldChanges = new LinkedHashMap<>();
                 addChangedValue(fieldChanges, "type", null, newField.getFieldType());
@@ -1427,7 +1761,7 @@ public class DorisMetadataSyncService {
                 }
 
                 if (updated) {
-                    dataFieldMapper.updateById(localField);
+                    batch.upsertField(table, localField);
                     result.addUpdatedField();
                     result.addUpdatedFieldDetail(database, tableName, fieldName, fieldChanges);
                 }
@@ -1438,7 +1772,7 @@ public class DorisMetadataSyncService {
         for (DataField localField : localFields) {
             if (!dorisFieldNames.contains(localField.getFieldName())) {
                 // 逻辑删除
-                dataFieldMapper.deleteById(localField.getId());
+                batch.deleteField(localField.getId());
                 result.addDeletedField();
                 result.addDeletedFieldDetail(database, tableName, localField.getFieldName());
                 log.info("Logically deleted field: {} from table {}", localField.getFieldName(), tableId);
@@ -1480,10 +1814,17 @@ public class DorisMetadataSyncService {
                             .eq(DataTable::getTableName, tableName)
                             .eq(DataTable::getClusterId, clusterId));
 
+            List<Map<String, Object>> columns = dorisConnectionService.getColumnsInTable(clusterId, database, tableName);
+            MetadataWriteBatch batch = newWriteBatch();
             if (localTable == null) {
-                syncNewTable(clusterId, database, tableName, dorisTable, result, isDoris);
+                syncNewTable(clusterId, database, tableName, dorisTable, columns, result, isDoris, batch);
             } else {
-                syncExistingTable(clusterId, database, tableName, dorisTable, localTable, result, isDoris);
+                syncExistingTable(clusterId, database, tableName, dorisTable, columns, localTable, result, isDoris,
+                        batch);
+            }
+            batch.flush();
+            if (localTable == null) {
+                tableReferenceMatcherService.invalidate(clusterId);
             }
 
             log.info("Table sync completed: {}", result);
@@ -1556,4 +1897,14 @@ public class DorisMetadataSyncService {
         }
         return comment;
     }
+
+    private static final class ClusterPermits {
+        private final int permits;
+        private final Semaphore semaphore;
+
+        private ClusterPermits(int permits) {
+            this.permits = permits;
+            this.semaphore = new Semaphore(permits);
+        }
+    }
 }
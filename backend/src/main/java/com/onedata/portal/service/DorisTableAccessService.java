@@ -7,7 +7,11 @@ import com.onedata.portal.dto.TableAccessStats;
 import com.onedata.portal.dto.TableAccessTrendPoint;
 import com.onedata.portal.dto.TableAccessUserStat;
 import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.entity.TableAccessDaily;
+import com.onedata.portal.entity.TableAccessIngestState;
 import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.mapper.TableAccessDailyMapper;
+import com.onedata.portal.mapper.TableAccessIngestStateMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,17 +22,17 @@ import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Doris 表访问统计服务（面向 Doris 2.0.x）
  * <p>
  * 统计策略：
- * 1. 访问频次/最近访问/趋势：统一读取审计表（__internal_schema.audit_log 或 doris_audit_db__.doris_audit_tbl__）；
+ * 1. 访问频次/最近访问/趋势：由 {@link TableAccessRollupService} 从审计表（__internal_schema.audit_log 或
+ *    doris_audit_db__.doris_audit_tbl__）增量汇总到本地日汇总表，查询时只读汇总；
  * 2. 审计不可用时返回不可统计说明（audit-only，不回退 SHOW QUERY STATS）。
  */
 @Slf4j
@@ -36,24 +40,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DorisTableAccessService {
 
-    private static final Pattern FROM_JOIN_PATTERN = Pattern.compile(
-            "\\b(?:FROM|JOIN)\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern INSERT_INTO_PATTERN = Pattern.compile(
-            "\\bINSERT\\s+INTO\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern UPDATE_PATTERN = Pattern.compile(
-            "\\bUPDATE\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern DELETE_FROM_PATTERN = Pattern.compile(
-            "\\bDELETE\\s+FROM\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
-            Pattern.CASE_INSENSITIVE);
-
-    private static final int MAX_AUDIT_SCAN_ROWS = 200000;
     private static final long AUDIT_SOURCE_CACHE_MILLIS = 5 * 60 * 1000L;
+    private static final DateTimeFormatter NOTE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final DorisConnectionService dorisConnectionService;
     private final DataTableMapper dataTableMapper;
+    private final TableAccessDailyMapper tableAccessDailyMapper;
+    private final TableAccessIngestStateMapper tableAccessIngestStateMapper;
 
     private final Map<Long, CachedAuditSource> auditSourceCache = new ConcurrentHashMap<>();
 
@@ -68,7 +61,6 @@ public class DorisTableAccessService {
         Long clusterId = resolveClusterId(table, requestedClusterId);
         String database = normalizeIdentifier(table.getDbName());
         String tableName = normalizeIdentifier(extractTableName(table.getTableName()));
-        String targetIdentifier = buildIdentifier(database, tableName);
 
         int safeRecentDays = Math.max(1, Math.min(recentDays, 365));
         int safeTrendDays = Math.max(1, Math.min(trendDays, 90));
@@ -96,10 +88,13 @@ public class DorisTableAccessService {
 
         stats.setDorisAuditEnabled(true);
         stats.setDorisAuditSource(auditSource.get().qualifiedName());
+        stats.setNote(buildRollupNote(clusterId));
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime auditScanStart = now.minusDays(Math.max(30, Math.max(safeRecentDays, safeTrendDays)));
-        List<AuditEntry> entries = queryAuditEntries(clusterId, auditSource.get(), auditScanStart);
+        // 窗口按自然日计算（含当天），数据来自审计日志的日汇总
+        LocalDate today = LocalDate.now();
+        int scanDays = Math.max(30, Math.max(safeRecentDays, safeTrendDays));
+        List<TableAccessDaily> rows = tableAccessDailyMapper.selectTableDaily(clusterId, database, tableName,
+                windowStart(today, scanDays));
 
         long recentCount = 0L;
         long count7d = 0L;
@@ -109,56 +104,50 @@ public class DorisTableAccessService {
         long durationCount = 0L;
         LocalDateTime lastAccess = null;
         LocalDateTime firstAccess = null;
-        LocalDateTime recentStart = now.minusDays(safeRecentDays);
-        LocalDateTime days7Start = now.minusDays(7);
-        LocalDateTime days30Start = now.minusDays(30);
-        LocalDateTime trendStart = now.minusDays(safeTrendDays - 1L);
+        LocalDate recentStart = windowStart(today, safeRecentDays);
+        LocalDate days7Start = windowStart(today, 7);
+        LocalDate days30Start = windowStart(today, 30);
+        LocalDate trendStart = windowStart(today, safeTrendDays);
 
         Map<String, Long> userCounter = new HashMap<>();
         Map<String, LocalDateTime> userLastAccess = new HashMap<>();
         Map<LocalDate, Long> trendCounter = new HashMap<>();
 
-        for (AuditEntry entry : entries) {
-            if (entry.getTime() == null || !StringUtils.hasText(entry.getStmt())) {
-                continue;
-            }
-            Set<String> referenced = extractIdentifiers(entry.getStmt(), entry.getDatabaseName());
-            if (!referenced.contains(targetIdentifier)) {
+        for (TableAccessDaily row : rows) {
+            LocalDate day = row.getAccessDate();
+            long count = row.getAccessCount() == null ? 0L : row.getAccessCount();
+            if (day == null || count <= 0L) {
                 continue;
             }
 
-            matchedTotal++;
-
-            if (lastAccess == null || entry.getTime().isAfter(lastAccess)) {
-                lastAccess = entry.getTime();
-            }
-            if (firstAccess == null || entry.getTime().isBefore(firstAccess)) {
-                firstAccess = entry.getTime();
+            matchedTotal += count;
+            lastAccess = later(lastAccess, row.getLastAccessTime());
+            if (row.getFirstAccessTime() != null
+                    && (firstAccess == null || row.getFirstAccessTime().isBefore(firstAccess))) {
+                firstAccess = row.getFirstAccessTime();
             }
 
-            if (!entry.getTime().isBefore(recentStart)) {
-                recentCount++;
-                if (StringUtils.hasText(entry.getUser())) {
-                    userCounter.merge(entry.getUser(), 1L, Long::sum);
-                    LocalDateTime previous = userLastAccess.get(entry.getUser());
-                    if (previous == null || entry.getTime().isAfter(previous)) {
-                        userLastAccess.put(entry.getUser(), entry.getTime());
-                    }
+            if (!day.isBefore(recentStart)) {
+                recentCount += count;
+                if (StringUtils.hasText(row.getUserName())) {
+                    userCounter.merge(row.getUserName(), count, Long::sum);
+                    userLastAccess.put(row.getUserName(),
+                            later(userLastAccess.get(row.getUserName()), row.getLastAccessTime()));
                 }
-                if (entry.getQueryTimeMs() != null && entry.getQueryTimeMs() >= 0) {
-                    durationSum += entry.getQueryTimeMs();
-                    durationCount++;
+                if (row.getDurationCount() != null && row.getDurationCount() > 0L) {
+                    durationSum += row.getDurationSumMs() == null ? 0L : row.getDurationSumMs();
+                    durationCount += row.getDurationCount();
                 }
             }
 
-            if (!entry.getTime().isBefore(days7Start)) {
-                count7d++;
+            if (!day.isBefore(days7Start)) {
+                count7d += count;
             }
-            if (!entry.getTime().isBefore(days30Start)) {
-                count30d++;
+            if (!day.isBefore(days30Start)) {
+                count30d += count;
             }
-            if (!entry.getTime().isBefore(trendStart)) {
-                trendCounter.merge(entry.getTime().toLocalDate(), 1L, Long::sum);
+            if (!day.isBefore(trendStart)) {
+                trendCounter.merge(day, count, Long::sum);
             }
         }
 
@@ -177,7 +166,7 @@ public class DorisTableAccessService {
 
         List<TableAccessTrendPoint> trendPoints = new ArrayList<>();
         for (int i = safeTrendDays - 1; i >= 0; i--) {
-            LocalDate day = now.toLocalDate().minusDays(i);
+            LocalDate day = today.minusDays(i);
             TableAccessTrendPoint point = new TableAccessTrendPoint();
             point.setDate(day.toString());
             point.setAccessCount(trendCounter.getOrDefault(day, 0L));
@@ -228,7 +217,7 @@ public class DorisTableAccessService {
         }
 
         Map<String, DataTable> tableIndex = new LinkedHashMap<>();
-        Map<Long, Map<String, Set<String>>> clusterDbTables = new HashMap<>();
+        Set<Long> tableClusters = new LinkedHashSet<>();
         for (DataTable table : tables) {
             Long tableClusterId = table.getClusterId();
             if (tableClusterId == null) {
@@ -239,63 +228,36 @@ public class DorisTableAccessService {
             if (!StringUtils.hasText(db) || !StringUtils.hasText(name)) {
                 continue;
             }
-            String key = buildClusterIdentifier(tableClusterId, db, name);
-            tableIndex.put(key, table);
-            clusterDbTables.computeIfAbsent(tableClusterId, k -> new HashMap<>())
-                    .computeIfAbsent(db, k -> new HashSet<>())
-                    .add(name);
+            tableIndex.put(buildClusterIdentifier(tableClusterId, db, name), table);
+            tableClusters.add(tableClusterId);
         }
 
-        boolean hasAnyAudit = false;
         String auditSourceName = null;
         Set<Long> auditEnabledClusters = new HashSet<>();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime scanStart = now.minusDays(Math.max(safeHotDays, safeColdDays));
-        LocalDateTime hotStart = now.minusDays(safeHotDays);
-        LocalDateTime coldThreshold = now.minusDays(safeColdDays);
-
-        Map<String, Long> hotWindowCount = new HashMap<>();
-        Map<String, LocalDateTime> lastAccess = new HashMap<>();
-
-        for (Long auditClusterId : clusterDbTables.keySet()) {
+        for (Long auditClusterId : tableClusters) {
             Optional<AuditSource> auditSource = resolveAuditSource(auditClusterId);
             if (!auditSource.isPresent()) {
                 continue;
             }
-            hasAnyAudit = true;
             auditEnabledClusters.add(auditClusterId);
             if (auditSourceName == null) {
                 auditSourceName = auditSource.get().qualifiedName();
             }
+        }
+        boolean hasAnyAudit = !auditEnabledClusters.isEmpty();
 
-            List<AuditEntry> entries = queryAuditEntries(auditClusterId, auditSource.get(), scanStart);
-            Set<String> tableIdentifiers = new HashSet<>();
-            for (Map.Entry<String, Set<String>> dbTables : clusterDbTables.get(auditClusterId).entrySet()) {
-                for (String table : dbTables.getValue()) {
-                    tableIdentifiers.add(buildIdentifier(dbTables.getKey(), table));
-                }
-            }
-
-            for (AuditEntry entry : entries) {
-                if (entry.getTime() == null || !StringUtils.hasText(entry.getStmt())) {
-                    continue;
-                }
-                Set<String> refs = extractIdentifiers(entry.getStmt(), entry.getDatabaseName());
-                if (refs.isEmpty()) {
-                    continue;
-                }
-                for (String ref : refs) {
-                    if (!tableIdentifiers.contains(ref)) {
-                        continue;
-                    }
-                    String key = buildClusterIdentifier(auditClusterId, ref);
-                    LocalDateTime previous = lastAccess.get(key);
-                    if (previous == null || entry.getTime().isAfter(previous)) {
-                        lastAccess.put(key, entry.getTime());
-                    }
-                    if (!entry.getTime().isBefore(hotStart)) {
-                        hotWindowCount.merge(key, 1L, Long::sum);
-                    }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime coldThreshold = now.minusDays(safeColdDays);
+        Map<String, Long> hotWindowCount = new HashMap<>();
+        Map<String, LocalDateTime> lastAccess = new HashMap<>();
+        if (hasAnyAudit) {
+            List<TableAccessDaily> rollups = tableAccessDailyMapper.selectTableSummaries(clusterId,
+                    windowStart(now.toLocalDate(), safeHotDays));
+            for (TableAccessDaily rollup : rollups) {
+                String key = buildClusterIdentifier(rollup.getClusterId(), rollup.getDbName(), rollup.getTableName());
+                hotWindowCount.put(key, rollup.getAccessCount() == null ? 0L : rollup.getAccessCount());
+                if (rollup.getLastAccessTime() != null) {
+                    lastAccess.put(key, rollup.getLastAccessTime());
                 }
             }
         }
@@ -304,7 +266,7 @@ public class DorisTableAccessService {
         summary.setDorisAuditSource(auditSourceName);
         if (!hasAnyAudit) {
             summary.setNote("未检测到 Doris 审计表，无法生成热点表/长期未用表（audit-only 模式）。");
-        } else if (auditEnabledClusters.size() < clusterDbTables.size()) {
+        } else if (auditEnabledClusters.size() < tableClusters.size()) {
             summary.setNote("部分集群未开启审计表，仅展示已开启审计集群的热点/冷表结果（audit-only 模式）。");
         }
 
@@ -364,6 +326,28 @@ public class DorisTableAccessService {
         return summary;
     }
 
+    /**
+     * 包含当天在内的 days 个自然日窗口的起始日期
+     */
+    private LocalDate windowStart(LocalDate today, int days) {
+        return today.minusDays(days - 1L);
+    }
+
+    private LocalDateTime later(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private String buildRollupNote(Long clusterId) {
+        TableAccessIngestState state = tableAccessIngestStateMapper.selectById(clusterId);
+        if (state == null || state.getHighWaterMark() == null) {
+            return "审计日志尚未完成首次汇总，访问统计可能不完整。";
+        }
+        return "访问统计由审计日志汇总，数据截至 " + state.getHighWaterMark().format(NOTE_TIME_FORMATTER) + "。";
+    }
+
     private DashboardTableAccessItem toDashboardItem(DataTable table, Long count, LocalDateTime lastAccess,
             LocalDateTime now) {
         DashboardTableAccessItem item = new DashboardTableAccessItem();
@@ -391,7 +375,10 @@ public class DorisTableAccessService {
         throw new IllegalArgumentException("未指定 clusterId，且表未绑定 clusterId");
     }
 
-    private Optional<AuditSource> resolveAuditSource(Long clusterId) {
+    /**
+     * 探测集群可用的审计表，结果缓存 5 分钟
+     */
+    Optional<AuditSource> resolveAuditSource(Long clusterId) {
         CachedAuditSource cached = auditSourceCache.get(clusterId);
         long now = System.currentTimeMillis();
         if (cached != null && (now - cached.cachedAt) <= AUDIT_SOURCE_CACHE_MILLIS) {
@@ -447,7 +434,11 @@ public class DorisTableAccessService {
         return new AuditSource(db, table, timeCol, dbCol, stmtCol, userCol, durationCol);
     }
 
-    private List<AuditEntry> queryAuditEntries(Long clusterId, AuditSource source, LocalDateTime startTime) {
+    /**
+     * 按时间升序读取 (after, upTo] 区间内的审计日志，最多 limit 行
+     */
+    List<AuditEntry> queryAuditPage(Long clusterId, AuditSource source, LocalDateTime after, LocalDateTime upTo,
+            int limit) throws SQLException {
         List<AuditEntry> entries = new ArrayList<>();
         String selectUser = StringUtils.hasText(source.userColumn) ? wrapIdentifier(source.userColumn) : "NULL";
         String selectDuration = StringUtils.hasText(source.durationColumn) ? wrapIdentifier(source.durationColumn) : "NULL";
@@ -458,12 +449,14 @@ public class DorisTableAccessService {
                 + selectUser + " AS u, "
                 + selectDuration + " AS q "
                 + "FROM " + source.qualifiedName()
-                + " WHERE " + wrapIdentifier(source.timeColumn) + " >= ? "
-                + "ORDER BY " + wrapIdentifier(source.timeColumn) + " DESC "
-                + "LIMIT " + MAX_AUDIT_SCAN_ROWS;
+                + " WHERE " + wrapIdentifier(source.timeColumn) + " > ? "
+                + "AND " + wrapIdentifier(source.timeColumn) + " <= ? "
+                + "ORDER BY " + wrapIdentifier(source.timeColumn) + " ASC "
+                + "LIMIT " + Math.max(1, limit);
         try (Connection connection = dorisConnectionService.getConnection(clusterId);
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setTimestamp(1, Timestamp.valueOf(startTime));
+            stmt.setTimestamp(1, Timestamp.valueOf(after));
+            stmt.setTimestamp(2, Timestamp.valueOf(upTo));
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     AuditEntry entry = new AuditEntry();
@@ -475,41 +468,10 @@ public class DorisTableAccessService {
                     entries.add(entry);
                 }
             }
-        } catch (Exception e) {
-            log.warn("queryAuditEntries failed, source={}, cluster={}, reason={}",
-                    source.qualifiedName(), clusterId, e.getMessage());
         }
         return entries;
     }
 
-    private Set<String> extractIdentifiers(String sql, String defaultDb) {
-        Set<String> refs = new HashSet<>();
-        if (!StringUtils.hasText(sql)) {
-            return refs;
-        }
-        collectRefs(refs, sql, defaultDb, FROM_JOIN_PATTERN);
-        collectRefs(refs, sql, defaultDb, INSERT_INTO_PATTERN);
-        collectRefs(refs, sql, defaultDb, UPDATE_PATTERN);
-        collectRefs(refs, sql, defaultDb, DELETE_FROM_PATTERN);
-        return refs;
-    }
-
-    private void collectRefs(Set<String> collector, String sql, String defaultDb, Pattern pattern) {
-        Matcher matcher = pattern.matcher(sql);
-        while (matcher.find()) {
-            String db = normalizeIdentifier(matcher.group(1));
-            String table = normalizeIdentifier(matcher.group(2));
-            if (!StringUtils.hasText(table)) {
-                continue;
-            }
-            String resolvedDb = StringUtils.hasText(db) ? db : normalizeIdentifier(defaultDb);
-            if (!StringUtils.hasText(resolvedDb)) {
-                continue;
-            }
-            collector.add(buildIdentifier(resolvedDb, table));
-        }
-    }
-
     private String buildIdentifier(String db, String table) {
         return normalizeIdentifier(db) + "." + normalizeIdentifier(table);
     }
@@ -518,10 +480,6 @@ public class DorisTableAccessService {
         return clusterId + "::" + buildIdentifier(db, table);
     }
 
-    private String buildClusterIdentifier(Long clusterId, String dbAndTable) {
-        return clusterId + "::" + normalizeIdentifier(dbAndTable);
-    }
-
     private String firstPresent(Map<String, String> columns, String... candidates) {
         for (String candidate : candidates) {
             String found = columns.get(candidate.toLowerCase(Locale.ROOT));
@@ -569,7 +527,7 @@ public class DorisTableAccessService {
         }
     }
 
-    private String normalizeIdentifier(String value) {
+    String normalizeIdentifier(String value) {
         if (!StringUtils.hasText(value)) {
             return "";
         }
@@ -603,7 +561,7 @@ public class DorisTableAccessService {
         }
     }
 
-    private static class AuditSource {
+    static class AuditSource {
         private final String database;
         private final String table;
         private final String timeColumn;
@@ -623,12 +581,12 @@ public class DorisTableAccessService {
             this.durationColumn = durationColumn;
         }
 
-        private String qualifiedName() {
+        String qualifiedName() {
             return "`" + database + "`.`" + table + "`";
         }
     }
 
-    private static class AuditEntry {
+    static class AuditEntry {
         private LocalDateTime time;
         private String databaseName;
         private String stmt;
@@ -3,9 +3,12 @@ package com.onedata.portal.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.InspectionProperties;
+import com.onedata.portal.context.UserContextHolder;
 import com.onedata.portal.entity.*;
 import com.onedata.portal.mapper.*;
 import com.onedata.portal.util.DorisCreateTableUtils;
+import com.onedata.portal.util.LineageDegreeIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,12 @@ import org.springframework.util.StringUtils;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,10 +42,12 @@ public class InspectionService {
     private final DataTaskMapper dataTaskMapper;
     private final TaskExecutionLogMapper executionLogMapper;
     private final DataLineageMapper dataLineageMapper;
+    private final TableStatisticsHistoryMapper tableStatisticsHistoryMapper;
     private final ObjectMapper objectMapper;
     private final HealthCheckService healthCheckService;
     private final DorisClusterService dorisClusterService;
     private final DorisConnectionService dorisConnectionService;
+    private final InspectionProperties inspectionProperties;
 
     private static final Pattern RECOMMENDED_REPLICA_PATTERN = Pattern.compile("推荐\\s*[:：]?\\s*(\\d+)");
     private static final Pattern RANGE_REPLICA_PATTERN = Pattern.compile("(\\d+)\\s*-\\s*(\\d+)");
@@ -70,10 +81,9 @@ public class InspectionService {
                     .eq(InspectionRule::getEnabled, true)
             );
 
-            for (InspectionRule rule : rules) {
-                List<InspectionIssue> issues = executeRule(record.getId(), rule);
-                totalIssues += issues.size();
-            }
+            List<InspectionIssue> issues = executeRules(record.getId(), rules);
+            insertIssues(issues);
+            totalIssues = issues.size();
 
             // 更新巡检记录
             record.setStatus("completed");
@@ -95,21 +105,92 @@ public class InspectionService {
         return record;
     }
 
+    /**
+     * 在有界线程池中并行执行巡检规则，规则共享同一份 Doris 统计快照；问题按规则顺序返回，由调用方统一写入。
+     * 工作线程沿用调用方的用户上下文，Doris 统计查询使用其映射的凭据
+     */
+    private List<InspectionIssue> executeRules(Long recordId, List<InspectionRule> rules) throws Exception {
+        List<InspectionIssue> issues = new ArrayList<>();
+        if (rules.isEmpty()) {
+            return issues;
+        }
+        InspectionSnapshot snapshot = buildSnapshot(rules);
+        int threads = Math.max(1, Math.min(inspectionProperties.getRuleThreads(),
+            rules.size() + snapshot.getDatabaseCount()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, namedThreadFactory("inspection-"));
+        try {
+            List<Future<List<InspectionIssue>>> futures = new ArrayList<>();
+            for (InspectionRule rule : rules) {
+                futures.add(executor.submit(UserContextHolder.wrap(() -> executeRule(recordId, rule, snapshot))));
+            }
+            snapshot.prefetch(task -> executor.execute(UserContextHolder.wrap(task)));
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    issues.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    throw new RuntimeException("巡检规则执行失败: " + rules.get(i).getRuleCode(), cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return issues;
+    }
+
+    /**
+     * 确定本次巡检的 Doris 数据源，并收集 Tablet 类规则需要统计的表
+     */
+    private InspectionSnapshot buildSnapshot(List<InspectionRule> rules) {
+        Set<Long> dorisClusterIds = resolveDorisClusterIds();
+        Map<Long, DataTable> tabletTables = new LinkedHashMap<>();
+        if (!dorisClusterIds.isEmpty()) {
+            for (InspectionRule rule : rules) {
+                if (!"tablet_count".equals(rule.getRuleType()) && !"tablet_size".equals(rule.getRuleType())) {
+                    continue;
+                }
+                for (DataTable table : selectTabletTables(parseRuleConfig(rule.getRuleConfig()), dorisClusterIds)) {
+                    if (!isViewTable(table)) {
+                        tabletTables.putIfAbsent(table.getId(), table);
+                    }
+                }
+            }
+        }
+        return new InspectionSnapshot(dorisConnectionService, dataLineageMapper, dorisClusterIds,
+            tabletTables.values());
+    }
+
+    private void insertIssues(List<InspectionIssue> issues) {
+        int batchSize = Math.max(1, inspectionProperties.getIssueBatchSize());
+        for (int start = 0; start < issues.size(); start += batchSize) {
+            inspectionIssueMapper.insertBatch(issues.subList(start, Math.min(issues.size(), start + batchSize)));
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     /**
      * 执行单个巡检规则
      */
-    private List<InspectionIssue> executeRule(Long recordId, InspectionRule rule) {
+    private List<InspectionIssue> executeRule(Long recordId, InspectionRule rule, InspectionSnapshot snapshot) {
         log.debug("Executing rule: {}", rule.getRuleCode());
 
         switch (rule.getRuleType()) {
             case "table_naming":
                 return checkTableNaming(recordId, rule);
             case "replica_count":
-                return checkReplicaCount(recordId, rule);
+                return checkReplicaCount(recordId, rule, snapshot);
             case "tablet_count":
-                return checkTabletCount(recordId, rule);
+                return checkTabletCount(recordId, rule, snapshot);
             case "tablet_size":
-                return checkTabletSize(recordId, rule);
+                return checkTabletSize(recordId, rule, snapshot);
             case "table_owner":
                 return checkTableOwner(recordId, rule);
             case "table_comment":
@@ -129,9 +210,9 @@ public class InspectionService {
             case "doris_node_resources":
                 return checkDorisNodeResources(recordId, rule);
             case "orphan_tables":
-                return checkOrphanTables(recordId, rule);
+                return checkOrphanTables(recordId, rule, snapshot);
             case "deprecated_tables":
-                return checkDeprecatedTables(recordId, rule);
+                return checkDeprecatedTables(recordId, rule, snapshot);
             default:
                 log.warn("Unknown rule type: {}", rule.getRuleType());
                 return Collections.emptyList();
@@ -160,7 +241,6 @@ public class InspectionService {
                 issue.setCurrentValue(table.getTableName());
                 issue.setExpectedValue("符合正则: " + patternStr);
                 issue.setSuggestion("请修改表名使其符合命名规范,格式: {layer}_xxx_xxx");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -171,7 +251,7 @@ public class InspectionService {
     /**
      * 检查副本数
      */
-    private List<InspectionIssue> checkReplicaCount(Long recordId, InspectionRule rule) {
+    private List<InspectionIssue> checkReplicaCount(Long recordId, InspectionRule rule, InspectionSnapshot snapshot) {
         List<InspectionIssue> issues = new ArrayList<>();
         Map<String, Object> config = parseRuleConfig(rule.getRuleConfig());
         int minReplicas = ((Number) config.getOrDefault("minReplicas", 1)).intValue();
@@ -180,7 +260,7 @@ public class InspectionService {
             maxReplicas = ((Number) config.get("maxReplicas")).intValue();
         }
         int recommendedReplicas = ((Number) config.getOrDefault("recommendedReplicas", 3)).intValue();
-        Set<Long> dorisClusterIds = resolveDorisClusterIds();
+        Set<Long> dorisClusterIds = snapshot.getDorisClusterIds();
         if (dorisClusterIds.isEmpty()) {
             return issues;
         }
@@ -216,7 +296,6 @@ public class InspectionService {
                         recommendedReplicas);
                 issue.setSuggestion(String.format("建议设置副本数为 %d 以保证数据可靠性\n修复脚本: %s",
                     recommendedReplicas, sql));
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -227,24 +306,17 @@ public class InspectionService {
     /**
      * 检查 Tablet 数量
      */
-    private List<InspectionIssue> checkTabletCount(Long recordId, InspectionRule rule) {
+    private List<InspectionIssue> checkTabletCount(Long recordId, InspectionRule rule, InspectionSnapshot snapshot) {
         List<InspectionIssue> issues = new ArrayList<>();
         Map<String, Object> config = parseRuleConfig(rule.getRuleConfig());
         int maxTablets = ((Number) config.getOrDefault("maxTablets", 200)).intValue();
         int warningTablets = ((Number) config.getOrDefault("warningTablets", 100)).intValue();
-        Set<Long> dorisClusterIds = resolveDorisClusterIds();
+        Set<Long> dorisClusterIds = snapshot.getDorisClusterIds();
         if (dorisClusterIds.isEmpty()) {
             return issues;
         }
 
-        LambdaQueryWrapper<DataTable> tableWrapper = new LambdaQueryWrapper<DataTable>()
-            .eq(DataTable::getStatus, "active")
-            .isNotNull(DataTable::getClusterId)
-            .in(DataTable::getClusterId, dorisClusterIds)
-            .isNotNull(DataTable::getDbName)
-            .isNotNull(DataTable::getTableName);
-        applyTableScope(tableWrapper, config);
-        List<DataTable> tables = dataTableMapper.selectList(tableWrapper);
+        List<DataTable> tables = selectTabletTables(config, dorisClusterIds);
 
         for (DataTable table : tables) {
             if (isViewTable(table)) {
@@ -256,7 +328,7 @@ public class InspectionService {
             }
 
             Optional<DorisConnectionService.TableTabletStats> tabletStatsOptional =
-                dorisConnectionService.getTableTabletStats(table.getClusterId(), table.getDbName(), actualTableName);
+                snapshot.getTabletStats(table, actualTableName);
             if (!tabletStatsOptional.isPresent()) {
                 continue;
             }
@@ -277,8 +349,6 @@ public class InspectionService {
                 issue.setSuggestion(String.format(
                     "当前总数据量 %s，平均Tablet大小 %s。建议优先调整分桶数和分区策略，使Tablet数量降到 %d 以下",
                     formatBytes(totalDataSize), formatBytes(avgTabletSize), maxTablets));
-
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             } else if (tabletCount > warningTablets) {
                 InspectionIssue issue = createIssue(recordId, rule, table);
@@ -289,7 +359,6 @@ public class InspectionService {
                 issue.setSuggestion(String.format(
                     "当前总数据量 %s，平均Tablet大小 %s。建议关注分桶与分区增长趋势，必要时提前调整",
                     formatBytes(totalDataSize), formatBytes(avgTabletSize)));
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -301,7 +370,7 @@ public class InspectionService {
      * 检查 Tablet 大小（真实值）
      * 通过 Doris SHOW TABLETS 获取真实 Tablet DataSize，避免按分区/分桶估算带来的误差。
      */
-    private List<InspectionIssue> checkTabletSize(Long recordId, InspectionRule rule) {
+    private List<InspectionIssue> checkTabletSize(Long recordId, InspectionRule rule, InspectionSnapshot snapshot) {
         List<InspectionIssue> issues = new ArrayList<>();
         Map<String, Object> config = parseRuleConfig(rule.getRuleConfig());
 
@@ -314,19 +383,12 @@ public class InspectionService {
         long maxTabletBytes = maxTabletSizeMb * 1024L * 1024;
         long targetTabletBytes = targetTabletSizeMb * 1024L * 1024;
         long minTableBytesForSmallCheck = minTableSizeGbForSmallCheck * 1024L * 1024 * 1024;
-        Set<Long> dorisClusterIds = resolveDorisClusterIds();
+        Set<Long> dorisClusterIds = snapshot.getDorisClusterIds();
         if (dorisClusterIds.isEmpty()) {
             return issues;
         }
 
-        LambdaQueryWrapper<DataTable> tableWrapper = new LambdaQueryWrapper<DataTable>()
-            .eq(DataTable::getStatus, "active")
-            .isNotNull(DataTable::getClusterId)
-            .in(DataTable::getClusterId, dorisClusterIds)
-            .isNotNull(DataTable::getDbName)
-            .isNotNull(DataTable::getTableName);
-        applyTableScope(tableWrapper, config);
-        List<DataTable> tables = dataTableMapper.selectList(tableWrapper);
+        List<DataTable> tables = selectTabletTables(config, dorisClusterIds);
 
         for (DataTable table : tables) {
             if (isViewTable(table)) {
@@ -343,7 +405,7 @@ public class InspectionService {
             }
 
             Optional<DorisConnectionService.TableTabletStats> tabletStatsOptional =
-                dorisConnectionService.getTableTabletStats(table.getClusterId(), table.getDbName(), actualTableName);
+                snapshot.getTabletStats(table, actualTableName);
             if (!tabletStatsOptional.isPresent()) {
                 continue;
             }
@@ -378,15 +440,24 @@ public class InspectionService {
                 formatBytes(maxTabletBytes), formatBytes(targetTabletBytes)));
             issue.setSuggestion(generateTabletSizeSuggestion(dataSize, tabletCount,
                 minTabletBytes, maxTabletBytes, targetTabletBytes, tooLarge, tooSmall));
-
-            inspectionIssueMapper.insert(issue);
             issues.add(issue);
         }
 
         return issues;
     }
 
-    private String resolveActualTableName(String tableName) {
+    private List<DataTable> selectTabletTables(Map<String, Object> config, Set<Long> dorisClusterIds) {
+        LambdaQueryWrapper<DataTable> tableWrapper = new LambdaQueryWrapper<DataTable>()
+            .eq(DataTable::getStatus, "active")
+            .isNotNull(DataTable::getClusterId)
+            .in(DataTable::getClusterId, dorisClusterIds)
+            .isNotNull(DataTable::getDbName)
+            .isNotNull(DataTable::getTableName);
+        applyTableScope(tableWrapper, config);
+        return dataTableMapper.selectList(tableWrapper);
+    }
+
+    static String resolveActualTableName(String tableName) {
         if (!StringUtils.hasText(tableName)) {
             return null;
         }
@@ -472,7 +543,6 @@ public class InspectionService {
             issue.setCurrentValue("null");
             issue.setExpectedValue("有效的负责人");
             issue.setSuggestion("请为表配置负责人,以便问题追踪和权限管理");
-            inspectionIssueMapper.insert(issue);
             issues.add(issue);
         }
 
@@ -499,7 +569,6 @@ public class InspectionService {
             issue.setCurrentValue("null");
             issue.setExpectedValue("有意义的注释");
             issue.setSuggestion("请为表添加注释,说明表的用途和业务含义");
-            inspectionIssueMapper.insert(issue);
             issues.add(issue);
         }
 
@@ -548,7 +617,6 @@ public class InspectionService {
                     issue.setExpectedValue("< " + maxFailures + "次");
                     issue.setSuggestion("请检查任务执行日志,排查失败原因并修复");
                     issue.setStatus("open");
-                    inspectionIssueMapper.insert(issue);
                     issues.add(issue);
                 }
             }
@@ -603,7 +671,6 @@ public class InspectionService {
                 issue.setExpectedValue("定期执行");
                 issue.setSuggestion("请检查任务调度配置或下线不需要的任务");
                 issue.setStatus("open");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -634,7 +701,6 @@ public class InspectionService {
             issue.setCurrentValue("null");
             issue.setExpectedValue(String.join(", ", validLayers));
             issue.setSuggestion("请为表配置正确的数据层级(ODS/DWD/DIM/DWS/ADS)");
-            inspectionIssueMapper.insert(issue);
             issues.add(issue);
         }
 
@@ -690,8 +756,6 @@ public class InspectionService {
                     table.getDorisUpdateTime().toString() + " (已延迟 " + delayHours + " 小时)" : "从未更新");
                 issue.setExpectedValue("更新频率: " + getCycleDescription(cycle));
                 issue.setSuggestion(generateFreshnessSuggestion(cycle, delayHours));
-
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -840,7 +904,10 @@ public class InspectionService {
     }
 
     /**
-     * 检查数据量暴增/暴降 - 通过对比历史数据
+     * 检查数据量暴增/暴降 - 基于 table_statistics_history 时序
+     * <p>
+     * 流式读取近 compareDays 天的统计快照，逐表以最新快照对比此前快照的中位数，
+     * 倍数越过阈值且稳健 Z 分数（MAD）足够大时告警，常态波动较大的表不会被误报。
      */
     private List<InspectionIssue> checkDataVolumeSpike(Long recordId, InspectionRule rule) {
         List<InspectionIssue> issues = new ArrayList<>();
@@ -850,91 +917,87 @@ public class InspectionService {
         double increaseThreshold = ((Number) config.getOrDefault("increaseThreshold", 2.0)).doubleValue();
         // 暴降阈值,默认降低到50%以下视为异常
         double decreaseThreshold = ((Number) config.getOrDefault("decreaseThreshold", 0.5)).doubleValue();
-        // 对比的历史天数,默认对比7天前的数据
+        // 对比的历史天数,默认取近7天的统计快照作为基线
         int compareDays = ((Number) config.getOrDefault("compareDays", 7)).intValue();
-        // 最小行数阈值,小于此值的表不检查(避免小表波动)
+        // 最小行数阈值,基线与当前均小于此值的表不检查(避免小表波动)
         long minRowThreshold = ((Number) config.getOrDefault("minRowThreshold", 1000)).longValue();
+        // 最小数据量阈值(MB),用于数据量指标
+        long minDataSizeMb = ((Number) config.getOrDefault("minDataSizeMb", 100)).longValue();
+        // 基线最少快照数,不足时不判断
+        int minSamples = ((Number) config.getOrDefault("minSamples", 3)).intValue();
+        // 稳健 Z 分数阈值
+        double madThreshold = ((Number) config.getOrDefault("madThreshold", 3.5)).doubleValue();
+        // EWMA 平滑系数
+        double ewmaAlpha = ((Number) config.getOrDefault("ewmaAlpha", 0.3)).doubleValue();
 
-        LocalDateTime compareTime = LocalDateTime.now().minusDays(compareDays);
-
-        // 查询有数据量记录的表
         LambdaQueryWrapper<DataTable> tableWrapper = new LambdaQueryWrapper<DataTable>()
-            .eq(DataTable::getStatus, "active")
-            .isNotNull(DataTable::getRowCount)
-            .gt(DataTable::getRowCount, minRowThreshold); // 只检查数据量超过阈值的表
+            .eq(DataTable::getStatus, "active");
         applyTableScope(tableWrapper, config);
         List<DataTable> tables = dataTableMapper.selectList(tableWrapper);
-
+        if (tables.isEmpty()) {
+            return issues;
+        }
+        Map<Long, DataTable> tableMap = new HashMap<>(tables.size() * 4 / 3 + 1);
         for (DataTable table : tables) {
-            Long currentRowCount = table.getRowCount();
-            if (currentRowCount == null || currentRowCount < minRowThreshold) {
-                continue;
-            }
+            tableMap.put(table.getId(), table);
+        }
 
-            // 获取历史数据量
-            // 注意:这需要有表统计历史记录,如果没有历史数据则跳过
-            // 这里假设有 TableStatisticsHistory 表和相应的 Mapper
-            // 由于当前可能没有实现,我们使用一个简化的逻辑
+        VolumeAnomalyDetector detector = new VolumeAnomalyDetector(tableMap.keySet(), increaseThreshold,
+            decreaseThreshold, madThreshold, ewmaAlpha, minSamples, minRowThreshold, minDataSizeMb * 1024 * 1024);
+        tableStatisticsHistoryMapper.streamSeriesSince(LocalDateTime.now().minusDays(compareDays),
+            context -> detector.accept(context.getResultObject()));
 
-            // TODO: 查询 table_statistics_history 表获取历史数据
-            // 临时实现:检查数据量是否异常大或异常小
-            if (currentRowCount > 100_000_000) {
-                // 数据量超过1亿,给出告警
-                InspectionIssue issue = createIssue(recordId, rule, table);
-                issue.setSeverity("medium");
-                issue.setIssueDescription("表数据量异常大,可能存在数据堆积");
-                issue.setCurrentValue(String.format("%,d 行", currentRowCount));
-                issue.setExpectedValue("正常数据量范围");
-                issue.setSuggestion("请检查:\n1. 是否存在数据重复写入\n2. 是否需要启用数据归档\n3. 是否需要调整分区策略\n4. 考虑数据生命周期管理");
-                inspectionIssueMapper.insert(issue);
-                issues.add(issue);
-            } else if (currentRowCount < 100 && table.getDorisUpdateTime() != null &&
-                       table.getDorisUpdateTime().isBefore(LocalDateTime.now().minusDays(1))) {
-                // 数据量很小且长时间未更新
-                InspectionIssue issue = createIssue(recordId, rule, table);
-                issue.setSeverity("low");
-                issue.setIssueDescription("表数据量异常少");
-                issue.setCurrentValue(String.format("%,d 行", currentRowCount));
-                issue.setExpectedValue("正常数据量");
-                issue.setSuggestion("请检查:\n1. 数据是否正常写入\n2. 是否存在数据丢失\n3. 上游数据源是否正常");
-                inspectionIssueMapper.insert(issue);
-                issues.add(issue);
+        for (VolumeAnomalyDetector.VolumeAnomaly anomaly : detector.finish()) {
+            DataTable table = tableMap.get(anomaly.getTableId());
+            boolean rows = VolumeAnomalyDetector.METRIC_ROWS.equals(anomaly.getMetric());
+            String metricName = rows ? "行数" : "数据量";
+            InspectionIssue issue = createIssue(recordId, rule, table);
+            issue.setSeverity(calculateVolumeSeverity(anomaly.getRatio(), anomaly.isIncrease()));
+            if (anomaly.isIncrease()) {
+                issue.setIssueDescription(String.format("%s异常增长 %.1f 倍", metricName, anomaly.getRatio()));
+            } else {
+                issue.setIssueDescription(String.format("%s异常下降 %.1f%%", metricName,
+                    (1 - anomaly.getRatio()) * 100));
             }
-
-            // 实际的历史对比逻辑(需要 TableStatisticsHistoryMapper)
-            // Long historicalRowCount = getHistoricalRowCount(table.getId(), compareTime);
-            // if (historicalRowCount != null && historicalRowCount > minRowThreshold) {
-            //     double changeRatio = (double) currentRowCount / historicalRowCount;
-            //
-            //     if (changeRatio >= increaseThreshold) {
-            //         // 数据量暴增
-            //         InspectionIssue issue = createIssue(recordId, rule, table);
-            //         issue.setSeverity(calculateVolumeSeverity(changeRatio, true));
-            //         issue.setIssueDescription(String.format("数据量异常增长 %.1f 倍", changeRatio));
-            //         issue.setCurrentValue(String.format("%,d 行 (增长 %.1f%%)",
-            //             currentRowCount, (changeRatio - 1) * 100));
-            //         issue.setExpectedValue(String.format("历史数据量: %,d 行", historicalRowCount));
-            //         issue.setSuggestion(generateVolumeSuggestion(changeRatio, true));
-            //         inspectionIssueMapper.insert(issue);
-            //         issues.add(issue);
-            //     } else if (changeRatio <= decreaseThreshold) {
-            //         // 数据量暴降
-            //         InspectionIssue issue = createIssue(recordId, rule, table);
-            //         issue.setSeverity(calculateVolumeSeverity(changeRatio, false));
-            //         issue.setIssueDescription(String.format("数据量异常下降 %.1f%%", (1 - changeRatio) * 100));
-            //         issue.setCurrentValue(String.format("%,d 行 (下降 %.1f%%)",
-            //             currentRowCount, (1 - changeRatio) * 100));
-            //         issue.setExpectedValue(String.format("历史数据量: %,d 行", historicalRowCount));
-            //         issue.setSuggestion(generateVolumeSuggestion(changeRatio, false));
-            //         inspectionIssueMapper.insert(issue);
-            //         issues.add(issue);
-            //     }
-            // }
+            StringBuilder current = new StringBuilder(formatVolume(anomaly.getCurrent(), rows));
+            if (anomaly.getGrowthRate() != null) {
+                current.append(String.format(" (近 %d 天变化 %+.1f%%)", compareDays, anomaly.getGrowthRate() * 100));
+            }
+            issue.setCurrentValue(current.toString());
+            issue.setExpectedValue(String.format("%s ~ %s (近 %d 天 %d 个快照中位数 %s, EWMA %s)",
+                formatVolume(Math.round(anomaly.getMedian() * decreaseThreshold), rows),
+                formatVolume(Math.round(anomaly.getMedian() * increaseThreshold), rows),
+                compareDays, anomaly.getSampleCount(),
+                formatVolume(Math.round(anomaly.getMedian()), rows),
+                formatVolume(Math.round(anomaly.getEwma()), rows)));
+            issue.setSuggestion(generateVolumeSuggestion(anomaly.isIncrease()));
+            issues.add(issue);
         }
 
         return issues;
     }
 
+    private String formatVolume(long value, boolean rows) {
+        return rows ? String.format("%,d 行", value) : formatBytes(value);
+    }
+
+    /**
+     * 数据量变化倍数对应的严重程度: 增长 10 倍以上或下降 90% 以上为 high
+     */
+    private String calculateVolumeSeverity(double ratio, boolean increase) {
+        if (increase) {
+            return ratio >= 10 ? "high" : "medium";
+        }
+        return ratio <= 0.1 ? "high" : "medium";
+    }
+
+    private String generateVolumeSuggestion(boolean increase) {
+        if (increase) {
+            return "请检查:\n1. 是否存在数据重复写入\n2. 上游是否有补数或全量回刷\n3. 是否需要调整分区策略\n4. 考虑数据生命周期管理";
+        }
+        return "请检查:\n1. 数据是否正常写入\n2. 是否存在数据丢失或误删分区\n3. 上游数据源是否正常\n4. 分区 TTL 配置是否过短";
+    }
+
     /**
      * 检查服务健康状态
      */
@@ -959,7 +1022,6 @@ public class InspectionService {
                 issue.setExpectedValue("服务正常运行");
                 issue.setSuggestion(generateServiceHealthSuggestion(status));
                 issue.setStatus("open");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -994,7 +1056,6 @@ public class InspectionService {
                 issue.setCurrentValue(String.format("%.2f%%", nodeStatus.getDiskUsagePercent()));
                 issue.setExpectedValue(String.format("< %.0f%%", diskCriticalThreshold));
                 issue.setSuggestion("立即处理:\n1. 清理过期数据和临时文件\n2. 检查数据归档策略\n3. 考虑扩容磁盘\n4. 检查是否有异常大表");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             } else if (nodeStatus.getDiskUsagePercent() >= diskWarningThreshold) {
                 InspectionIssue issue = createDorisNodeIssue(recordId, rule, nodeStatus);
@@ -1003,7 +1064,6 @@ public class InspectionService {
                 issue.setCurrentValue(String.format("%.2f%%", nodeStatus.getDiskUsagePercent()));
                 issue.setExpectedValue(String.format("< %.0f%%", diskWarningThreshold));
                 issue.setSuggestion("建议:\n1. 规划磁盘扩容\n2. 检查数据增长趋势\n3. 优化数据生命周期策略");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
 
@@ -1018,7 +1078,6 @@ public class InspectionService {
                     formatBytes(nodeStatus.getMemoryLimitBytes())));
                 issue.setExpectedValue(String.format("< %.0f%%", memoryCriticalThreshold));
                 issue.setSuggestion("立即处理:\n1. 检查是否有慢查询占用过多内存\n2. 优化查询计划\n3. 考虑增加节点内存配置\n4. 重启服务释放内存(谨慎操作)");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             } else if (nodeStatus.getMemoryUsagePercent() >= memoryWarningThreshold) {
                 InspectionIssue issue = createDorisNodeIssue(recordId, rule, nodeStatus);
@@ -1030,7 +1089,6 @@ public class InspectionService {
                     formatBytes(nodeStatus.getMemoryLimitBytes())));
                 issue.setExpectedValue(String.format("< %.0f%%", memoryWarningThreshold));
                 issue.setSuggestion("建议:\n1. 监控内存使用趋势\n2. 优化频繁执行的查询\n3. 规划内存扩容");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
 
@@ -1042,7 +1100,6 @@ public class InspectionService {
                 issue.setCurrentValue("离线");
                 issue.setExpectedValue("在线");
                 issue.setSuggestion("紧急处理:\n1. 检查节点服务是否运行\n2. 检查网络连接\n3. 查看节点日志排查问题\n4. 联系运维团队");
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -1097,7 +1154,7 @@ public class InspectionService {
     /**
      * 检查孤立表 - 没有上下游依赖关系的表
      */
-    private List<InspectionIssue> checkOrphanTables(Long recordId, InspectionRule rule) {
+    private List<InspectionIssue> checkOrphanTables(Long recordId, InspectionRule rule, InspectionSnapshot snapshot) {
         List<InspectionIssue> issues = new ArrayList<>();
         Map<String, Object> config = parseRuleConfig(rule.getRuleConfig());
 
@@ -1119,10 +1176,11 @@ public class InspectionService {
         applyTableScope(tableWrapper, config);
         List<DataTable> tables = dataTableMapper.selectList(tableWrapper);
 
+        LineageDegreeIndex lineageDegrees = snapshot.getLineageDegrees();
         for (DataTable table : tables) {
             // 检查是否有血缘关系
-            boolean hasUpstream = hasUpstreamLineage(table.getId());
-            boolean hasDownstream = hasDownstreamLineage(table.getId());
+            boolean hasUpstream = lineageDegrees.hasUpstream(table.getId());
+            boolean hasDownstream = lineageDegrees.hasDownstream(table.getId());
 
             if (!hasUpstream && !hasDownstream) {
                 // 没有任何上下游依赖关系,是孤立表
@@ -1137,8 +1195,6 @@ public class InspectionService {
                 issue.setCurrentValue("无上游,无下游");
                 issue.setExpectedValue("至少有一个上游或下游依赖");
                 issue.setSuggestion(generateOrphanTableSuggestion(table, existDays));
-
-                inspectionIssueMapper.insert(issue);
                 issues.add(issue);
             }
         }
@@ -1150,7 +1206,7 @@ public class InspectionService {
     /**
      * 检查废弃表 - 状态为 deprecated 且没有依赖的表
      */
-    private List<InspectionIssue> checkDeprecatedTables(Long recordId, InspectionRule rule) {
+    private List<InspectionIssue> checkDeprecatedTables(Long recordId, InspectionRule rule, InspectionSnapshot snapshot) {
         List<InspectionIssue> issues = new ArrayList<>();
         Map<String, Object> config = parseRuleConfig(rule.getRuleConfig());
 
@@ -1167,10 +1223,11 @@ public class InspectionService {
         applyTableScope(tableWrapper, config);
         List<DataTable> deprecatedTables = dataTableMapper.selectList(tableWrapper);
 
+        LineageDegreeIndex lineageDegrees = snapshot.getLineageDegrees();
         for (DataTable table : deprecatedTables) {
             // 检查血缘关系
-            boolean hasUpstream = hasUpstreamLineage(table.getId());
-            boolean hasDownstream = hasDownstreamLineage(table.getId());
+            boolean hasUpstream = lineageDegrees.hasUpstream(table.getId());
+            boolean hasDownstream = lineageDegrees.hasDownstream(table.getId());
 
             // 如果不检查有下游的表,且该表有下游,则跳过
             if (!checkWithDownstream && hasDownstream) {
@@ -1216,8 +1273,6 @@ public class InspectionService {
                 issue.setExpectedValue("评估后删除");
                 issue.setSuggestion("建议:\n1. 确认上游写入已停止\n2. 检查是否还需要保留历史数据\n3. 考虑归档后删除\n4. 或者将数据迁移到其他表");
             }
-
-            inspectionIssueMapper.insert(issue);
             issues.add(issue);
         }
 
@@ -1225,26 +1280,6 @@ public class InspectionService {
         return issues;
     }
 
-    /**
-     * 检查表是否有上游血缘关系
-     */
-    private boolean hasUpstreamLineage(Long tableId) {
-        return dataLineageMapper.selectCount(
-            new LambdaQueryWrapper<DataLineage>()
-                .eq(DataLineage::getDownstreamTableId, tableId)
-        ) > 0;
-    }
-
-    /**
-     * 检查表是否有下游血缘关系
-     */
-    private boolean hasDownstreamLineage(Long tableId) {
-        return dataLineageMapper.selectCount(
-            new LambdaQueryWrapper<DataLineage>()
-                .eq(DataLineage::getUpstreamTableId, tableId)
-        ) > 0;
-    }
-
     /**
      * 计算孤立表的严重程度
      */
@@ -0,0 +1,131 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.mapper.DataLineageMapper;
+import com.onedata.portal.util.LineageDegreeIndex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 单次巡检共享的 Doris 统计快照
+ * <p>
+ * 巡检开始时确定 Doris 数据源与需要 Tablet 统计的表，按数据库各采集一次 SHOW TABLETS，
+ * tablet_count、tablet_size 等规则共用结果，避免同一张表在一次巡检中被重复查询；血缘度数同样只聚合一次，
+ * 供孤立表、废弃表规则按表 O(1) 判断上下游。
+ * 每个数据库的采集任务只执行一次：已提交到线程池但尚未开始时，先用到的规则线程直接执行。
+ */
+class InspectionSnapshot {
+
+    private final DorisConnectionService dorisConnectionService;
+    private final Set<Long> dorisClusterIds;
+    private final Map<DatabaseKey, FutureTask<Map<String, DorisConnectionService.TableTabletStats>>> tabletStats =
+            new LinkedHashMap<>();
+    private final FutureTask<LineageDegreeIndex> lineageDegrees;
+
+    InspectionSnapshot(DorisConnectionService dorisConnectionService, DataLineageMapper dataLineageMapper,
+            Set<Long> dorisClusterIds, Collection<DataTable> tabletTables) {
+        this.dorisConnectionService = dorisConnectionService;
+        this.dorisClusterIds = Collections.unmodifiableSet(dorisClusterIds);
+        this.lineageDegrees = new FutureTask<>(() -> LineageDegreeIndex.of(dataLineageMapper.selectDegrees()));
+
+        Map<DatabaseKey, Set<String>> tablesByDatabase = new LinkedHashMap<>();
+        for (DataTable table : tabletTables) {
+            String tableName = InspectionService.resolveActualTableName(table.getTableName());
+            if (table.getClusterId() == null || table.getDbName() == null || tableName == null) {
+                continue;
+            }
+            tablesByDatabase.computeIfAbsent(new DatabaseKey(table.getClusterId(), table.getDbName()),
+                    key -> new LinkedHashSet<>()).add(tableName);
+        }
+        tablesByDatabase.forEach((key, tableNames) -> tabletStats.put(key, new FutureTask<>(
+                () -> dorisConnectionService.getDatabaseTabletStats(key.clusterId, key.database, tableNames))));
+    }
+
+    Set<Long> getDorisClusterIds() {
+        return dorisClusterIds;
+    }
+
+    int getDatabaseCount() {
+        return tabletStats.size();
+    }
+
+    /**
+     * 将各数据库的 Tablet 采集提交到线程池，与规则执行并行
+     */
+    void prefetch(Executor executor) {
+        tabletStats.values().forEach(executor::execute);
+    }
+
+    /**
+     * 获取表的 Tablet 统计；不在快照范围内的表单独查询
+     */
+    Optional<DorisConnectionService.TableTabletStats> getTabletStats(DataTable table, String actualTableName) {
+        FutureTask<Map<String, DorisConnectionService.TableTabletStats>> task =
+                tabletStats.get(new DatabaseKey(table.getClusterId(), table.getDbName()));
+        if (task == null) {
+            return dorisConnectionService.getTableTabletStats(table.getClusterId(), table.getDbName(),
+                    actualTableName);
+        }
+        return Optional.ofNullable(await(task, "Tablet 统计").get(actualTableName));
+    }
+
+    /**
+     * 获取血缘度数索引，首次调用时聚合一次
+     */
+    LineageDegreeIndex getLineageDegrees() {
+        return await(lineageDegrees, "血缘度数");
+    }
+
+    private static <T> T await(FutureTask<T> task, String name) {
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待" + name + "被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("获取" + name + "失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static final class DatabaseKey {
+        private final Long clusterId;
+        private final String database;
+
+        private DatabaseKey(Long clusterId, String database) {
+            this.clusterId = clusterId;
+            this.database = database;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DatabaseKey)) {
+                return false;
+            }
+            DatabaseKey other = (DatabaseKey) o;
+            return Objects.equals(clusterId, other.clusterId) && Objects.equals(database, other.database);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clusterId, database);
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.onedata.portal.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.MetadataSyncProperties;
 import com.onedata.portal.entity.DorisCluster;
 import com.onedata.portal.entity.MetadataSyncHistory;
 import com.onedata.portal.mapper.MetadataSyncHistoryMapper;
@@ -13,6 +15,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -26,9 +30,12 @@ import java.util.List;
 public class MetadataSyncHistoryService {
 
     private static final int DEFAULT_RETENTION_DAYS = 90;
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_SUCCESS = "SUCCESS";
 
     private final MetadataSyncHistoryMapper metadataSyncHistoryMapper;
     private final ObjectMapper objectMapper;
+    private final MetadataSyncProperties metadataSyncProperties;
 
     public MetadataSyncHistory record(DorisCluster cluster,
             String triggerType,
@@ -36,55 +43,112 @@ public class MetadataSyncHistoryService {
             String scopeTarget,
             LocalDateTime startedAt,
             DorisMetadataSyncService.SyncResult result) {
-        LocalDateTime begin = startedAt != null ? startedAt : LocalDateTime.now();
-        LocalDateTime finishedAt = LocalDateTime.now();
+        MetadataSyncHistory history = newHistory(cluster, triggerType, scopeType, scopeTarget, startedAt);
+        applyFinished(history, result);
+        metadataSyncHistoryMapper.insert(history);
+        return history;
+    }
 
-        MetadataSyncHistory history = new MetadataSyncHistory();
-        history.setClusterId(cluster != null ? cluster.getId() : null);
-        history.setClusterName(cluster != null ? cluster.getClusterName() : null);
-        history.setSourceType(cluster != null ? cluster.getSourceType() : null);
-        history.setTriggerType(StringUtils.hasText(triggerType) ? triggerType : "manual");
-        history.setScopeType(StringUtils.hasText(scopeType) ? scopeType : "all");
-        history.setScopeTarget(scopeTarget);
-        history.setStatus(result != null ? result.getStatus() : "FAILED");
-        history.setStartedAt(begin);
-        history.setFinishedAt(finishedAt);
-        history.setDurationMs(Math.max(0L, java.time.Duration.between(begin, finishedAt).toMillis()));
+    /**
+     * 记录一次进行中的同步（状态 RUNNING），同步结束后调用 {@link #finish} 更新为最终结果；
+     * 记录失败时返回 null，不影响同步本身
+     */
+    public MetadataSyncHistory start(DorisCluster cluster,
+            String triggerType,
+            String scopeType,
+            String scopeTarget,
+            LocalDateTime startedAt) {
+        MetadataSyncHistory history = newHistory(cluster, triggerType, scopeType, scopeTarget, startedAt);
+        history.setStatus(STATUS_RUNNING);
+        history.setDurationMs(0L);
+        history.setTotalDatabases(0);
+        history.setCompletedDatabases(0);
+        applyCounters(history, new DorisMetadataSyncService.SyncResult());
+        history.setErrorCount(0);
+        try {
+            metadataSyncHistoryMapper.insert(history);
+            return history;
+        } catch (Exception e) {
+            log.warn("Failed to record running metadata sync, cluster={}: {}", history.getClusterId(), e.getMessage());
+            return null;
+        }
+    }
 
-        if (result != null) {
-            history.setNewTables(result.getNewTables());
-            history.setUpdatedTables(result.getUpdatedTables());
-            history.setDeletedTables(result.getDeletedTables());
-            history.setBlockedDeletedTables(result.getBlockedDeletedTables());
-            history.setInactivatedTables(result.getInactivatedTables());
-            history.setNewFields(result.getNewFields());
-            history.setUpdatedFields(result.getUpdatedFields());
-            history.setDeletedFields(result.getDeletedFields());
+    /**
+     * 创建进度回调：按配置的最小间隔把已完成数据库数与当前累计变更写入进行中的同步历史
+     */
+    public DorisMetadataSyncService.SyncProgressListener progressListener(MetadataSyncHistory history) {
+        if (history == null || history.getId() == null) {
+            return null;
+        }
+        long intervalMs = Math.max(0L, metadataSyncProperties.getProgressFlushIntervalMs());
+        long[] lastFlushAt = {0L};
+        return (completed, total, result) -> {
+            long now = System.currentTimeMillis();
+            if (completed > 0 && completed < total && now - lastFlushAt[0] < intervalMs) {
+                return;
+            }
+            lastFlushAt[0] = now;
+            updateProgress(history, completed, total, result);
+        };
+    }
 
-            List<String> errors = result.getErrors() != null ? result.getErrors() : Collections.emptyList();
-            history.setErrorCount(errors.size());
-            history.setErrorSummary(buildErrorSummary(errors));
-            history.setErrorDetails(toJson(errors));
-            history.setChangeDetails(toJson(result.getChangeDetails()));
-        } else {
-            history.setNewTables(0);
-            history.setUpdatedTables(0);
-            history.setDeletedTables(0);
-            history.setBlockedDeletedTables(0);
-            history.setInactivatedTables(0);
-            history.setNewFields(0);
-            history.setUpdatedFields(0);
-            history.setDeletedFields(0);
-            history.setErrorCount(1);
-            history.setErrorSummary("同步结果为空");
-            history.setErrorDetails("[]");
-            history.setChangeDetails("{\"added\":[],\"updated\":[],\"deleted\":[]}");
+    public void updateProgress(MetadataSyncHistory history,
+            int completedDatabases,
+            int totalDatabases,
+            DorisMetadataSyncService.SyncResult result) {
+        MetadataSyncHistory update = new MetadataSyncHistory();
+        update.setId(history.getId());
+        update.setTotalDatabases(totalDatabases);
+        update.setCompletedDatabases(completedDatabases);
+        update.setDurationMs(elapsedMs(history.getStartedAt(), LocalDateTime.now()));
+        if (result != null) {
+            applyCounters(update, result);
+            update.setErrorCount(result.getErrors().size());
+            update.setErrorSummary(buildErrorSummary(result.getErrors()));
         }
+        metadataSyncHistoryMapper.updateById(update);
+        history.setTotalDatabases(totalDatabases);
+        history.setCompletedDatabases(completedDatabases);
+    }
 
-        metadataSyncHistoryMapper.insert(history);
+    /**
+     * 将进行中的同步历史更新为最终结果；未能记录开始时直接插入完整记录
+     */
+    public MetadataSyncHistory finish(MetadataSyncHistory history,
+            DorisCluster cluster,
+            String triggerType,
+            String scopeType,
+            String scopeTarget,
+            LocalDateTime startedAt,
+            DorisMetadataSyncService.SyncResult result) {
+        if (history == null || history.getId() == null) {
+            return record(cluster, triggerType, scopeType, scopeTarget, startedAt, result);
+        }
+        applyFinished(history, result);
+        if (history.getTotalDatabases() != null && STATUS_SUCCESS.equals(history.getStatus())) {
+            history.setCompletedDatabases(history.getTotalDatabases());
+        }
+        metadataSyncHistoryMapper.updateById(history);
         return history;
     }
 
+    /**
+     * 服务重启后，仍处于 RUNNING 的同步已中断，标记为失败
+     */
+    @PostConstruct
+    public void recoverInterruptedRuns() {
+        try {
+            metadataSyncHistoryMapper.update(null, new LambdaUpdateWrapper<MetadataSyncHistory>()
+                    .eq(MetadataSyncHistory::getStatus, STATUS_RUNNING)
+                    .set(MetadataSyncHistory::getStatus, "FAILED")
+                    .set(MetadataSyncHistory::getErrorSummary, "服务重启，同步中断")
+                    .set(MetadataSyncHistory::getFinishedAt, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Failed to recover interrupted metadata sync history: {}", e.getMessage());
+        }
+    }
+
     public Page<MetadataSyncHistory> listByCluster(Long clusterId,
             int pageNum,
             int pageSize,
@@ -122,6 +186,63 @@ public class MetadataSyncHistoryService {
         return deleted;
     }
 
+    private MetadataSyncHistory newHistory(DorisCluster cluster,
+            String triggerType,
+            String scopeType,
+            String scopeTarget,
+            LocalDateTime startedAt) {
+        MetadataSyncHistory history = new MetadataSyncHistory();
+        history.setClusterId(cluster != null ? cluster.getId() : null);
+        history.setClusterName(cluster != null ? cluster.getClusterName() : null);
+        history.setSourceType(cluster != null ? cluster.getSourceType() : null);
+        history.setTriggerType(StringUtils.hasText(triggerType) ? triggerType : "manual");
+        history.setScopeType(StringUtils.hasText(scopeType) ? scopeType : "all");
+        history.setScopeTarget(scopeTarget);
+        history.setStartedAt(startedAt != null ? startedAt : LocalDateTime.now());
+        return history;
+    }
+
+    private void applyFinished(MetadataSyncHistory history, DorisMetadataSyncService.SyncResult result) {
+        LocalDateTime finishedAt = LocalDateTime.now();
+        history.setStatus(result != null ? result.getStatus() : "FAILED");
+        history.setFinishedAt(finishedAt);
+        history.setDurationMs(elapsedMs(history.getStartedAt(), finishedAt));
+
+        if (result != null) {
+            applyCounters(history, result);
+
+            List<String> errors = result.getErrors() != null ? result.getErrors() : Collections.emptyList();
+            history.setErrorCount(errors.size());
+            history.setErrorSummary(buildErrorSummary(errors));
+            history.setErrorDetails(toJson(errors));
+            history.setChangeDetails(toJson(result.getChangeDetails()));
+        } else {
+            applyCounters(history, new DorisMetadataSyncService.SyncResult());
+            history.setErrorCount(1);
+            history.setErrorSummary("同步结果为空");
+            history.setErrorDetails("[]");
+            history.setChangeDetails("{\"added\":[],\"updated\":[],\"deleted\":[]}");
+        }
+    }
+
+    private void applyCounters(MetadataSyncHistory history, DorisMetadataSyncService.SyncResult result) {
+        history.setNewTables(result.getNewTables());
+        history.setUpdatedTables(result.getUpdatedTables());
+        history.setDeletedTables(result.getDeletedTables());
+        history.setBlockedDeletedTables(result.getBlockedDeletedTables());
+        history.setInactivatedTables(result.getInactivatedTables());
+        history.setNewFields(result.getNewFields());
+        history.setUpdatedFields(result.getUpdatedFields());
+        history.setDeletedFields(result.getDeletedFields());
+    }
+
+    private long elapsedMs(LocalDateTime begin, LocalDateTime end) {
+        if (begin == null || end == null) {
+            return 0L;
+        }
+        return Math.max(0L, Duration.between(begin, end).toMillis());
+    }
+
     private String buildErrorSummary(List<String> errors) {
         if (errors == null || errors.isEmpty()) {
             return null;
@@ -0,0 +1,177 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.DataField;
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.entity.TableStatisticsHistory;
+import com.onedata.portal.mapper.DataFieldMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.mapper.TableStatisticsHistoryMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 元数据同步写入批次
+ * <p>
+ * 同步单个数据库时，表、字段与统计快照的写入先在内存中累积，{@link #flush()} 时按类型合并为多行 INSERT、
+ * INSERT ... ON DUPLICATE KEY UPDATE 与 deleteBatchIds，在调用方事务内执行。新表先写入以回填主键，
+ * 再写入引用它的字段与快照。非线程安全，每个数据库同步使用独立实例。
+ * <p>
+ * 累积行数达到 {@link #AUTO_FLUSH_ROWS} 时在写入方法内自动刷新，刷新失败抛出 {@link FlushException}。
+ */
+@Slf4j
+class MetadataWriteBatch {
+
+    /**
+     * data_table 行包含 DDL，单条语句的行数取小值，避免超过 max_allowed_packet
+     */
+    static final int TABLE_CHUNK_SIZE = 100;
+
+    static final int ROW_CHUNK_SIZE = 500;
+
+    /**
+     * 累积的待写行数超过该值时自动刷新，限制宽表大库同步时的内存占用
+     */
+    static final int AUTO_FLUSH_ROWS = 5000;
+
+    private final DataTableMapper dataTableMapper;
+    private final DataFieldMapper dataFieldMapper;
+    private final TableStatisticsHistoryMapper tableStatisticsHistoryMapper;
+
+    private final List<DataTable> newTables = new ArrayList<>();
+    private final Map<Long, DataTable> updatedTables = new LinkedHashMap<>();
+    private final List<OwnedRow<DataField>> fields = new ArrayList<>();
+    private final List<Long> deletedFieldIds = new ArrayList<>();
+    private final List<OwnedRow<TableStatisticsHistory>> statistics = new ArrayList<>();
+
+    MetadataWriteBatch(DataTableMapper dataTableMapper,
+            DataFieldMapper dataFieldMapper,
+            TableStatisticsHistoryMapper tableStatisticsHistoryMapper) {
+        this.dataTableMapper = dataTableMapper;
+        this.dataFieldMapper = dataFieldMapper;
+        this.tableStatisticsHistoryMapper = tableStatisticsHistoryMapper;
+    }
+
+    void insertTable(DataTable table) {
+        newTables.add(table);
+        flushIfNeeded();
+    }
+
+    void updateTable(DataTable table) {
+        updatedTables.put(table.getId(), table);
+        flushIfNeeded();
+    }
+
+    /**
+     * 新增或更新字段，所属表为新表时在刷新时回填 tableId
+     */
+    void upsertField(DataTable owner, DataField field) {
+        fields.add(new OwnedRow<>(owner, field, field::setTableId));
+        flushIfNeeded();
+    }
+
+    void deleteField(Long fieldId) {
+        deletedFieldIds.add(fieldId);
+        flushIfNeeded();
+    }
+
+    void insertStatistics(DataTable owner, TableStatisticsHistory history) {
+        statistics.add(new OwnedRow<>(owner, history, history::setTableId));
+        flushIfNeeded();
+    }
+
+    int size() {
+        return newTables.size() + updatedTables.size() + fields.size() + deletedFieldIds.size() + statistics.size();
+    }
+
+    void flush() {
+        if (size() == 0) {
+            return;
+        }
+        int tableCount = newTables.size() + updatedTables.size();
+        int fieldCount = fields.size() + deletedFieldIds.size();
+        int statisticsCount = statistics.size();
+
+        // 每类写完即清空，失败后不会在下次刷新时重复写入已成功的部分
+        try {
+            for (List<DataTable> chunk : chunks(newTables, TABLE_CHUNK_SIZE)) {
+                dataTableMapper.insertBatch(chunk);
+            }
+            newTables.clear();
+            for (List<DataTable> chunk : chunks(new ArrayList<>(updatedTables.values()), TABLE_CHUNK_SIZE)) {
+                dataTableMapper.upsertSyncedBatch(chunk);
+            }
+            updatedTables.clear();
+            for (List<Long> chunk : chunks(deletedFieldIds, ROW_CHUNK_SIZE)) {
+                dataFieldMapper.deleteBatchIds(chunk);
+            }
+            deletedFieldIds.clear();
+            for (List<DataField> chunk : chunks(resolveOwners(fields), ROW_CHUNK_SIZE)) {
+                dataFieldMapper.upsertBatch(chunk);
+            }
+            fields.clear();
+            for (List<TableStatisticsHistory> chunk : chunks(resolveOwners(statistics), ROW_CHUNK_SIZE)) {
+                tableStatisticsHistoryMapper.insertBatch(chunk);
+            }
+            statistics.clear();
+        } catch (RuntimeException e) {
+            throw new FlushException("批量写入元数据失败: " + e.getMessage(), e);
+        }
+        log.debug("Flushed metadata batch: tables={}, fields={}, statistics={}", tableCount, fieldCount,
+                statisticsCount);
+    }
+
+    private void flushIfNeeded() {
+        if (size() >= AUTO_FLUSH_ROWS) {
+            flush();
+        }
+    }
+
+    private static <T> List<T> resolveOwners(List<OwnedRow<T>> rows) {
+        List<T> resolved = new ArrayList<>(rows.size());
+        for (OwnedRow<T> row : rows) {
+            if (row.owner.getId() == null) {
+                throw new IllegalStateException("表 " + row.owner.getDbName() + "." + row.owner.getTableName()
+                        + " 未生成主键");
+            }
+            row.tableIdSetter.accept(row.owner.getId());
+            resolved.add(row.row);
+        }
+        return resolved;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> rows, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += size) {
+            chunks.add(new ArrayList<>(rows.subList(start, Math.min(rows.size(), start + size))));
+        }
+        return chunks;
+    }
+
+    /**
+     * 批量写入失败。已写入的部分无法单独撤销，调用方需要让整个数据库的同步失败并回滚事务，
+     * 不能当作单表错误继续。
+     */
+    static final class FlushException extends RuntimeException {
+
+        FlushException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final class OwnedRow<T> {
+        private final DataTable owner;
+        private final T row;
+        private final Consumer<Long> tableIdSetter;
+
+        private OwnedRow(DataTable owner, T row, Consumer<Long> tableIdSetter) {
+            this.owner = owner;
+            this.row = row;
+            this.tableIdSetter = tableIdSetter;
+        }
+    }
+}
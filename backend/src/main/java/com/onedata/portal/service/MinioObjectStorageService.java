@@ -0,0 +1,249 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.MinioConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * MinIO（S3 兼容）对象存储访问：基于 AWS Signature V4 实现上传与预签名下载，
+ * 上传直接从本地文件流式写出，不占用堆内存。
+ */
+@Slf4j
+@Service
+public class MinioObjectStorageService {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String DEFAULT_REGION = "us-east-1";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter AMZ_DAY = DateTimeFormatter.ofPattern("yyyyMMdd")
+            .withZone(ZoneOffset.UTC);
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 300000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 上传本地文件
+     */
+    public void putObject(MinioConfig config, String bucket, String objectKey, Path file, String contentType) {
+        Instant now = Instant.now();
+        ObjectLocation location = resolve(config, bucket, objectKey);
+        String amzDate = AMZ_DATE.format(now);
+
+        Map<String, String> headers = new TreeMap<>();
+        headers.put("host", location.hostHeader);
+        headers.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        headers.put("x-amz-date", amzDate);
+        String signedHeaders = String.join(";", headers.keySet());
+
+        StringBuilder canonicalHeaders = new StringBuilder();
+        headers.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value).append('\n'));
+        String canonicalRequest = "PUT\n" + location.canonicalPath + "\n\n"
+                + canonicalHeaders + "\n" + signedHeaders + "\n" + UNSIGNED_PAYLOAD;
+        String scope = scope(now, region(config));
+        String signature = sign(config.getSecretKey(), now, region(config), stringToSign(amzDate, scope, canonicalRequest));
+        String authorization = ALGORITHM + " Credential=" + config.getAccessKey() + "/" + scope
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+
+        HttpURLConnection connection = null;
+        try {
+            long length = Files.size(file);
+            connection = (HttpURLConnection) new URL(location.baseUrl + location.canonicalPath).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestMethod("PUT");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(length);
+            connection.setRequestProperty("Authorization", authorization);
+            connection.setRequestProperty("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+            connection.setRequestProperty("x-amz-date", amzDate);
+            if (StringUtils.hasText(contentType)) {
+                connection.setRequestProperty("Content-Type", contentType);
+            }
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = connection.getOutputStream()) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            int status = connection.getResponseCode();
+            if (status / 100 != 2) {
+                throw new RuntimeException(String.format("上传 MinIO 对象失败(%d): %s/%s %s",
+                        status, bucket, objectKey, readError(connection)));
+            }
+            log.debug("Uploaded {} bytes to {}/{}", length, bucket, objectKey);
+        } catch (IOException e) {
+            throw new RuntimeException("上传 MinIO 对象失败: " + e.getMessage(), e);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 生成预签名下载链接
+     */
+    public String presignGetUrl(MinioConfig config, String bucket, String objectKey, Duration expiry) {
+        return presignGetUrl(config, bucket, objectKey, expiry, Instant.now());
+    }
+
+    String presignGetUrl(MinioConfig config, String bucket, String objectKey, Duration expiry, Instant now) {
+        ObjectLocation location = resolve(config, bucket, objectKey);
+        String amzDate = AMZ_DATE.format(now);
+        String scope = scope(now, region(config));
+
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", config.getAccessKey() + "/" + scope);
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", String.valueOf(expiry.getSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        StringBuilder canonicalQuery = new StringBuilder();
+        query.forEach((name, value) -> {
+            if (canonicalQuery.length() > 0) {
+                canonicalQuery.append('&');
+            }
+            canonicalQuery.append(encode(name, true)).append('=').append(encode(value, true));
+        });
+
+        String canonicalRequest = "GET\n" + location.canonicalPath + "\n" + canonicalQuery + "\n"
+                + "host:" + location.hostHeader + "\n\nhost\n" + UNSIGNED_PAYLOAD;
+        String signature = sign(config.getSecretKey(), now, region(config), stringToSign(amzDate, scope, canonicalRequest));
+        return location.baseUrl + location.canonicalPath + "?" + canonicalQuery + "&X-Amz-Signature=" + signature;
+    }
+
+    private ObjectLocation resolve(MinioConfig config, String bucket, String objectKey) {
+        if (config == null || !StringUtils.hasText(config.getEndpoint())) {
+            throw new IllegalArgumentException("MinIO endpoint 未配置");
+        }
+        String endpoint = config.getEndpoint().trim();
+        if (!endpoint.startsWith("http://") && !endpoint.startsWith("https://")) {
+            endpoint = "http://" + endpoint;
+        }
+        URI uri = URI.create(endpoint);
+        boolean pathStyle = config.getUsePathStyle() == null || config.getUsePathStyle() != 0;
+        String host = pathStyle ? uri.getHost() : bucket + "." + uri.getHost();
+        int port = uri.getPort();
+        boolean defaultPort = port < 0
+                || ("http".equals(uri.getScheme()) && port == 80)
+                || ("https".equals(uri.getScheme()) && port == 443);
+        String hostHeader = defaultPort ? host : host + ":" + port;
+        String key = objectKey.startsWith("/") ? objectKey.substring(1) : objectKey;
+        String path = pathStyle ? "/" + bucket + "/" + key : "/" + key;
+        return new ObjectLocation(uri.getScheme() + "://" + hostHeader, hostHeader, encode(path, false));
+    }
+
+    private String region(MinioConfig config) {
+        return StringUtils.hasText(config.getRegion()) ? config.getRegion().trim() : DEFAULT_REGION;
+    }
+
+    private String scope(Instant now, String region) {
+        return AMZ_DAY.format(now) + "/" + region + "/s3/aws4_request";
+    }
+
+    private String stringToSign(String amzDate, String scope, String canonicalRequest) {
+        return ALGORITHM + "\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+    }
+
+    private String sign(String secretKey, Instant now, String region, String stringToSign) {
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), AMZ_DAY.format(now));
+        key = hmac(key, region);
+        key = hmac(key, "s3");
+        key = hmac(key, "aws4_request");
+        return hex(hmac(key, stringToSign));
+    }
+
+    private byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 不可用", e);
+        }
+    }
+
+    private String sha256Hex(String data) {
+        try {
+            return hex(MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按 S3 规则进行 URI 编码（仅保留 RFC 3986 非保留字符，路径中的 / 不编码）
+     */
+    private String encode(String value, boolean encodeSlash) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String readError(HttpURLConnection connection) {
+        try (InputStream err = connection.getErrorStream()) {
+            if (err == null) {
+                return "";
+            }
+            byte[] buffer = new byte[2048];
+            int read = err.read(buffer);
+            return read > 0 ? new String(buffer, 0, read, StandardCharsets.UTF_8) : "";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static class ObjectLocation {
+        private final String baseUrl;
+        private final String hostHeader;
+        private final String canonicalPath;
+
+        private ObjectLocation(String baseUrl, String hostHeader, String canonicalPath) {
+            this.baseUrl = baseUrl;
+            this.hostHeader = hostHeader;
+            this.canonicalPath = canonicalPath;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.TableAccessProperties;
+import com.onedata.portal.entity.TableAccessDaily;
+import com.onedata.portal.entity.TableAccessIngestState;
+import com.onedata.portal.mapper.TableAccessDailyMapper;
+import com.onedata.portal.mapper.TableAccessIngestStateMapper;
+import com.onedata.portal.util.TableReferenceMatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 表访问汇总服务
+ * <p>
+ * 从持久化的高水位之后按时间顺序读取 Doris 审计日志，每条语句只解析一次表引用，
+ * 按集群、表、日期、用户累加到 table_access_daily；汇总写入与高水位推进在同一事务中提交，
+ * 重启或失败后从上次提交的位置继续，不会重复累计。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableAccessRollupService {
+
+    private static final int UPSERT_CHUNK_SIZE = 500;
+    private static final int MAX_USER_LENGTH = 128;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DorisTableAccessService dorisTableAccessService;
+    private final TableReferenceMatcherService tableReferenceMatcherService;
+    private final TableAccessDailyMapper tableAccessDailyMapper;
+    private final TableAccessIngestStateMapper tableAccessIngestStateMapper;
+    private final TableAccessProperties tableAccessProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 正在汇总的集群，避免同一集群的汇总并发执行
+     */
+    private final Set<Long> runningClusters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 汇总指定集群自高水位以来的审计日志，返回本次读取的审计行数
+     */
+    public int ingest(Long clusterId) {
+        if (clusterId == null || !runningClusters.add(clusterId)) {
+            return 0;
+        }
+        TableAccessIngestState state = loadState(clusterId);
+        try {
+            Optional<DorisTableAccessService.AuditSource> source = dorisTableAccessService.resolveAuditSource(clusterId);
+            if (!source.isPresent()) {
+                state.setAuditSource(null);
+                state.setLastRunAt(LocalDateTime.now());
+                state.setLastRunRows(0);
+                state.setLastError("未检测到可查询的审计表");
+                saveState(state);
+                return 0;
+            }
+            return ingest(clusterId, source.get(), state);
+        } catch (Exception e) {
+            log.warn("Table access rollup failed for cluster={}, reason={}", clusterId, e.getMessage());
+            state.setLastRunAt(LocalDateTime.now());
+            state.setLastError(truncate("汇总审计日志失败: " + e.getMessage(), MAX_ERROR_LENGTH));
+            try {
+                saveState(state);
+            } catch (Exception stateEx) {
+                log.warn("Failed to record table access rollup error for cluster={}", clusterId, stateEx);
+            }
+            return 0;
+        } finally {
+            runningClusters.remove(clusterId);
+        }
+    }
+
+    private int ingest(Long clusterId, DorisTableAccessService.AuditSource source, TableAccessIngestState state)
+            throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime upTo = now.minusSeconds(Math.max(0, tableAccessProperties.getIngestLagSeconds()));
+        LocalDateTime highWaterMark = state.getHighWaterMark() != null
+                ? state.getHighWaterMark()
+                : now.minusDays(Math.max(1, tableAccessProperties.getBackfillDays()));
+        int pageSize = Math.max(1, tableAccessProperties.getPageSize());
+        TableReferenceMatcher matcher = tableReferenceMatcherService.getMatcher(clusterId);
+
+        state.setAuditSource(source.qualifiedName());
+        state.setLastRunAt(now);
+        state.setLastRunRows(0);
+        state.setLastError(null);
+        if (!highWaterMark.isBefore(upTo)) {
+            saveState(state);
+            return 0;
+        }
+
+        int totalRows = 0;
+        for (int page = 0; page < Math.max(1, tableAccessProperties.getMaxPagesPerRun()); page++) {
+            List<DorisTableAccessService.AuditEntry> entries = dorisTableAccessService.queryAuditPage(clusterId,
+                    source, highWaterMark, upTo, pageSize);
+            boolean truncated = entries.size() >= pageSize;
+            LocalDateTime pageEnd = upTo;
+            if (truncated) {
+                entries = trimLastInstant(entries);
+                pageEnd = latestTime(entries, highWaterMark);
+            }
+
+            // 没有新审计日志时同样推进高水位，避免下次重复扫描空区间
+            Map<String, TableAccessDaily> rollup = aggregate(clusterId, entries, matcher);
+            totalRows += entries.size();
+            state.setHighWaterMark(pageEnd);
+            state.setLastRunRows(totalRows);
+            commit(new ArrayList<>(rollup.values()), state);
+
+            highWaterMark = pageEnd;
+            if (!truncated || !highWaterMark.isBefore(upTo)) {
+                break;
+            }
+        }
+        log.debug("Table access rollup for cluster={} read {} audit rows, highWaterMark={}", clusterId, totalRows,
+                state.getHighWaterMark());
+        return totalRows;
+    }
+
+    /**
+     * 删除超过保留期的日汇总
+     */
+    public int cleanup() {
+        LocalDate before = LocalDate.now().minusDays(Math.max(1, tableAccessProperties.getRetentionDays()));
+        return tableAccessDailyMapper.deleteBefore(before);
+    }
+
+    /**
+     * 按表、日期、用户聚合一页审计日志；匹配器只识别平台已登记的表，避免子查询别名、CTE 等误识别的名称写入汇总
+     */
+    Map<String, TableAccessDaily> aggregate(Long clusterId, List<DorisTableAccessService.AuditEntry> entries,
+            TableReferenceMatcher matcher) {
+        Map<String, TableAccessDaily> rollup = new LinkedHashMap<>();
+        for (DorisTableAccessService.AuditEntry entry : entries) {
+            if (entry.getTime() == null || !StringUtils.hasText(entry.getStmt())) {
+                continue;
+            }
+            Set<String> refs = matcher.match(entry.getStmt(), entry.getDatabaseName());
+            if (refs.isEmpty()) {
+                continue;
+            }
+            LocalDate day = entry.getTime().toLocalDate();
+            String user = StringUtils.hasText(entry.getUser()) ? truncate(entry.getUser().trim(), MAX_USER_LENGTH) : "";
+            Long duration = entry.getQueryTimeMs() != null && entry.getQueryTimeMs() >= 0 ? entry.getQueryTimeMs() : null;
+            for (String ref : refs) {
+                int dot = ref.indexOf('.');
+                String key = ref + "|" + day + "|" + user;
+                TableAccessDaily row = rollup.computeIfAbsent(key, k -> newRow(clusterId, ref.substring(0, dot),
+                        ref.substring(dot + 1), day, user));
+                row.setAccessCount(row.getAccessCount() + 1L);
+                if (duration != null) {
+                    row.setDurationSumMs(row.getDurationSumMs() + duration);
+                    row.setDurationCount(row.getDurationCount() + 1L);
+                }
+                if (row.getFirstAccessTime() == null || entry.getTime().isBefore(row.getFirstAccessTime())) {
+                    row.setFirstAccessTime(entry.getTime());
+                }
+                if (row.getLastAccessTime() == null || entry.getTime().isAfter(row.getLastAccessTime())) {
+                    row.setLastAccessTime(entry.getTime());
+                }
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * 被 LIMIT 截断的页去掉与末行同一时刻的记录，下一页从该时刻之前重新读取，避免同一时刻的记录被拆到两页而丢失；
+     * 整页都在同一时刻时只能整页汇总
+     */
+    private List<DorisTableAccessService.AuditEntry> trimLastInstant(List<DorisTableAccessService.AuditEntry> entries) {
+        LocalDateTime last = entries.get(entries.size() - 1).getTime();
+        int end = entries.size();
+        while (end > 0 && last != null && last.equals(entries.get(end - 1).getTime())) {
+            end--;
+        }
+        return end == 0 ? entries : new ArrayList<>(entries.subList(0, end));
+    }
+
+    private LocalDateTime latestTime(List<DorisTableAccessService.AuditEntry> entries, LocalDateTime fallback) {
+        LocalDateTime latest = fallback;
+        for (DorisTableAccessService.AuditEntry entry : entries) {
+            if (entry.getTime() != null && entry.getTime().isAfter(latest)) {
+                latest = entry.getTime();
+            }
+        }
+        return latest;
+    }
+
+    private void commit(List<TableAccessDaily> rows, TableAccessIngestState state) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int start = 0; start < rows.size(); start += UPSERT_CHUNK_SIZE) {
+                tableAccessDailyMapper.upsertBatch(rows.subList(start, Math.min(rows.size(), start + UPSERT_CHUNK_SIZE)));
+            }
+            saveState(state);
+        });
+    }
+
+    private TableAccessIngestState loadState(Long clusterId) {
+        TableAccessIngestState state = tableAccessIngestStateMapper.selectById(clusterId);
+        if (state == null) {
+            state = new TableAccessIngestState();
+            state.setClusterId(clusterId);
+        }
+        return state;
+    }
+
+    private void saveState(TableAccessIngestState state) {
+        // createdAt 为空表示该集群的进度尚未落库
+        if (state.getCreatedAt() == null) {
+            tableAccessIngestStateMapper.insert(state);
+            if (state.getCreatedAt() == null) {
+                state.setCreatedAt(LocalDateTime.now());
+            }
+        } else {
+            tableAccessIngestStateMapper.updateById(state);
+        }
+    }
+
+    private TableAccessDaily newRow(Long clusterId, String db, String table, LocalDate day, String user) {
+        TableAccessDaily row = new TableAccessDaily();
+        row.setClusterId(clusterId);
+        row.setDbName(db);
+        row.setTableName(table);
+        row.setAccessDate(day);
+        row.setUserName(user);
+        row.setAccessCount(0L);
+        row.setDurationSumMs(0L);
+        row.setDurationCount(0L);
+        return row;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -37,6 +37,7 @@ public class TableCreateService {
     private final DataFieldMapper dataFieldMapper;
     private final TableNameGeneratorService tableNameGeneratorService;
     private final DorisConnectionService dorisConnectionService;
+    private final TableReferenceMatcherService tableReferenceMatcherService;
 
     /**
      * 预览表设计（生成表名与 DDL）
@@ -64,6 +65,7 @@ public class TableCreateService {
 
         DataTable dataTable = buildDataTableEntity(request, components, ddl);
         dataTableMapper.insert(dataTable);
+        tableReferenceMatcherService.invalidate(dataTable.getClusterId());
 
         persistColumns(dataTable.getId(), request);
 
@@ -0,0 +1,89 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.util.BoundedLoadingCache;
+import com.onedata.portal.util.TableReferenceMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表引用匹配器缓存
+ * 按集群缓存由已登记表构建的 {@link TableReferenceMatcher}；元数据同步或手工建表、删表后失效重建，
+ * 其余途径的变更由过期时间兜底
+ */
+@Slf4j
+@Service
+public class TableReferenceMatcherService {
+
+    /**
+     * 缓存过期时间（分钟）
+     */
+    private static final int CACHE_EXPIRE_MINUTES = 10;
+
+    private static final long MAXIMUM_SIZE = 256L;
+
+    private final DataTableMapper dataTableMapper;
+
+    private final BoundedLoadingCache<Long, TableReferenceMatcher> cache;
+
+    public TableReferenceMatcherService(DataTableMapper dataTableMapper) {
+        this.dataTableMapper = dataTableMapper;
+        this.cache = BoundedLoadingCache.<Long, TableReferenceMatcher>builder("table-reference-matcher")
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(Duration.ofMinutes(CACHE_EXPIRE_MINUTES))
+                .build();
+    }
+
+    /**
+     * 获取集群的匹配器，未命中时按当前登记的表构建（并发未命中只构建一次）
+     */
+    public TableReferenceMatcher getMatcher(Long clusterId) {
+        return cache.get(clusterId, () -> build(clusterId));
+    }
+
+    /**
+     * 集群的表集合发生变化后调用，下次获取时重建；在事务中调用时推迟到提交后失效，避免并发重建读到未提交前的表集合
+     */
+    public void invalidate(Long clusterId) {
+        if (clusterId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(clusterId);
+                }
+            });
+            return;
+        }
+        evict(clusterId);
+    }
+
+    private void evict(Long clusterId) {
+        cache.invalidate(clusterId);
+        log.debug("Invalidated table reference matcher for cluster {}", clusterId);
+    }
+
+    private TableReferenceMatcher build(Long clusterId) {
+        long start = System.currentTimeMillis();
+        List<String> identifiers = new ArrayList<>();
+        for (DataTable table : dataTableMapper.selectTableIdentifiers(clusterId)) {
+            if (StringUtils.hasText(table.getDbName()) && StringUtils.hasText(table.getTableName())) {
+                identifiers.add(table.getDbName() + "." + table.getTableName());
+            }
+        }
+        TableReferenceMatcher matcher = TableReferenceMatcher.of(identifiers);
+        log.debug("Built table reference matcher for cluster {}: tables={}, cost={}ms", clusterId, matcher.size(),
+                System.currentTimeMillis() - start);
+        return matcher;
+    }
+}
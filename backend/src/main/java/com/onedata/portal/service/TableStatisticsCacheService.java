@@ -1,16 +1,29 @@
 package com.onedata.portal.service;
 
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.CacheStatistics;
 import com.onedata.portal.dto.TableStatistics;
+import com.onedata.portal.util.BoundedLoadingCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * 表统计信息缓存服务
- * 使用内存缓存减少对 Doris 的频繁查询
+ * 使用有界内存缓存减少对 Doris 的频繁查询：按条目数与估算内存双重限制（LRU 淘汰），
+ * 并发未命中只查询一次 Doris，临近过期时后台提前刷新
+ * <p>
+ * 统计信息按当前用户的 Doris 凭据查询，缓存按用户隔离；后台刷新沿用触发刷新的用户上下文，
+ * 不会以集群默认账号查询后把结果提供给无权访问的用户
  */
 @Slf4j
 @Service
@@ -22,49 +35,79 @@ public class TableStatisticsCacheService {
     private static final int CACHE_EXPIRE_MINUTES = 5;
 
     /**
-     * 缓存存储: key = tableId + "_" + clusterId, value = CacheEntry
+     * 写入后超过该时间即在访问时后台刷新（分钟）
      */
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private static final int CACHE_REFRESH_MINUTES = 4;
+
+    private static final long MAXIMUM_SIZE = 10_000L;
 
     /**
-     * 获取缓存的统计信息
+     * 估算内存上限（字节）
      */
-    public TableStatistics get(Long tableId, Long clusterId) {
-        String key = buildKey(tableId, clusterId);
-        CacheEntry entry = cache.get(key);
+    private static final long MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+
+    private static final long DEFAULT_CLUSTER = -1L;
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final BoundedLoadingCache<TableKey, TableStatistics> cache;
+
+    public TableStatisticsCacheService() {
+        AtomicInteger counter = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256), runnable -> {
+                    Thread thread = new Thread(runnable, "table-stats-refresh-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        this.cache = BoundedLoadingCache.<TableKey, TableStatistics>builder("table-statistics")
+                .maximumSize(MAXIMUM_SIZE)
+                .maximumWeight(MAXIMUM_WEIGHT, TableStatisticsCacheService::estimateWeight)
+                .expireAfterWrite(Duration.ofMinutes(CACHE_EXPIRE_MINUTES))
+                .refreshAfterWrite(Duration.ofMinutes(CACHE_REFRESH_MINUTES), refreshExecutor)
+                .groupBy(key -> key.tableId)
+                .build();
+    }
 
-        if (entry == null) {
-            log.debug("Cache miss for table {} cluster {}", tableId, clusterId);
-            return null;
-        }
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
 
-        // 检查是否过期
-        if (entry.isExpired()) {
-            log.debug("Cache expired for table {} cluster {}", tableId, clusterId);
-            cache.remove(key);
-            return null;
-        }
+    /**
+     * 获取当前用户缓存的统计信息
+     */
+    public TableStatistics get(Long tableId, Long clusterId) {
+        return cache.getIfPresent(currentKey(tableId, clusterId));
+    }
 
-        log.debug("Cache hit for table {} cluster {}", tableId, clusterId);
-        return entry.getStatistics();
+    /**
+     * 获取统计信息，未命中时通过 loader 加载（同一用户对同一张表的并发加载只执行一次）
+     */
+    public TableStatistics getOrLoad(Long tableId, Long clusterId, Supplier<TableStatistics> loader) {
+        return cache.get(currentKey(tableId, clusterId), withCallerContext(loader));
     }
 
     /**
-     * 放入缓存
+     * 强制重新加载并更新缓存
+     */
+    public TableStatistics refresh(Long tableId, Long clusterId, Supplier<TableStatistics> loader) {
+        return cache.refresh(currentKey(tableId, clusterId), withCallerContext(loader));
+    }
+
+    /**
+     * 放入当前用户的缓存
      */
     public void put(Long tableId, Long clusterId, TableStatistics statistics) {
-        String key = buildKey(tableId, clusterId);
-        CacheEntry entry = new CacheEntry(statistics, LocalDateTime.now().plusMinutes(CACHE_EXPIRE_MINUTES));
-        cache.put(key, entry);
+        cache.put(currentKey(tableId, clusterId), statistics);
         log.debug("Cached statistics for table {} cluster {}", tableId, clusterId);
     }
 
     /**
-     * 移除缓存
+     * 移除缓存（所有用户的缓存均按表失效）
      */
     public void remove(Long tableId, Long clusterId) {
-        String key = buildKey(tableId, clusterId);
-        cache.remove(key);
+        cache.invalidateGroup(tableId);
         log.debug("Removed cache for table {} cluster {}", tableId, clusterId);
     }
 
@@ -72,7 +115,7 @@ public class TableStatisticsCacheService {
      * 清空指定表的所有缓存
      */
     public void removeAll(Long tableId) {
-        cache.keySet().removeIf(key -> key.startsWith(tableId + "_"));
+        cache.invalidateGroup(tableId);
         log.debug("Removed all cache for table {}", tableId);
     }
 
@@ -80,7 +123,7 @@ public class TableStatisticsCacheService {
      * 清空所有缓存
      */
     public void clear() {
-        cache.clear();
+        cache.invalidateAll();
         log.info("Cleared all statistics cache");
     }
 
@@ -97,34 +140,88 @@ public class TableStatisticsCacheService {
      * 清理过期的缓存
      */
     public void cleanupExpired() {
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        cache.cleanUp();
+    }
+
+    /**
+     * 获取缓存命中、淘汰与加载耗时统计
+     */
+    public CacheStatistics getStats() {
+        return cache.stats();
+    }
+
+    private static TableKey currentKey(Long tableId, Long clusterId) {
+        return new TableKey(tableId, clusterId, UserContextHolder.getCurrentUserId());
     }
 
     /**
-     * 构建缓存 key
+     * 加载器在刷新线程上执行时沿用提交时的用户上下文
      */
-    private String buildKey(Long tableId, Long clusterId) {
-        return tableId + "_" + (clusterId != null ? clusterId : "default");
+    private static Supplier<TableStatistics> withCallerContext(Supplier<TableStatistics> loader) {
+        Callable<TableStatistics> task = UserContextHolder.wrap(loader::get);
+        return () -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
     }
 
     /**
-     * 缓存条目
+     * 估算单条统计信息占用的内存（对象头与字段 + 字符串内容）
      */
-    private static class CacheEntry {
-        private final TableStatistics statistics;
-        private final LocalDateTime expireTime;
+    private static long estimateWeight(TableStatistics statistics) {
+        return 256L
+                + stringWeight(statistics.getDatabaseName())
+                + stringWeight(statistics.getTableName())
+                + stringWeight(statistics.getTableType())
+                + stringWeight(statistics.getTableComment())
+                + stringWeight(statistics.getDataSizeReadable())
+                + stringWeight(statistics.getEngine());
+    }
+
+    private static long stringWeight(String value) {
+        return value == null ? 0L : 40L + 2L * value.length();
+    }
+
+    /**
+     * 缓存 key：表 ID + 集群 ID（未指定集群时为 -1）+ 用户 ID（无用户上下文时为 null）
+     */
+    private static final class TableKey {
+        private final long tableId;
+        private final long clusterId;
+        private final String userId;
+
+        private TableKey(Long tableId, Long clusterId, String userId) {
+            this.tableId = tableId;
+            this.clusterId = clusterId != null ? clusterId : DEFAULT_CLUSTER;
+            this.userId = userId;
+        }
 
-        public CacheEntry(TableStatistics statistics, LocalDateTime expireTime) {
-            this.statistics = statistics;
-            this.expireTime = expireTime;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TableKey)) {
+                return false;
+            }
+            TableKey other = (TableKey) o;
+            return tableId == other.tableId && clusterId == other.clusterId && Objects.equals(userId, other.userId);
         }
 
-        public TableStatistics getStatistics() {
-            return statistics;
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(tableId) + Long.hashCode(clusterId)) + Objects.hashCode(userId);
         }
 
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(expireTime);
+        @Override
+        public String toString() {
+            return tableId + "_" + (clusterId == DEFAULT_CLUSTER ? "default" : String.valueOf(clusterId))
+                    + "_" + (userId == null ? "system" : userId);
         }
     }
 }
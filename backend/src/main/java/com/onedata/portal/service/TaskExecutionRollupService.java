@@ -0,0 +1,209 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.TaskExecutionStatisticsProperties;
+import com.onedata.portal.entity.TaskExecutionDaily;
+import com.onedata.portal.entity.TaskExecutionRollupState;
+import com.onedata.portal.mapper.TaskExecutionDailyMapper;
+import com.onedata.portal.mapper.TaskExecutionRollupStateMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 任务执行日汇总服务
+ * <p>
+ * 定时把 task_execution_log 按任务、日期、状态重算到 task_execution_daily：每轮从覆盖截止日期向前推进到今天（不含），
+ * 并重算已覆盖日期中 updated_at 晚于上次汇总的记录所在日期，状态迁移（如跨天结束的任务）因此能被修正。
+ * 统计查询对完整落在覆盖范围内的日期读日汇总，其余部分（当天、窗口首尾的不完整日期、覆盖范围之外）直接在明细上聚合。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskExecutionRollupService {
+
+    private static final long STATE_ID = 1L;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * 查找变更记录时向前多看的分钟数，容忍应用与数据库之间的时钟偏差
+     */
+    private static final long CHANGE_OVERLAP_MINUTES = 5;
+
+    private final TaskExecutionDailyMapper taskExecutionDailyMapper;
+    private final TaskExecutionRollupStateMapper taskExecutionRollupStateMapper;
+    private final TaskExecutionStatisticsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 推进并修正日汇总，返回本次重算的天数
+     */
+    public int rollup() {
+        if (!properties.isRollupEnabled() || !running.compareAndSet(false, true)) {
+            return 0;
+        }
+        TaskExecutionRollupState state = loadState();
+        try {
+            return rollup(state);
+        } catch (Exception e) {
+            log.warn("Task execution rollup failed, reason={}", e.getMessage());
+            state.setLastError(truncate("汇总执行记录失败: " + e.getMessage()));
+            try {
+                saveState(state);
+            } catch (Exception stateEx) {
+                log.warn("Failed to record task execution rollup error", stateEx);
+            }
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int rollup(TaskExecutionRollupState state) {
+        LocalDateTime runAt = LocalDateTime.now();
+        LocalDate today = runAt.toLocalDate();
+        if (state.getRolledUntil() == null) {
+            LocalDateTime earliest = taskExecutionDailyMapper.selectEarliestStartTime();
+            LocalDate from = earliest != null && earliest.toLocalDate().isBefore(today) ? earliest.toLocalDate() : today;
+            state.setRolledFrom(from);
+            state.setRolledUntil(from);
+        }
+
+        // 已覆盖日期中有更新的先重算，再向前推进
+        Set<LocalDate> changedDays = new TreeSet<>();
+        if (state.getLastRunAt() != null && state.getRolledFrom().isBefore(state.getRolledUntil())) {
+            changedDays.addAll(taskExecutionDailyMapper.selectChangedDays(
+                    state.getLastRunAt().minusMinutes(CHANGE_OVERLAP_MINUTES), state.getRolledFrom(),
+                    state.getRolledUntil()));
+        }
+        for (LocalDate day : changedDays) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(day, day.plusDays(1)));
+        }
+
+        LocalDate from = state.getRolledUntil();
+        LocalDate until = from.plusDays(Math.max(1, properties.getMaxDaysPerRun()));
+        if (until.isAfter(today)) {
+            until = today;
+        }
+        int advancedDays = from.isBefore(until) ? (int) (until.toEpochDay() - from.toEpochDay()) : 0;
+        LocalDate rolledUntil = until.isAfter(from) ? until : from;
+
+        state.setRolledUntil(rolledUntil);
+        state.setLastRunAt(runAt);
+        state.setLastRunDays(changedDays.size() + advancedDays);
+        state.setLastError(null);
+        // 推进的日期与覆盖范围在同一事务提交，中途失败时下次从原截止日期重算
+        transactionTemplate.executeWithoutResult(status -> {
+            if (advancedDays > 0) {
+                rebuild(from, rolledUntil);
+            }
+            saveState(state);
+        });
+        if (state.getLastRunDays() > 0) {
+            log.debug("Task execution rollup rebuilt {} changed days and advanced {} days, rolledUntil={}",
+                    changedDays.size(), advancedDays, rolledUntil);
+        }
+        return state.getLastRunDays();
+    }
+
+    private void rebuild(LocalDate from, LocalDate to) {
+        taskExecutionDailyMapper.deleteRange(from, to);
+        taskExecutionDailyMapper.rebuildRange(from, to);
+    }
+
+    /**
+     * 按日期、状态汇总开始时间不早于 startTime、结束时间不晚于 endTime 的执行记录（空条件不限制）；
+     * 返回行数与天数成正比
+     * <p>
+     * 读日汇总的日期按开始时间归日，不再逐条比较结束时间：这些日期都早于 endTime 所在日期，
+     * 只有跨过 endTime 仍未结束的执行会与明细口径不同。
+     */
+    public List<TaskExecutionDaily> aggregate(Long taskId, LocalDateTime startTime, LocalDateTime endTime) {
+        TaskExecutionRollupState state = properties.isRollupEnabled()
+                ? taskExecutionRollupStateMapper.selectById(STATE_ID)
+                : null;
+        LocalDate rolledFrom = state != null ? state.getRolledFrom() : null;
+        LocalDate rolledUntil = state != null ? state.getRolledUntil() : null;
+        if (rolledFrom == null || rolledUntil == null) {
+            return taskExecutionDailyMapper.aggregateLive(taskId, startTime, null, endTime);
+        }
+
+        LocalDate from = max(rolledFrom, firstWholeDay(startTime));
+        LocalDate to = min(rolledUntil, endOfWholeDays(endTime));
+        if (from == null || to == null || !from.isBefore(to)) {
+            return taskExecutionDailyMapper.aggregateLive(taskId, startTime, null, endTime);
+        }
+
+        List<TaskExecutionDaily> rows = new ArrayList<>(
+                taskExecutionDailyMapper.selectRolledUp(taskId, from, to));
+        rows.addAll(taskExecutionDailyMapper.aggregateLive(taskId, startTime, from.atStartOfDay(), endTime));
+        rows.addAll(taskExecutionDailyMapper.aggregateLive(taskId, to.atStartOfDay(), null, endTime));
+        return rows;
+    }
+
+    /**
+     * 完整包含在窗口内的第一天；不限开始时间时为 null（不限制）
+     */
+    private static LocalDate firstWholeDay(LocalDateTime startTime) {
+        if (startTime == null) {
+            return null;
+        }
+        LocalDate day = startTime.toLocalDate();
+        return startTime.toLocalTime().equals(LocalTime.MIDNIGHT) ? day : day.plusDays(1);
+    }
+
+    /**
+     * 完整包含在窗口内的最后一天的次日；endTime 精确到秒，23:59:59 视为包含当天
+     */
+    private static LocalDate endOfWholeDays(LocalDateTime endTime) {
+        if (endTime == null) {
+            return null;
+        }
+        LocalDate day = endTime.toLocalDate();
+        return endTime.toLocalTime().isBefore(LocalTime.of(23, 59, 59)) ? day : day.plusDays(1);
+    }
+
+    private static LocalDate max(LocalDate bound, LocalDate value) {
+        return value == null || value.isBefore(bound) ? bound : value;
+    }
+
+    private static LocalDate min(LocalDate bound, LocalDate value) {
+        return value == null || value.isAfter(bound) ? bound : value;
+    }
+
+    private TaskExecutionRollupState loadState() {
+        TaskExecutionRollupState state = taskExecutionRollupStateMapper.selectById(STATE_ID);
+        if (state == null) {
+            state = new TaskExecutionRollupState();
+            state.setId(STATE_ID);
+        }
+        return state;
+    }
+
+    private void saveState(TaskExecutionRollupState state) {
+        // createdAt 为空表示进度尚未落库
+        if (state.getCreatedAt() == null) {
+            taskExecutionRollupStateMapper.insert(state);
+            if (state.getCreatedAt() == null) {
+                state.setCreatedAt(LocalDateTime.now());
+            }
+        } else {
+            taskExecutionRollupStateMapper.updateById(state);
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.onedata.portal.entity.DataTask;
+import com.onedata.portal.entity.TaskExecutionDaily;
 import com.onedata.portal.entity.TaskExecutionLog;
 import com.onedata.portal.mapper.DataTaskMapper;
 import com.onedata.portal.mapper.TaskExecutionLogMapper;
@@ -14,9 +15,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 任务执行监控服务
@@ -30,9 +31,15 @@ public class TaskExecutionService {
 
     private static final int DEFAULT_RECENT_EXECUTION_LIMIT = 10;
 
+    /**
+     * 日汇总时长区间上界（秒），与 task_execution_daily 的 duration_le_* 列一一对应，最后一个区间无上界
+     */
+    private static final int[] DURATION_BUCKET_BOUNDS = {10, 30, 60, 300, 600, 1800, 3600, 7200, 21600};
+
     private final TaskExecutionLogMapper executionLogMapper;
     private final DataTaskMapper dataTaskMapper;
     private final DolphinSchedulerService dolphinSchedulerService;
+    private final TaskExecutionRollupService taskExecutionRollupService;
 
     /**
      * 查询任务执行历史 - 从 DolphinScheduler 实时同步状态
@@ -226,17 +233,56 @@ public class TaskExecutionService {
      * 获取任务执行统计
      */
     public Map<String, Object> getExecutionStatistics(Long taskId, LocalDateTime startTime, LocalDateTime endTime) {
-        LambdaQueryWrapper<TaskExecutionLog> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(taskId != null, TaskExecutionLog::getTaskId, taskId)
-                .ge(startTime != null, TaskExecutionLog::getStartTime, startTime)
-                .le(endTime != null, TaskExecutionLog::getEndTime, endTime);
+        // 在数据库中按日期、状态聚合（已结束的日期读日汇总），行数与天数成正比
+        List<TaskExecutionDaily> rows = taskExecutionRollupService.aggregate(taskId, startTime, endTime);
+
+        long totalExecutions = 0L;
+        Map<String, Long> statusDistribution = new HashMap<>();
+        long durationCount = 0L;
+        long durationSum = 0L;
+        Integer minDuration = null;
+        Integer maxDuration = null;
+        long[] durationHistogram = new long[DURATION_BUCKET_BOUNDS.length + 1];
+        Map<LocalDate, long[]> trendByDate = new TreeMap<>();
+        for (TaskExecutionDaily row : rows) {
+            long count = valueOf(row.getExecutionCount());
+            if (count == 0L) {
+                continue;
+            }
+            totalExecutions += count;
+            statusDistribution.merge(row.getStatus(), count, Long::sum);
+
+            long rowDurationCount = valueOf(row.getDurationCount());
+            if (rowDurationCount > 0) {
+                durationCount += rowDurationCount;
+                durationSum += valueOf(row.getDurationSum());
+                if (row.getDurationMin() != null && (minDuration == null || row.getDurationMin() < minDuration)) {
+                    minDuration = row.getDurationMin();
+                }
+                if (row.getDurationMax() != null && (maxDuration == null || row.getDurationMax() > maxDuration)) {
+                    maxDuration = row.getDurationMax();
+                }
+                long[] buckets = durationBuckets(row);
+                for (int i = 0; i < buckets.length; i++) {
+                    durationHistogram[i] += buckets[i];
+                }
+            }
 
-        List<TaskExecutionLog> logs = executionLogMapper.selectList(wrapper);
+            if (row.getStatDate() != null) {
+                long[] day = trendByDate.computeIfAbsent(row.getStatDate(), date -> new long[3]);
+                day[0] += count;
+                if ("success".equals(row.getStatus())) {
+                    day[1] += count;
+                } else if ("failed".equals(row.getStatus())) {
+                    day[2] += count;
+                }
+            }
+        }
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalExecutions", logs.size());
+        stats.put("totalExecutions", totalExecutions);
 
-        if (logs.isEmpty()) {
+        if (totalExecutions == 0L) {
             stats.put("successRate", 0.0);
             stats.put("failureRate", 0.0);
             stats.put("avgDurationSeconds", 0.0);
@@ -247,51 +293,44 @@ public class TaskExecutionService {
         }
 
         // 按状态分组统计
-        Map<String, Long> statusDistribution = logs.stream()
-                .collect(Collectors.groupingBy(
-                        TaskExecutionLog::getStatus,
-                        Collectors.counting()
-                ));
         stats.put("statusDistribution", statusDistribution);
 
         // 成功率和失败率
         long successCount = statusDistribution.getOrDefault("success", 0L);
         long failedCount = statusDistribution.getOrDefault("failed", 0L);
-        double successRate = (double) successCount / logs.size() * 100;
-        double failureRate = (double) failedCount / logs.size() * 100;
+        double successRate = (double) successCount / totalExecutions * 100;
+        double failureRate = (double) failedCount / totalExecutions * 100;
         stats.put("successRate", Math.round(successRate * 100.0) / 100.0);
         stats.put("failureRate", Math.round(failureRate * 100.0) / 100.0);
         stats.put("successCount", successCount);
         stats.put("failedCount", failedCount);
 
-        // 执行时长统计
-        List<Integer> durations = logs.stream()
-                .filter(log -> log.getDurationSeconds() != null && log.getDurationSeconds() > 0)
-                .map(TaskExecutionLog::getDurationSeconds)
-                .collect(Collectors.toList());
-
-        if (!durations.isEmpty()) {
-            double avgDuration = durations.stream()
-                    .mapToInt(Integer::intValue)
-                    .average()
-                    .orElse(0.0);
-            int maxDuration = durations.stream().mapToInt(Integer::intValue).max().orElse(0);
-            int minDuration = durations.stream().mapToInt(Integer::intValue).min().orElse(0);
-
+        // 执行时长统计，分位数由时长区间分布插值估算
+        if (durationCount > 0 && minDuration != null && maxDuration != null) {
+            double avgDuration = (double) durationSum / durationCount;
             stats.put("avgDurationSeconds", Math.round(avgDuration * 100.0) / 100.0);
             stats.put("maxDurationSeconds", maxDuration);
             stats.put("minDurationSeconds", minDuration);
+            stats.put("p50DurationSeconds", Math.round(estimatePercentile(durationHistogram, durationCount,
+                    minDuration, maxDuration, 0.5) * 100.0) / 100.0);
+            stats.put("p95DurationSeconds", Math.round(estimatePercentile(durationHistogram, durationCount,
+                    minDuration, maxDuration, 0.95) * 100.0) / 100.0);
         } else {
             stats.put("avgDurationSeconds", 0.0);
             stats.put("maxDurationSeconds", 0);
             stats.put("minDurationSeconds", 0);
         }
 
-        // 最近7天的执行趋势
-        if (startTime == null) {
-            startTime = LocalDateTime.now().minusDays(7);
+        // 按日执行趋势
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (Map.Entry<LocalDate, long[]> entry : trendByDate.entrySet()) {
+            Map<String, Object> dayStats = new HashMap<>();
+            dayStats.put("date", entry.getKey().toString());
+            dayStats.put("total", entry.getValue()[0]);
+            dayStats.put("success", entry.getValue()[1]);
+            dayStats.put("failed", entry.getValue()[2]);
+            trend.add(dayStats);
         }
-        List<Map<String, Object>> trend = calculateExecutionTrend(logs, startTime);
         stats.put("executionTrend", trend);
 
         return stats;
@@ -428,32 +467,41 @@ public class TaskExecutionService {
         return limit;
     }
 
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static long[] durationBuckets(TaskExecutionDaily row) {
+        return new long[] {
+                valueOf(row.getDurationLe10s()), valueOf(row.getDurationLe30s()), valueOf(row.getDurationLe1m()),
+                valueOf(row.getDurationLe5m()), valueOf(row.getDurationLe10m()), valueOf(row.getDurationLe30m()),
+                valueOf(row.getDurationLe1h()), valueOf(row.getDurationLe2h()), valueOf(row.getDurationLe6h()),
+                valueOf(row.getDurationGt6h())
+        };
+    }
+
     /**
-     * 计算执行趋势
+     * 由时长区间分布估算分位数：定位分位所在区间，在区间内按线性分布插值，区间边界收窄到实际最小/最大值
      */
-    private List<Map<String, Object>> calculateExecutionTrend(List<TaskExecutionLog> logs, LocalDateTime startTime) {
-        // 按日期分组统计
-        Map<String, List<TaskExecutionLog>> logsByDate = logs.stream()
-                .filter(log -> log.getStartTime() != null)
-                .collect(Collectors.groupingBy(log ->
-                    log.getStartTime().toLocalDate().toString()
-                ));
-
-        return logsByDate.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> dayStats = new HashMap<>();
-                    dayStats.put("date", entry.getKey());
-                    dayStats.put("total", entry.getValue().size());
-                    dayStats.put("success", entry.getValue().stream()
-                            .filter(log -> "success".equals(log.getStatus()))
-                            .count());
-                    dayStats.put("failed", entry.getValue().stream()
-                            .filter(log -> "failed".equals(log.getStatus()))
-                            .count());
-                    return dayStats;
-                })
-                .sorted(Comparator.comparing(m -> (String) m.get("date")))
-                .collect(Collectors.toList());
+    private static double estimatePercentile(long[] histogram, long count, int min, int max, double percentile) {
+        long target = Math.max(1L, (long) Math.ceil(count * percentile));
+        long seen = 0L;
+        for (int i = 0; i < histogram.length; i++) {
+            long bucket = histogram[i];
+            if (bucket <= 0) {
+                continue;
+            }
+            if (seen + bucket >= target) {
+                double lower = Math.max(min, i == 0 ? 0 : DURATION_BUCKET_BOUNDS[i - 1]);
+                double upper = Math.min(max, i < DURATION_BUCKET_BOUNDS.length ? DURATION_BUCKET_BOUNDS[i] : max);
+                if (upper < lower) {
+                    upper = lower;
+                }
+                return lower + (upper - lower) * (target - seen) / bucket;
+            }
+            seen += bucket;
+        }
+        return max;
     }
 
     private String resolveWorkflowName(DataTask task) {
@@ -0,0 +1,233 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.TableStatisticsHistory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 表数据量异常检测
+ * <p>
+ * 按表 ID、统计时间顺序逐条接收 table_statistics_history 快照，同一时刻只保留当前表的时序：
+ * 以最新快照为观测值，之前的快照为基线，分别对行数与数据量计算中位数/MAD、EWMA 与窗口内增长率。
+ * 观测值相对基线中位数的倍数超过 increaseThreshold 或低于 decreaseThreshold，且稳健 Z 分数
+ * 超过 madThreshold 时判定为暴增/暴降，避免常态波动较大的表被误报。非线程安全。
+ */
+class VolumeAnomalyDetector {
+
+    static final String METRIC_ROWS = "rows";
+    static final String METRIC_SIZE = "size";
+
+    /**
+     * MAD 换算为正态分布标准差的系数（稳健 Z 分数 = 0.6745 × 偏差 / MAD）
+     */
+    private static final double MAD_SCALE = 0.6745;
+
+    private final Set<Long> candidateTableIds;
+    private final double increaseThreshold;
+    private final double decreaseThreshold;
+    private final double madThreshold;
+    private final double ewmaAlpha;
+    private final int minSamples;
+    private final long minRowCount;
+    private final long minDataSize;
+
+    private final List<VolumeAnomaly> anomalies = new ArrayList<>();
+
+    private Long currentTableId;
+    private final Series rows = new Series();
+    private final Series sizes = new Series();
+    private LocalDateTime lastTime;
+
+    VolumeAnomalyDetector(Set<Long> candidateTableIds, double increaseThreshold, double decreaseThreshold,
+            double madThreshold, double ewmaAlpha, int minSamples, long minRowCount, long minDataSize) {
+        this.candidateTableIds = candidateTableIds;
+        this.increaseThreshold = increaseThreshold;
+        this.decreaseThreshold = decreaseThreshold;
+        this.madThreshold = madThreshold;
+        this.ewmaAlpha = ewmaAlpha;
+        this.minSamples = Math.max(1, minSamples);
+        this.minRowCount = minRowCount;
+        this.minDataSize = minDataSize;
+    }
+
+    /**
+     * 接收一条快照，调用方需保证按表 ID、统计时间升序传入
+     */
+    void accept(TableStatisticsHistory point) {
+        if (point == null || point.getTableId() == null) {
+            return;
+        }
+        if (!point.getTableId().equals(currentTableId)) {
+            evaluate();
+            currentTableId = point.getTableId();
+            rows.reset();
+            sizes.reset();
+        }
+        if (!candidateTableIds.contains(currentTableId)) {
+            return;
+        }
+        rows.add(point.getRowCount() != null ? point.getRowCount() : 0L, ewmaAlpha);
+        sizes.add(point.getDataSize() != null ? point.getDataSize() : 0L, ewmaAlpha);
+        lastTime = point.getStatisticsTime();
+    }
+
+    /**
+     * 处理最后一张表并返回全部异常
+     */
+    List<VolumeAnomaly> finish() {
+        evaluate();
+        currentTableId = null;
+        rows.reset();
+        sizes.reset();
+        return Collections.unmodifiableList(anomalies);
+    }
+
+    private void evaluate() {
+        if (currentTableId == null || rows.size < minSamples + 1) {
+            return;
+        }
+        VolumeAnomaly anomaly = evaluate(METRIC_ROWS, rows, minRowCount);
+        if (anomaly == null) {
+            anomaly = evaluate(METRIC_SIZE, sizes, minDataSize);
+        }
+        if (anomaly != null) {
+            anomalies.add(anomaly);
+        }
+    }
+
+    private VolumeAnomaly evaluate(String metric, Series series, long minValue) {
+        long current = series.values[series.size - 1];
+        int baselineSize = series.size - 1;
+        long[] baseline = Arrays.copyOf(series.values, baselineSize);
+        double median = median(baseline);
+        if (median <= 0 || Math.max(median, current) < minValue) {
+            return null;
+        }
+        for (int i = 0; i < baselineSize; i++) {
+            baseline[i] = Math.abs(baseline[i] - Math.round(median));
+        }
+        double mad = median(baseline);
+        double deviation = current - median;
+        double robustZ = mad > 0 ? MAD_SCALE * deviation / mad
+                : (deviation == 0 ? 0D : Math.copySign(Double.POSITIVE_INFINITY, deviation));
+        double ratio = current / median;
+
+        boolean increase = ratio >= increaseThreshold;
+        boolean decrease = ratio <= decreaseThreshold;
+        if ((!increase && !decrease) || Math.abs(robustZ) < madThreshold) {
+            return null;
+        }
+
+        VolumeAnomaly anomaly = new VolumeAnomaly();
+        anomaly.tableId = currentTableId;
+        anomaly.metric = metric;
+        anomaly.increase = increase;
+        anomaly.current = current;
+        anomaly.median = median;
+        anomaly.ewma = series.ewmaBeforeLast;
+        anomaly.ratio = ratio;
+        anomaly.robustZ = robustZ;
+        anomaly.growthRate = series.values[0] > 0 ? (double) (current - series.values[0]) / series.values[0] : null;
+        anomaly.sampleCount = baselineSize;
+        anomaly.observedAt = lastTime;
+        return anomaly;
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2D;
+    }
+
+    /**
+     * 单个指标的时序；EWMA 在追加时增量更新，始终覆盖除最新观测值之外的全部快照
+     */
+    private static final class Series {
+        private long[] values = new long[16];
+        private int size;
+        private double ewma;
+        private double ewmaBeforeLast;
+
+        private void add(long value, double alpha) {
+            ewmaBeforeLast = ewma;
+            ewma = size == 0 ? value : alpha * value + (1 - alpha) * ewma;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void reset() {
+            size = 0;
+            ewma = 0D;
+            ewmaBeforeLast = 0D;
+        }
+    }
+
+    /**
+     * 检测到的数据量异常
+     */
+    static final class VolumeAnomaly {
+        private Long tableId;
+        private String metric;
+        private boolean increase;
+        private long current;
+        private double median;
+        private double ewma;
+        private double ratio;
+        private double robustZ;
+        private Double growthRate;
+        private int sampleCount;
+        private LocalDateTime observedAt;
+
+        Long getTableId() {
+            return tableId;
+        }
+
+        String getMetric() {
+            return metric;
+        }
+
+        boolean isIncrease() {
+            return increase;
+        }
+
+        long getCurrent() {
+            return current;
+        }
+
+        double getMedian() {
+            return median;
+        }
+
+        double getEwma() {
+            return ewma;
+        }
+
+        double getRatio() {
+            return ratio;
+        }
+
+        double getRobustZ() {
+            return robustZ;
+        }
+
+        Double getGrowthRate() {
+            return growthRate;
+        }
+
+        int getSampleCount() {
+            return sampleCount;
+        }
+
+        LocalDateTime getObservedAt() {
+            return observedAt;
+        }
+    }
+}
@@ -14,9 +14,15 @@ import org.springframework.util.CollectionUtils;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * 管理 workflow_instance_cache 的工具服务
@@ -27,20 +33,143 @@ import java.util.stream.Collectors;
 public class WorkflowInstanceCacheService {
 
     private static final DateTimeFormatter DEFAULT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int QUERY_CHUNK_SIZE = 500;
+    private static final Comparator<WorkflowInstanceCache> RECENT_FIRST = Comparator
+        .comparing(WorkflowInstanceCache::getStartTime, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(WorkflowInstanceCache::getInstanceId, Comparator.reverseOrder());
 
     private final WorkflowInstanceCacheMapper cacheMapper;
 
     public void replaceCache(DataWorkflow workflow,
                              List<WorkflowInstanceSummary> instances) {
-        cacheMapper.delete(Wrappers.<WorkflowInstanceCache>lambdaQuery()
-            .eq(WorkflowInstanceCache::getWorkflowId, workflow.getId()));
+        syncCache(workflow, instances, cacheMapper.selectList(Wrappers.<WorkflowInstanceCache>lambdaQuery()
+            .eq(WorkflowInstanceCache::getWorkflowId, workflow.getId())));
+    }
+
+    /**
+     * 将最新实例列表与已缓存记录按 instanceId 比对：新增或内容变化的实例批量 upsert，
+     * 不再出现的实例删除。内容完全一致时不执行任何写操作。
+     *
+     * @param cached 该工作流当前的缓存记录
+     * @return 是否有写入
+     */
+    @Transactional
+    public boolean syncCache(DataWorkflow workflow,
+                             List<WorkflowInstanceSummary> instances,
+                             List<WorkflowInstanceCache> cached) {
+        return applyDiff(buildCaches(workflow.getId(), instances), cached);
+    }
+
+    /**
+     * 将增量拉取到的实例合并进已缓存记录：同一实例以新数据为准，按开始时间倒序保留最近 limit 条，
+     * 再按差异写入。用于按项目拉取时只拿到部分新实例的场景。
+     *
+     * @return 是否有写入
+     */
+    @Transactional
+    public boolean mergeCache(DataWorkflow workflow,
+                              List<WorkflowInstanceSummary> fetched,
+                              List<WorkflowInstanceCache> cached,
+                              int limit) {
+        Map<Long, WorkflowInstanceCache> merged = new LinkedHashMap<>();
+        if (cached != null) {
+            for (WorkflowInstanceCache cache : cached) {
+                if (cache.getInstanceId() != null) {
+                    merged.putIfAbsent(cache.getInstanceId(), cache);
+                }
+            }
+        }
+        for (WorkflowInstanceCache cache : buildCaches(workflow.getId(), fetched)) {
+            merged.put(cache.getInstanceId(), cache);
+        }
+        List<WorkflowInstanceCache> target = new ArrayList<>(merged.values());
+        target.sort(RECENT_FIRST);
+        if (target.size() > limit) {
+            target = new ArrayList<>(target.subList(0, Math.max(0, limit)));
+        }
+        return applyDiff(target, cached);
+    }
+
+    private List<WorkflowInstanceCache> buildCaches(Long workflowId, List<WorkflowInstanceSummary> instances) {
+        List<WorkflowInstanceCache> caches = new ArrayList<>();
         if (CollectionUtils.isEmpty(instances)) {
-            return;
+            return caches;
+        }
+        for (WorkflowInstanceSummary instance : instances) {
+            if (instance != null && instance.getInstanceId() != null) {
+                caches.add(buildCache(workflowId, instance));
+            }
+        }
+        return caches;
+    }
+
+    private boolean applyDiff(List<WorkflowInstanceCache> target, List<WorkflowInstanceCache> cached) {
+        Map<Long, WorkflowInstanceCache> existing = new HashMap<>();
+        List<Long> staleIds = new ArrayList<>();
+        if (cached != null) {
+            for (WorkflowInstanceCache cache : cached) {
+                if (cache.getInstanceId() == null || existing.putIfAbsent(cache.getInstanceId(), cache) != null) {
+                    staleIds.add(cache.getId());
+                }
+            }
+        }
+
+        List<WorkflowInstanceCache> upserts = new ArrayList<>();
+        for (WorkflowInstanceCache cache : target) {
+            WorkflowInstanceCache previous = existing.remove(cache.getInstanceId());
+            if (previous == null || !sameContent(previous, cache)) {
+                upserts.add(cache);
+            }
+        }
+        existing.values().forEach(cache -> staleIds.add(cache.getId()));
+
+        if (!staleIds.isEmpty()) {
+            cacheMapper.deleteBatchIds(staleIds);
+        }
+        if (!upserts.isEmpty()) {
+            cacheMapper.upsertBatch(upserts);
+        }
+        return !staleIds.isEmpty() || !upserts.isEmpty();
+    }
+
+    /**
+     * 批量加载多个工作流的缓存记录
+     */
+    public Map<Long, List<WorkflowInstanceCache>> listByWorkflowIds(Collection<Long> workflowIds) {
+        Map<Long, List<WorkflowInstanceCache>> result = new HashMap<>();
+        if (CollectionUtils.isEmpty(workflowIds)) {
+            return result;
+        }
+        List<Long> ids = new ArrayList<>(workflowIds);
+        for (int from = 0; from < ids.size(); from += QUERY_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + QUERY_CHUNK_SIZE));
+            List<WorkflowInstanceCache> caches = cacheMapper.selectList(
+                Wrappers.<WorkflowInstanceCache>lambdaQuery()
+                    .in(WorkflowInstanceCache::getWorkflowId, chunk));
+            for (WorkflowInstanceCache cache : caches) {
+                result.computeIfAbsent(cache.getWorkflowId(), key -> new ArrayList<>()).add(cache);
+            }
+        }
+        return result;
+    }
+
+    private boolean sameContent(WorkflowInstanceCache left, WorkflowInstanceCache right) {
+        return Objects.equals(left.getState(), right.getState())
+            && sameTime(left.getStartTime(), right.getStartTime())
+            && sameTime(left.getEndTime(), right.getEndTime())
+            && Objects.equals(left.getTriggerType(), right.getTriggerType())
+            && Objects.equals(left.getDurationMs(), right.getDurationMs())
+            && Objects.equals(left.getExtra(), right.getExtra());
+    }
+
+    /**
+     * 数据库读出的可能是 java.sql.Timestamp，与 Date 互相 equals 不对称，按毫秒比较
+     */
+    private boolean sameTime(Date left, Date right) {
+        if (left == null || right == null) {
+            return left == right;
         }
-        List<WorkflowInstanceCache> caches = instances.stream()
-            .map(instance -> buildCache(workflow.getId(), instance))
-            .collect(Collectors.toList());
-        caches.forEach(cacheMapper::insert);
+        return left.getTime() == right.getTime();
     }
 
     public List<WorkflowInstanceCache> listRecent(Long workflowId, int limit) {
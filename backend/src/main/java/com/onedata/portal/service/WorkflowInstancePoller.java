@@ -0,0 +1,400 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.WorkflowInstanceSyncProperties;
+import com.onedata.portal.dto.workflow.WorkflowInstanceSummary;
+import com.onedata.portal.entity.DataWorkflow;
+import com.onedata.portal.entity.WorkflowInstanceCache;
+import com.onedata.portal.entity.WorkflowInstanceSyncState;
+import com.onedata.portal.mapper.WorkflowInstanceSyncStateMapper;
+import com.onedata.portal.util.TokenBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 工作流实例缓存轮询
+ * <p>
+ * 两种方式：
+ * <ul>
+ *     <li>{@link #ingestProject}：按项目分页拉取高水位之后开始的实例，按工作流编码分发后合并进缓存，
+ *     每轮请求数只与新增实例数相关；</li>
+ *     <li>{@link #poll}：基于 WebClient 非阻塞地逐个工作流拉取最近实例，最多 concurrency 个工作流同时在途。</li>
+ * </ul>
+ * 所有请求共用一个令牌桶限速；拉取结果在调用线程上按差异写入 workflow_instance_cache，实例无变化的工作流不产生写操作。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkflowInstancePoller {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DolphinSchedulerService dolphinSchedulerService;
+    private final WorkflowInstanceCacheService cacheService;
+    private final WorkflowInstanceSyncStateMapper syncStateMapper;
+    private final WorkflowInstanceSyncProperties properties;
+
+    /**
+     * 无法确定所属工作流的实例 -> 已尝试轮数
+     */
+    private final Map<Long, Integer> unresolvedAttempts = new ConcurrentHashMap<>();
+
+    /**
+     * 按项目增量拉取实例：窗口起点为高水位减去 overlapMinutes；缓存中仍未结束的实例需要刷新终态，
+     * 窗口起点再回退到其中最早的开始时间（最多 maxLookbackHours）。
+     * <p>
+     * 每轮总能推进：窗口超过 maxPages 被截断时高水位照常推进，未拉取的较早区间记为待补拉区间，
+     * 之后各轮用剩余的翻页额度从新到旧逐步收缩；无法确定所属工作流的实例最多重试 maxResolveAttempts 轮，
+     * 之后放弃并记录。只有工作流写入缓存失败时才保持全部进度不动。
+     */
+    public PollResult ingestProject(List<DataWorkflow> workflows) {
+        PollResult result = new PollResult();
+        if (workflows == null || workflows.isEmpty()) {
+            return result;
+        }
+        Long projectCode = dolphinSchedulerService.getProjectCode();
+        if (projectCode == null) {
+            log.warn("Skip workflow instance sync: DolphinScheduler project not found");
+            return result;
+        }
+
+        WorkflowInstanceSyncState state = loadState(projectCode);
+        LocalDateTime now = LocalDateTime.now();
+        state.setLastRunAt(now);
+        try {
+            List<String> notes = new ArrayList<>();
+            Map<Long, List<WorkflowInstanceCache>> cached = cacheService.listByWorkflowIds(
+                workflows.stream().map(DataWorkflow::getId).collect(Collectors.toList()));
+            LocalDateTime since = resolveWindowStart(state, cached, now);
+            int pageSize = Math.max(1, properties.getPageSize());
+            int maxPages = Math.max(1, properties.getMaxPages());
+            TokenBucket rateLimiter = new TokenBucket(properties.getRequestsPerSecond(), properties.getBurst());
+            DolphinSchedulerService.ProjectInstanceListing listing = dolphinSchedulerService.listProjectInstancesSince(
+                projectCode, since, now, pageSize, maxPages, rateLimiter);
+
+            // 新实例优先，剩余翻页额度用于补拉此前被截断的区间
+            DolphinSchedulerService.ProjectInstanceListing backfill = null;
+            clampBackfill(state, now, notes);
+            int remainingPages = maxPages - listing.getPages();
+            if (state.getBackfillUntil() != null && remainingPages > 0) {
+                backfill = dolphinSchedulerService.listProjectInstancesSince(projectCode, state.getBackfillFrom(),
+                    state.getBackfillUntil(), pageSize, remainingPages, rateLimiter);
+            }
+            Map<Long, List<WorkflowInstanceSummary>> fetched = combine(listing, backfill);
+            Set<Long> retrying = trackUnresolved(listing, backfill, notes);
+
+            int instanceCount = 0;
+            for (DataWorkflow workflow : workflows) {
+                List<WorkflowInstanceSummary> instances = fetched.get(workflow.getWorkflowCode());
+                if (instances == null || instances.isEmpty()) {
+                    result.addUnchanged();
+                    continue;
+                }
+                instanceCount += instances.size();
+                try {
+                    boolean changed = cacheService.mergeCache(workflow, instances,
+                        cached.getOrDefault(workflow.getId(), Collections.emptyList()), properties.getInstanceLimit());
+                    if (changed) {
+                        result.addChanged();
+                    } else {
+                        result.addUnchanged();
+                    }
+                } catch (Exception ex) {
+                    log.warn("Failed to sync workflow {}: {}", workflow.getWorkflowName(), ex.getMessage());
+                    result.addFailed();
+                }
+            }
+
+            state.setLastRunInstances(instanceCount);
+            if (result.getFailed() > 0) {
+                notes.add(String.format("%d 个工作流写入缓存失败，高水位未推进", result.getFailed()));
+            } else {
+                if (backfill != null) {
+                    advanceBackfill(state, backfill, retrying, notes);
+                }
+                advanceHighWaterMark(state, listing, since, now, retrying, notes);
+            }
+            state.setLastError(notes.isEmpty() ? null : truncate(String.join("；", notes)));
+        } catch (Exception ex) {
+            log.warn("Workflow instance ingest failed for project={}, reason={}", projectCode, ex.getMessage());
+            state.setLastRunInstances(0);
+            state.setLastError(truncate("拉取工作流实例失败: " + ex.getMessage()));
+            result.addFailed();
+        }
+        saveState(state);
+        return result;
+    }
+
+    public PollResult poll(List<DataWorkflow> workflows) {
+        PollResult result = new PollResult();
+        if (workflows == null || workflows.isEmpty()) {
+            return result;
+        }
+        Long projectCode = dolphinSchedulerService.getProjectCode();
+        if (projectCode == null) {
+            log.warn("Skip workflow instance sync: DolphinScheduler project not found");
+            return result;
+        }
+
+        Map<Long, List<WorkflowInstanceCache>> cached = cacheService.listByWorkflowIds(
+            workflows.stream().map(DataWorkflow::getId).collect(Collectors.toList()));
+        TokenBucket rateLimiter = new TokenBucket(properties.getRequestsPerSecond(), properties.getBurst());
+        int instanceLimit = properties.getInstanceLimit();
+
+        Flux<FetchedInstances> fetched = Flux.fromIterable(workflows)
+            .flatMap(workflow -> dolphinSchedulerService
+                    .listWorkflowInstancesAsync(projectCode, workflow.getWorkflowCode(), instanceLimit, rateLimiter)
+                    .map(instances -> new FetchedInstances(workflow, instances))
+                    .onErrorResume(ex -> {
+                        log.warn("Failed to sync workflow {}: {}", workflow.getWorkflowName(), ex.getMessage());
+                        result.addFailed();
+                        return Mono.empty();
+                    }),
+                Math.max(1, properties.getConcurrency()));
+
+        // 写库在调用线程完成，不占用 WebClient 的事件循环线程
+        for (FetchedInstances item : fetched.toIterable()) {
+            try {
+                boolean changed = cacheService.syncCache(item.workflow, item.instances,
+                    cached.getOrDefault(item.workflow.getId(), Collections.emptyList()));
+                if (changed) {
+                    result.addChanged();
+                } else {
+                    result.addUnchanged();
+                }
+            } catch (Exception ex) {
+                log.warn("Failed to sync workflow {}: {}", item.workflow.getWorkflowName(), ex.getMessage());
+                result.addFailed();
+            }
+        }
+        return result;
+    }
+
+    private LocalDateTime resolveWindowStart(WorkflowInstanceSyncState state,
+                                             Map<Long, List<WorkflowInstanceCache>> cached,
+                                             LocalDateTime now) {
+        LocalDateTime since = state.getHighWaterMark() != null
+            ? state.getHighWaterMark().minusMinutes(Math.max(0, properties.getOverlapMinutes()))
+            : now.minusHours(Math.max(1, properties.getBootstrapHours()));
+        LocalDateTime lookbackLimit = now.minusHours(Math.max(1, properties.getMaxLookbackHours()));
+        for (List<WorkflowInstanceCache> caches : cached.values()) {
+            for (WorkflowInstanceCache cache : caches) {
+                if (cache.getEndTime() != null || cache.getStartTime() == null) {
+                    continue;
+                }
+                LocalDateTime startTime = LocalDateTime.ofInstant(cache.getStartTime().toInstant(), ZoneId.systemDefault());
+                LocalDateTime candidate = startTime.isBefore(lookbackLimit) ? lookbackLimit : startTime;
+                if (candidate.isBefore(since)) {
+                    since = candidate;
+                }
+            }
+        }
+        return since;
+    }
+
+    private Map<Long, List<WorkflowInstanceSummary>> combine(DolphinSchedulerService.ProjectInstanceListing listing,
+                                                             DolphinSchedulerService.ProjectInstanceListing backfill) {
+        if (backfill == null || backfill.getInstances().isEmpty()) {
+            return listing.getInstances();
+        }
+        // 补拉区间早于本轮窗口，拼在后面仍保持从新到旧
+        Map<Long, List<WorkflowInstanceSummary>> combined = new LinkedHashMap<>();
+        listing.getInstances().forEach((code, instances) -> combined.put(code, new ArrayList<>(instances)));
+        backfill.getInstances().forEach((code, instances) ->
+            combined.computeIfAbsent(code, key -> new ArrayList<>()).addAll(instances));
+        return combined;
+    }
+
+    /**
+     * 累计无法归属实例的尝试轮数，返回仍需重试（阻止推进）的实例；达到上限的实例放弃并记录
+     */
+    private Set<Long> trackUnresolved(DolphinSchedulerService.ProjectInstanceListing listing,
+                                      DolphinSchedulerService.ProjectInstanceListing backfill,
+                                      List<String> notes) {
+        Set<Long> unresolved = new LinkedHashSet<>(listing.getUnresolvedInstanceIds());
+        if (backfill != null) {
+            unresolved.addAll(backfill.getUnresolvedInstanceIds());
+        }
+        // 已移出拉取窗口的实例不再跟踪
+        unresolvedAttempts.keySet().retainAll(unresolved);
+        int maxAttempts = Math.max(1, properties.getMaxResolveAttempts());
+        Set<Long> retrying = new HashSet<>();
+        List<Long> abandoned = new ArrayList<>();
+        for (Long instanceId : unresolved) {
+            int attempts = unresolvedAttempts.merge(instanceId, 1, Integer::sum);
+            if (attempts < maxAttempts) {
+                retrying.add(instanceId);
+            } else if (attempts == maxAttempts) {
+                abandoned.add(instanceId);
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            log.warn("Giving up resolving workflow of process instances {} after {} attempts", abandoned, maxAttempts);
+            notes.add(String.format("%d 个实例连续 %d 轮无法确定所属工作流，已放弃: %s",
+                abandoned.size(), maxAttempts, abandoned));
+        }
+        return retrying;
+    }
+
+    private void advanceHighWaterMark(WorkflowInstanceSyncState state,
+                                      DolphinSchedulerService.ProjectInstanceListing listing,
+                                      LocalDateTime since,
+                                      LocalDateTime now,
+                                      Set<Long> retrying,
+                                      List<String> notes) {
+        long blocking = listing.getUnresolvedInstanceIds().stream().filter(retrying::contains).count();
+        if (blocking > 0) {
+            notes.add(String.format("%d 个实例无法确定所属工作流，高水位未推进", blocking));
+            return;
+        }
+        if (listing.isTruncated()) {
+            LocalDateTime oldest = listing.getOldestStartTime();
+            if (oldest != null && oldest.isAfter(since)) {
+                // [since, oldest) 未拉取，与已有的待补拉区间合并
+                state.setBackfillFrom(state.getBackfillFrom() == null || since.isBefore(state.getBackfillFrom())
+                    ? since : state.getBackfillFrom());
+                state.setBackfillUntil(state.getBackfillUntil() == null || oldest.isAfter(state.getBackfillUntil())
+                    ? oldest : state.getBackfillUntil());
+                notes.add(String.format("实例列表超过 %d 页被截断，%s 之前的实例将在后续轮次补拉",
+                    properties.getMaxPages(), oldest.format(TIME_FORMAT)));
+            } else {
+                notes.add(String.format("实例列表超过 %d 页被截断且无法确定已拉取范围，部分实例未拉取",
+                    properties.getMaxPages()));
+            }
+        }
+        state.setHighWaterMark(now);
+    }
+
+    private void advanceBackfill(WorkflowInstanceSyncState state,
+                                 DolphinSchedulerService.ProjectInstanceListing backfill,
+                                 Set<Long> retrying,
+                                 List<String> notes) {
+        if (backfill.getUnresolvedInstanceIds().stream().anyMatch(retrying::contains)) {
+            return;
+        }
+        if (!backfill.isTruncated()) {
+            clearBackfill(state);
+            return;
+        }
+        LocalDateTime oldest = backfill.getOldestStartTime();
+        if (oldest != null && oldest.isAfter(state.getBackfillFrom()) && oldest.isBefore(state.getBackfillUntil())) {
+            state.setBackfillUntil(oldest);
+        } else {
+            // 同一时刻开始的实例超过翻页额度，区间无法再收缩
+            notes.add(String.format("补拉区间 %s ~ %s 无法继续收缩，已放弃",
+                state.getBackfillFrom().format(TIME_FORMAT), state.getBackfillUntil().format(TIME_FORMAT)));
+            clearBackfill(state);
+        }
+    }
+
+    /**
+     * 待补拉区间早于 maxLookbackHours 的部分不再补拉
+     */
+    private void clampBackfill(WorkflowInstanceSyncState state, LocalDateTime now, List<String> notes) {
+        if (state.getBackfillUntil() == null) {
+            return;
+        }
+        LocalDateTime lookbackLimit = now.minusHours(Math.max(1, properties.getMaxLookbackHours()));
+        if (!state.getBackfillUntil().isAfter(lookbackLimit)) {
+            notes.add(String.format("补拉区间 %s ~ %s 超过最大回溯时间，已放弃",
+                state.getBackfillFrom().format(TIME_FORMAT), state.getBackfillUntil().format(TIME_FORMAT)));
+            clearBackfill(state);
+        } else if (state.getBackfillFrom() == null || state.getBackfillFrom().isBefore(lookbackLimit)) {
+            state.setBackfillFrom(lookbackLimit);
+        }
+    }
+
+    private void clearBackfill(WorkflowInstanceSyncState state) {
+        state.setBackfillFrom(null);
+        state.setBackfillUntil(null);
+    }
+
+    private WorkflowInstanceSyncState loadState(Long projectCode) {
+        WorkflowInstanceSyncState state = syncStateMapper.selectById(projectCode);
+        if (state == null) {
+            state = new WorkflowInstanceSyncState();
+            state.setProjectCode(projectCode);
+        }
+        return state;
+    }
+
+    private void saveState(WorkflowInstanceSyncState state) {
+        try {
+            // createdAt 为空表示该项目的进度尚未落库
+            if (state.getCreatedAt() == null) {
+                syncStateMapper.insert(state);
+                if (state.getCreatedAt() == null) {
+                    state.setCreatedAt(LocalDateTime.now());
+                }
+            } else {
+                syncStateMapper.updateById(state);
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to save workflow instance sync state for project={}", state.getProjectCode(), ex);
+        }
+    }
+
+    private String truncate(String value) {
+        return value != null && value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+    }
+
+    private static final class FetchedInstances {
+        private final DataWorkflow workflow;
+        private final List<WorkflowInstanceSummary> instances;
+
+        private FetchedInstances(DataWorkflow workflow, List<WorkflowInstanceSummary> instances) {
+            this.workflow = workflow;
+            this.instances = instances;
+        }
+    }
+
+    /**
+     * 单轮轮询结果（失败计数可能在 WebClient 线程上累加）
+     */
+    public static class PollResult {
+        private int changed;
+        private int unchanged;
+        private int failed;
+
+        synchronized void addChanged() {
+            changed++;
+        }
+
+        synchronized void addUnchanged() {
+            unchanged++;
+        }
+
+        synchronized void addFailed() {
+            failed++;
+        }
+
+        public synchronized int getChanged() {
+            return changed;
+        }
+
+        public synchronized int getUnchanged() {
+            return unchanged;
+        }
+
+        public synchronized int getFailed() {
+            return failed;
+        }
+    }
+}
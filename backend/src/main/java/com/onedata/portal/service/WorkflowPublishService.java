@@ -36,6 +36,7 @@ import com.onedata.portal.mapper.TableTaskRelationMapper;
 import com.onedata.portal.mapper.WorkflowPublishRecordMapper;
 import com.onedata.portal.mapper.WorkflowTaskRelationMapper;
 import com.onedata.portal.mapper.WorkflowVersionMapper;
+import com.onedata.portal.util.ParallelCalls;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -55,6 +56,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -1056,9 +1058,15 @@ public class WorkflowPublishService {
             }
         }
 
+        // 两个目录相互独立，并行读取
+        CompletableFuture<List<DolphinDatasourceOption>> datasourceCatalog =
+                ParallelCalls.start(() -> dolphinSchedulerService.listDatasources(null, null));
+        CompletableFuture<List<DolphinTaskGroupOption>> taskGroupCatalog =
+                ParallelCalls.start(() -> dolphinSchedulerService.listTaskGroups(null));
+
         Map<String, DolphinDatasourceOption> datasourceByName;
         try {
-            datasourceByName = dolphinSchedulerService.listDatasources(null, null)
+            datasourceByName = ParallelCalls.await(datasourceCatalog)
                     .stream()
                     .filter(Objects::nonNull)
                     .filter(item -> StringUtils.hasText(item.getName()) && item.getId() != null && item.getId() > 0)
@@ -1072,7 +1080,7 @@ public class WorkflowPublishService {
 
         Map<String, DolphinTaskGroupOption> taskGroupByName;
         try {
-            taskGroupByName = dolphinSchedulerService.listTaskGroups(null)
+            taskGroupByName = ParallelCalls.await(taskGroupCatalog)
                     .stream()
                     .filter(Objects::nonNull)
                     .filter(item -> StringUtils.hasText(item.getName()) && item.getId() != null && item.getId() > 0)
@@ -11,6 +11,7 @@ import com.onedata.portal.dto.workflow.runtime.RuntimeTaskDefinition;
 import com.onedata.portal.dto.workflow.runtime.RuntimeTaskEdge;
 import com.onedata.portal.dto.workflow.runtime.RuntimeWorkflowDefinition;
 import com.onedata.portal.dto.workflow.runtime.RuntimeWorkflowSchedule;
+import com.onedata.portal.util.TextDiff;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -323,11 +325,22 @@ public class WorkflowRuntimeDiffService {
             change.setField("task." + field);
             change.setBefore(toText(beforeValue));
             change.setAfter(toText(afterValue));
+            if ("sql".equals(field)) {
+                change.setDiff(TextDiff.unified(toLines(beforeValue), toLines(afterValue),
+                        TextDiff.DEFAULT_CONTEXT_LINES));
+            }
             changed.add(change);
         }
         return changed;
     }
 
+    private List<String> toLines(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(value.asText("").split("\\R", -1));
+    }
+
     private RuntimeRelationChange toRelationChange(String edgeKey, Map<String, JsonNode> taskLookup) {
         RuntimeRelationChange change = new RuntimeRelationChange();
         if (!StringUtils.hasText(edgeKey)) {
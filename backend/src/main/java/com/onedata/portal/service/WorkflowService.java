@@ -476,13 +476,17 @@ public class WorkflowService {
             return true;
         }
         WorkflowVersion currentVersion = workflowVersionMapper.selectById(workflow.getCurrentVersionId());
-        if (currentVersion == null || !StringUtils.hasText(currentVersion.getStructureSnapshot())) {
+        if (currentVersion == null) {
             return true;
         }
         if (!Objects.equals(currentVersion.getSnapshotSchemaVersion(), SNAPSHOT_SCHEMA_VERSION_DEFINITION)) {
             return true;
         }
-        String currentHash = snapshotContentHash(currentVersion.getStructureSnapshot());
+        String currentSnapshot = workflowVersionService.loadSnapshot(currentVersion);
+        if (!StringUtils.hasText(currentSnapshot)) {
+            return true;
+        }
+        String currentHash = snapshotContentHash(currentSnapshot);
         String incomingHash = snapshotContentHash(incomingSnapshotJson);
         if (!StringUtils.hasText(currentHash) || !StringUtils.hasText(incomingHash)) {
             return true;
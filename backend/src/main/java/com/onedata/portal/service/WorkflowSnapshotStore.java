@@ -0,0 +1,422 @@
+package com.onedata.portal.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.WorkflowSnapshotStoreProperties;
+import com.onedata.portal.entity.WorkflowSnapshotChunk;
+import com.onedata.portal.entity.WorkflowVersion;
+import com.onedata.portal.entity.WorkflowVersionChunk;
+import com.onedata.portal.mapper.WorkflowSnapshotChunkMapper;
+import com.onedata.portal.mapper.WorkflowVersionChunkMapper;
+import com.onedata.portal.mapper.WorkflowVersionMapper;
+import com.onedata.portal.util.BoundedLoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 工作流版本快照的块存储
+ * <p>
+ * 快照按顶层字段拆分为内容块，任务定义列表按任务逐个拆分；块以未压缩内容的 SHA-256 寻址，
+ * 在所有版本之间只存一份并压缩保存，版本只记录块清单。相邻版本通常只改动少数任务，
+ * 新版本实际写入的块数与改动量成正比。读取时按清单重组快照，解压后的块缓存在进程内。
+ * 历史上以 structure_snapshot 原文（inline）存储的版本照常读取，并由后台任务逐批转换。
+ */
+@Slf4j
+@Service
+public class WorkflowSnapshotStore {
+
+    public static final String STORAGE_INLINE = "inline";
+    public static final String STORAGE_CHUNKED = "chunked";
+
+    static final String CODEC_NONE = "none";
+    static final String CODEC_DEFLATE = "deflate";
+
+    /**
+     * 非 JSON 对象的快照整体作为一个块保存时使用的字段名
+     */
+    static final String WHOLE_SNAPSHOT_FIELD = "$";
+
+    /**
+     * 按元素拆分的数组字段：V3 快照的任务定义列表与早期快照的任务列表
+     */
+    private static final Set<String> ITEMIZED_ARRAY_FIELDS = new HashSet<>(
+            Arrays.asList("taskDefinitionList", "tasks"));
+
+    private static final int INSERT_BATCH_SIZE = 200;
+
+    private final WorkflowSnapshotChunkMapper workflowSnapshotChunkMapper;
+    private final WorkflowVersionChunkMapper workflowVersionChunkMapper;
+    private final WorkflowVersionMapper workflowVersionMapper;
+    private final WorkflowSnapshotStoreProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BoundedLoadingCache<String, String> chunkCache;
+
+    /**
+     * 历史版本转换的游标：只查询ID更大的版本，转换失败的版本不会阻塞后续版本
+     */
+    private long legacyMigrationCursor;
+
+    public WorkflowSnapshotStore(WorkflowSnapshotChunkMapper workflowSnapshotChunkMapper,
+                                 WorkflowVersionChunkMapper workflowVersionChunkMapper,
+                                 WorkflowVersionMapper workflowVersionMapper,
+                                 WorkflowSnapshotStoreProperties properties,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper) {
+        this.workflowSnapshotChunkMapper = workflowSnapshotChunkMapper;
+        this.workflowVersionChunkMapper = workflowVersionChunkMapper;
+        this.workflowVersionMapper = workflowVersionMapper;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkCache = BoundedLoadingCache.<String, String>builder("workflow-snapshot-chunk")
+                .maximumSize(100_000L)
+                .maximumWeight(Math.max(1L, properties.getChunkCacheMaxBytes()), value -> 2L * value.length())
+                .expireAfterWrite(Duration.ofHours(12))
+                .build();
+    }
+
+    /**
+     * 把快照按块写入指定版本（需在调用方事务内执行），空快照不写入任何块
+     */
+    public void save(Long versionId, String snapshotJson) {
+        if (versionId == null || !StringUtils.hasText(snapshotJson)) {
+            return;
+        }
+        List<WorkflowVersionChunk> rows = new ArrayList<>();
+        Map<String, String> contents = new LinkedHashMap<>();
+        split(snapshotJson, rows, contents);
+        for (WorkflowVersionChunk row : rows) {
+            row.setVersionId(versionId);
+        }
+
+        // 先锁定已存在的块再写清单，并发清理无法在引用写入前删除它们
+        Set<String> existing = new HashSet<>();
+        for (List<String> hashes : partition(new ArrayList<>(contents.keySet()))) {
+            existing.addAll(workflowSnapshotChunkMapper.selectExistingHashes(hashes));
+        }
+        List<WorkflowSnapshotChunk> missing = new ArrayList<>();
+        for (Map.Entry<String, String> entry : contents.entrySet()) {
+            if (!existing.contains(entry.getKey())) {
+                missing.add(encode(entry.getKey(), entry.getValue()));
+            }
+            chunkCache.put(entry.getKey(), entry.getValue());
+        }
+        for (List<WorkflowSnapshotChunk> batch : partition(missing)) {
+            workflowSnapshotChunkMapper.insertIgnoreBatch(batch);
+        }
+        for (List<WorkflowVersionChunk> batch : partition(rows)) {
+            workflowVersionChunkMapper.insertBatch(batch);
+        }
+        log.debug("Stored snapshot of workflow version {} as {} chunks, {} new", versionId, rows.size(),
+                missing.size());
+    }
+
+    /**
+     * 读取版本快照原文；按块存储的版本按清单重组，inline 版本在实体未携带原文时单独查询该列
+     */
+    public String load(WorkflowVersion version) {
+        if (version == null) {
+            return null;
+        }
+        if (StringUtils.hasText(version.getStructureSnapshot())) {
+            return version.getStructureSnapshot();
+        }
+        if (version.getId() == null) {
+            return null;
+        }
+        if (!STORAGE_CHUNKED.equals(version.getSnapshotStorage())) {
+            return workflowVersionMapper.selectStructureSnapshot(version.getId());
+        }
+        return assemble(workflowVersionChunkMapper.selectByVersionId(version.getId()));
+    }
+
+    /**
+     * 删除版本的块清单，并清理不再被任何版本引用的块（需在调用方事务内、删除版本之前或之后执行均可）
+     */
+    public void release(Collection<Long> versionIds) {
+        if (CollectionUtils.isEmpty(versionIds)) {
+            return;
+        }
+        List<String> hashes = workflowVersionChunkMapper.selectHashesByVersionIds(versionIds);
+        if (hashes.isEmpty()) {
+            return;
+        }
+        workflowVersionChunkMapper.delete(Wrappers.<WorkflowVersionChunk>lambdaQuery()
+                .in(WorkflowVersionChunk::getVersionId, versionIds));
+        int purged = 0;
+        for (List<String> batch : partition(hashes)) {
+            purged += workflowSnapshotChunkMapper.deleteUnreferenced(batch);
+        }
+        log.debug("Released snapshot chunks of {} workflow versions, purged {} unreferenced chunks",
+                versionIds.size(), purged);
+    }
+
+    /**
+     * 把一批 inline 存储的历史版本转换为按块存储，返回转换的版本数
+     * <p>
+     * 转换失败的版本跳过并继续后续版本；游标走到末尾后从头开始，失败的版本在下一轮重试
+     */
+    public synchronized int migrateLegacy() {
+        if (!properties.isLegacyMigrationEnabled()) {
+            return 0;
+        }
+        List<Long> versionIds = workflowVersionMapper.selectInlineVersionIds(legacyMigrationCursor,
+                Math.max(1, properties.getLegacyMigrationBatchSize()));
+        if (versionIds.isEmpty()) {
+            legacyMigrationCursor = 0L;
+            return 0;
+        }
+        int migrated = 0;
+        for (Long versionId : versionIds) {
+            legacyMigrationCursor = versionId;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    save(versionId, workflowVersionMapper.selectStructureSnapshot(versionId));
+                    workflowVersionMapper.markChunked(versionId);
+                });
+                migrated++;
+            } catch (Exception e) {
+                log.warn("Failed to convert snapshot of workflow version {} to chunks, skipped, reason={}",
+                        versionId, e.getMessage());
+            }
+        }
+        return migrated;
+    }
+
+    private void split(String snapshotJson, List<WorkflowVersionChunk> rows, Map<String, String> contents) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(snapshotJson);
+        } catch (Exception e) {
+            root = null;
+        }
+        if (root == null || !root.isObject()) {
+            // 非 JSON 对象原样保存，重组后与写入内容一致
+            addChunk(rows, contents, WHOLE_SNAPSHOT_FIELD, false, snapshotJson);
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (ITEMIZED_ARRAY_FIELDS.contains(field.getKey()) && value.isArray() && value.size() > 0) {
+                for (JsonNode item : value) {
+                    addChunk(rows, contents, field.getKey(), true, toJson(item));
+                }
+            } else {
+                addChunk(rows, contents, field.getKey(), false, toJson(value));
+            }
+        }
+    }
+
+    private void addChunk(List<WorkflowVersionChunk> rows,
+                          Map<String, String> contents,
+                          String fieldName,
+                          boolean arrayItem,
+                          String content) {
+        String hash = sha256(content);
+        contents.putIfAbsent(hash, content);
+        WorkflowVersionChunk row = new WorkflowVersionChunk();
+        row.setSeq(rows.size());
+        row.setFieldName(fieldName);
+        row.setArrayItem(arrayItem);
+        row.setChunkHash(hash);
+        rows.add(row);
+    }
+
+    private String assemble(List<WorkflowVersionChunk> rows) {
+        if (CollectionUtils.isEmpty(rows)) {
+            return null;
+        }
+        Map<String, String> contents = loadChunks(rows);
+        if (rows.size() == 1 && WHOLE_SNAPSHOT_FIELD.equals(rows.get(0).getFieldName())) {
+            return contents.get(rows.get(0).getChunkHash());
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append('{');
+        for (int i = 0; i < rows.size(); i++) {
+            WorkflowVersionChunk row = rows.get(i);
+            boolean item = Boolean.TRUE.equals(row.getArrayItem());
+            boolean continuesArray = item && i > 0 && Boolean.TRUE.equals(rows.get(i - 1).getArrayItem())
+                    && Objects.equals(rows.get(i - 1).getFieldName(), row.getFieldName());
+            if (continuesArray) {
+                builder.append(',');
+            } else {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(toJson(row.getFieldName())).append(':');
+                if (item) {
+                    builder.append('[');
+                }
+            }
+            builder.append(contents.get(row.getChunkHash()));
+            boolean arrayEnds = item && (i == rows.size() - 1
+                    || !Boolean.TRUE.equals(rows.get(i + 1).getArrayItem())
+                    || !Objects.equals(rows.get(i + 1).getFieldName(), row.getFieldName()));
+            if (arrayEnds) {
+                builder.append(']');
+            }
+        }
+        builder.append('}');
+        return builder.toString();
+    }
+
+    private Map<String, String> loadChunks(List<WorkflowVersionChunk> rows) {
+        Map<String, String> contents = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (WorkflowVersionChunk row : rows) {
+            String hash = row.getChunkHash();
+            if (contents.containsKey(hash)) {
+                continue;
+            }
+            String cached = chunkCache.getIfPresent(hash);
+            contents.put(hash, cached);
+            if (cached == null) {
+                missing.add(hash);
+            }
+        }
+        for (List<String> batch : partition(missing)) {
+            for (WorkflowSnapshotChunk chunk : workflowSnapshotChunkMapper.selectBatchIds(batch)) {
+                String content = decode(chunk);
+                contents.put(chunk.getChunkHash(), content);
+                chunkCache.put(chunk.getChunkHash(), content);
+            }
+        }
+        for (String hash : missing) {
+            if (contents.get(hash) == null) {
+                throw new IllegalStateException("工作流版本快照内容块缺失: " + hash);
+            }
+        }
+        return contents;
+    }
+
+    WorkflowSnapshotChunk encode(String hash, String content) {
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = raw;
+        String codec = CODEC_NONE;
+        if (raw.length >= properties.getCompressMinBytes()) {
+            byte[] compressed = deflate(raw);
+            if (compressed.length < raw.length) {
+                stored = compressed;
+                codec = CODEC_DEFLATE;
+            }
+        }
+        WorkflowSnapshotChunk chunk = new WorkflowSnapshotChunk();
+        chunk.setChunkHash(hash);
+        chunk.setCodec(codec);
+        chunk.setRawSize(raw.length);
+        chunk.setStoredSize(stored.length);
+        chunk.setContent(stored);
+        return chunk;
+    }
+
+    String decode(WorkflowSnapshotChunk chunk) {
+        byte[] content = chunk.getContent() != null ? chunk.getContent() : new byte[0];
+        if (CODEC_NONE.equals(chunk.getCodec())) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+        if (!CODEC_DEFLATE.equals(chunk.getCodec())) {
+            throw new IllegalStateException("不支持的快照块压缩方式: " + chunk.getCodec());
+        }
+        int rawSize = chunk.getRawSize() != null ? chunk.getRawSize() : 0;
+        return new String(inflate(content, rawSize), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, int rawSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, rawSize));
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("快照块内容不完整");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("快照块解压失败: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("快照序列化失败: " + e.getMessage(), e);
+        }
+    }
+
+    static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static <T> List<List<T>> partition(List<T> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += INSERT_BATCH_SIZE) {
+            batches.add(items.subList(from, Math.min(items.size(), from + INSERT_BATCH_SIZE)));
+        }
+        return batches;
+    }
+}
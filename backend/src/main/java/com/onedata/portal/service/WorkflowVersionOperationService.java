@@ -11,6 +11,8 @@ import com.onedata.portal.dto.workflow.WorkflowVersionDiffSection;
 import com.onedata.portal.dto.workflow.WorkflowVersionDiffSummary;
 import com.onedata.portal.dto.workflow.WorkflowVersionErrorCodes;
 import com.onedata.portal.dto.workflow.WorkflowVersionDeleteResponse;
+import com.onedata.portal.dto.workflow.WorkflowVersionDelta;
+import com.onedata.portal.dto.workflow.WorkflowVersionInventory;
 import com.onedata.portal.dto.workflow.WorkflowVersionRollbackRequest;
 import com.onedata.portal.dto.workflow.WorkflowVersionRollbackResponse;
 import com.onedata.portal.entity.DataTask;
@@ -18,11 +20,14 @@ import com.onedata.portal.entity.DataWorkflow;
 import com.onedata.portal.entity.WorkflowPublishRecord;
 import com.onedata.portal.entity.WorkflowRuntimeSyncRecord;
 import com.onedata.portal.entity.WorkflowVersion;
+import com.onedata.portal.entity.WorkflowVersionChangeSet;
 import com.onedata.portal.mapper.DataTaskMapper;
 import com.onedata.portal.mapper.DataWorkflowMapper;
 import com.onedata.portal.mapper.WorkflowPublishRecordMapper;
 import com.onedata.portal.mapper.WorkflowRuntimeSyncRecordMapper;
+import com.onedata.portal.mapper.WorkflowVersionChangeSetMapper;
 import com.onedata.portal.mapper.WorkflowVersionMapper;
+import com.onedata.portal.util.TextDiff;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,7 +46,6 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -59,6 +63,11 @@ public class WorkflowVersionOperationService {
 
     private static final int SNAPSHOT_SCHEMA_VERSION_DEFINITION = 3;
 
+    /**
+     * 单次比对最多合成的变更集数量，超过时直接解析两个版本的快照
+     */
+    private static final int MAX_COMPOSED_CHANGE_SETS = 200;
+
     private final WorkflowVersionMapper workflowVersionMapper;
     private final DataWorkflowMapper dataWorkflowMapper;
     private final DataTaskMapper dataTaskMapper;
@@ -66,6 +75,8 @@ public class WorkflowVersionOperationService {
     private final WorkflowRuntimeSyncRecordMapper workflowRuntimeSyncRecordMapper;
     private final DataTaskService dataTaskService;
     private final WorkflowService workflowService;
+    private final WorkflowSnapshotStore workflowSnapshotStore;
+    private final WorkflowVersionChangeSetMapper workflowVersionChangeSetMapper;
     private final ObjectMapper objectMapper;
 
     public WorkflowVersionCompareResponse compare(Long workflowId, WorkflowVersionCompareRequest request) {
@@ -93,14 +104,15 @@ public class WorkflowVersionOperationService {
             requireV3Version(leftVersion, WorkflowVersionErrorCodes.VERSION_COMPARE_ONLY_V3, "版本比对");
         }
 
+        WorkflowVersionCompareResponse precomputed = compareFromChangeSets(workflowId, leftVersion, rightVersion);
+        if (precomputed != null) {
+            return precomputed;
+        }
+
         SnapshotNormalized left = leftVersion == null ? SnapshotNormalized.empty() : normalizeSnapshotForCompare(leftVersion);
         SnapshotNormalized right = normalizeSnapshotForCompare(rightVersion);
 
-        WorkflowVersionCompareResponse response = new WorkflowVersionCompareResponse();
-        response.setLeftVersionId(leftVersion != null ? leftVersion.getId() : null);
-        response.setLeftVersionNo(leftVersion != null ? leftVersion.getVersionNo() : null);
-        response.setRightVersionId(rightVersion.getId());
-        response.setRightVersionNo(rightVersion.getVersionNo());
+        WorkflowVersionCompareResponse response = newCompareResponse(leftVersion, rightVersion);
 
         compareFlatFields(left.getWorkflow(), right.getWorkflow(), response.getAdded().getWorkflowFields(),
                 response.getRemoved().getWorkflowFields(), response.getModified().getWorkflowFields(),
@@ -116,16 +128,42 @@ public class WorkflowVersionOperationService {
                 response.getRemoved().getSchedules(), response.getModified().getSchedules(),
                 response.getUnchanged().getSchedules(), "schedule");
 
-        WorkflowVersionDiffSummary summary = response.getSummary();
-        summary.setAdded(totalCount(response.getAdded()));
-        summary.setRemoved(totalCount(response.getRemoved()));
-        summary.setModified(totalCount(response.getModified()));
-        summary.setUnchanged(totalCount(response.getUnchanged()));
-        response.setChanged(summary.getAdded() > 0 || summary.getRemoved() > 0 || summary.getModified() > 0);
+        summarize(response);
         response.setRawDiff(buildUnifiedRawDiff(left.getRoot(), right.getRoot(), leftVersion, rightVersion));
         return response;
     }
 
+    /**
+     * 计算并保存新版本相对上一版本的变更集，供后续比对直接读取；只在 V3 版本之间计算。
+     * 失败时只记录日志，不影响版本创建，比对时回退为解析完整快照。
+     */
+    public void recordChangeSet(WorkflowVersion version, String snapshot, WorkflowVersion previous) {
+        if (version == null || version.getId() == null || !isV3Version(version)
+                || (previous != null && !isV3Version(previous))) {
+            return;
+        }
+        try {
+            SnapshotNormalized left = previous == null
+                    ? SnapshotNormalized.empty()
+                    : normalizeSnapshotFromDefinitionJson(previous.getId(), workflowSnapshotStore.load(previous), false);
+            SnapshotNormalized right = normalizeSnapshotFromDefinitionJson(version.getId(), snapshot, false);
+            Map<String, JsonNode> taskLookup = buildTaskLookupForEdges(left.getTasks(), right.getTasks());
+
+            WorkflowVersionChangeSet changeSet = new WorkflowVersionChangeSet();
+            changeSet.setWorkflowId(version.getWorkflowId());
+            changeSet.setVersionId(version.getId());
+            changeSet.setVersionNo(version.getVersionNo());
+            changeSet.setBaseVersionId(previous != null ? previous.getId() : null);
+            changeSet.setChanges(objectMapper.writeValueAsString(buildDelta(left, right, taskLookup)));
+            changeSet.setInventory(objectMapper.writeValueAsString(buildInventory(right, taskLookup)));
+            changeSet.setRawDiff(buildUnifiedRawDiff(left.getRoot(), right.getRoot(), previous, version));
+            workflowVersionChangeSetMapper.insert(changeSet);
+        } catch (Exception ex) {
+            log.warn("Failed to record change set for workflow version {}, reason={}", version.getId(),
+                    ex.getMessage());
+        }
+    }
+
     @Transactional
     public WorkflowVersionRollbackResponse rollback(Long workflowId,
                                                     Long targetVersionId,
@@ -218,6 +256,8 @@ public class WorkflowVersionOperationService {
         if (deleted <= 0) {
             throw badRequest(WorkflowVersionErrorCodes.VERSION_DELETE_FAILED, "删除版本失败: " + versionId);
         }
+        detachChangeSet(targetVersion);
+        workflowSnapshotStore.release(Collections.singletonList(versionId));
 
         WorkflowVersionDeleteResponse response = new WorkflowVersionDeleteResponse();
         response.setWorkflowId(workflowId);
@@ -422,83 +462,429 @@ public class WorkflowVersionOperationService {
                 + section.getSchedules().size();
     }
 
+    private WorkflowVersionCompareResponse newCompareResponse(WorkflowVersion leftVersion, WorkflowVersion rightVersion) {
+        WorkflowVersionCompareResponse response = new WorkflowVersionCompareResponse();
+        response.setLeftVersionId(leftVersion != null ? leftVersion.getId() : null);
+        response.setLeftVersionNo(leftVersion != null ? leftVersion.getVersionNo() : null);
+        response.setRightVersionId(rightVersion.getId());
+        response.setRightVersionNo(rightVersion.getVersionNo());
+        return response;
+    }
+
+    private void summarize(WorkflowVersionCompareResponse response) {
+        WorkflowVersionDiffSummary summary = response.getSummary();
+        summary.setAdded(totalCount(response.getAdded()));
+        summary.setRemoved(totalCount(response.getRemoved()));
+        summary.setModified(totalCount(response.getModified()));
+        summary.setUnchanged(totalCount(response.getUnchanged()));
+        response.setChanged(summary.getAdded() > 0 || summary.getRemoved() > 0 || summary.getModified() > 0);
+    }
+
+    /**
+     * 用预先计算的变更集回答比对：相邻版本直接读取，跨多个版本时按版本号顺序合成。
+     * 变更集链不连续（历史版本、非 V3 版本或计算失败）时返回 null，由调用方解析完整快照
+     */
+    private WorkflowVersionCompareResponse compareFromChangeSets(Long workflowId,
+                                                                 WorkflowVersion leftVersion,
+                                                                 WorkflowVersion rightVersion) {
+        Integer rightVersionNo = rightVersion.getVersionNo();
+        Integer leftVersionNo = leftVersion != null ? leftVersion.getVersionNo() : Integer.valueOf(0);
+        if (rightVersionNo == null || leftVersionNo == null || leftVersionNo >= rightVersionNo) {
+            return null;
+        }
+        List<WorkflowVersionChangeSet> chain = workflowVersionChangeSetMapper.selectChain(
+                workflowId, leftVersionNo, rightVersionNo);
+        if (chain == null || chain.size() > MAX_COMPOSED_CHANGE_SETS
+                || !isContinuousChain(chain, leftVersion, rightVersion)) {
+            return null;
+        }
+        WorkflowVersionChangeSet latest = workflowVersionChangeSetMapper.selectById(chain.get(chain.size() - 1).getId());
+        if (latest == null) {
+            return null;
+        }
+        try {
+            List<WorkflowVersionDelta> deltas = new ArrayList<>(chain.size());
+            for (WorkflowVersionChangeSet changeSet : chain) {
+                deltas.add(objectMapper.readValue(changeSet.getChanges(), WorkflowVersionDelta.class));
+            }
+            WorkflowVersionDelta net = composeDeltas(deltas);
+            WorkflowVersionInventory inventory = objectMapper.readValue(latest.getInventory(),
+                    WorkflowVersionInventory.class);
+
+            WorkflowVersionCompareResponse response = newCompareResponse(leftVersion, rightVersion);
+            applyFlatFieldChanges(net.getWorkflowFields(), inventory.getWorkflowFieldKeys(), response, "workflow",
+                    true);
+            applyTaskChanges(net.getTasks(), inventory.getTaskDescriptions(), response);
+            applyEdgeChanges(net, inventory.getEdgeDescriptions(), response);
+            applyFlatFieldChanges(net.getScheduleFields(), inventory.getScheduleFieldKeys(), response, "schedule",
+                    false);
+            summarize(response);
+            response.setRawDiff(chain.size() == 1 && StringUtils.hasText(latest.getRawDiff())
+                    ? latest.getRawDiff()
+                    : buildDeltaRawDiff(net, leftVersion, rightVersion));
+            return response;
+        } catch (Exception ex) {
+            log.warn("Failed to compose change sets for workflow {} versions {} -> {}, reason={}", workflowId,
+                    leftVersion != null ? leftVersion.getId() : null, rightVersion.getId(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isContinuousChain(List<WorkflowVersionChangeSet> chain,
+                                      WorkflowVersion leftVersion,
+                                      WorkflowVersion rightVersion) {
+        if (chain.isEmpty() || !Objects.equals(chain.get(chain.size() - 1).getVersionId(), rightVersion.getId())) {
+            return false;
+        }
+        Long expectedBase = leftVersion != null ? leftVersion.getId() : null;
+        for (WorkflowVersionChangeSet changeSet : chain) {
+            if (!Objects.equals(changeSet.getBaseVersionId(), expectedBase)) {
+                return false;
+            }
+            expectedBase = changeSet.getVersionId();
+        }
+        return true;
+    }
+
+    private WorkflowVersionDelta buildDelta(SnapshotNormalized left,
+                                            SnapshotNormalized right,
+                                            Map<String, JsonNode> taskLookup) {
+        WorkflowVersionDelta delta = new WorkflowVersionDelta();
+        collectFlatFieldChanges(left.getWorkflow(), right.getWorkflow(), delta.getWorkflowFields());
+        collectFlatFieldChanges(left.getSchedule(), right.getSchedule(), delta.getScheduleFields());
+        for (Map.Entry<String, JsonNode> entry : left.getTasks().entrySet()) {
+            JsonNode rightNode = right.getTasks().get(entry.getKey());
+            if (!Objects.equals(entry.getValue(), rightNode)) {
+                delta.getTasks().put(entry.getKey(), new WorkflowVersionDelta.ValueChange(entry.getValue(), rightNode));
+            }
+        }
+        for (Map.Entry<String, JsonNode> entry : right.getTasks().entrySet()) {
+            if (!left.getTasks().containsKey(entry.getKey())) {
+                delta.getTasks().put(entry.getKey(), new WorkflowVersionDelta.ValueChange(null, entry.getValue()));
+            }
+        }
+        for (String edge : right.getEdges()) {
+            if (!left.getEdges().contains(edge)) {
+                delta.getAddedEdges().put(edge, describeEdge(edge, taskLookup));
+            }
+        }
+        for (String edge : left.getEdges()) {
+            if (!right.getEdges().contains(edge)) {
+                delta.getRemovedEdges().put(edge, describeEdge(edge, taskLookup));
+            }
+        }
+        return delta;
+    }
+
+    private void collectFlatFieldChanges(JsonNode left, JsonNode right, Map<String, WorkflowVersionDelta.ValueChange> target) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.addAll(fieldNames(left));
+        keys.addAll(fieldNames(right));
+        List<String> orderedKeys = new ArrayList<>(keys);
+        Collections.sort(orderedKeys);
+        for (String key : orderedKeys) {
+            JsonNode leftValue = presentOrNull(left != null ? left.get(key) : null);
+            JsonNode rightValue = presentOrNull(right != null ? right.get(key) : null);
+            if (!Objects.equals(leftValue, rightValue)) {
+                target.put(key, new WorkflowVersionDelta.ValueChange(leftValue, rightValue));
+            }
+        }
+    }
+
+    private WorkflowVersionInventory buildInventory(SnapshotNormalized snapshot, Map<String, JsonNode> taskLookup) {
+        WorkflowVersionInventory inventory = new WorkflowVersionInventory();
+        inventory.setWorkflowFieldKeys(presentFieldNames(snapshot.getWorkflow()));
+        inventory.setScheduleFieldKeys(presentFieldNames(snapshot.getSchedule()));
+        for (Map.Entry<String, JsonNode> entry : snapshot.getTasks().entrySet()) {
+            inventory.getTaskDescriptions().put(entry.getKey(), describeTask(entry.getValue(), entry.getKey()));
+        }
+        for (String edge : snapshot.getEdges()) {
+            inventory.getEdgeDescriptions().put(edge, describeEdge(edge, taskLookup));
+        }
+        return inventory;
+    }
+
+    private List<String> presentFieldNames(JsonNode node) {
+        List<String> keys = new ArrayList<>();
+        for (String key : fieldNames(node)) {
+            if (presentOrNull(node.get(key)) != null) {
+                keys.add(key);
+            }
+        }
+        Collections.sort(keys);
+        return keys;
+    }
+
+    /**
+     * 按顺序合成多段变更：每个字段/任务取第一段的变化前值与最后一段的变化后值，前后相同的项抵消；
+     * 连线的删除与再新增（或新增后再删除）相互抵消
+     */
+    private WorkflowVersionDelta composeDeltas(List<WorkflowVersionDelta> deltas) {
+        WorkflowVersionDelta net = new WorkflowVersionDelta();
+        for (WorkflowVersionDelta delta : deltas) {
+            composeValueChanges(net.getWorkflowFields(), delta.getWorkflowFields());
+            composeValueChanges(net.getScheduleFields(), delta.getScheduleFields());
+            composeValueChanges(net.getTasks(), delta.getTasks());
+            for (Map.Entry<String, String> entry : delta.getRemovedEdges().entrySet()) {
+                if (net.getAddedEdges().remove(entry.getKey()) == null) {
+                    net.getRemovedEdges().put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<String, String> entry : delta.getAddedEdges().entrySet()) {
+                if (net.getRemovedEdges().remove(entry.getKey()) == null) {
+                    net.getAddedEdges().put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        net.getWorkflowFields().values().removeIf(change -> Objects.equals(change.getBefore(), change.getAfter()));
+        net.getScheduleFields().values().removeIf(change -> Objects.equals(change.getBefore(), change.getAfter()));
+        net.getTasks().values().removeIf(change -> Objects.equals(change.getBefore(), change.getAfter()));
+        return net;
+    }
+
+    private void composeValueChanges(Map<String, WorkflowVersionDelta.ValueChange> net,
+                                     Map<String, WorkflowVersionDelta.ValueChange> step) {
+        for (Map.Entry<String, WorkflowVersionDelta.ValueChange> entry : step.entrySet()) {
+            WorkflowVersionDelta.ValueChange change = entry.getValue();
+            WorkflowVersionDelta.ValueChange existing = net.get(entry.getKey());
+            if (existing == null) {
+                net.put(entry.getKey(), new WorkflowVersionDelta.ValueChange(
+                        presentOrNull(change.getBefore()), presentOrNull(change.getAfter())));
+            } else {
+                existing.setAfter(presentOrNull(change.getAfter()));
+            }
+        }
+    }
+
+    private void applyFlatFieldChanges(Map<String, WorkflowVersionDelta.ValueChange> changes,
+                                       List<String> presentKeys,
+                                       WorkflowVersionCompareResponse response,
+                                       String prefix,
+                                       boolean workflowSection) {
+        List<String> added = workflowSection ? response.getAdded().getWorkflowFields() : response.getAdded().getSchedules();
+        List<String> removed = workflowSection ? response.getRemoved().getWorkflowFields() : response.getRemoved().getSchedules();
+        List<String> modified = workflowSection ? response.getModified().getWorkflowFields() : response.getModified().getSchedules();
+        List<String> unchanged = workflowSection ? response.getUnchanged().getWorkflowFields() : response.getUnchanged().getSchedules();
+
+        List<String> changedKeys = new ArrayList<>(changes.keySet());
+        Collections.sort(changedKeys);
+        for (String key : changedKeys) {
+            WorkflowVersionDelta.ValueChange change = changes.get(key);
+            if (change.getBefore() == null) {
+                added.add(prefix + "." + key + " = " + toText(change.getAfter()));
+            } else if (change.getAfter() == null) {
+                removed.add(prefix + "." + key + " = " + toText(change.getBefore()));
+            } else {
+                modified.add(prefix + "." + key + ": " + toText(change.getBefore()) + " -> " + toText(change.getAfter()));
+            }
+        }
+        for (String key : presentKeys) {
+            if (!changes.containsKey(key)) {
+                unchanged.add(prefix + "." + key);
+            }
+        }
+    }
+
+    private void applyTaskChanges(Map<String, WorkflowVersionDelta.ValueChange> changes,
+                                  Map<String, String> taskDescriptions,
+                                  WorkflowVersionCompareResponse response) {
+        for (Map.Entry<String, String> entry : taskDescriptions.entrySet()) {
+            WorkflowVersionDelta.ValueChange change = changes.get(entry.getKey());
+            if (change == null) {
+                response.getUnchanged().getTasks().add(entry.getValue());
+            } else if (change.getBefore() == null) {
+                response.getAdded().getTasks().add(describeTask(change.getAfter(), entry.getKey()));
+            } else {
+                response.getModified().getTasks().add(
+                        describeModifiedTask(change.getBefore(), change.getAfter(), entry.getKey()));
+            }
+        }
+        for (Map.Entry<String, WorkflowVersionDelta.ValueChange> entry : changes.entrySet()) {
+            if (entry.getValue().getAfter() == null) {
+                response.getRemoved().getTasks().add(describeTask(entry.getValue().getBefore(), entry.getKey()));
+            }
+        }
+    }
+
+    private void applyEdgeChanges(WorkflowVersionDelta net,
+                                  Map<String, String> edgeDescriptions,
+                                  WorkflowVersionCompareResponse response) {
+        response.getAdded().getEdges().addAll(net.getAddedEdges().values());
+        response.getRemoved().getEdges().addAll(net.getRemovedEdges().values());
+        for (Map.Entry<String, String> entry : edgeDescriptions.entrySet()) {
+            if (!net.getAddedEdges().containsKey(entry.getKey())) {
+                response.getUnchanged().getEdges().add(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 合成变更的原始差异：只渲染发生变化的字段、任务与连线，每段 hunk 头注明所属部分
+     */
+    private String buildDeltaRawDiff(WorkflowVersionDelta net, WorkflowVersion leftVersion, WorkflowVersion rightVersion) {
+        StringBuilder builder = new StringBuilder(rawDiffHeader(leftVersion, rightVersion));
+        appendFieldHunks(builder, "workflow", net.getWorkflowFields());
+        for (Map.Entry<String, WorkflowVersionDelta.ValueChange> entry : net.getTasks().entrySet()) {
+            appendLineHunks(builder, "tasks[" + entry.getKey() + "]",
+                    prettyLines(entry.getValue().getBefore()), prettyLines(entry.getValue().getAfter()));
+        }
+        appendLineHunks(builder, "edges", new ArrayList<>(net.getRemovedEdges().keySet()),
+                new ArrayList<>(net.getAddedEdges().keySet()));
+        appendFieldHunks(builder, "schedule", net.getScheduleFields());
+        return builder.toString();
+    }
+
+    private void appendFieldHunks(StringBuilder builder,
+                                  String heading,
+                                  Map<String, WorkflowVersionDelta.ValueChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<String, JsonNode> before = new LinkedHashMap<>();
+        Map<String, JsonNode> after = new LinkedHashMap<>();
+        for (Map.Entry<String, WorkflowVersionDelta.ValueChange> entry : changes.entrySet()) {
+            before.put(entry.getKey(), entry.getValue().getBefore());
+            after.put(entry.getKey(), entry.getValue().getAfter());
+        }
+        appendLineHunks(builder, heading, prettyLines(objectMapper.valueToTree(before)),
+                prettyLines(objectMapper.valueToTree(after)));
+    }
+
+    private void appendLineHunks(StringBuilder builder, String heading, List<String> left, List<String> right) {
+        builder.append(TextDiff.formatUnified(left, right, TextDiff.diff(left, right),
+                TextDiff.DEFAULT_CONTEXT_LINES, heading));
+    }
+
+    private List<String> prettyLines(JsonNode node) {
+        return node == null || node.isNull() ? Collections.<String>emptyList() : splitLines(toPrettyJson(node));
+    }
+
+    private JsonNode presentOrNull(JsonNode node) {
+        return node == null || node.isNull() || node.isMissingNode() ? null : node;
+    }
+
+    private boolean isV3Version(WorkflowVersion version) {
+        return Objects.equals(version.getSnapshotSchemaVersion(), SNAPSHOT_SCHEMA_VERSION_DEFINITION);
+    }
+
+    /**
+     * 删除版本时维护变更集链：后继版本的变更集与被删版本的变更集合成，基线改为被删版本的基线
+     */
+    private void detachChangeSet(WorkflowVersion deletedVersion) {
+        WorkflowVersionChangeSet own = workflowVersionChangeSetMapper.selectOne(
+                Wrappers.<WorkflowVersionChangeSet>lambdaQuery()
+                        .eq(WorkflowVersionChangeSet::getVersionId, deletedVersion.getId()));
+        WorkflowVersionChangeSet successor = workflowVersionChangeSetMapper.selectOne(
+                Wrappers.<WorkflowVersionChangeSet>lambdaQuery()
+                        .eq(WorkflowVersionChangeSet::getBaseVersionId, deletedVersion.getId()));
+        if (successor != null) {
+            workflowVersionChangeSetMapper.deleteById(successor.getId());
+            if (own != null) {
+                try {
+                    WorkflowVersionDelta merged = composeDeltas(Arrays.asList(
+                            objectMapper.readValue(own.getChanges(), WorkflowVersionDelta.class),
+                            objectMapper.readValue(successor.getChanges(), WorkflowVersionDelta.class)));
+                    WorkflowVersionChangeSet replacement = new WorkflowVersionChangeSet();
+                    replacement.setWorkflowId(successor.getWorkflowId());
+                    replacement.setVersionId(successor.getVersionId());
+                    replacement.setVersionNo(successor.getVersionNo());
+                    replacement.setBaseVersionId(own.getBaseVersionId());
+                    replacement.setChanges(objectMapper.writeValueAsString(merged));
+                    replacement.setInventory(successor.getInventory());
+                    workflowVersionChangeSetMapper.insert(replacement);
+                } catch (Exception ex) {
+                    // 合成失败时后继版本不再有变更集，比对回退为解析完整快照
+                    log.warn("Failed to merge change set of deleted workflow version {}, reason={}",
+                            deletedVersion.getId(), ex.getMessage());
+                }
+            }
+        }
+        if (own != null) {
+            workflowVersionChangeSetMapper.deleteById(own.getId());
+        }
+    }
+
     private String buildUnifiedRawDiff(JsonNode leftRoot,
                                        JsonNode rightRoot,
                                        WorkflowVersion leftVersion,
                                        WorkflowVersion rightVersion) {
-        String leftText = toPrettyJson(leftRoot);
-        String rightText = toPrettyJson(rightRoot);
+        StringBuilder builder = new StringBuilder(rawDiffHeader(leftVersion, rightVersion));
+        if (Objects.equals(leftRoot, rightRoot)) {
+            return builder.toString();
+        }
 
-        List<String> leftLines = Arrays.asList(leftText.split("\\R", -1));
-        List<String> rightLines = Arrays.asList(rightText.split("\\R", -1));
-        int[][] lcs = buildLcsMatrix(leftLines, rightLines);
-        LinkedList<String> diffLines = buildDiffLines(leftLines, rightLines, lcs);
+        // 每个任务/连线单独成块，未变化的块整体匹配，只对变化部分逐行比较
+        List<List<String>> leftBlocks = toJsonBlocks(leftRoot);
+        List<List<String>> rightBlocks = toJsonBlocks(rightRoot);
+        List<TextDiff.Edit> edits = TextDiff.diffBlocks(leftBlocks, rightBlocks);
+        builder.append(TextDiff.formatUnified(TextDiff.flatten(leftBlocks), TextDiff.flatten(rightBlocks), edits,
+                TextDiff.DEFAULT_CONTEXT_LINES));
+        return builder.toString();
+    }
 
+    private String rawDiffHeader(WorkflowVersion leftVersion, WorkflowVersion rightVersion) {
         String leftLabel = leftVersion != null && leftVersion.getVersionNo() != null
                 ? "v" + leftVersion.getVersionNo()
                 : "empty";
         String rightLabel = rightVersion != null && rightVersion.getVersionNo() != null
                 ? "v" + rightVersion.getVersionNo()
                 : "unknown";
-
-        StringBuilder builder = new StringBuilder();
-        builder.append("--- ").append(leftLabel).append('\n');
-        builder.append("+++ ").append(rightLabel).append('\n');
-        builder.append("@@ JSON Snapshot @@").append('\n');
-        for (String line : diffLines) {
-            builder.append(line).append('\n');
-        }
-        return builder.toString();
+        return "--- " + leftLabel + "\n+++ " + rightLabel + "\n";
     }
 
-    private int[][] buildLcsMatrix(List<String> leftLines, List<String> rightLines) {
-        int leftSize = leftLines.size();
-        int rightSize = rightLines.size();
-        int[][] matrix = new int[leftSize + 1][rightSize + 1];
-        for (int i = 1; i <= leftSize; i++) {
-            for (int j = 1; j <= rightSize; j++) {
-                if (Objects.equals(leftLines.get(i - 1), rightLines.get(j - 1))) {
-                    matrix[i][j] = matrix[i - 1][j - 1] + 1;
-                } else {
-                    matrix[i][j] = Math.max(matrix[i - 1][j], matrix[i][j - 1]);
-                }
-            }
-        }
-        return matrix;
-    }
-
-    private LinkedList<String> buildDiffLines(List<String> leftLines,
-                                              List<String> rightLines,
-                                              int[][] lcsMatrix) {
-        int i = leftLines.size();
-        int j = rightLines.size();
-        LinkedList<String> diffLines = new LinkedList<>();
-        while (i > 0 && j > 0) {
-            String leftLine = leftLines.get(i - 1);
-            String rightLine = rightLines.get(j - 1);
-            if (Objects.equals(leftLine, rightLine)) {
-                diffLines.addFirst(" " + leftLine);
-                i--;
-                j--;
+    /**
+     * 把快照根对象渲染为格式化 JSON 的行块：顶层字段各占一块，非空顶层数组的每个元素各占一块
+     */
+    private List<List<String>> toJsonBlocks(JsonNode root) {
+        List<List<String>> blocks = new ArrayList<>();
+        if (root == null || !root.isObject() || root.size() == 0) {
+            blocks.add(splitLines(toPrettyJson(root)));
+            return blocks;
+        }
+        blocks.add(Collections.singletonList("{"));
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String separator = fields.hasNext() ? "," : "";
+            String name = quote(field.getKey());
+            JsonNode value = field.getValue();
+            if (value == null || !value.isArray() || value.size() == 0) {
+                blocks.add(indentLines("  ", name + " : " + toPrettyValue(value) + separator));
                 continue;
             }
-            if (lcsMatrix[i - 1][j] >= lcsMatrix[i][j - 1]) {
-                diffLines.addFirst("-" + leftLine);
-                i--;
-            } else {
-                diffLines.addFirst("+" + rightLine);
-                j--;
+            blocks.add(Collections.singletonList("  " + name + " : ["));
+            for (int i = 0; i < value.size(); i++) {
+                String elementSeparator = i < value.size() - 1 ? "," : "";
+                blocks.add(indentLines("    ", toPrettyValue(value.get(i)) + elementSeparator));
             }
+            blocks.add(Collections.singletonList("  ]" + separator));
         }
-        while (i > 0) {
-            diffLines.addFirst("-" + leftLines.get(i - 1));
-            i--;
+        blocks.add(Collections.singletonList("}"));
+        return blocks;
+    }
+
+    private String toPrettyValue(JsonNode value) {
+        return value == null || value.isNull() ? "null" : toPrettyJson(value);
+    }
+
+    private List<String> indentLines(String indent, String text) {
+        List<String> lines = splitLines(text);
+        for (int i = 0; i < lines.size(); i++) {
+            lines.set(i, indent + lines.get(i));
         }
-        while (j > 0) {
-            diffLines.addFirst("+" + rightLines.get(j - 1));
-            j--;
+        return lines;
+    }
+
+    private List<String> splitLines(String text) {
+        return new ArrayList<>(Arrays.asList(text.split("\\R", -1)));
+    }
+
+    private String quote(String value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception ex) {
+            return "\"" + value + "\"";
         }
-        return diffLines;
     }
 
     private String toPrettyJson(JsonNode node) {
@@ -537,33 +923,35 @@ public class WorkflowVersionOperationService {
         if (version == null) {
             return SnapshotNormalized.empty();
         }
-        return normalizeSnapshotFromDefinitionJson(version, false);
+        return normalizeSnapshotFromDefinitionJson(version.getId(), workflowSnapshotStore.load(version), false);
     }
 
     private SnapshotNormalized normalizeSnapshotForRollback(WorkflowVersion version) {
         if (version == null) {
             return SnapshotNormalized.empty();
         }
-        return normalizeSnapshotFromDefinitionJson(version, true);
+        return normalizeSnapshotFromDefinitionJson(version.getId(), workflowSnapshotStore.load(version), true);
     }
 
-    private SnapshotNormalized normalizeSnapshotFromDefinitionJson(WorkflowVersion version, boolean requireTaskId) {
-        if (version == null || !StringUtils.hasText(version.getStructureSnapshot())) {
+    private SnapshotNormalized normalizeSnapshotFromDefinitionJson(Long versionId,
+                                                                   String snapshot,
+                                                                   boolean requireTaskId) {
+        if (!StringUtils.hasText(snapshot)) {
             throw badRequest(WorkflowVersionErrorCodes.VERSION_SNAPSHOT_UNSUPPORTED,
-                    "版本定义为空: versionId=" + (version != null ? version.getId() : null));
+                    "版本定义为空: versionId=" + versionId);
         }
         JsonNode rootNode;
         try {
-            rootNode = objectMapper.readTree(version.getStructureSnapshot());
+            rootNode = objectMapper.readTree(snapshot);
         } catch (Exception ex) {
             throw badRequest(WorkflowVersionErrorCodes.VERSION_SNAPSHOT_UNSUPPORTED,
-                    "版本定义解析失败: versionId=" + (version != null ? version.getId() : null));
+                    "版本定义解析失败: versionId=" + versionId);
         }
 
         JsonNode processNode = firstPresentNode(rootNode, "processDefinition", "workflowDefinition", "workflow");
         if (processNode == null) {
             throw badRequest(WorkflowVersionErrorCodes.VERSION_SNAPSHOT_UNSUPPORTED,
-                    "版本定义缺少 processDefinition: versionId=" + version.getId());
+                    "版本定义缺少 processDefinition: versionId=" + versionId);
         }
         JsonNode platformWorkflowMeta = firstPresentNode(rootNode, "xPlatformWorkflowMeta");
 
@@ -618,7 +1006,7 @@ public class WorkflowVersionOperationService {
                 Long platformTaskId = firstLong(platformTaskMeta, "taskId", "id");
                 if (requireTaskId && platformTaskId == null) {
                     throw badRequest(WorkflowVersionErrorCodes.VERSION_ROLLBACK_TASK_ID_REQUIRED,
-                            "版本定义缺少 xPlatformTaskMeta.taskId: versionId=" + version.getId()
+                            "版本定义缺少 xPlatformTaskMeta.taskId: versionId=" + versionId
                                     + ", taskCode=" + runtimeTaskCode);
                 }
                 Long normalizedTaskId = platformTaskId != null ? platformTaskId : runtimeTaskCode;
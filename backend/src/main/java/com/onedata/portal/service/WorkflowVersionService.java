@@ -2,12 +2,16 @@ package com.onedata.portal.service;
 
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.onedata.portal.entity.WorkflowVersion;
+import com.onedata.portal.entity.WorkflowVersionChangeSet;
+import com.onedata.portal.mapper.WorkflowVersionChangeSetMapper;
 import com.onedata.portal.mapper.WorkflowVersionMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 工作流版本服务
@@ -19,6 +23,12 @@ public class WorkflowVersionService {
     private static final int SNAPSHOT_SCHEMA_VERSION_DEFINITION = 3;
 
     private final WorkflowVersionMapper workflowVersionMapper;
+    private final WorkflowSnapshotStore workflowSnapshotStore;
+    private final WorkflowVersionChangeSetMapper workflowVersionChangeSetMapper;
+    /**
+     * 延迟获取，避免 WorkflowVersionOperationService -> WorkflowService -> WorkflowVersionService 的循环依赖
+     */
+    private final ObjectProvider<WorkflowVersionOperationService> workflowVersionOperationService;
 
     @Transactional
     public WorkflowVersion createVersion(Long workflowId,
@@ -54,16 +64,28 @@ public class WorkflowVersionService {
         WorkflowVersion version = new WorkflowVersion();
         version.setWorkflowId(workflowId);
         version.setVersionNo(nextVersion);
-        version.setStructureSnapshot(snapshot);
+        version.setSnapshotStorage(WorkflowSnapshotStore.STORAGE_CHUNKED);
         version.setChangeSummary(changeSummary);
         version.setTriggerSource(triggerSource);
         version.setCreatedBy(operator);
         version.setSnapshotSchemaVersion(snapshotSchemaVersion);
         version.setRollbackFromVersionId(rollbackFromVersionId);
         workflowVersionMapper.insert(version);
+        workflowSnapshotStore.save(version.getId(), snapshot);
+        WorkflowVersionOperationService operationService = workflowVersionOperationService.getIfAvailable();
+        if (operationService != null) {
+            operationService.recordChangeSet(version, snapshot, latest);
+        }
         return version;
     }
 
+    /**
+     * 读取版本快照原文（按块存储的版本按需重组）
+     */
+    public String loadSnapshot(WorkflowVersion version) {
+        return workflowSnapshotStore.load(version);
+    }
+
     public List<WorkflowVersion> listByWorkflow(Long workflowId) {
         return workflowVersionMapper.selectList(
             Wrappers.<WorkflowVersion>lambdaQuery()
@@ -81,6 +103,16 @@ public class WorkflowVersionService {
         if (workflowId == null) {
             return;
         }
+        List<Long> versionIds = workflowVersionMapper.selectList(
+                Wrappers.<WorkflowVersion>lambdaQuery()
+                        .eq(WorkflowVersion::getWorkflowId, workflowId))
+                .stream()
+                .map(WorkflowVersion::getId)
+                .collect(Collectors.toList());
+        workflowSnapshotStore.release(versionIds);
+        workflowVersionChangeSetMapper.delete(
+                Wrappers.<WorkflowVersionChangeSet>lambdaQuery()
+                        .eq(WorkflowVersionChangeSet::getWorkflowId, workflowId));
         workflowVersionMapper.delete(
                 Wrappers.<WorkflowVersion>lambdaQuery()
                         .eq(WorkflowVersion::getWorkflowId, workflowId));
@@ -4,11 +4,17 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onedata.portal.dto.DolphinAlertGroupOption;
+import com.onedata.portal.config.DolphinClientProperties;
+import com.onedata.portal.dto.CacheStatistics;
 import com.onedata.portal.dto.DolphinEnvironmentOption;
 import com.onedata.portal.entity.DolphinConfig;
 import com.onedata.portal.service.DolphinConfigService;
 import com.onedata.portal.dto.dolphin.*;
+import com.onedata.portal.util.BoundedLoadingCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
@@ -16,17 +22,32 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Direct client for DolphinScheduler OpenAPI.
@@ -38,20 +59,94 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DolphinOpenApiClient {
 
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    // Large exports stream for longer than a regular call; matches the connector's response timeout
+    private static final Duration EXPORT_TIMEOUT = Duration.ofSeconds(60);
+
+    public static final String REF_DATASOURCES = "listDatasources";
+    public static final String REF_TASK_GROUPS = "listTaskGroups";
+    public static final String REF_WORKER_GROUPS = "listProjectWorkerGroups";
+    public static final String REF_TENANTS = "listTenants";
+    public static final String REF_ALERT_GROUPS = "listAlertGroups";
+    public static final String REF_ENVIRONMENTS = "listEnvironments";
+
     private final DolphinConfigService dolphinConfigService;
     private final ObjectMapper objectMapper;
     private final WebClient.Builder webClientBuilder;
+    private final DolphinClientProperties clientProperties;
 
     // Cache the WebClient instance to avoid recreating it for every request
     // Key: url + token
     private final Map<String, WebClient> webClientCache = new ConcurrentHashMap<>();
 
+    // In-flight GET requests, keyed by url + token + path + query; identical concurrent GETs share one upstream call
+    private final Map<String, Mono<JsonNode>> inflightGets = new ConcurrentHashMap<>();
+
+    // Reference data (datasources, task groups, tenants, worker groups, alert groups, environments),
+    // keyed by endpoint + url + token + arguments and grouped by endpoint
+    private final ThreadPoolExecutor referenceRefreshExecutor;
+    private final BoundedLoadingCache<ReferenceKey, Object> referenceCache;
+
     public DolphinOpenApiClient(DolphinConfigService dolphinConfigService,
             ObjectMapper objectMapper,
             WebClient.Builder builder) {
+        this(dolphinConfigService, objectMapper, builder, new DolphinClientProperties());
+    }
+
+    @Autowired
+    public DolphinOpenApiClient(DolphinConfigService dolphinConfigService,
+            ObjectMapper objectMapper,
+            WebClient.Builder builder,
+            DolphinClientProperties clientProperties) {
         this.dolphinConfigService = dolphinConfigService;
         this.objectMapper = objectMapper;
         this.webClientBuilder = builder;
+        this.clientProperties = clientProperties;
+
+        DolphinClientProperties.ReferenceCache cacheProperties = clientProperties.getReferenceCache();
+        long ttlSeconds = Math.max(1L, cacheProperties.getTtlSeconds());
+        long refreshSeconds = cacheProperties.getRefreshAfterSeconds() > 0
+                ? Math.min(cacheProperties.getRefreshAfterSeconds(), ttlSeconds)
+                : ttlSeconds;
+        AtomicInteger counter = new AtomicInteger();
+        this.referenceRefreshExecutor = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(64), runnable -> {
+                    Thread thread = new Thread(runnable, "dolphin-reference-refresh-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        this.referenceCache = BoundedLoadingCache.<ReferenceKey, Object>builder("dolphin-reference-data")
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds), referenceRefreshExecutor)
+                .groupBy(key -> key.endpoint)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        referenceRefreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Drop all cached reference data, e.g. after the DolphinScheduler configuration changes.
+     */
+    public void invalidateReferenceData() {
+        referenceCache.invalidateAll();
+        log.info("Cleared DolphinScheduler reference data cache");
+    }
+
+    /**
+     * Drop cached reference data of one endpoint (client method name, e.g. {@code listDatasources}).
+     */
+    public void invalidateReferenceData(String endpoint) {
+        referenceCache.invalidateGroup(endpoint);
+    }
+
+    /**
+     * Hit ratio and upstream latency (average load time) of the reference data cache.
+     */
+    public CacheStatistics getReferenceCacheStats() {
+        return referenceCache.stats();
     }
 
     private WebClient getWebClient() {
@@ -166,23 +261,29 @@ public class DolphinOpenApiClient {
      */
     public List<DolphinDatasource> listDatasources(Integer pageNo, Integer pageSize) {
         try {
-            MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
-            queryParams.add("pageNo", String.valueOf(pageNo != null ? pageNo : 1));
-            queryParams.add("pageSize", String.valueOf(pageSize != null ? pageSize : 100));
-
-            JsonNode data = getWithParams("/datasources", queryParams);
-            if (data == null)
-                return Collections.emptyList();
-
-            JsonNode list = data.path("totalList");
-            return objectMapper.readValue(list.traverse(), new TypeReference<List<DolphinDatasource>>() {
-            });
+            return referenceData(REF_DATASOURCES, pageNo + ":" + pageSize,
+                    () -> Collections.unmodifiableList(block(listDatasourcesAsync(pageNo, pageSize))));
         } catch (Exception e) {
             log.warn("Failed to list datasources", e);
             return Collections.emptyList();
         }
     }
 
+    /**
+     * List datasources without blocking; identical in-flight calls are coalesced.
+     */
+    public Mono<List<DolphinDatasource>> listDatasourcesAsync(Integer pageNo, Integer pageSize) {
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("pageNo", String.valueOf(pageNo != null ? pageNo : 1));
+        queryParams.add("pageSize", String.valueOf(pageSize != null ? pageSize : 100));
+
+        return getJsonAsync("listDatasources", "/datasources", queryParams)
+                .flatMap(data -> Mono.fromCallable(() -> objectMapper.<List<DolphinDatasource>>readValue(
+                        data.path("totalList").traverse(), new TypeReference<List<DolphinDatasource>>() {
+                        })))
+                .defaultIfEmpty(Collections.emptyList());
+    }
+
     /**
      * List task groups.
      */
@@ -191,28 +292,42 @@ public class DolphinOpenApiClient {
             String name,
             Integer status) {
         try {
-            MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
-            queryParams.add("pageNo", String.valueOf(pageNo != null ? pageNo : 1));
-            queryParams.add("pageSize", String.valueOf(pageSize != null ? pageSize : 100));
+            // Name lookups go upstream so that newly created groups are found immediately
             if (StringUtils.hasText(name)) {
-                queryParams.add("name", name);
-            }
-            if (status != null) {
-                queryParams.add("status", String.valueOf(status));
-            }
-
-            JsonNode data = getWithParams("/task-group/list-paging", queryParams);
-            if (data == null) {
-                return new DolphinPageData<>();
+                return block(listTaskGroupsAsync(pageNo, pageSize, name, status));
             }
-            return objectMapper.readerFor(new TypeReference<DolphinPageData<DolphinTaskGroup>>() {
-            }).readValue(data);
+            return referenceData(REF_TASK_GROUPS, pageNo + ":" + pageSize + ":" + status,
+                    () -> block(listTaskGroupsAsync(pageNo, pageSize, null, status)));
         } catch (Exception e) {
             log.warn("Failed to list task groups", e);
             return new DolphinPageData<>();
         }
     }
 
+    /**
+     * List task groups without blocking; identical in-flight calls are coalesced.
+     */
+    public Mono<DolphinPageData<DolphinTaskGroup>> listTaskGroupsAsync(Integer pageNo,
+            Integer pageSize,
+            String name,
+            Integer status) {
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("pageNo", String.valueOf(pageNo != null ? pageNo : 1));
+        queryParams.add("pageSize", String.valueOf(pageSize != null ? pageSize : 100));
+        if (StringUtils.hasText(name)) {
+            queryParams.add("name", name);
+        }
+        if (status != null) {
+            queryParams.add("status", String.valueOf(status));
+        }
+
+        return getJsonAsync("listTaskGroups", "/task-group/list-paging", queryParams)
+                .flatMap(data -> Mono.fromCallable(() -> objectMapper
+                        .readerFor(new TypeReference<DolphinPageData<DolphinTaskGroup>>() {
+                        }).<DolphinPageData<DolphinTaskGroup>>readValue(data)))
+                .defaultIfEmpty(new DolphinPageData<>());
+    }
+
     /**
      * List worker groups assigned to the given project.
      *
@@ -222,19 +337,10 @@ public class DolphinOpenApiClient {
      */
     public List<String> listProjectWorkerGroups(long projectCode) {
         try {
-            String path = String.format("/projects/%d/worker-group", projectCode);
-            JsonNode data = get(path, null);
-            if (data == null || !data.isArray()) {
-                return Collections.emptyList();
-            }
-            List<String> result = new ArrayList<>();
-            for (JsonNode node : data) {
-                String workerGroup = node.path("workerGroup").asText(null);
-                if (StringUtils.hasText(workerGroup)) {
-                    result.add(workerGroup);
-                }
-            }
-            return result;
+            return referenceData(REF_WORKER_GROUPS, String.valueOf(projectCode), () -> {
+                String path = String.format("/projects/%d/worker-group", projectCode);
+                return readTextList(get(path, null), "workerGroup");
+            });
         } catch (Exception e) {
             log.warn("Failed to list project worker groups for {}", projectCode, e);
             return Collections.emptyList();
@@ -250,18 +356,7 @@ public class DolphinOpenApiClient {
      */
     public List<String> listTenants() {
         try {
-            JsonNode data = get("/tenants/list", null);
-            if (data == null || !data.isArray()) {
-                return Collections.emptyList();
-            }
-            List<String> result = new ArrayList<>();
-            for (JsonNode node : data) {
-                String tenantCode = node.path("tenantCode").asText(null);
-                if (StringUtils.hasText(tenantCode)) {
-                    result.add(tenantCode);
-                }
-            }
-            return result;
+            return referenceData(REF_TENANTS, "", () -> readTextList(get("/tenants/list", null), "tenantCode"));
         } catch (Exception e) {
             log.warn("Failed to list tenants", e);
             return Collections.emptyList();
@@ -277,12 +372,9 @@ public class DolphinOpenApiClient {
      */
     public List<DolphinAlertGroupOption> listAlertGroups() {
         try {
-            JsonNode data = get("/alert-groups/list", null);
-            if (data == null || !data.isArray()) {
-                return Collections.emptyList();
-            }
-            return objectMapper.readValue(data.traverse(), new TypeReference<List<DolphinAlertGroupOption>>() {
-            });
+            return referenceData(REF_ALERT_GROUPS, "", () -> readList(get("/alert-groups/list", null),
+                    new TypeReference<List<DolphinAlertGroupOption>>() {
+                    }));
         } catch (Exception e) {
             log.warn("Failed to list alert groups", e);
             return Collections.emptyList();
@@ -298,12 +390,9 @@ public class DolphinOpenApiClient {
      */
     public List<DolphinEnvironmentOption> listEnvironments() {
         try {
-            JsonNode data = get("/environment/query-environment-list", null);
-            if (data == null || !data.isArray()) {
-                return Collections.emptyList();
-            }
-            return objectMapper.readValue(data.traverse(), new TypeReference<List<DolphinEnvironmentOption>>() {
-            });
+            return referenceData(REF_ENVIRONMENTS, "", () -> readList(get("/environment/query-environment-list", null),
+                    new TypeReference<List<DolphinEnvironmentOption>>() {
+                    }));
         } catch (Exception e) {
             log.warn("Failed to list environments", e);
             return Collections.emptyList();
@@ -436,14 +525,21 @@ public class DolphinOpenApiClient {
      */
     public JsonNode getProcessDefinition(long projectCode, long processCode) {
         try {
-            String path = String.format("/projects/%d/process-definition/%d", projectCode, processCode);
-            return executeRequest(getWebClient(), getWebClient().get().uri(path));
+            return block(getProcessDefinitionAsync(projectCode, processCode));
         } catch (Exception e) {
             log.error("Failed to query process definition {}", processCode, e);
             throw new RuntimeException("Failed to query process definition: " + e.getMessage());
         }
     }
 
+    /**
+     * Query process definition without blocking; identical in-flight calls are coalesced.
+     */
+    public Mono<JsonNode> getProcessDefinitionAsync(long projectCode, long processCode) {
+        String path = String.format("/projects/%d/process-definition/%d", projectCode, processCode);
+        return getJsonAsync("getProcessDefinition", path, null);
+    }
+
     /**
      * Query process definition node list by definition code.
      *
@@ -454,7 +550,7 @@ public class DolphinOpenApiClient {
     public JsonNode getProcessDefinitionTasks(long projectCode, long processCode) {
         try {
             String path = String.format("/projects/%d/process-definition/%d/tasks", projectCode, processCode);
-            return get(path, null);
+            return block(getJsonAsync("getProcessDefinitionTasks", path, null));
         } catch (Exception e) {
             log.warn("Failed to query process definition tasks for {}", processCode, e);
             return null;
@@ -470,16 +566,23 @@ public class DolphinOpenApiClient {
      */
     public JsonNode queryTaskDefinitionList(long projectCode, long processDefinitionCode) {
         try {
-            String path = String.format("/projects/%d/process-definition/query-task-definition-list", projectCode);
-            MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
-            query.add("processDefinitionCode", String.valueOf(processDefinitionCode));
-            return getWithParams(path, query);
+            return block(queryTaskDefinitionListAsync(projectCode, processDefinitionCode));
         } catch (Exception e) {
             log.warn("Failed to query task definition list for process {}", processDefinitionCode, e);
             return null;
         }
     }
 
+    /**
+     * Query task definition list without blocking; identical in-flight calls are coalesced.
+     */
+    public Mono<JsonNode> queryTaskDefinitionListAsync(long projectCode, long processDefinitionCode) {
+        String path = String.format("/projects/%d/process-definition/query-task-definition-list", projectCode);
+        MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+        query.add("processDefinitionCode", String.valueOf(processDefinitionCode));
+        return getJsonAsync("queryTaskDefinitionList", path, query);
+    }
+
     /**
      * Export runtime definition JSON by workflow/process code.
      *
@@ -498,6 +601,23 @@ public class DolphinOpenApiClient {
      * </p>
      */
     public JsonNode exportDefinitionByCode(long projectCode, long workflowCode) {
+        return exportDefinitionByCode(projectCode, workflowCode, payload -> {
+            try (InputStream in = Files.newInputStream(payload)) {
+                return parseExportPayload(in);
+            }
+        });
+    }
+
+    /**
+     * Export workflow definition and hand the downloaded payload to {@code reader}.
+     *
+     * <p>
+     * The response body is streamed to a temporary file chunk by chunk, so the export size is not
+     * bounded by the codec's in-memory limit; the file is deleted once {@code reader} returns.
+     * A {@code null} result from the reader counts as an empty payload and the next path is tried.
+     * </p>
+     */
+    public <T> T exportDefinitionByCode(long projectCode, long workflowCode, ExportPayloadReader<T> reader) {
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
         formData.add("codes", String.valueOf(workflowCode));
 
@@ -508,16 +628,19 @@ public class DolphinOpenApiClient {
 
         List<String> attemptErrors = new ArrayList<>();
         for (String path : paths) {
+            Path payload = null;
             try {
-                byte[] payload = postFormRaw(path, formData);
-                JsonNode exported = parseExportPayload(payload);
-                if (exported != null && !exported.isNull() && !exported.isMissingNode()) {
+                payload = postFormToFile(path, formData);
+                T exported = reader.read(payload);
+                if (exported != null) {
                     return exported;
                 }
                 attemptErrors.add(path + " [empty payload]");
             } catch (Exception ex) {
                 log.debug("Failed to export definition from {}", path, ex);
                 attemptErrors.add(formatExportAttemptError(path, ex));
+            } finally {
+                deleteQuietly(payload);
             }
         }
 
@@ -549,20 +672,27 @@ public class DolphinOpenApiClient {
      */
     public JsonNode listProcessDefinitions(long projectCode, int pageNo, int pageSize, String searchVal) {
         try {
-            String path = String.format("/projects/%d/process-definition", projectCode);
-            MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
-            query.add("pageNo", String.valueOf(pageNo > 0 ? pageNo : 1));
-            query.add("pageSize", String.valueOf(pageSize > 0 ? pageSize : 100));
-            if (StringUtils.hasText(searchVal)) {
-                query.add("searchVal", searchVal.trim());
-            }
-            return getWithParams(path, query);
+            return block(listProcessDefinitionsAsync(projectCode, pageNo, pageSize, searchVal));
         } catch (Exception e) {
             log.warn("Failed to list process definitions for project {}", projectCode, e);
             return null;
         }
     }
 
+    /**
+     * List process definitions without blocking; identical in-flight calls are coalesced.
+     */
+    public Mono<JsonNode> listProcessDefinitionsAsync(long projectCode, int pageNo, int pageSize, String searchVal) {
+        String path = String.format("/projects/%d/process-definition", projectCode);
+        MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+        query.add("pageNo", String.valueOf(pageNo > 0 ? pageNo : 1));
+        query.add("pageSize", String.valueOf(pageSize > 0 ? pageSize : 100));
+        if (StringUtils.hasText(searchVal)) {
+            query.add("searchVal", searchVal.trim());
+        }
+        return getJsonAsync("listProcessDefinitions", path, query);
+    }
+
     /**
      * List schedules (timing definitions) in project.
      *
@@ -707,29 +837,74 @@ public class DolphinOpenApiClient {
             int pageSize,
             Long processDefinitionCode) {
         try {
-            String path = String.format("/projects/%d/process-instances", projectCode);
-            MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
-            query.add("pageNo", String.valueOf(pageNo));
-            query.add("pageSize", String.valueOf(pageSize));
-            if (processDefinitionCode != null) {
-                // DS versions have inconsistent query key names, send both for compatibility.
-                query.add("processDefinitionCode", String.valueOf(processDefinitionCode));
-                query.add("processDefineCode", String.valueOf(processDefinitionCode));
-            }
-
-            JsonNode data = getWithParams(path, query);
+            JsonNode data = getWithParams(processInstancesPath(projectCode),
+                    processInstancesQuery(pageNo, pageSize, processDefinitionCode));
             if (data == null)
                 return new DolphinPageData<>();
 
-            return objectMapper.readerFor(new TypeReference<DolphinPageData<DolphinProcessInstance>>() {
-            })
-                    .readValue(data);
+            return readProcessInstancePage(data);
         } catch (Exception e) {
             log.warn("Failed to list process instances", e);
             return new DolphinPageData<>();
         }
     }
 
+    /**
+     * List process instances without blocking the caller.
+     * Unlike {@link #listProcessInstances}, failures are propagated so that callers
+     * can tell an empty result from an unreachable DolphinScheduler.
+     */
+    public Mono<DolphinPageData<DolphinProcessInstance>> listProcessInstancesAsync(long projectCode,
+            int pageNo,
+            int pageSize,
+            Long processDefinitionCode) {
+        return listProcessInstancesAsync(projectCode, pageNo, pageSize, processDefinitionCode, null, null);
+    }
+
+    /**
+     * List process instances whose start time falls in [startDate, endDate] ("yyyy-MM-dd HH:mm:ss"),
+     * without blocking the caller. Null bounds are not sent.
+     */
+    public Mono<DolphinPageData<DolphinProcessInstance>> listProcessInstancesAsync(long projectCode,
+            int pageNo,
+            int pageSize,
+            Long processDefinitionCode,
+            String startDate,
+            String endDate) {
+        MultiValueMap<String, String> query = processInstancesQuery(pageNo, pageSize, processDefinitionCode);
+        if (StringUtils.hasText(startDate)) {
+            query.add("startDate", startDate);
+        }
+        if (StringUtils.hasText(endDate)) {
+            query.add("endDate", endDate);
+        }
+        return getJsonAsync("listProcessInstances", processInstancesPath(projectCode), query)
+                .flatMap(data -> Mono.fromCallable(() -> readProcessInstancePage(data)))
+                .defaultIfEmpty(new DolphinPageData<>());
+    }
+
+    private String processInstancesPath(long projectCode) {
+        return String.format("/projects/%d/process-instances", projectCode);
+    }
+
+    private MultiValueMap<String, String> processInstancesQuery(int pageNo, int pageSize, Long processDefinitionCode) {
+        MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+        query.add("pageNo", String.valueOf(pageNo));
+        query.add("pageSize", String.valueOf(pageSize));
+        if (processDefinitionCode != null) {
+            // DS versions have inconsistent query key names, send both for compatibility.
+            query.add("processDefinitionCode", String.valueOf(processDefinitionCode));
+            query.add("processDefineCode", String.valueOf(processDefinitionCode));
+        }
+        return query;
+    }
+
+    private DolphinPageData<DolphinProcessInstance> readProcessInstancePage(JsonNode data) throws IOException {
+        return objectMapper.readerFor(new TypeReference<DolphinPageData<DolphinProcessInstance>>() {
+        })
+                .readValue(data);
+    }
+
     /**
      * Get single process instance.
      */
@@ -744,6 +919,15 @@ public class DolphinOpenApiClient {
         }
     }
 
+    /**
+     * Get single process instance without blocking the caller; completes empty when not found.
+     */
+    public Mono<DolphinProcessInstance> getProcessInstanceAsync(long projectCode, long instanceId) {
+        String path = String.format("/projects/%d/process-instances/%d", projectCode, instanceId);
+        return getJsonAsync("getProcessInstance", path, null)
+                .flatMap(data -> Mono.fromCallable(() -> objectMapper.treeToValue(data, DolphinProcessInstance.class)));
+    }
+
     /**
      * Delete process definition.
      */
@@ -928,6 +1112,130 @@ public class DolphinOpenApiClient {
         }));
     }
 
+    private Mono<JsonNode> getWithParamsAsync(String path, MultiValueMap<String, String> queryParams) {
+        return Mono.defer(() -> executeRequestAsync(getWebClient().get().uri(uriBuilder -> {
+            uriBuilder.path(path);
+            if (queryParams != null) {
+                uriBuilder.queryParams(queryParams);
+            }
+            return uriBuilder.build();
+        })));
+    }
+
+    /**
+     * Idempotent GET shared by the reactive API: identical in-flight requests (same DolphinScheduler,
+     * path and query) are coalesced into one upstream call, and transient failures are retried with
+     * the endpoint's jittered exponential backoff. Each subscriber receives its own copy of the result.
+     */
+    private Mono<JsonNode> getJsonAsync(String endpoint, String path, MultiValueMap<String, String> queryParams) {
+        return Mono.defer(() -> {
+            String key = requestKey(path, queryParams);
+            Mono<JsonNode> existing = inflightGets.get(key);
+            if (existing == null) {
+                AtomicReference<Mono<JsonNode>> self = new AtomicReference<>();
+                Mono<JsonNode> shared = withRetry(endpoint, getWithParamsAsync(path, queryParams))
+                        // Deregister before the result reaches subscribers, so later calls always go upstream
+                        .doOnEach(signal -> inflightGets.remove(key, self.get()))
+                        .doOnCancel(() -> inflightGets.remove(key, self.get()))
+                        .share();
+                self.set(shared);
+                existing = inflightGets.putIfAbsent(key, shared);
+                if (existing == null) {
+                    existing = shared;
+                }
+            }
+            return existing.map(JsonNode::deepCopy);
+        });
+    }
+
+    private String requestKey(String path, MultiValueMap<String, String> queryParams) {
+        DolphinConfig config = dolphinConfigService.getActiveConfig();
+        String target = config != null ? config.getUrl() + "::" + config.getToken() : "";
+        return target + "|" + path + "?" + (queryParams != null ? queryParams : "");
+    }
+
+    /**
+     * Retry transient failures with the endpoint's backoff, bounded by the endpoint's overall deadline:
+     * DEFAULT_TIMEOUT applies to each attempt only, so without the deadline retries and backoff could hold
+     * a blocked caller for several times that long.
+     */
+    private <T> Mono<T> withRetry(String endpoint, Mono<T> request) {
+        DolphinClientProperties.RetryPolicy policy = clientProperties.resolveRetry(endpoint);
+        if (policy == null) {
+            return request;
+        }
+        Mono<T> retried = request;
+        if (policy.getMaxRetries() > 0) {
+            retried = request.retryWhen(Retry.backoff(policy.getMaxRetries(), Duration.ofMillis(Math.max(1, policy.getMinBackoffMs())))
+                    .maxBackoff(Duration.ofMillis(Math.max(policy.getMinBackoffMs(), policy.getMaxBackoffMs())))
+                    .jitter(Math.min(1D, Math.max(0D, policy.getJitter())))
+                    .filter(this::isRetryable)
+                    .doBeforeRetry(signal -> log.debug("Retrying DolphinScheduler {} (attempt {}): {}", endpoint,
+                            signal.totalRetries() + 1, signal.failure().getMessage()))
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        }
+        return policy.getDeadlineMs() > 0 ? retried.timeout(Duration.ofMillis(policy.getDeadlineMs())) : retried;
+    }
+
+    /**
+     * Connection failures, timeouts, 5xx and 429 are transient; API errors (code != 0) and other 4xx are not.
+     */
+    private boolean isRetryable(Throwable ex) {
+        if (ex instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) ex).getRawStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return ex instanceof WebClientRequestException || ex instanceof TimeoutException;
+    }
+
+    /**
+     * Serve reference data from the local cache. The loader must throw on failure so that fallbacks
+     * (empty lists) are never cached; stale entries are returned while a background refresh runs.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T referenceData(String endpoint, String args, Supplier<T> loader) {
+        if (!clientProperties.getReferenceCache().isEnabled()) {
+            return loader.get();
+        }
+        DolphinConfig config = dolphinConfigService.getActiveConfig();
+        String target = config != null ? config.getUrl() + "::" + config.getToken() : "";
+        return (T) referenceCache.get(new ReferenceKey(endpoint, target, args), (Supplier<Object>) loader);
+    }
+
+    private List<String> readTextList(JsonNode data, String field) {
+        if (data == null || !data.isArray()) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (JsonNode node : data) {
+            String value = node.path(field).asText(null);
+            if (StringUtils.hasText(value)) {
+                result.add(value);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private <T> List<T> readList(JsonNode data, TypeReference<List<T>> type) {
+        if (data == null || !data.isArray()) {
+            return Collections.emptyList();
+        }
+        try {
+            return Collections.unmodifiableList(objectMapper.readValue(data.traverse(), type));
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private <T> T block(Mono<T> mono) {
+        try {
+            return mono.block();
+        } catch (Exception e) {
+            Throwable cause = Exceptions.unwrap(e);
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
     private JsonNode get(String path, Map<String, String> queryParams) {
         MultiValueMap<String, String> multiMap = new LinkedMultiValueMap<>();
         if (queryParams != null) {
@@ -943,25 +1251,41 @@ public class DolphinOpenApiClient {
                 .body(BodyInserters.fromFormData(formData)));
     }
 
-    private byte[] postFormRaw(String path, MultiValueMap<String, String> formData) {
+    /**
+     * POST a form and write the response body to a temporary file as it arrives (no in-memory aggregation).
+     */
+    private Path postFormToFile(String path, MultiValueMap<String, String> formData) {
+        Path file = null;
         try {
-            byte[] response = getWebClient().post()
+            file = Files.createTempFile("dolphin-export-", ".json");
+            Flux<DataBuffer> body = getWebClient().post()
                     .uri(path)
                     .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                     .body(BodyInserters.fromFormData(formData))
                     .retrieve()
-                    .bodyToMono(byte[].class)
-                    .timeout(DEFAULT_TIMEOUT)
-                    .block();
-            if (response == null || response.length == 0) {
+                    .bodyToFlux(DataBuffer.class);
+            DataBufferUtils.write(body, file).timeout(EXPORT_TIMEOUT).block();
+            if (Files.size(file) == 0) {
                 throw new RuntimeException("empty response");
             }
-            return response;
+            return file;
         } catch (Exception ex) {
+            deleteQuietly(file);
             throw new RuntimeException(ex.getMessage(), ex);
         }
     }
 
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Failed to delete temporary export file {}", file, ex);
+        }
+    }
+
     private JsonNode postJson(String path, Object payload) {
         return executeRequest(getWebClient(), getWebClient().post()
                 .uri(path)
@@ -985,36 +1309,37 @@ public class DolphinOpenApiClient {
     }
 
     private JsonNode executeRequest(WebClient client, WebClient.RequestHeadersSpec<?> requestSpec) {
-        try {
-            String response = requestSpec.retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(DEFAULT_TIMEOUT)
-                    .block();
-
-            if (!StringUtils.hasText(response))
-                return null;
+        // Single attempt bounded by DEFAULT_TIMEOUT; block() rethrows failures as RuntimeException with the cause
+        return block(executeRequestAsync(requestSpec));
+    }
 
-            JsonNode root = objectMapper.readTree(response);
-            int code = root.path("code").asInt(-1);
-            if (code != 0) {
-                String msg = root.path("msg").asText("Unknown error");
-                throw new RuntimeException("API Error " + code + ": " + msg);
-            }
-            return root.path("data");
-        } catch (Exception e) {
-            // Wrap in RuntimeException to keep signatures clean
-            throw new RuntimeException(e.getMessage(), e);
-        }
+    /**
+     * Issue the request and unwrap the DolphinScheduler envelope; completes empty on a blank body.
+     */
+    private Mono<JsonNode> executeRequestAsync(WebClient.RequestHeadersSpec<?> requestSpec) {
+        return requestSpec.retrieve()
+                .bodyToMono(String.class)
+                .timeout(DEFAULT_TIMEOUT)
+                .flatMap(response -> Mono.fromCallable(() -> parseEnvelope(response)));
     }
 
-    private JsonNode parseExportPayload(byte[] payload) {
-        String raw = new String(payload, StandardCharsets.UTF_8).trim();
-        if (!StringUtils.hasText(raw)) {
+    private JsonNode parseEnvelope(String response) throws IOException {
+        if (!StringUtils.hasText(response))
             return null;
+
+        JsonNode root = objectMapper.readTree(response);
+        int code = root.path("code").asInt(-1);
+        if (code != 0) {
+            String msg = root.path("msg").asText("Unknown error");
+            throw new RuntimeException("API Error " + code + ": " + msg);
         }
+        return root.path("data");
+    }
+
+    private JsonNode parseExportPayload(InputStream payload) {
         try {
-            JsonNode root = objectMapper.readTree(raw);
-            if (root == null || root.isNull()) {
+            JsonNode root = objectMapper.readTree(payload);
+            if (root == null || root.isNull() || root.isMissingNode()) {
                 return null;
             }
             if (root.isArray()) {
@@ -1072,4 +1397,46 @@ public class DolphinOpenApiClient {
         }
         return normalized.substring(0, 237) + "...";
     }
+
+    /**
+     * Reads a downloaded export payload; the file is only valid until the reader returns.
+     */
+    @FunctionalInterface
+    public interface ExportPayloadReader<T> {
+        T read(Path payload) throws IOException;
+    }
+
+    private static final class ReferenceKey {
+        private final String endpoint;
+        private final String target;
+        private final String args;
+
+        private ReferenceKey(String endpoint, String target, String args) {
+            this.endpoint = endpoint;
+            this.target = target;
+            this.args = args;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ReferenceKey)) {
+                return false;
+            }
+            ReferenceKey other = (ReferenceKey) o;
+            return endpoint.equals(other.endpoint) && target.equals(other.target) && args.equals(other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * endpoint.hashCode() + target.hashCode()) * 31 + args.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + "(" + args + ")";
+        }
+    }
 }
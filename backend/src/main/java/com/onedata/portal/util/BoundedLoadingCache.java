@@ -0,0 +1,423 @@
+package com.onedata.portal.util;
+
+import com.onedata.portal.dto.CacheStatistics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 有界本地缓存
+ * <p>
+ * 按条目数与权重双重限制，超出时淘汰最久未访问的条目（LRU）；写入后超过 expireAfterWrite 失效，
+ * 超过 refreshAfterWrite 但未失效时返回旧值并异步刷新。同一 key 的并发加载只执行一次（single-flight），
+ * 其余调用等待同一结果。可选按分组索引 key，使按组失效的开销与组内条目数成正比。
+ * 加载期间该 key 被失效时，加载结果仍返回给调用方，但不写入缓存，避免失效前读到的旧值被重新缓存。
+ *
+ * @param <K> 缓存 key
+ * @param <V> 缓存值
+ */
+@Slf4j
+public final class BoundedLoadingCache<K, V> {
+
+    private final String name;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToLongFunction<V> weigher;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier ticker;
+    private final Function<K, ?> groupFunction;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<K, Node<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Object, Set<K>> groups = new HashMap<>();
+    private long totalWeight;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    /**
+     * 加载期间被失效的 key（由 lock 保护），其加载结果不再写入缓存
+     */
+    private final Set<K> invalidatedLoads = new HashSet<>();
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+
+    private BoundedLoadingCache(Builder<K, V> builder) {
+        this.name = builder.name;
+        this.maximumSize = builder.maximumSize;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWrite.toNanos();
+        this.refreshAfterWriteNanos = builder.refreshAfterWrite == null
+                ? Long.MAX_VALUE : builder.refreshAfterWrite.toNanos();
+        this.refreshExecutor = builder.refreshExecutor;
+        this.ticker = builder.ticker;
+        this.groupFunction = builder.groupFunction;
+    }
+
+    public static <K, V> Builder<K, V> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    /**
+     * 获取未失效的缓存值，不触发加载
+     */
+    public V getIfPresent(K key) {
+        Node<V> node = lookup(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return node.value;
+    }
+
+    /**
+     * 获取缓存值，缺失或失效时通过 loader 加载；临近失效时返回旧值并异步刷新
+     */
+    public V get(K key, Supplier<V> loader) {
+        Node<V> node = lookup(key);
+        if (node != null) {
+            hitCount.increment();
+            if (ticker.getAsLong() - node.writeNanos >= refreshAfterWriteNanos) {
+                scheduleRefresh(key, loader);
+            }
+            return node.value;
+        }
+        missCount.increment();
+        return load(key, loader);
+    }
+
+    /**
+     * 忽略缓存强制重新加载（与同一 key 的其他加载合并）
+     */
+    public V refresh(K key, Supplier<V> loader) {
+        return load(key, loader);
+    }
+
+    public void put(K key, V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        long weight = Math.max(0L, weigher.applyAsLong(value));
+        synchronized (lock) {
+            putEntry(key, value, weight);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (lock) {
+            removeEntry(key);
+            if (inFlight.containsKey(key)) {
+                invalidatedLoads.add(key);
+            }
+        }
+    }
+
+    /**
+     * 失效指定分组下的所有条目
+     */
+    public void invalidateGroup(Object group) {
+        synchronized (lock) {
+            if (groupFunction != null) {
+                for (K key : inFlight.keySet()) {
+                    if (Objects.equals(groupFunction.apply(key), group)) {
+                        invalidatedLoads.add(key);
+                    }
+                }
+            }
+            Set<K> keys = groups.remove(group);
+            if (keys == null) {
+                return;
+            }
+            for (K key : keys) {
+                Node<V> node = entries.remove(key);
+                if (node != null) {
+                    totalWeight -= node.weight;
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (lock) {
+            invalidatedLoads.addAll(inFlight.keySet());
+            entries.clear();
+            groups.clear();
+            totalWeight = 0L;
+        }
+    }
+
+    /**
+     * 清理已失效的条目
+     */
+    public void cleanUp() {
+        long now = ticker.getAsLong();
+        synchronized (lock) {
+            Iterator<Map.Entry<K, Node<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Node<V>> entry = iterator.next();
+                if (isExpired(entry.getValue(), now)) {
+                    iterator.remove();
+                    totalWeight -= entry.getValue().weight;
+                    removeFromGroup(entry.getKey());
+                    expiredCount.increment();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public CacheStatistics stats() {
+        CacheStatistics stats = new CacheStatistics();
+        stats.setName(name);
+        synchronized (lock) {
+            stats.setSize(entries.size());
+            stats.setWeight(totalWeight);
+        }
+        stats.setMaximumSize(maximumSize);
+        stats.setMaximumWeight(maximumWeight);
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        stats.setHitCount(hits);
+        stats.setMissCount(misses);
+        stats.setHitRate(hits + misses == 0 ? 0D : (double) hits / (hits + misses));
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setExpiredCount(expiredCount.sum());
+        long loads = loadSuccessCount.sum() + loadFailureCount.sum();
+        stats.setLoadSuccessCount(loadSuccessCount.sum());
+        stats.setLoadFailureCount(loadFailureCount.sum());
+        stats.setAverageLoadTimeMs(loads == 0 ? 0D : totalLoadTimeNanos.sum() / 1_000_000D / loads);
+        stats.setRefreshCount(refreshCount.sum());
+        stats.setInFlightLoads(inFlight.size());
+        return stats;
+    }
+
+    private Node<V> lookup(K key) {
+        synchronized (lock) {
+            Node<V> node = entries.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (isExpired(node, ticker.getAsLong())) {
+                removeEntry(key);
+                expiredCount.increment();
+                return null;
+            }
+            return node;
+        }
+    }
+
+    private V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+        long start = ticker.getAsLong();
+        try {
+            V value = loader.get();
+            totalLoadTimeNanos.add(ticker.getAsLong() - start);
+            loadSuccessCount.increment();
+            if (value != null) {
+                long weight = Math.max(0L, weigher.applyAsLong(value));
+                synchronized (lock) {
+                    if (!invalidatedLoads.contains(key)) {
+                        putEntry(key, value, weight);
+                    }
+                }
+            }
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            totalLoadTimeNanos.add(ticker.getAsLong() - start);
+            loadFailureCount.increment();
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (lock) {
+                invalidatedLoads.remove(key);
+                inFlight.remove(key, created);
+            }
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("缓存加载被中断", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void scheduleRefresh(K key, Supplier<V> loader) {
+        if (refreshExecutor == null || inFlight.containsKey(key) || !refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader);
+                    refreshCount.increment();
+                } catch (RuntimeException e) {
+                    log.warn("Cache {} refresh failed for {}: {}", name, key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private void putEntry(K key, V value, long weight) {
+        Node<V> previous = entries.put(key, new Node<>(value, weight, ticker.getAsLong()));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        } else if (groupFunction != null) {
+            groups.computeIfAbsent(groupFunction.apply(key), group -> new HashSet<>()).add(key);
+        }
+        totalWeight += weight;
+        evictIfNeeded();
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return now - node.writeNanos >= expireAfterWriteNanos;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Node<V>>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maximumSize || totalWeight > maximumWeight) && iterator.hasNext()) {
+            Map.Entry<K, Node<V>> eldest = iterator.next();
+            iterator.remove();
+            totalWeight -= eldest.getValue().weight;
+            removeFromGroup(eldest.getKey());
+            evictionCount.increment();
+        }
+    }
+
+    private void removeEntry(K key) {
+        Node<V> node = entries.remove(key);
+        if (node != null) {
+            totalWeight -= node.weight;
+            removeFromGroup(key);
+        }
+    }
+
+    private void removeFromGroup(K key) {
+        if (groupFunction == null) {
+            return;
+        }
+        Object group = groupFunction.apply(key);
+        Set<K> keys = groups.get(group);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            groups.remove(group);
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final long weight;
+        private final long writeNanos;
+
+        private Node(V value, long weight, long writeNanos) {
+            this.value = value;
+            this.weight = weight;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    public static final class Builder<K, V> {
+        private final String name;
+        private long maximumSize = 10_000L;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToLongFunction<V> weigher = value -> 1L;
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        private Duration refreshAfterWrite;
+        private Executor refreshExecutor;
+        private LongSupplier ticker = System::nanoTime;
+        private Function<K, ?> groupFunction;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<K, V> maximumSize(long maximumSize) {
+            this.maximumSize = Math.max(1L, maximumSize);
+            return this;
+        }
+
+        public Builder<K, V> maximumWeight(long maximumWeight, ToLongFunction<V> weigher) {
+            this.maximumWeight = Math.max(1L, maximumWeight);
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        public Builder<K, V> refreshAfterWrite(Duration refreshAfterWrite, Executor refreshExecutor) {
+            this.refreshAfterWrite = refreshAfterWrite;
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public Builder<K, V> groupBy(Function<K, ?> groupFunction) {
+            this.groupFunction = groupFunction;
+            return this;
+        }
+
+        public BoundedLoadingCache<K, V> build() {
+            return new BoundedLoadingCache<>(this);
+        }
+    }
+}
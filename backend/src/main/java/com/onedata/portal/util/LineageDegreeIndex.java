@@ -0,0 +1,67 @@
+package com.onedata.portal.util;
+
+import com.onedata.portal.dto.LineageDegree;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 表级血缘度数索引
+ * <p>
+ * 由一次聚合查询（{@code DataLineageMapper#selectDegrees}）构建，判断表是否有上游、下游血缘均为 O(1) 查找，
+ * 替代逐表 COUNT 查询。构建后只读，可在多线程间共享。
+ */
+public final class LineageDegreeIndex {
+
+    private final Map<Long, LineageDegree> degrees;
+
+    private LineageDegreeIndex(Map<Long, LineageDegree> degrees) {
+        this.degrees = degrees;
+    }
+
+    public static LineageDegreeIndex of(Collection<LineageDegree> rows) {
+        Map<Long, LineageDegree> degrees = new HashMap<>(Math.max(16, rows.size() * 4 / 3 + 1));
+        for (LineageDegree row : rows) {
+            if (row != null && row.getTableId() != null) {
+                degrees.put(row.getTableId(), row);
+            }
+        }
+        return new LineageDegreeIndex(degrees);
+    }
+
+    /**
+     * 以该表为下游的血缘数
+     */
+    public long getInDegree(Long tableId) {
+        LineageDegree degree = tableId != null ? degrees.get(tableId) : null;
+        return degree != null ? degree.getInDegree() : 0L;
+    }
+
+    /**
+     * 以该表为上游的血缘数
+     */
+    public long getOutDegree(Long tableId) {
+        LineageDegree degree = tableId != null ? degrees.get(tableId) : null;
+        return degree != null ? degree.getOutDegree() : 0L;
+    }
+
+    public boolean hasUpstream(Long tableId) {
+        return getInDegree(tableId) > 0;
+    }
+
+    public boolean hasDownstream(Long tableId) {
+        return getOutDegree(tableId) > 0;
+    }
+
+    public boolean hasAnyLineage(Long tableId) {
+        return hasUpstream(tableId) || hasDownstream(tableId);
+    }
+
+    /**
+     * 存在血缘的表数量
+     */
+    public int size() {
+        return degrees.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.onedata.portal.util;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 并行发起相互独立的阻塞调用
+ * <p>
+ * {@link #start} 在 boundedElastic 线程上执行调用并立即返回，调用方可同时发起多个请求后再逐个
+ * {@link #await}；await 还原调用抛出的原始异常，调用方原有的按来源区分的异常处理保持不变。
+ */
+public final class ParallelCalls {
+
+    private ParallelCalls() {
+    }
+
+    public static <T> CompletableFuture<T> start(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic()).toFuture();
+    }
+
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+}
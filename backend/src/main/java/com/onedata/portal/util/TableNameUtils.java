@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Table name related helpers.
@@ -14,6 +15,7 @@ public final class TableNameUtils {
 
     private static final Set<String> VALID_LAYER_PREFIXES = new HashSet<>(
             Arrays.asList("ods", "dwd", "dim", "dws", "ads"));
+    private static final Pattern SAFE_IDENTIFIER = Pattern.compile("[A-Za-z0-9_]+");
 
     private TableNameUtils() {
     }
@@ -36,4 +38,14 @@ public final class TableNameUtils {
         }
         return prefix.toUpperCase(Locale.ROOT);
     }
+
+    /**
+     * Ensure a database/table name can be embedded in SQL between backticks.
+     */
+    public static String requireSafeIdentifier(String identifier, String label) {
+        if (identifier == null || !SAFE_IDENTIFIER.matcher(identifier).matches()) {
+            throw new IllegalArgumentException(label + "非法: " + identifier);
+        }
+        return identifier;
+    }
 }
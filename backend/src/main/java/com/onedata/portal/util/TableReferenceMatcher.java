@@ -0,0 +1,231 @@
+package com.onedata.portal.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 表引用匹配器
+ * <p>
+ * 由已登记的表标识（db.table）构建字典树，同时收录 db.table 与裸表名两种形式；一次扫描语句即可找出
+ * FROM / JOIN / INTO / UPDATE 之后出现的已登记表，裸表名按语句默认库解析。只在标识符边界处开始匹配，
+ * 因此不需要 Aho-Corasick 的失败指针，每个字符最多访问一次。构建后只读，可在多线程间共享。
+ */
+public final class TableReferenceMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+
+    private static final String[] TABLE_KEYWORDS = {"from", "join", "into", "update"};
+    private static final int MAX_KEYWORD_LENGTH = 6;
+
+    /**
+     * 字典树节点以“首子节点 + 兄弟节点”数组存储，数万张表时也只占用数 MB
+     */
+    private int[] firstChild;
+    private int[] nextSibling;
+    private char[] label;
+    private int[] terminal;
+    private int nodeCount;
+
+    private final String[] names;
+    private final Set<String> identifiers;
+
+    private TableReferenceMatcher(Collection<String> tableIdentifiers) {
+        Set<String> normalized = new LinkedHashSet<>();
+        Set<String> bareNames = new LinkedHashSet<>();
+        for (String identifier : tableIdentifiers) {
+            String value = normalize(identifier);
+            int dot = value.indexOf('.');
+            if (dot <= 0 || dot == value.length() - 1 || !isIdentifier(value, dot)) {
+                continue;
+            }
+            normalized.add(value);
+            bareNames.add(value.substring(dot + 1));
+        }
+        this.identifiers = normalized;
+        this.names = new String[normalized.size() + bareNames.size()];
+
+        int capacity = 16;
+        this.firstChild = new int[capacity];
+        this.nextSibling = new int[capacity];
+        this.label = new char[capacity];
+        this.terminal = new int[capacity];
+        newNode('\0');
+
+        int index = 0;
+        for (String value : normalized) {
+            insert(value, index);
+            names[index++] = value;
+        }
+        for (String value : bareNames) {
+            insert(value, index);
+            names[index++] = value;
+        }
+        trimToSize();
+    }
+
+    /**
+     * 由表标识（db.table，大小写与反引号不敏感）构建匹配器，非法标识会被忽略
+     */
+    public static TableReferenceMatcher of(Collection<String> tableIdentifiers) {
+        return new TableReferenceMatcher(tableIdentifiers);
+    }
+
+    /**
+     * 已收录的表数量
+     */
+    public int size() {
+        return identifiers.size();
+    }
+
+    /**
+     * 提取语句引用的已登记表（db.table，小写）；未限定库名时使用 defaultDb，解析后仍未登记的引用被忽略
+     */
+    public Set<String> match(String sql, String defaultDb) {
+        Set<String> refs = new HashSet<>();
+        if (sql == null || identifiers.isEmpty()) {
+            return refs;
+        }
+        String resolvedDefaultDb = normalize(defaultDb);
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = lower(sql.charAt(i));
+            if (!isIdentifierChar(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int node = ROOT;
+            char previous = '\0';
+            while (i < length) {
+                char ch = lower(sql.charAt(i));
+                if (ch == '`') {
+                    // 反引号只在 `db`.`table` 的点号两侧被跳过，其余情况视为标识符结束
+                    if (previous == '.' || (i + 1 < length && sql.charAt(i + 1) == '.')) {
+                        i++;
+                        continue;
+                    }
+                    break;
+                }
+                if (!isIdentifierChar(ch) && ch != '.') {
+                    break;
+                }
+                if (node != NO_NODE) {
+                    node = child(node, ch);
+                }
+                previous = ch;
+                i++;
+            }
+            if (node == NO_NODE || terminal[node] < 0 || !followsTableKeyword(sql, start)) {
+                continue;
+            }
+            String name = names[terminal[node]];
+            if (name.indexOf('.') > 0) {
+                refs.add(name);
+            } else if (!resolvedDefaultDb.isEmpty()) {
+                String qualified = resolvedDefaultDb + "." + name;
+                if (identifiers.contains(qualified)) {
+                    refs.add(qualified);
+                }
+            }
+        }
+        return refs;
+    }
+
+    private void insert(String value, int index) {
+        int node = ROOT;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            int next = child(node, ch);
+            if (next == NO_NODE) {
+                next = newNode(ch);
+                nextSibling[next] = firstChild[node];
+                firstChild[node] = next;
+            }
+            node = next;
+        }
+        terminal[node] = index;
+    }
+
+    private int child(int node, char ch) {
+        for (int next = firstChild[node]; next != NO_NODE; next = nextSibling[next]) {
+            if (label[next] == ch) {
+                return next;
+            }
+        }
+        return NO_NODE;
+    }
+
+    private int newNode(char ch) {
+        if (nodeCount == label.length) {
+            int capacity = label.length * 2;
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            label = Arrays.copyOf(label, capacity);
+            terminal = Arrays.copyOf(terminal, capacity);
+        }
+        int node = nodeCount++;
+        firstChild[node] = NO_NODE;
+        nextSibling[node] = NO_NODE;
+        label[node] = ch;
+        terminal[node] = -1;
+        return node;
+    }
+
+    private void trimToSize() {
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        label = Arrays.copyOf(label, nodeCount);
+        terminal = Arrays.copyOf(terminal, nodeCount);
+    }
+
+    /**
+     * 标识符前（跳过空白与反引号）紧邻的单词是否为 FROM / JOIN / INTO / UPDATE
+     */
+    private static boolean followsTableKeyword(String sql, int start) {
+        int end = start - 1;
+        while (end >= 0 && (sql.charAt(end) == '`' || Character.isWhitespace(sql.charAt(end)))) {
+            end--;
+        }
+        int begin = end;
+        while (begin >= 0 && end - begin < MAX_KEYWORD_LENGTH && isIdentifierChar(lower(sql.charAt(begin)))) {
+            begin--;
+        }
+        if (begin >= 0 && isIdentifierChar(lower(sql.charAt(begin)))) {
+            return false;
+        }
+        int keywordLength = end - begin;
+        for (String keyword : TABLE_KEYWORDS) {
+            if (keyword.length() == keywordLength && sql.regionMatches(true, begin + 1, keyword, 0, keywordLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIdentifier(String value, int dot) {
+        for (int i = 0; i < value.length(); i++) {
+            if (i != dot && !isIdentifierChar(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.replace("`", "").trim().toLowerCase(Locale.ROOT);
+    }
+}
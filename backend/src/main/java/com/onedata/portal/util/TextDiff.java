@@ -0,0 +1,372 @@
+package com.onedata.portal.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 线性空间的 Myers 差异算法与 unified 格式输出
+ * <p>
+ * 元素先映射为整数再比较；每次只保存当前区间的前向/反向 V 数组，通过中间蛇分治，
+ * 时间 O((N+M)·D)、额外空间 O(N+M)（D 为编辑距离），不再分配 N×M 的 LCS 矩阵。
+ * {@link #diffBlocks} 先以块（如一个任务的 JSON 子树）为单位比较，完全相同的块整体匹配，
+ * 只对发生变化的块再做行级比较。
+ */
+public final class TextDiff {
+
+    public static final int DEFAULT_CONTEXT_LINES = 3;
+
+    private TextDiff() {
+    }
+
+    public enum Type {
+        EQUAL, DELETE, INSERT
+    }
+
+    /**
+     * 一段编辑：左侧 [leftStart, leftEnd) 与右侧 [rightStart, rightEnd)，DELETE 时右侧为空区间，INSERT 时左侧为空区间
+     */
+    public static final class Edit {
+        private final Type type;
+        private final int leftStart;
+        private final int leftEnd;
+        private final int rightStart;
+        private final int rightEnd;
+
+        Edit(Type type, int leftStart, int leftEnd, int rightStart, int rightEnd) {
+            this.type = type;
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.rightStart = rightStart;
+            this.rightEnd = rightEnd;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int getLeftStart() {
+            return leftStart;
+        }
+
+        public int getLeftEnd() {
+            return leftEnd;
+        }
+
+        public int getRightStart() {
+            return rightStart;
+        }
+
+        public int getRightEnd() {
+            return rightEnd;
+        }
+
+        @Override
+        public String toString() {
+            return type + "[" + leftStart + "," + leftEnd + ")[" + rightStart + "," + rightEnd + ")";
+        }
+    }
+
+    /**
+     * 计算最短编辑脚本，元素按 equals 比较；同一位置的删除排在插入之前
+     */
+    public static List<Edit> diff(List<?> left, List<?> right) {
+        Map<Object, Integer> ids = new HashMap<>();
+        int[] a = intern(left, ids);
+        int[] b = intern(right, ids);
+        return toEdits(match(a, b), b.length, 0, 0);
+    }
+
+    /**
+     * 两级比较：先按块内容比较，相同的块直接匹配；连续的变化块展开成行后再做行级比较。返回行坐标的编辑脚本
+     */
+    public static List<Edit> diffBlocks(List<? extends List<String>> leftBlocks,
+                                        List<? extends List<String>> rightBlocks) {
+        int[] leftOffsets = lineOffsets(leftBlocks);
+        int[] rightOffsets = lineOffsets(rightBlocks);
+
+        // 块直接以行列表为键，字符串的哈希值已缓存，无需拼接
+        List<Edit> blockEdits = diff(leftBlocks, rightBlocks);
+        List<Edit> result = new ArrayList<>();
+        int i = 0;
+        while (i < blockEdits.size()) {
+            Edit edit = blockEdits.get(i);
+            if (edit.type == Type.EQUAL) {
+                append(result, Type.EQUAL, leftOffsets[edit.leftStart], leftOffsets[edit.leftEnd],
+                        rightOffsets[edit.rightStart], rightOffsets[edit.rightEnd]);
+                i++;
+                continue;
+            }
+            // 合并相邻的删除/插入块，作为一个变化区域做行级比较
+            int leftStart = edit.leftStart;
+            int rightStart = edit.rightStart;
+            int leftEnd = edit.leftEnd;
+            int rightEnd = edit.rightEnd;
+            while (++i < blockEdits.size() && blockEdits.get(i).type != Type.EQUAL) {
+                leftEnd = Math.max(leftEnd, blockEdits.get(i).leftEnd);
+                rightEnd = Math.max(rightEnd, blockEdits.get(i).rightEnd);
+            }
+            List<String> leftLines = flatten(leftBlocks.subList(leftStart, leftEnd));
+            List<String> rightLines = flatten(rightBlocks.subList(rightStart, rightEnd));
+            Map<Object, Integer> ids = new HashMap<>();
+            int[] a = intern(leftLines, ids);
+            int[] b = intern(rightLines, ids);
+            for (Edit lineEdit : toEdits(match(a, b), b.length, leftOffsets[leftStart], rightOffsets[rightStart])) {
+                append(result, lineEdit.type, lineEdit.leftStart, lineEdit.leftEnd, lineEdit.rightStart,
+                        lineEdit.rightEnd);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 行级比较并输出 unified 格式的 hunk（不含 ---/+++ 文件头），无差异时返回空串
+     */
+    public static String unified(List<String> left, List<String> right, int context) {
+        return formatUnified(left, right, diff(left, right), context);
+    }
+
+    /**
+     * 按编辑脚本输出 unified 格式的 hunk，每个变化前后保留 context 行，相距不超过 2×context 的变化合并为一个 hunk
+     */
+    public static String formatUnified(List<String> left, List<String> right, List<Edit> edits, int context) {
+        return formatUnified(left, right, edits, context, null);
+    }
+
+    /**
+     * 同 {@link #formatUnified(List, List, List, int)}，heading 非空时追加在每个 hunk 头之后（如 "@@ -1,3 +1,3 @@ tasks[1]"）
+     */
+    public static String formatUnified(List<String> left, List<String> right, List<Edit> edits, int context,
+                                       String heading) {
+        int safeContext = Math.max(0, context);
+        StringBuilder builder = new StringBuilder();
+        int index = 0;
+        while (index < edits.size()) {
+            if (edits.get(index).type == Type.EQUAL) {
+                index++;
+                continue;
+            }
+            // 找到本 hunk 的最后一个变化：中间的相同段不超过 2×context 行
+            int last = index;
+            for (int next = index + 1; next < edits.size(); next++) {
+                Edit candidate = edits.get(next);
+                if (candidate.type != Type.EQUAL) {
+                    last = next;
+                } else if (candidate.leftEnd - candidate.leftStart > 2 * safeContext || next == edits.size() - 1) {
+                    break;
+                }
+            }
+            Edit first = edits.get(index);
+            Edit lastEdit = edits.get(last);
+            int leadLeft = Math.max(0, first.leftStart - safeContext);
+            int leadRight = first.rightStart - (first.leftStart - leadLeft);
+            int tailLeft = Math.min(left.size(), lastEdit.leftEnd + safeContext);
+            int tailRight = lastEdit.rightEnd + (tailLeft - lastEdit.leftEnd);
+
+            builder.append("@@ -").append(range(leadLeft, tailLeft - leadLeft))
+                    .append(" +").append(range(leadRight, tailRight - leadRight)).append(" @@");
+            if (heading != null && !heading.isEmpty()) {
+                builder.append(' ').append(heading);
+            }
+            builder.append('\n');
+            appendLines(builder, ' ', left, leadLeft, first.leftStart);
+            for (int k = index; k <= last; k++) {
+                Edit edit = edits.get(k);
+                if (edit.type == Type.EQUAL) {
+                    appendLines(builder, ' ', left, edit.leftStart, edit.leftEnd);
+                } else if (edit.type == Type.DELETE) {
+                    appendLines(builder, '-', left, edit.leftStart, edit.leftEnd);
+                } else {
+                    appendLines(builder, '+', right, edit.rightStart, edit.rightEnd);
+                }
+            }
+            appendLines(builder, ' ', left, lastEdit.leftEnd, tailLeft);
+            index = last + 1;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 把块展开为行
+     */
+    public static List<String> flatten(List<? extends List<String>> blocks) {
+        List<String> lines = new ArrayList<>();
+        for (List<String> block : blocks) {
+            lines.addAll(block);
+        }
+        return lines;
+    }
+
+    private static String range(int start, int count) {
+        // unified 格式：行号从 1 开始，空区间记为前一行
+        return (count == 0 ? start : start + 1) + "," + count;
+    }
+
+    private static void appendLines(StringBuilder builder, char prefix, List<String> lines, int from, int to) {
+        for (int i = from; i < to; i++) {
+            builder.append(prefix).append(lines.get(i)).append('\n');
+        }
+    }
+
+    private static int[] intern(List<?> items, Map<Object, Integer> ids) {
+        int[] result = new int[items.size()];
+        for (int i = 0; i < result.length; i++) {
+            Integer id = ids.get(items.get(i));
+            if (id == null) {
+                id = ids.size();
+                ids.put(items.get(i), id);
+            }
+            result[i] = id;
+        }
+        return result;
+    }
+
+    private static int[] lineOffsets(List<? extends List<String>> blocks) {
+        int[] offsets = new int[blocks.size() + 1];
+        for (int i = 0; i < blocks.size(); i++) {
+            offsets[i + 1] = offsets[i] + blocks.get(i).size();
+        }
+        return offsets;
+    }
+
+    /**
+     * 返回左侧每个元素匹配到的右侧下标，未匹配为 -1
+     */
+    private static int[] match(int[] a, int[] b) {
+        int[] matched = new int[a.length];
+        Arrays.fill(matched, -1);
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] {0, a.length, 0, b.length});
+        int[] snake = new int[4];
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int aLo = range[0];
+            int aHi = range[1];
+            int bLo = range[2];
+            int bHi = range[3];
+            while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+                matched[aLo++] = bLo++;
+            }
+            while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) {
+                matched[--aHi] = --bHi;
+            }
+            if (aLo == aHi || bLo == bHi) {
+                continue;
+            }
+            middleSnake(a, aLo, aHi, b, bLo, bHi, snake);
+            for (int x = snake[0], y = snake[1]; x < snake[2]; x++, y++) {
+                matched[x] = y;
+            }
+            ranges.push(new int[] {snake[2], aHi, snake[3], bHi});
+            ranges.push(new int[] {aLo, snake[0], bLo, snake[1]});
+        }
+        return matched;
+    }
+
+    /**
+     * Myers 中间蛇：前向与反向同时扩展 D 路径，相遇时写出蛇的起止点（绝对坐标）{x, y, u, v}
+     */
+    private static void middleSnake(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi, int[] out) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        int max = (n + m + 1) / 2;
+        int offset = max + 1;
+        int[] forward = new int[2 * max + 3];
+        int[] backward = new int[2 * max + 3];
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])
+                        ? forward[offset + k + 1]
+                        : forward[offset + k - 1] + 1;
+                int y = x - k;
+                int startX = x;
+                int startY = y;
+                while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+                int reverseK = delta - k;
+                if (odd && reverseK >= -(d - 1) && reverseK <= d - 1 && x + backward[offset + reverseK] >= n) {
+                    out[0] = aLo + startX;
+                    out[1] = bLo + startY;
+                    out[2] = aLo + x;
+                    out[3] = bLo + y;
+                    return;
+                }
+            }
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1])
+                        ? backward[offset + k + 1]
+                        : backward[offset + k - 1] + 1;
+                int y = x - k;
+                int startX = x;
+                int startY = y;
+                while (x < n && y < m && a[aHi - 1 - x] == b[bHi - 1 - y]) {
+                    x++;
+                    y++;
+                }
+                backward[offset + k] = x;
+                int forwardK = delta - k;
+                if (!odd && forwardK >= -d && forwardK <= d && x + forward[offset + forwardK] >= n) {
+                    out[0] = aHi - x;
+                    out[1] = bHi - y;
+                    out[2] = aHi - startX;
+                    out[3] = bHi - startY;
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("未找到中间蛇");
+    }
+
+    private static List<Edit> toEdits(int[] matched, int rightSize, int leftOffset, int rightOffset) {
+        if (matched.length == 0 && rightSize == 0) {
+            return Collections.emptyList();
+        }
+        List<Edit> edits = new ArrayList<>();
+        int j = 0;
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i] < 0) {
+                append(edits, Type.DELETE, leftOffset + i, leftOffset + i + 1, rightOffset + j, rightOffset + j);
+                continue;
+            }
+            if (matched[i] > j) {
+                append(edits, Type.INSERT, leftOffset + i, leftOffset + i, rightOffset + j,
+                        rightOffset + matched[i]);
+                j = matched[i];
+            }
+            append(edits, Type.EQUAL, leftOffset + i, leftOffset + i + 1, rightOffset + j, rightOffset + j + 1);
+            j++;
+        }
+        if (j < rightSize) {
+            append(edits, Type.INSERT, leftOffset + matched.length, leftOffset + matched.length, rightOffset + j,
+                    rightOffset + rightSize);
+        }
+        return edits;
+    }
+
+    /**
+     * 追加编辑并与前一段同类编辑合并
+     */
+    private static void append(List<Edit> edits, Type type, int leftStart, int leftEnd, int rightStart, int rightEnd) {
+        if (leftStart == leftEnd && rightStart == rightEnd) {
+            return;
+        }
+        if (!edits.isEmpty()) {
+            Edit last = edits.get(edits.size() - 1);
+            if (last.type == type && last.leftEnd == leftStart && last.rightEnd == rightStart) {
+                edits.set(edits.size() - 1, new Edit(type, last.leftStart, leftEnd, last.rightStart, rightEnd));
+                return;
+            }
+        }
+        edits.add(new Edit(type, leftStart, leftEnd, rightStart, rightEnd));
+    }
+}
@@ -0,0 +1,60 @@
+package com.onedata.portal.util;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 令牌桶限流器
+ * <p>
+ * 以 permitsPerSecond 的速率补充令牌，桶容量为 burst。令牌不足时按预约方式记账：
+ * 当前调用立即获得等待时长，后续调用在其之后排队，因此无需后台线程补充令牌。
+ * {@link #acquire()} 以 {@code Mono.delay} 非阻塞等待，适用于 WebClient 调用链。线程安全。
+ */
+public final class TokenBucket {
+
+    private final double nanosPerPermit;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond 必须大于 0");
+        }
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.tokens = this.capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * 预约一个令牌，返回需要等待的纳秒数（0 表示立即可用）
+     */
+    public synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerPermit);
+        lastRefillNanos = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0L : (long) Math.ceil(-tokens * nanosPerPermit);
+    }
+
+    /**
+     * 订阅时预约令牌，令牌不足时延迟完成
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long waitNanos = reserve();
+            return waitNanos <= 0 ? Mono.<Void>empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+        });
+    }
+}
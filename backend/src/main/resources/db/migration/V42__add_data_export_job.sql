@@ -0,0 +1,26 @@
+CREATE TABLE IF NOT EXISTS `data_export_job` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `cluster_id` BIGINT DEFAULT NULL COMMENT 'Doris集群ID',
+    `database_name` VARCHAR(128) NOT NULL COMMENT '数据库名',
+    `table_name` VARCHAR(128) NOT NULL COMMENT '表名',
+    `format` VARCHAR(20) NOT NULL DEFAULT 'csv_gzip' COMMENT '导出格式',
+    `row_limit` BIGINT DEFAULT NULL COMMENT '导出行数上限(为空表示全表)',
+    `minio_config_id` BIGINT NOT NULL COMMENT 'MinIO环境ID',
+    `bucket` VARCHAR(128) NOT NULL COMMENT 'MinIO Bucket',
+    `object_prefix` VARCHAR(255) NOT NULL COMMENT '对象Key前缀',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '状态(pending/running/success/failed/cancelled)',
+    `part_count` INT DEFAULT 0 COMMENT '分片任务数',
+    `completed_parts` INT DEFAULT 0 COMMENT '已完成分片任务数',
+    `row_count` BIGINT DEFAULT 0 COMMENT '已导出行数',
+    `byte_count` BIGINT DEFAULT 0 COMMENT '已写出字节数(压缩后)',
+    `object_keys` TEXT COMMENT '已上传对象Key(JSON数组)',
+    `error_message` TEXT COMMENT '错误信息',
+    `created_by` VARCHAR(64) DEFAULT NULL COMMENT '创建人',
+    `started_at` DATETIME DEFAULT NULL COMMENT '开始时间',
+    `finished_at` DATETIME DEFAULT NULL COMMENT '结束时间',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_data_export_job_status` (`status`),
+    KEY `idx_data_export_job_created_by` (`created_by`, `created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='异步数据导出任务表';
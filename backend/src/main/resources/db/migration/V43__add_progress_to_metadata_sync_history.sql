@@ -0,0 +1,5 @@
+ALTER TABLE `metadata_sync_history`
+    MODIFY COLUMN `status` ENUM('RUNNING', 'SUCCESS', 'PARTIAL', 'FAILED') NOT NULL COMMENT '同步状态',
+    MODIFY COLUMN `finished_at` DATETIME DEFAULT NULL COMMENT '结束时间',
+    ADD COLUMN `total_databases` INT NOT NULL DEFAULT 0 COMMENT '待同步数据库数' AFTER `deleted_fields`,
+    ADD COLUMN `completed_databases` INT NOT NULL DEFAULT 0 COMMENT '已完成数据库数' AFTER `total_databases`;
@@ -0,0 +1,2 @@
+ALTER TABLE `data_table`
+    ADD COLUMN `sync_fingerprint` VARCHAR(32) DEFAULT NULL COMMENT '元数据同步指纹（更新时间、行数、列数与结构哈希的摘要）' AFTER `doris_update_time`;
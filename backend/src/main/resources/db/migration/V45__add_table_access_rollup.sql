@@ -0,0 +1,30 @@
+CREATE TABLE IF NOT EXISTS `table_access_daily` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `cluster_id` BIGINT NOT NULL COMMENT 'Doris集群ID',
+    `db_name` VARCHAR(128) NOT NULL COMMENT '数据库名（小写）',
+    `table_name` VARCHAR(128) NOT NULL COMMENT '表名（小写）',
+    `access_date` DATE NOT NULL COMMENT '访问日期',
+    `user_name` VARCHAR(128) NOT NULL DEFAULT '' COMMENT '访问用户（审计日志未记录时为空串）',
+    `access_count` BIGINT NOT NULL DEFAULT 0 COMMENT '访问次数',
+    `duration_sum_ms` BIGINT NOT NULL DEFAULT 0 COMMENT '执行耗时合计（毫秒）',
+    `duration_count` BIGINT NOT NULL DEFAULT 0 COMMENT '记录了执行耗时的访问次数',
+    `first_access_time` DATETIME DEFAULT NULL COMMENT '当日首次访问时间',
+    `last_access_time` DATETIME DEFAULT NULL COMMENT '当日最近访问时间',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_table_access_daily` (`cluster_id`, `db_name`, `table_name`, `access_date`, `user_name`),
+    KEY `idx_table_access_daily_date` (`cluster_id`, `access_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='表访问日汇总（由 Doris 审计日志增量汇总）';
+
+CREATE TABLE IF NOT EXISTS `table_access_ingest_state` (
+    `cluster_id` BIGINT NOT NULL COMMENT 'Doris集群ID',
+    `audit_source` VARCHAR(255) DEFAULT NULL COMMENT '审计表',
+    `high_water_mark` DATETIME DEFAULT NULL COMMENT '已汇总的审计日志时间上界',
+    `last_run_at` DATETIME DEFAULT NULL COMMENT '最近一次汇总时间',
+    `last_run_rows` INT NOT NULL DEFAULT 0 COMMENT '最近一次汇总读取的审计行数',
+    `last_error` VARCHAR(1000) DEFAULT NULL COMMENT '最近一次汇总失败原因',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`cluster_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='表访问汇总进度（审计日志高水位）';
@@ -0,0 +1,9 @@
+-- 最近执行历史缓存改为按 (workflow_id, instance_id) 增量 upsert，先清理历史重复行
+DELETE c1 FROM `workflow_instance_cache` c1
+JOIN `workflow_instance_cache` c2
+  ON c1.workflow_id = c2.workflow_id
+ AND c1.instance_id = c2.instance_id
+ AND c1.id < c2.id;
+
+ALTER TABLE `workflow_instance_cache`
+    ADD UNIQUE KEY `uk_workflow_instance_cache` (`workflow_id`, `instance_id`);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS `workflow_instance_sync_state` (
+    `project_code` BIGINT NOT NULL COMMENT 'DolphinScheduler 项目编码',
+    `high_water_mark` DATETIME DEFAULT NULL COMMENT '已拉取的实例开始时间上界',
+    `last_run_at` DATETIME DEFAULT NULL COMMENT '最近一次拉取时间',
+    `last_run_instances` INT NOT NULL DEFAULT 0 COMMENT '最近一次拉取到的实例数',
+    `last_error` VARCHAR(1000) DEFAULT NULL COMMENT '最近一次拉取失败原因',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`project_code`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='工作流实例同步进度（按项目批量拉取的高水位）';
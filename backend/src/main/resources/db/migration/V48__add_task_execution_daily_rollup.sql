@@ -0,0 +1,42 @@
+CREATE TABLE IF NOT EXISTS `task_execution_daily` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `task_id` BIGINT NOT NULL COMMENT '任务ID',
+    `stat_date` DATE NOT NULL COMMENT '统计日期（按开始时间归日）',
+    `status` VARCHAR(20) NOT NULL DEFAULT '' COMMENT '执行状态',
+    `execution_count` BIGINT NOT NULL DEFAULT 0 COMMENT '执行次数',
+    `duration_count` BIGINT NOT NULL DEFAULT 0 COMMENT '记录了执行时长（大于0秒）的次数',
+    `duration_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '执行时长合计（秒）',
+    `duration_min` INT DEFAULT NULL COMMENT '最短执行时长（秒）',
+    `duration_max` INT DEFAULT NULL COMMENT '最长执行时长（秒）',
+    `duration_le_10s` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (0, 10s] 次数',
+    `duration_le_30s` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (10s, 30s] 次数',
+    `duration_le_1m` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (30s, 1m] 次数',
+    `duration_le_5m` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (1m, 5m] 次数',
+    `duration_le_10m` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (5m, 10m] 次数',
+    `duration_le_30m` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (10m, 30m] 次数',
+    `duration_le_1h` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (30m, 1h] 次数',
+    `duration_le_2h` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (1h, 2h] 次数',
+    `duration_le_6h` BIGINT NOT NULL DEFAULT 0 COMMENT '时长 (2h, 6h] 次数',
+    `duration_gt_6h` BIGINT NOT NULL DEFAULT 0 COMMENT '时长超过 6h 次数',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_task_execution_daily` (`stat_date`, `task_id`, `status`),
+    KEY `idx_task_execution_daily_task` (`task_id`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='任务执行日汇总（由 task_execution_log 按日重算）';
+
+CREATE TABLE IF NOT EXISTS `task_execution_rollup_state` (
+    `id` BIGINT NOT NULL COMMENT '固定为 1',
+    `rolled_from` DATE DEFAULT NULL COMMENT '日汇总覆盖的起始日期（含）',
+    `rolled_until` DATE DEFAULT NULL COMMENT '日汇总覆盖的截止日期（不含）',
+    `last_run_at` DATETIME DEFAULT NULL COMMENT '最近一次汇总开始时间',
+    `last_run_days` INT NOT NULL DEFAULT 0 COMMENT '最近一次重算的天数',
+    `last_error` VARCHAR(1000) DEFAULT NULL COMMENT '最近一次汇总失败原因',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='任务执行日汇总进度';
+
+-- 按更新时间找出已汇总日期中发生变化的执行记录；按任务查询时间窗口
+ALTER TABLE `task_execution_log`
+    ADD KEY `idx_task_execution_log_updated_at` (`updated_at`),
+    ADD KEY `idx_task_execution_log_task_start` (`task_id`, `start_time`);
@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS `workflow_snapshot_chunk` (
+    `chunk_hash` CHAR(64) NOT NULL COMMENT '未压缩内容的 SHA-256',
+    `codec` VARCHAR(16) NOT NULL DEFAULT 'none' COMMENT '压缩方式：none/deflate',
+    `raw_size` INT NOT NULL DEFAULT 0 COMMENT '未压缩字节数',
+    `stored_size` INT NOT NULL DEFAULT 0 COMMENT '存储字节数',
+    `content` LONGBLOB NOT NULL COMMENT '块内容（UTF-8 JSON，按 codec 压缩）',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`chunk_hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='工作流版本快照内容块（按内容哈希去重）';
+
+CREATE TABLE IF NOT EXISTS `workflow_version_chunk` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `version_id` BIGINT NOT NULL COMMENT '工作流版本ID',
+    `seq` INT NOT NULL COMMENT '块在快照中的顺序',
+    `field_name` VARCHAR(128) NOT NULL COMMENT '快照顶层字段名',
+    `array_item` TINYINT NOT NULL DEFAULT 0 COMMENT '是否为顶层数组字段的一个元素',
+    `chunk_hash` CHAR(64) NOT NULL COMMENT '内容块哈希',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_workflow_version_chunk` (`version_id`, `seq`),
+    KEY `idx_workflow_version_chunk_hash` (`chunk_hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='工作流版本快照的块清单';
+
+ALTER TABLE `workflow_version`
+    ADD COLUMN `snapshot_storage` VARCHAR(16) NOT NULL DEFAULT 'inline' COMMENT '快照存储方式：inline=structure_snapshot 原文，chunked=按块存储' AFTER `structure_snapshot`;
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS `workflow_version_change_set` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `workflow_id` BIGINT NOT NULL COMMENT '工作流ID',
+    `version_id` BIGINT NOT NULL COMMENT '版本ID',
+    `version_no` INT NOT NULL COMMENT '版本号',
+    `base_version_id` BIGINT DEFAULT NULL COMMENT '比较基线版本ID，为空表示相对空基线',
+    `changes` LONGTEXT NOT NULL COMMENT '相对基线的结构化变更JSON（仅包含变化的字段、任务与连线）',
+    `inventory` LONGTEXT NOT NULL COMMENT '本版本的任务、连线与字段清单JSON（用于列出未变化项）',
+    `raw_diff` LONGTEXT DEFAULT NULL COMMENT '相对基线的原始快照差异（unified diff）',
+    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_workflow_version_change_set_version` (`version_id`),
+    KEY `idx_workflow_version_change_set_workflow` (`workflow_id`, `version_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='工作流版本相对上一版本的变更集（创建版本时计算）';
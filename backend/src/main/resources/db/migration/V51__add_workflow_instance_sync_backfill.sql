@@ -0,0 +1,3 @@
+ALTER TABLE `workflow_instance_sync_state`
+    ADD COLUMN `backfill_from` DATETIME DEFAULT NULL COMMENT '因翻页截断尚未拉取的实例开始时间下界' AFTER `high_water_mark`,
+    ADD COLUMN `backfill_until` DATETIME DEFAULT NULL COMMENT '因翻页截断尚未拉取的实例开始时间上界' AFTER `backfill_from`;
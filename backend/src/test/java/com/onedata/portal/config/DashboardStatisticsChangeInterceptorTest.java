@@ -0,0 +1,110 @@
+package com.onedata.portal.config;
+
+import com.onedata.portal.mapper.DataTaskMapper;
+import com.onedata.portal.mapper.DataWorkflowMapper;
+import com.onedata.portal.mapper.TaskExecutionLogMapper;
+import com.onedata.portal.service.DashboardStatisticsService;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStatisticsChangeInterceptorTest {
+
+    @Mock
+    private Executor executor;
+
+    @Mock
+    private DashboardStatisticsService statisticsService;
+
+    @Mock
+    private ObjectProvider<DashboardStatisticsService> statisticsProvider;
+
+    private final Configuration configuration = new Configuration();
+
+    private DashboardStatisticsChangeInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(statisticsProvider.getIfAvailable()).thenReturn(statisticsService);
+        interceptor = new DashboardStatisticsChangeInterceptor(statisticsProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void writeToStatisticsTableShouldMarkItsSection() throws Throwable {
+        assertEquals(1, interceptor.intercept(update(TaskExecutionLogMapper.class.getName() + ".insert", 1)));
+
+        verify(statisticsService).markChanged(DashboardStatisticsService.Section.EXECUTIONS);
+    }
+
+    @Test
+    void writesWithoutEffectOrToOtherTablesShouldBeIgnored() throws Throwable {
+        interceptor.intercept(update(DataTaskMapper.class.getName() + ".updateById", 0));
+        interceptor.intercept(update(DataWorkflowMapper.class.getName() + ".insert", 1));
+
+        verify(statisticsService, never()).markChanged(any());
+    }
+
+    @Test
+    void writeInTransactionShouldOnlyBeReportedAfterCommit() throws Throwable {
+        TransactionSynchronizationManager.initSynchronization();
+
+        interceptor.intercept(update(DataTaskMapper.class.getName() + ".insert", 1));
+
+        verify(statisticsService, never()).markChanged(any());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(statisticsService).markChanged(DashboardStatisticsService.Section.TASKS);
+    }
+
+    @Test
+    void rolledBackWriteShouldNotBeReported() throws Throwable {
+        TransactionSynchronizationManager.initSynchronization();
+
+        interceptor.intercept(update(DataTaskMapper.class.getName() + ".insert", 1));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verify(statisticsService, never()).markChanged(any());
+    }
+
+    private Invocation update(String statementId, int affectedRows) throws Exception {
+        MappedStatement statement = new MappedStatement.Builder(configuration, statementId, mock(SqlSource.class),
+                SqlCommandType.UPDATE).build();
+        Object parameter = new Object();
+        when(executor.update(statement, parameter)).thenReturn(affectedRows);
+        Method method = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        return new Invocation(executor, method, new Object[] {statement, parameter});
+    }
+}
@@ -167,4 +167,21 @@ class UserContextHolderTest {
             assertTrue(results.contains("user-" + i));
         }
     }
+
+    @Test
+    void testWrapPropagatesContextToPoolThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            UserContextHolder.setContext(new UserContext("submitter", "submitter", null));
+            String seen = executor.submit(UserContextHolder.wrap(UserContextHolder::getCurrentUserId))
+                    .get(5, TimeUnit.SECONDS);
+            UserContextHolder.clear();
+            UserContext leftover = executor.submit(UserContextHolder::getContext).get(5, TimeUnit.SECONDS);
+
+            assertEquals("submitter", seen);
+            assertNull(leftover, "任务结束后工作线程不应保留提交者的上下文");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
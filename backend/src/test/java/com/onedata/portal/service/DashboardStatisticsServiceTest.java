@@ -0,0 +1,217 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.DashboardStatisticsProperties;
+import com.onedata.portal.dto.DashboardStatistics;
+import com.onedata.portal.dto.DashboardTableAccessSummary;
+import com.onedata.portal.mapper.DataDomainMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.mapper.DataTaskMapper;
+import com.onedata.portal.mapper.InspectionIssueMapper;
+import com.onedata.portal.mapper.TaskExecutionLogMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStatisticsServiceTest {
+
+    @Mock
+    private DataTableMapper dataTableMapper;
+
+    @Mock
+    private DataTaskMapper dataTaskMapper;
+
+    @Mock
+    private DataDomainMapper dataDomainMapper;
+
+    @Mock
+    private TaskExecutionLogMapper taskExecutionLogMapper;
+
+    @Mock
+    private InspectionIssueMapper inspectionIssueMapper;
+
+    @Mock
+    private DorisTableAccessService dorisTableAccessService;
+
+    @Mock
+    private ScheduledExecutorService refreshExecutor;
+
+    /**
+     * 已排期但尚未执行的延迟重算
+     */
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    private DashboardStatisticsService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dataTableMapper.selectMaps(any())).thenReturn(Arrays.asList(
+                row("cluster_id", 1L, 3L), row("cluster_id", 2L, 1L), row("cluster_id", null, 1L)));
+        lenient().when(dataTaskMapper.selectCount(isNull())).thenReturn(7L);
+        lenient().when(dataDomainMapper.selectCount(isNull())).thenReturn(2L);
+        lenient().when(taskExecutionLogMapper.selectMaps(any())).thenReturn(
+                Arrays.asList(row("status", "success", 6L), row("status", "failed", 3L), row("status", "running", 1L)),
+                Collections.singletonList(row("status", "success", 2L)));
+        lenient().when(inspectionIssueMapper.selectMaps(any())).thenReturn(
+                Arrays.asList(row("severity", "critical", 2L), row("severity", "low", 4L)));
+        DashboardTableAccessSummary summary = new DashboardTableAccessSummary();
+        summary.setHotWindowDays(30);
+        summary.setColdWindowDays(90);
+        lenient().when(dorisTableAccessService.getDashboardAccessSummary(any(), anyInt(), anyInt(), anyInt(), anyInt()))
+                .thenReturn(summary);
+
+        // 后台刷新直接在调用线程执行，延迟重算先记下，由测试决定何时到期
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(refreshExecutor).execute(any(Runnable.class));
+        lenient().when(refreshExecutor.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(invocation -> {
+                    scheduled.add(invocation.getArgument(0));
+                    return null;
+                });
+        service = new DashboardStatisticsService(dataTableMapper, dataTaskMapper, dataDomainMapper,
+                taskExecutionLogMapper, inspectionIssueMapper, dorisTableAccessService,
+                new DashboardStatisticsProperties(), refreshExecutor);
+    }
+
+    @Test
+    void snapshotShouldBeServedWithoutRequerying() {
+        DashboardStatistics all = service.getStatistics(null);
+        DashboardStatistics cluster = service.getStatistics(1L);
+        DashboardStatistics unknown = service.getStatistics(9L);
+
+        assertEquals(5L, all.getTotalTables(), "全部数据源应包含未关联数据源的表");
+        assertEquals(3L, cluster.getTotalTables());
+        assertEquals(0L, unknown.getTotalTables());
+        assertEquals(7L, all.getTotalTasks());
+        assertEquals(2L, all.getTotalDomains());
+        assertEquals(10L, all.getTotalExecutions());
+        assertEquals(6L, all.getSuccessExecutions());
+        assertEquals(3L, all.getFailedExecutions());
+        assertEquals(1L, all.getRunningExecutions());
+        assertEquals(60.0D, all.getExecutionSuccessRate(), 1e-9);
+        assertEquals(2L, all.getTodayExecutions());
+        assertEquals(2L, all.getTodaySuccessExecutions());
+        assertEquals(0L, all.getTodayFailedExecutions());
+        assertEquals(6L, all.getOpenIssues());
+        assertEquals(2L, all.getCriticalIssues());
+        assertNotNull(all.getRefreshedAt());
+        assertNotNull(all.getTableAccessRefreshedAt());
+        assertFalse(all.getRefreshPending());
+
+        verify(dataTableMapper, times(1)).selectMaps(any());
+        verify(dataTaskMapper, times(1)).selectCount(isNull());
+        verify(taskExecutionLogMapper, times(2)).selectMaps(any());
+        verify(dorisTableAccessService, times(1)).getDashboardAccessSummary(isNull(), anyInt(), anyInt(), anyInt(),
+                anyInt());
+        verify(dorisTableAccessService, times(2)).getDashboardAccessSummary(any(Long.class), anyInt(), anyInt(),
+                anyInt(), anyInt());
+    }
+
+    @Test
+    void changeShouldRecomputeOnlyAffectedSection() {
+        service.getStatistics(null);
+        when(dataTaskMapper.selectCount(isNull())).thenReturn(8L);
+
+        service.markChanged(DashboardStatisticsService.Section.TASKS);
+        runScheduled();
+        DashboardStatistics statistics = service.getStatistics(null);
+
+        assertEquals(8L, statistics.getTotalTasks());
+        assertEquals(5L, statistics.getTotalTables());
+        verify(dataTaskMapper, times(2)).selectCount(isNull());
+        verify(dataDomainMapper, times(1)).selectCount(isNull());
+        verify(dataTableMapper, times(1)).selectMaps(any());
+        verify(taskExecutionLogMapper, times(2)).selectMaps(any());
+    }
+
+    @Test
+    void failedRefreshShouldKeepPreviousSnapshotAndStayPending() {
+        service.getStatistics(null);
+        when(dataDomainMapper.selectCount(isNull())).thenThrow(new RuntimeException("db down"));
+
+        service.markChanged(DashboardStatisticsService.Section.DOMAINS);
+        runScheduled();
+        DashboardStatistics statistics = service.getStatistics(null);
+
+        assertEquals(2L, statistics.getTotalDomains());
+        assertTrue(statistics.getRefreshPending());
+    }
+
+    @Test
+    void changesWithinDelayShouldBeMergedIntoOneRefresh() {
+        service.getStatistics(null);
+        when(dataTaskMapper.selectCount(isNull())).thenReturn(8L);
+
+        service.markChanged(DashboardStatisticsService.Section.TASKS);
+        service.markChanged(DashboardStatisticsService.Section.TASKS);
+        service.markChanged(DashboardStatisticsService.Section.DOMAINS);
+
+        assertEquals(1, scheduled.size());
+        verify(refreshExecutor).schedule(any(Runnable.class), eq(5_000L), eq(TimeUnit.MILLISECONDS));
+        assertTrue(service.getStatistics(null).getRefreshPending());
+        assertEquals(7L, service.getStatistics(null).getTotalTasks(), "到期前继续返回旧快照");
+
+        runScheduled();
+        DashboardStatistics statistics = service.getStatistics(null);
+
+        assertEquals(8L, statistics.getTotalTasks());
+        assertFalse(statistics.getRefreshPending());
+        verify(dataTaskMapper, times(2)).selectCount(isNull());
+        verify(dataDomainMapper, times(2)).selectCount(isNull());
+
+        service.markChanged(DashboardStatisticsService.Section.TASKS);
+        assertEquals(1, scheduled.size(), "上一轮重算后新的变更重新排期");
+    }
+
+    @Test
+    void sectionShouldBeResolvedFromStatementId() {
+        assertEquals(DashboardStatisticsService.Section.EXECUTIONS,
+                DashboardStatisticsService.sectionOf(TaskExecutionLogMapper.class.getName() + ".insert"));
+        assertEquals(DashboardStatisticsService.Section.ISSUES,
+                DashboardStatisticsService.sectionOf(InspectionIssueMapper.class.getName() + ".insertBatch"));
+        assertNull(DashboardStatisticsService.sectionOf("com.onedata.portal.mapper.DataWorkflowMapper.updateById"));
+        assertNull(DashboardStatisticsService.sectionOf(null));
+    }
+
+    private void runScheduled() {
+        List<Runnable> due = new ArrayList<>(scheduled);
+        scheduled.clear();
+        due.forEach(Runnable::run);
+    }
+
+    private static Map<String, Object> row(String keyColumn, Object key, long count) {
+        Map<String, Object> row = new HashMap<>();
+        row.put(keyColumn, key);
+        row.put("cnt", count);
+        return row;
+    }
+}
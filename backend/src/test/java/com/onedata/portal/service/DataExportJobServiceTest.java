@@ -0,0 +1,245 @@
+package com.onedata.portal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.DataExportJobProperties;
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.DataExportJobRequest;
+import com.onedata.portal.entity.DataExportJob;
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.entity.MinioConfig;
+import com.onedata.portal.mapper.DataExportJobMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataExportJobServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DataExportJobService service;
+    private DataExportJobMapper mapper;
+    private DataTableMapper dataTableMapper;
+    private DataExportService dataExportService;
+    private DorisConnectionService dorisConnectionService;
+    private MinioConfigService minioConfigService;
+    private MinioObjectStorageService storageService;
+    private final Map<String, List<String>> uploaded = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mapper = mock(DataExportJobMapper.class);
+        dataTableMapper = mock(DataTableMapper.class);
+        dataExportService = spy(new DataExportService(mock(DorisConnectionService.class), new ObjectMapper()));
+        dorisConnectionService = mock(DorisConnectionService.class);
+        minioConfigService = mock(MinioConfigService.class);
+        storageService = mock(MinioObjectStorageService.class);
+
+        DataExportJobProperties properties = new DataExportJobProperties();
+        properties.setTempDir(tempDir.toString());
+        properties.setMaxRowsPerPart(4);
+        properties.setPartWriterThreads(2);
+
+        MinioConfig minioConfig = new MinioConfig();
+        minioConfig.setId(7L);
+        when(minioConfigService.getEnabledById(7L)).thenReturn(minioConfig);
+        doAnswer(invocation -> {
+            Path file = invocation.getArgument(3);
+            uploaded.put(invocation.getArgument(2), readGzipLines(file));
+            return null;
+        }).when(storageService).putObject(any(), eq("bucket"), anyString(), any(Path.class), eq("application/gzip"));
+
+        service = new DataExportJobService(mapper, dataTableMapper, dataExportService, dorisConnectionService,
+            minioConfigService, storageService, properties, new ObjectMapper());
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void runJobWritesPartitionPartsRollsFilesAndUploadsThem() throws Exception {
+        DataExportJob job = job(null);
+        when(mapper.selectById(1L)).thenReturn(job);
+        when(dorisConnectionService.getPartitionNames(null, "db1", "t_user"))
+            .thenReturn(Arrays.asList("p1", "p2"));
+        stubPartition("p1", 6);
+        stubPartition("p2", 3);
+
+        service.runJob(1L);
+
+        assertEquals(DataExportJobService.STATUS_SUCCESS, job.getStatus());
+        assertEquals(2, job.getPartCount());
+        assertEquals(2, job.getCompletedParts());
+        assertEquals(9L, job.getRowCount());
+        assertEquals(3, uploaded.size());
+        List<String> keys = uploaded.keySet().stream().sorted().collect(Collectors.toList());
+        assertEquals("exports/1/part-000-00000.csv.gz", keys.get(0));
+        assertEquals(Arrays.asList("id,name", "p1-4", "p1-5"), uploaded.get("exports/1/part-000-00001.csv.gz"));
+        assertEquals(4, uploaded.get("exports/1/part-001-00000.csv.gz").size());
+        assertEquals(new ObjectMapper().writeValueAsString(keys), job.getObjectKeys());
+        assertNull(job.getErrorMessage());
+        assertFalse(Files.exists(tempDir.resolve("job-1")));
+    }
+
+    @Test
+    void runJobMarksFailureWhenPartFails() {
+        DataExportJob job = job(100L);
+        when(mapper.selectById(1L)).thenReturn(job);
+        doAnswer(invocation -> {
+            throw new RuntimeException("导出表数据失败: boom");
+        }).when(dataExportService).streamTableData(isNull(), eq("db1"), eq("t_user"), isNull(), eq(100L), any());
+
+        service.runJob(1L);
+
+        assertEquals(DataExportJobService.STATUS_FAILED, job.getStatus());
+        assertEquals("导出表数据失败: boom", job.getErrorMessage());
+        assertEquals(Collections.emptyMap(), uploaded);
+    }
+
+    @Test
+    void runJobStreamsPartsAsSubmitter() {
+        DataExportJob job = job(null);
+        job.setCreatedBy("u1");
+        when(mapper.selectById(1L)).thenReturn(job);
+        when(dorisConnectionService.getPartitionNames(null, "db1", "t_user"))
+            .thenReturn(Arrays.asList("p1", "p2"));
+        List<String> streamedAs = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            streamedAs.add(String.valueOf(UserContextHolder.getCurrentUserId()));
+            DataExportService.ResultSetWriter writer = invocation.getArgument(5);
+            writer.write(mockResultSet(invocation.getArgument(3), 1));
+            return null;
+        }).when(dataExportService).streamTableData(isNull(), eq("db1"), eq("t_user"), anyString(), isNull(), any());
+
+        service.runJob(1L);
+
+        assertEquals(DataExportJobService.STATUS_SUCCESS, job.getStatus());
+        assertEquals(Arrays.asList("u1", "u1"), streamedAs);
+        assertNull(UserContextHolder.getContext());
+    }
+
+    @Test
+    void jobsAreOnlyVisibleToTheirSubmitter() {
+        DataExportJob job = job(null);
+        job.setCreatedBy("u1");
+        when(mapper.selectById(1L)).thenReturn(job);
+
+        assertNotNull(service.getJob(1L, "u1"));
+        assertNull(service.getJob(1L, "u2"));
+        assertNull(service.getJob(1L, null));
+        assertFalse(service.cancel(1L, "u2"));
+        assertTrue(service.listJobs(null, 1, 10, null).getRecords().isEmpty());
+        assertTrue(service.listJobs(" ", 1, 10, null).getRecords().isEmpty());
+        verify(mapper, never()).selectPage(any(), any());
+    }
+
+    @Test
+    void submitTakesDatabaseAndTableFromRegisteredTable() {
+        DataTable table = new DataTable();
+        table.setId(5L);
+        table.setClusterId(3L);
+        table.setDbName("db1");
+        table.setTableName("t_user");
+        when(dataTableMapper.selectById(5L)).thenReturn(table);
+        DataExportJobRequest request = new DataExportJobRequest();
+        request.setTableId(5L);
+        request.setMinioConfigId(7L);
+        doAnswer(invocation -> {
+            invocation.<DataExportJob>getArgument(0).setId(9L);
+            return 1;
+        }).when(mapper).insert(any(DataExportJob.class));
+
+        DataExportJob job = service.submit(request, "u1");
+
+        assertEquals(Long.valueOf(3L), job.getClusterId());
+        assertEquals("db1", job.getDatabaseName());
+        assertEquals("t_user", job.getTableName());
+
+        table.setTableName("t_user` UNION SELECT * FROM `mysql`.`user");
+        assertThrows(IllegalArgumentException.class, () -> service.submit(request, "u1"));
+        request.setTableId(6L);
+        assertThrows(IllegalArgumentException.class, () -> service.submit(request, "u1"));
+    }
+
+    private DataExportJob job(Long limit) {
+        DataExportJob job = new DataExportJob();
+        job.setId(1L);
+        job.setDatabaseName("db1");
+        job.setTableName("t_user");
+        job.setRowLimit(limit);
+        job.setMinioConfigId(7L);
+        job.setBucket("bucket");
+        job.setObjectPrefix("exports");
+        job.setStatus(DataExportJobService.STATUS_PENDING);
+        return job;
+    }
+
+    private void stubPartition(String partition, int rowCount) {
+        doAnswer(invocation -> {
+            DataExportService.ResultSetWriter writer = invocation.getArgument(5);
+            writer.write(mockResultSet(partition, rowCount));
+            return null;
+        }).when(dataExportService).streamTableData(isNull(), eq("db1"), eq("t_user"), eq(partition), isNull(), any());
+    }
+
+    private ResultSet mockResultSet(String prefix, int rowCount) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("name");
+        int[] cursor = {-1};
+        when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rowCount);
+        when(resultSet.getObject(1)).thenAnswer(invocation -> prefix + "-" + cursor[0]);
+        when(resultSet.getObject(2)).thenAnswer(invocation -> null);
+        return resultSet;
+    }
+
+    private static List<String> readGzipLines(Path file) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                .map(line -> line.endsWith(",") ? line.substring(0, line.length() - 1) : line)
+                .collect(Collectors.toList());
+        }
+    }
+}
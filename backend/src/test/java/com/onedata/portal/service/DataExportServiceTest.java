@@ -0,0 +1,120 @@
+package com.onedata.portal.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataExportServiceTest {
+
+    private DataExportService service;
+    private DorisConnectionService dorisConnectionService;
+
+    @BeforeEach
+    void setUp() {
+        dorisConnectionService = mock(DorisConnectionService.class);
+        service = new DataExportService(dorisConnectionService, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void exportToCsvStreamsHeaderAndEscapedRows() throws Exception {
+        Statement statement = mockResultSet(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportToCsv(1L, "db1", "t_user", 5000, out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,name", lines[0]);
+        assertEquals("2,\"row,2\"", lines[3]);
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+        verify(statement).executeQuery("SELECT * FROM `db1`.`t_user` LIMIT 5000");
+    }
+
+    @Test
+    void exportToJsonWritesArrayOfRowObjects() throws Exception {
+        mockResultSet(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportToJson(1L, "db1", "t_user", 100, out);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, json.size());
+        assertEquals(1, json.get(1).get("id").asInt());
+        assertEquals("row,1", json.get(1).get("name").asText());
+    }
+
+    @Test
+    void exportToExcelWritesAllRowsBeyondRowWindow() throws Exception {
+        mockResultSet(250);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportToExcel(1L, "db1", "t_user", 1000, out);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("t_user");
+            assertEquals(250, sheet.getLastRowNum());
+            assertEquals("name", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals(249d, sheet.getRow(250).getCell(0).getNumericCellValue());
+            assertEquals("row,249", sheet.getRow(250).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    void exportWrapsQueryFailure() throws Exception {
+        when(dorisConnectionService.getConnection(1L, "db1")).thenThrow(new java.sql.SQLException("boom"));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+            () -> service.exportToCsv(1L, "db1", "t_user", 10, new ByteArrayOutputStream()));
+        assertEquals("导出表数据失败: boom", error.getMessage());
+    }
+
+    @Test
+    void exportRejectsIdentifiersThatCouldEscapeQuoting() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+            () -> service.exportToCsv(1L, "db1", "t_user` WHERE 1=1 --", 10, new ByteArrayOutputStream()));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.exportToCsv(1L, "db1`.`secret", "t_user", 10, new ByteArrayOutputStream()));
+        verify(dorisConnectionService, never()).getConnection(anyLong(), anyString());
+    }
+
+    private Statement mockResultSet(int rowCount) throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(dorisConnectionService.getConnection(1L, "db1")).thenReturn(connection);
+        when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("name");
+
+        int[] cursor = {-1};
+        when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rowCount);
+        when(resultSet.getObject(1)).thenAnswer(invocation -> cursor[0]);
+        when(resultSet.getObject(2)).thenAnswer(invocation -> "row," + cursor[0]);
+        return statement;
+    }
+}
@@ -1,30 +1,47 @@
 package com.onedata.portal.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onedata.portal.dto.SqlAnalyzeRequest;
 import com.onedata.portal.dto.SqlAnalyzeResponse;
+import com.onedata.portal.dto.SqlQueryRequest;
+import com.onedata.portal.dto.SqlQueryResponse;
 import com.onedata.portal.mapper.DataQueryHistoryMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class DataQueryServiceTest {
 
     private DataQueryService service;
+    private DorisConnectionService dorisConnectionService;
 
     @BeforeEach
     void setUp() {
+        dorisConnectionService = mock(DorisConnectionService.class);
         service = new DataQueryService(
-            mock(DorisConnectionService.class),
+            dorisConnectionService,
             mock(DorisClusterService.class),
             mock(DataQueryHistoryMapper.class),
-            new ObjectMapper()
+            new ObjectMapper().findAndRegisterModules()
         );
     }
 
@@ -76,4 +93,111 @@ class DataQueryServiceTest {
         assertTrue(response.isBlocked());
         assertNotNull(response.getBlockedReason());
     }
+
+    @Test
+    void executeQueryCollectsRowsIntoResponse() throws Exception {
+        mockResultSet(3);
+
+        SqlQueryResponse response = service.executeQuery(queryRequest());
+
+        assertEquals(1, response.getResultSetCount());
+        assertEquals(3, response.getRows().getRowCount());
+        assertEquals(2L, response.getRows().getValue(2, 0));
+        assertEquals("row-2", response.getRows().getRow(2).get("name"));
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void executeQuerySerializesRowsAsArraysInColumnOrder() throws Exception {
+        mockResultSet(3);
+
+        SqlQueryResponse response = service.executeQuery(queryRequest());
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(response);
+
+        assertEquals("name", json.get("columns").get(1).asText());
+        assertEquals(3, json.get("rows").size());
+        assertEquals(2L, json.get("rows").get(2).get(0).asLong());
+        assertEquals("row-2", json.get("rows").get(2).get(1).asText());
+        assertEquals("row-0", json.get("resultSets").get(0).get("rows").get(0).get(1).asText());
+    }
+
+    @Test
+    void streamQueryWritesColumnRowResultAndDoneFrames() throws Exception {
+        Statement statement = mockResultSet(450);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.streamQuery(queryRequest(), out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode columns = mapper.readTree(lines[0]);
+        assertEquals("columns", columns.get("type").asText());
+        assertEquals("name", columns.get("columns").get(1).asText());
+
+        int streamedRows = 0;
+        int index = 1;
+        while ("rows".equals(mapper.readTree(lines[index]).get("type").asText())) {
+            streamedRows += mapper.readTree(lines[index]).get("rows").size();
+            index++;
+        }
+        assertEquals(450, streamedRows);
+        assertEquals(4, index);
+        assertEquals("row-449", mapper.readTree(lines[3]).get("rows").get(49).get(1).asText());
+
+        JsonNode result = mapper.readTree(lines[index]);
+        assertEquals("result", result.get("type").asText());
+        assertEquals("SUCCESS", result.get("status").asText());
+        assertEquals(450, result.get("previewRowCount").asInt());
+
+        JsonNode done = mapper.readTree(lines[index + 1]);
+        assertEquals("done", done.get("type").asText());
+        assertEquals(1, done.get("resultSetCount").asInt());
+        assertEquals(index + 2, lines.length);
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Test
+    void streamQueryRethrowsValidationErrorBeforeWritingFrames() {
+        SqlQueryRequest request = queryRequest();
+        request.setDatabase("");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(RuntimeException.class, () -> service.streamQuery(request, out));
+        assertEquals(0, out.size());
+    }
+
+    private SqlQueryRequest queryRequest() {
+        SqlQueryRequest request = new SqlQueryRequest();
+        request.setClusterId(1L);
+        request.setDatabase("db1");
+        request.setSql("SELECT id, name FROM t_user");
+        request.setLimit(1000);
+        return request;
+    }
+
+    private Statement mockResultSet(int rowCount) throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(dorisConnectionService.getConnection(1L, "db1")).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.execute(anyString())).thenReturn(true);
+        when(statement.getResultSet()).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("name");
+        when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(metaData.isSigned(1)).thenReturn(true);
+        when(metaData.getColumnType(2)).thenReturn(Types.VARCHAR);
+
+        int[] cursor = {-1};
+        when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rowCount);
+        when(resultSet.getObject(1)).thenAnswer(invocation -> cursor[0]);
+        when(resultSet.getObject(2)).thenAnswer(invocation -> "row-" + cursor[0]);
+        when(resultSet.getLong(1)).thenAnswer(invocation -> (long) cursor[0]);
+        when(resultSet.getString(2)).thenAnswer(invocation -> "row-" + cursor[0]);
+        return statement;
+    }
 }
@@ -16,12 +16,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,7 +74,7 @@ class DolphinExportDefinitionParserTest {
         schedule.put("timezoneId", "Asia/Shanghai");
         schedule.put("releaseState", "ONLINE");
 
-        when(openApiClient.exportDefinitionByCode(1L, 1001L)).thenReturn(exported);
+        stubExport(1001L, exported);
 
         RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1001L);
 
@@ -108,7 +112,7 @@ class DolphinExportDefinitionParserTest {
         relation.put("preTaskCode", 2101L);
         relation.put("postTaskCode", 2102L);
 
-        when(openApiClient.exportDefinitionByCode(1L, 1002L)).thenReturn(exported);
+        stubExport(1002L, exported);
 
         RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1002L);
 
@@ -143,7 +147,7 @@ class DolphinExportDefinitionParserTest {
         option.setId(71);
         option.setName("tg_alpha");
 
-        when(openApiClient.exportDefinitionByCode(1L, 1007L)).thenReturn(exported);
+        stubExport(1007L, exported);
         when(dolphinSchedulerService.listTaskGroups(null)).thenReturn(Collections.singletonList(option));
 
         RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1007L);
@@ -161,7 +165,7 @@ class DolphinExportDefinitionParserTest {
         workflowDefinition.put("taskDefinitionJson",
                 "[{\"code\":2301,\"name\":\"task_from_inline\",\"taskType\":\"SQL\",\"taskParams\":\"{\\\"sql\\\":\\\"select 2\\\",\\\"datasource\\\":12,\\\"type\\\":\\\"MYSQL\\\"}\"}]");
 
-        when(openApiClient.exportDefinitionByCode(1L, 1003L)).thenReturn(exported);
+        stubExport(1003L, exported);
 
         RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1003L);
 
@@ -171,7 +175,7 @@ class DolphinExportDefinitionParserTest {
 
     @Test
     void shouldThrowWhenExportPayloadIsEmpty() {
-        when(openApiClient.exportDefinitionByCode(1L, 1004L)).thenReturn(null);
+        stubExport(1004L, null);
 
         IllegalStateException ex = assertThrows(IllegalStateException.class,
                 () -> service.loadRuntimeDefinitionFromExport(1L, 1004L));
@@ -203,7 +207,7 @@ class DolphinExportDefinitionParserTest {
         fromIdTask.put("taskGroupId", 2202);
         fromIdTask.put("taskParams", "{\"sql\":\"select 2\",\"datasource\":1102}");
 
-        when(openApiClient.exportDefinitionByCode(1L, 1010L)).thenReturn(exported);
+        stubExport(1010L, exported);
         when(dolphinSchedulerService.listDatasources(null, null)).thenReturn(java.util.Arrays.asList(
                 datasourceOption(1101L, "ds_alpha", "MYSQL"),
                 datasourceOption(1102L, "ds_beta", "DORIS")));
@@ -285,7 +289,7 @@ class DolphinExportDefinitionParserTest {
         entryRelation.put("preTaskCode", 0L);
         entryRelation.put("postTaskCode", 3201L);
 
-        when(openApiClient.exportDefinitionByCode(1L, 1006L)).thenReturn(exported);
+        stubExport(1006L, exported);
 
         RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1006L);
 
@@ -295,6 +299,86 @@ class DolphinExportDefinitionParserTest {
         assertEquals(3201L, edge.getDownstreamTaskCode());
     }
 
+    @Test
+    void shouldStreamArrayWrappedExportWithoutChangingResult() throws Exception {
+        ObjectNode exported = objectMapper.createObjectNode();
+        exported.put("exportVersion", "3.2");
+        ObjectNode processDefinition = exported.putObject("processDefinition");
+        processDefinition.put("code", 1011L);
+        processDefinition.put("name", "wf_streamed");
+        ArrayNode taskDefinitions = exported.putArray("taskDefinitionList");
+        ArrayNode relations = exported.putArray("processTaskRelationList");
+        for (int i = 0; i < 500; i++) {
+            ObjectNode task = taskDefinitions.addObject();
+            task.put("code", 5000L + i);
+            task.put("name", "task_" + i);
+            task.put("taskType", "SQL");
+            task.putObject("taskParams").put("sql", "select " + i).put("datasource", 10);
+            ObjectNode relation = relations.addObject();
+            relation.put("preTaskCode", i == 0 ? 0L : 5000L + i - 1);
+            relation.put("postTaskCode", 5000L + i);
+        }
+        exported.putObject("schedule").put("id", 88L).put("crontab", "0 0 2 * * ?");
+        ArrayNode payload = objectMapper.createArrayNode().add(exported);
+        stubExport(1011L, payload);
+
+        RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1011L);
+
+        assertEquals(1011L, definition.getWorkflowCode());
+        assertEquals("wf_streamed", definition.getWorkflowName());
+        assertEquals(500, definition.getTasks().size());
+        assertEquals("select 499", definition.getTasks().get(499).getSql());
+        assertEquals(10L, definition.getTasks().get(0).getDatasourceId());
+        assertEquals(500, definition.getExplicitEdges().size());
+        assertEquals(88L, definition.getSchedule().getScheduleId());
+        assertEquals(objectMapper.writeValueAsString(exported), definition.getRawDefinitionJson());
+    }
+
+    @Test
+    void shouldUnwrapEnvelopeDataAndRejectEnvelopeError() {
+        ObjectNode exported = objectMapper.createObjectNode();
+        exported.putObject("workflowDefinition").put("code", 1012L).put("name", "wf_envelope");
+        exported.putArray("taskDefinitionList").addObject().put("code", 6001L).put("name", "task_env");
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("code", 0);
+        envelope.putArray("data").add(exported);
+        stubExport(1012L, envelope);
+
+        RuntimeWorkflowDefinition definition = service.loadRuntimeDefinitionFromExport(1L, 1012L);
+        assertEquals("wf_envelope", definition.getWorkflowName());
+        assertEquals("task_env", definition.getTasks().get(0).getTaskName());
+
+        ObjectNode failed = objectMapper.createObjectNode();
+        failed.put("code", 50014);
+        failed.put("msg", "export failed");
+        failed.putNull("data");
+        stubExport(1013L, failed);
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> service.loadRuntimeDefinitionFromExport(1L, 1013L));
+        assertTrue(ex.getMessage().contains("50014"), ex.getMessage());
+    }
+
+    /**
+     * 模拟客户端下载：导出内容写入临时文件后交给读取回调
+     */
+    private void stubExport(long workflowCode, JsonNode exported) {
+        when(openApiClient.exportDefinitionByCode(eq(1L), eq(workflowCode), any()))
+                .thenAnswer(invocation -> {
+                    if (exported == null) {
+                        return null;
+                    }
+                    Path payload = Files.createTempFile("dolphin-export-test-", ".json");
+                    try {
+                        Files.write(payload, objectMapper.writeValueAsBytes(exported));
+                        DolphinOpenApiClient.ExportPayloadReader<?> reader = invocation.getArgument(2);
+                        return reader.read(payload);
+                    } finally {
+                        Files.deleteIfExists(payload);
+                    }
+                });
+    }
+
     private DolphinDatasourceOption datasourceOption(Long id, String name, String type) {
         DolphinDatasourceOption option = new DolphinDatasourceOption();
         option.setId(id);
@@ -1,23 +1,42 @@
 package com.onedata.portal.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.dto.DolphinDatasourceOption;
 import com.onedata.portal.dto.DolphinTaskGroupOption;
+import com.onedata.portal.dto.dolphin.DolphinDatasource;
 import com.onedata.portal.dto.dolphin.DolphinPageData;
+import com.onedata.portal.dto.dolphin.DolphinProcessInstance;
 import com.onedata.portal.dto.dolphin.DolphinProject;
 import com.onedata.portal.dto.dolphin.DolphinTaskGroup;
+import com.onedata.portal.dto.workflow.WorkflowInstanceSummary;
 import com.onedata.portal.entity.DolphinConfig;
 import com.onedata.portal.service.dolphin.DolphinOpenApiClient;
+import com.onedata.portal.util.TokenBucket;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,11 +59,11 @@ class DolphinSchedulerServiceTest {
 
         DolphinConfig config = new DolphinConfig();
         config.setProjectName("it_project");
-        when(dolphinConfigService.getActiveConfig()).thenReturn(config);
+        lenient().when(dolphinConfigService.getActiveConfig()).thenReturn(config);
 
         DolphinProject project = new DolphinProject();
         project.setCode(100L);
-        when(openApiClient.getProject("it_project")).thenReturn(project);
+        lenient().when(openApiClient.getProject("it_project")).thenReturn(project);
     }
 
     @Test
@@ -67,6 +86,90 @@ class DolphinSchedulerServiceTest {
                 "其他项目任务组应被过滤");
     }
 
+    @Test
+    void listProjectInstancesSinceGroupsByWorkflowAndStopsAtOlderInstances() {
+        Long projectCode = service.getProjectCode();
+        LocalDateTime since = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime until = LocalDateTime.of(2026, 10, 1, 2, 0);
+        DolphinPageData<DolphinProcessInstance> first = page(2,
+                instance(13L, 1001L, "2026-10-01 01:30:00"),
+                instance(12L, 1002L, "2026-10-01 01:00:00"));
+        DolphinPageData<DolphinProcessInstance> second = page(2,
+                instance(11L, 1001L, "2026-10-01 00:10:00"),
+                instance(10L, 1001L, "2026-09-30 23:50:00"));
+        when(openApiClient.listProcessInstancesAsync(eq(100L), eq(1), eq(2), isNull(),
+                eq("2026-10-01 00:00:00"), eq("2026-10-01 02:00:00"))).thenReturn(Mono.just(first));
+        when(openApiClient.listProcessInstancesAsync(eq(100L), eq(2), eq(2), isNull(),
+                eq("2026-10-01 00:00:00"), eq("2026-10-01 02:00:00"))).thenReturn(Mono.just(second));
+
+        DolphinSchedulerService.ProjectInstanceListing listing = service.listProjectInstancesSince(projectCode, since,
+                until, 2, 10, new TokenBucket(1000, 10));
+        Map<Long, List<WorkflowInstanceSummary>> grouped = listing.getInstances();
+
+        assertEquals(Arrays.asList(1001L, 1002L), Arrays.asList(grouped.keySet().toArray()));
+        assertEquals(2, grouped.get(1001L).size());
+        assertEquals(Long.valueOf(13L), grouped.get(1001L).get(0).getInstanceId());
+        assertEquals(Long.valueOf(11L), grouped.get(1001L).get(1).getInstanceId());
+        verify(openApiClient, never()).listProcessInstancesAsync(anyLong(), eq(3), anyInt(), isNull(), anyString(),
+                anyString());
+        assertTrue(listing.isComplete());
+    }
+
+    @Test
+    void listProjectInstancesSinceResolvesMissingCodesAndFlagsTruncation() {
+        Long projectCode = service.getProjectCode();
+        LocalDateTime since = LocalDateTime.of(2026, 10, 1, 0, 0);
+        DolphinPageData<DolphinProcessInstance> first = page(5,
+                instance(13L, null, "2026-10-01 01:30:00"),
+                instance(12L, 1002L, "2026-10-01 01:00:00"));
+        when(openApiClient.listProcessInstancesAsync(eq(100L), eq(1), eq(2), isNull(), anyString(), isNull()))
+                .thenReturn(Mono.just(first));
+        when(openApiClient.getProcessInstanceAsync(100L, 13L)).thenReturn(Mono.just(instance(13L, 1001L, null)));
+
+        DolphinSchedulerService.ProjectInstanceListing listing = service.listProjectInstancesSince(projectCode, since,
+                null, 2, 1, new TokenBucket(1000, 10));
+
+        assertEquals(Long.valueOf(13L), listing.getInstances().get(1001L).get(0).getInstanceId());
+        assertEquals(Long.valueOf(12L), listing.getInstances().get(1002L).get(0).getInstanceId());
+        assertTrue(listing.isTruncated());
+        assertFalse(listing.isComplete());
+        assertEquals(1, listing.getPages());
+        assertEquals(LocalDateTime.of(2026, 10, 1, 1, 0), listing.getOldestStartTime());
+    }
+
+    @Test
+    void listDatasourcesRefreshesCatalogOnMissAtMostOncePerInterval() {
+        DolphinDatasource existing = new DolphinDatasource();
+        existing.setId(1L);
+        existing.setName("doris_ods");
+        existing.setType("MYSQL");
+        when(openApiClient.listDatasources(1, 100)).thenReturn(Arrays.asList(existing));
+
+        assertTrue(service.listDatasources(null, "missing_a").isEmpty());
+        assertTrue(service.listDatasources(null, "missing_b").isEmpty());
+        List<DolphinDatasourceOption> hit = service.listDatasources(null, "ods");
+
+        assertEquals(1, hit.size());
+        verify(openApiClient, times(1)).invalidateReferenceData(DolphinOpenApiClient.REF_DATASOURCES);
+        verify(openApiClient, times(4)).listDatasources(1, 100);
+    }
+
+    private DolphinPageData<DolphinProcessInstance> page(int totalPage, DolphinProcessInstance... instances) {
+        DolphinPageData<DolphinProcessInstance> page = new DolphinPageData<>();
+        page.setTotalList(Arrays.asList(instances));
+        page.setTotalPage(totalPage);
+        return page;
+    }
+
+    private DolphinProcessInstance instance(Long id, Long workflowCode, String startTime) {
+        DolphinProcessInstance instance = new DolphinProcessInstance();
+        instance.setId(id);
+        instance.setProcessDefinitionCode(workflowCode);
+        instance.setState("SUCCESS");
+        instance.setStartTime(startTime);
+        return instance;
+    }
+
     private DolphinTaskGroup taskGroup(int id, String name, Long projectCode) {
         DolphinTaskGroup group = new DolphinTaskGroup();
         group.setId(id);
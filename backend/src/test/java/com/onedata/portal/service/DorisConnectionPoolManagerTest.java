@@ -0,0 +1,231 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.DorisJdbcProperties;
+import com.onedata.portal.dto.DorisConnectionPoolMetrics;
+import com.onedata.portal.entity.DorisCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DorisConnectionPoolManagerTest {
+
+    private DorisJdbcProperties properties;
+    private DorisConnectionPoolManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DorisJdbcProperties();
+        properties.getPool().setConnectionTimeoutMs(250L);
+        manager = new DorisConnectionPoolManager(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void shouldReusePoolForSameClusterSettingsAndRebuildWhenCredentialChanges() {
+        DorisCluster cluster = unreachableCluster("secret");
+
+        assertThrows(SQLException.class, () -> manager.getConnection(cluster, "root", "secret", "db_a"));
+        assertThrows(SQLException.class, () -> manager.getConnection(cluster, "root", "secret", "db_b"));
+        List<DorisConnectionPoolMetrics> first = manager.getMetrics(1L);
+        assertEquals(1, first.size());
+        assertEquals("doris-1-root", first.get(0).getPoolName());
+        assertEquals(2L, first.get(0).getTimeoutCount());
+
+        List<DorisConnectionPoolMetrics> same = manager.getMetrics(1L);
+        assertSame(first.get(0).getCreatedAt(), same.get(0).getCreatedAt());
+
+        cluster.setPassword("rotated");
+        assertThrows(SQLException.class, () -> manager.getConnection(cluster, "root", "rotated", null));
+        List<DorisConnectionPoolMetrics> rebuilt = manager.getMetrics(1L);
+        assertEquals(1, rebuilt.size());
+        assertNotSame(first.get(0).getCreatedAt(), rebuilt.get(0).getCreatedAt());
+    }
+
+    @Test
+    void shouldKeepSeparatePoolsPerCredentialAndDropThemOnInvalidate() {
+        DorisCluster cluster = unreachableCluster("secret");
+
+        assertThrows(SQLException.class, () -> manager.getConnection(cluster, "root", "secret", null));
+        assertThrows(SQLException.class, () -> manager.getConnection(cluster, "readonly", "ro", "db_a"));
+        assertEquals(2, manager.getMetrics(1L).size());
+
+        manager.invalidate(1L);
+        assertTrue(manager.getMetrics(1L).isEmpty());
+    }
+
+    @Test
+    void sessionStateChangedInOneBorrowShouldNotLeakIntoTheNext() throws Exception {
+        FakeDriver driver = new FakeDriver();
+        DriverManager.registerDriver(driver);
+        try {
+            properties.setUrlTemplate("jdbc:fake-doris://%s:%s/%s");
+            properties.getPool().setMaximumPoolSize(1);
+            properties.getPool().setMinimumIdle(0);
+            DorisCluster cluster = unreachableCluster("secret");
+
+            try (Connection connection = manager.getConnection(cluster, "root", "secret", "db_a");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SET query_timeout = 1");
+                assertEquals("1", session(connection).variables.get("query_timeout"));
+            }
+            FakeSession second;
+            try (Connection connection = manager.getConnection(cluster, "root", "secret", "db_a")) {
+                second = session(connection);
+                assertNull(second.variables.get("query_timeout"), "SET 过的连接不应再借给下一个调用方");
+            }
+            try (Connection connection = manager.getConnection(cluster, "root", "secret", "db_a")) {
+                assertSame(second, session(connection), "未修改会话的连接应继续复用");
+            }
+            assertEquals(2, driver.connects.get());
+        } finally {
+            manager.shutdown();
+            DriverManager.deregisterDriver(driver);
+        }
+    }
+
+    private static FakeSession session(Connection connection) throws SQLException {
+        return connection.unwrap(FakeSession.class);
+    }
+
+    /**
+     * 内存 JDBC 驱动：每个物理连接记录自己的会话变量
+     */
+    private static class FakeDriver implements Driver {
+        private final AtomicInteger connects = new AtomicInteger();
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            connects.incrementAndGet();
+            FakeSession session = new FakeSession();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> session.handle(method, args));
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith("jdbc:fake-doris:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+
+    private static class FakeSession {
+        private final Map<String, String> variables = new HashMap<>();
+        private boolean autoCommit = true;
+        private boolean closed;
+
+        private Object handle(Method method, Object[] args) {
+            switch (method.getName()) {
+                case "createStatement":
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Statement.class},
+                            (proxy, statementMethod, statementArgs) -> {
+                                if (statementMethod.getName().startsWith("execute")) {
+                                    execute((String) statementArgs[0]);
+                                    return statementMethod.getReturnType() == boolean.class ? false : null;
+                                }
+                                return defaultValue(statementMethod.getReturnType());
+                            });
+                case "unwrap":
+                    return this;
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(this);
+                case "isValid":
+                    return !closed;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "getTransactionIsolation":
+                    return Connection.TRANSACTION_READ_COMMITTED;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+        private void execute(String sql) {
+            String[] parts = sql.trim().split("\\s+", 2);
+            if ("SET".equalsIgnoreCase(parts[0]) && parts.length > 1) {
+                String[] assignment = parts[1].split("=", 2);
+                variables.put(assignment[0].trim(), assignment.length > 1 ? assignment[1].trim() : "");
+            }
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class || type == long.class) {
+                return type == int.class ? (Object) 0 : (Object) 0L;
+            }
+            return null;
+        }
+    }
+
+    private DorisCluster unreachableCluster(String password) {
+        DorisCluster cluster = new DorisCluster();
+        cluster.setId(1L);
+        cluster.setFeHost("127.0.0.1");
+        cluster.setFePort(1);
+        cluster.setUsername("root");
+        cluster.setPassword(password);
+        return cluster;
+    }
+}
@@ -1,7 +1,12 @@
 package com.onedata.portal.service;
 
+import com.onedata.portal.config.MetadataSyncProperties;
+import com.onedata.portal.context.UserContext;
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.entity.DataField;
 import com.onedata.portal.entity.DataTable;
 import com.onedata.portal.entity.DorisCluster;
+import com.onedata.portal.entity.TableStatisticsHistory;
 import com.onedata.portal.mapper.DataFieldMapper;
 import com.onedata.portal.mapper.DataTableMapper;
 import com.onedata.portal.mapper.DorisClusterMapper;
@@ -12,16 +17,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +67,15 @@ class DorisMetadataSyncServiceTest {
     @Mock
     private TableStatisticsHistoryMapper tableStatisticsHistoryMapper;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TableReferenceMatcherService tableReferenceMatcherService;
+
+    @Spy
+    private MetadataSyncProperties metadataSyncProperties = new MetadataSyncProperties();
+
     @InjectMocks
     private DorisMetadataSyncService service;
 
@@ -55,7 +88,7 @@ class DorisMetadataSyncServiceTest {
         when(dorisClusterMapper.selectById(1L)).thenReturn(cluster);
         when(dorisConnectionService.getTableCreateInfo(anyLong(), anyString(), anyString()))
                 .thenReturn(Collections.emptyMap());
-        when(dorisConnectionService.getColumnsInTable(anyLong(), anyString(), anyString()))
+        lenient().when(dorisConnectionService.getColumnsInTable(anyLong(), anyString(), anyString()))
                 .thenReturn(Collections.emptyList());
     }
 
@@ -65,16 +98,17 @@ class DorisMetadataSyncServiceTest {
         dorisTable.put("tableName", "dwd_order_detail");
         dorisTable.put("tableComment", "order detail");
 
-        when(dorisConnectionService.getTablesInDatabase(1L, "dw"))
+        when(dorisConnectionService.getTableFingerprints(1L, "dw"))
                 .thenReturn(Collections.singletonList(dorisTable));
         when(dataTableMapper.selectList(any()))
                 .thenReturn(Collections.emptyList());
 
         service.syncDatabase(1L, "dw", null);
 
-        ArgumentCaptor<DataTable> captor = ArgumentCaptor.forClass(DataTable.class);
-        verify(dataTableMapper).insert(captor.capture());
-        assertEquals("DWD", captor.getValue().getLayer());
+        ArgumentCaptor<List<DataTable>> captor = tableListCaptor();
+        verify(dataTableMapper).insertBatch(captor.capture());
+        assertEquals("DWD", captor.getValue().get(0).getLayer());
+        verify(tableReferenceMatcherService).invalidate(1L);
     }
 
     @Test
@@ -91,7 +125,7 @@ class DorisMetadataSyncServiceTest {
         dorisTable.put("tableName", "ads_sales_summary");
         dorisTable.put("tableComment", "sales summary");
 
-        when(dorisConnectionService.getTablesInDatabase(1L, "dw"))
+        when(dorisConnectionService.getTableFingerprints(1L, "dw"))
                 .thenReturn(Collections.singletonList(dorisTable));
         when(dataTableMapper.selectList(any()))
                 .thenReturn(Collections.singletonList(existing));
@@ -99,8 +133,296 @@ class DorisMetadataSyncServiceTest {
 
         service.syncDatabase(1L, "dw", null);
 
-        ArgumentCaptor<DataTable> captor = ArgumentCaptor.forClass(DataTable.class);
-        verify(dataTableMapper).updateById(captor.capture());
-        assertEquals("ADS", captor.getValue().getLayer());
+        ArgumentCaptor<List<DataTable>> captor = tableListCaptor();
+        verify(dataTableMapper).upsertSyncedBatch(captor.capture());
+        assertEquals("ADS", captor.getValue().get(0).getLayer());
+        verify(tableReferenceMatcherService, never()).invalidate(any());
+    }
+
+    @Test
+    void syncAllMetadataRunsDatabasesInParallelWithinWorkerLimit() {
+        metadataSyncProperties.setWorkerThreads(2);
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(dorisConnectionService.getAllDatabases(1L))
+                .thenReturn(Arrays.asList("db1", "db2", "sys", "bad", "db3"));
+        when(dataTableMapper.selectList(any())).thenReturn(Collections.emptyList());
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(dorisConnectionService.getTableFingerprints(eq(1L), anyString())).thenAnswer(invocation -> {
+            String database = invocation.getArgument(1);
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                if ("bad".equals(database)) {
+                    throw new RuntimeException("connection reset");
+                }
+                Map<String, Object> dorisTable = new HashMap<>();
+                dorisTable.put("tableName", "ods_" + database);
+                return Collections.singletonList(dorisTable);
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        List<Integer> progress = new ArrayList<>();
+        DorisMetadataSyncService.SyncResult result = service.syncAllMetadata(1L,
+                (completed, total, current) -> {
+                    assertEquals(4, total);
+                    progress.add(completed);
+                });
+
+        assertEquals(3, result.getNewTables());
+        assertEquals(Collections.singletonList("同步数据库 bad 失败: connection reset"), result.getErrors());
+        assertEquals("PARTIAL", result.getStatus());
+        assertEquals(3, result.getChangeDetails().getAdded().size());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), progress);
+        assertTrue(maxActive.get() <= 2);
+        verify(dataTableMapper, times(3)).insertBatch(any());
+    }
+
+    @Test
+    void parallelSyncRunsAsCallerAndPicksUpWorkerLimitChanges() {
+        metadataSyncProperties.setWorkerThreads(1);
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(dorisConnectionService.getAllDatabases(1L)).thenReturn(Arrays.asList("db1", "db2", "db3"));
+        when(dataTableMapper.selectList(any())).thenReturn(Collections.emptyList());
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Set<String> users = ConcurrentHashMap.newKeySet();
+        when(dorisConnectionService.getTableFingerprints(eq(1L), anyString())).thenAnswer(invocation -> {
+            users.add(String.valueOf(UserContextHolder.getCurrentUserId()));
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+                Map<String, Object> dorisTable = new HashMap<>();
+                dorisTable.put("tableName", "ods_" + invocation.getArgument(1));
+                return Collections.singletonList(dorisTable);
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        UserContextHolder.setContext(new UserContext("u1", "u1", null));
+        try {
+            service.syncAllMetadata(1L, null);
+            assertEquals(1, maxActive.get());
+
+            metadataSyncProperties.setWorkerThreads(3);
+            maxActive.set(0);
+            service.syncAllMetadata(1L, null);
+        } finally {
+            UserContextHolder.clear();
+        }
+
+        assertTrue(maxActive.get() > 1, "调大并发数后应按新的许可数并行同步");
+        assertEquals(Collections.singleton("u1"), users);
+    }
+
+    @Test
+    void syncDatabaseUsesBulkColumnsAndFallsBackForMissingTables() {
+        Map<String, Object> orders = new HashMap<>();
+        orders.put("tableName", "ods_orders");
+        Map<String, Object> users = new HashMap<>();
+        users.put("tableName", "ods_users");
+        when(dorisConnectionService.getTableFingerprints(1L, "dw")).thenReturn(Arrays.asList(orders, users));
+        when(dataTableMapper.selectList(any())).thenReturn(Collections.emptyList());
+
+        Map<String, List<Map<String, Object>>> bulkColumns = new HashMap<>();
+        bulkColumns.put("ods_orders", Arrays.asList(column("id", 1), column("amount", 2)));
+        when(dorisConnectionService.getColumnsInDatabase(1L, "dw")).thenReturn(bulkColumns);
+        assignGeneratedIds();
+
+        DorisMetadataSyncService.SyncResult result = service.syncDatabase(1L, "dw", null);
+
+        assertEquals(2, result.getNewTables());
+        assertEquals(2, result.getNewFields());
+        verify(dorisConnectionService, times(1)).getColumnsInDatabase(1L, "dw");
+        verify(dorisConnectionService, never()).getColumnsInTable(1L, "dw", "ods_orders");
+        verify(dorisConnectionService).getColumnsInTable(1L, "dw", "ods_users");
+        ArgumentCaptor<List<DataField>> captor = fieldListCaptor();
+        verify(dataFieldMapper, times(1)).upsertBatch(captor.capture());
+        List<DataField> fields = captor.getValue();
+        assertEquals(Arrays.asList("id", "amount"),
+                Arrays.asList(fields.get(0).getFieldName(), fields.get(1).getFieldName()));
+        assertEquals(Long.valueOf(100L), fields.get(0).getTableId());
+    }
+
+    @Test
+    void failedAutoFlushFailsTheWholeDatabaseSync() {
+        Map<String, Object> wideTable = new HashMap<>();
+        wideTable.put("tableName", "ods_wide");
+        Map<String, Object> nextTable = new HashMap<>();
+        nextTable.put("tableName", "ods_next");
+        when(dorisConnectionService.getTableFingerprints(1L, "dw")).thenReturn(Arrays.asList(wideTable, nextTable));
+        when(dataTableMapper.selectList(any())).thenReturn(Collections.emptyList());
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (int i = 1; i < MetadataWriteBatch.AUTO_FLUSH_ROWS; i++) {
+            columns.add(column("c" + i, i));
+        }
+        when(dorisConnectionService.getColumnsInDatabase(1L, "dw"))
+                .thenReturn(Collections.singletonMap("ods_wide", columns));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("Packet too large");
+        }).when(dataTableMapper).insertBatch(any());
+
+        MetadataWriteBatch.FlushException error = assertThrows(MetadataWriteBatch.FlushException.class,
+                () -> service.syncDatabase(1L, "dw", null));
+
+        assertEquals("批量写入元数据失败: Packet too large", error.getMessage());
+        verify(dataTableMapper, times(1)).insertBatch(any());
+        verify(tableReferenceMatcherService, never()).invalidate(anyLong());
+    }
+
+    @Test
+    void syncDatabaseBatchesFieldChangesAndStatisticsOfExistingTable() {
+        DataTable existing = new DataTable();
+        existing.setId(10L);
+        existing.setClusterId(1L);
+        existing.setDbName("dw");
+        existing.setTableName("ods_orders");
+        existing.setLayer("ODS");
+        existing.setStatus("active");
+        existing.setIsSynced(1);
+        existing.setRowCount(5L);
+
+        Map<String, Object> dorisTable = new HashMap<>();
+        dorisTable.put("tableName", "ods_orders");
+        dorisTable.put("tableRows", 8L);
+        when(dorisConnectionService.getTableFingerprints(1L, "dw")).thenReturn(Collections.singletonList(dorisTable));
+        when(dataTableMapper.selectList(any())).thenReturn(Collections.singletonList(existing));
+        when(dorisConnectionService.getColumnsInDatabase(1L, "dw"))
+                .thenReturn(Collections.singletonMap("ods_orders", Arrays.asList(column("id", 1), column("amount", 2))));
+
+        DataField id = field(1L, "id", "bigint", 1);
+        DataField amount = field(2L, "amount", "int", 2);
+        DataField dropped = field(3L, "legacy", "varchar(10)", 3);
+        when(dataFieldMapper.selectList(any())).thenReturn(Arrays.asList(id, amount, dropped));
+
+        DorisMetadataSyncService.SyncResult result = service.syncDatabase(1L, "dw", null);
+
+        assertEquals(1, result.getUpdatedTables());
+        assertEquals(1, result.getUpdatedFields());
+        assertEquals(1, result.getDeletedFields());
+        ArgumentCaptor<List<DataField>> fieldCaptor = fieldListCaptor();
+        verify(dataFieldMapper).upsertBatch(fieldCaptor.capture());
+        assertEquals(1, fieldCaptor.getValue().size());
+        assertEquals("bigint", fieldCaptor.getValue().get(0).getFieldType());
+        assertEquals(Long.valueOf(10L), fieldCaptor.getValue().get(0).getTableId());
+        verify(dataFieldMapper).deleteBatchIds(Collections.singletonList(3L));
+        ArgumentCaptor<List<TableStatisticsHistory>> statsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(tableStatisticsHistoryMapper).insertBatch(statsCaptor.capture());
+        assertEquals(Long.valueOf(8L), statsCaptor.getValue().get(0).getRowCount());
+        assertEquals(Long.valueOf(10L), statsCaptor.getValue().get(0).getTableId());
+        verify(dataTableMapper, never()).updateById(any(DataTable.class));
+        verify(dataFieldMapper, never()).insert(any(DataField.class));
+    }
+
+    @Test
+    void incrementalSyncSkipsTablesWithUnchangedFingerprint() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(dorisConnectionService.getAllDatabases(1L)).thenReturn(Collections.singletonList("dw"));
+        DataTable orders = localTable(10L, "ods_orders");
+        DataTable users = localTable(11L, "ods_users");
+        when(dataTableMapper.selectList(any())).thenReturn(Arrays.asList(orders, users));
+        Map<String, Object> ordersFingerprint = fingerprint("ods_orders", 5L);
+        Map<String, Object> usersFingerprint = fingerprint("ods_users", 7L);
+        when(dorisConnectionService.getTableFingerprints(1L, "dw"))
+                .thenReturn(Arrays.asList(ordersFingerprint, usersFingerprint));
+        Map<String, List<Map<String, Object>>> columns = new HashMap<>();
+        columns.put("ods_orders", Collections.singletonList(column("id", 1)));
+        columns.put("ods_users", Collections.singletonList(column("id", 1)));
+        when(dorisConnectionService.getColumnsInDatabase(1L, "dw")).thenReturn(columns);
+
+        service.syncAllMetadata(1L, false, null);
+        assertEquals(DorisMetadataSyncService.buildFingerprint(ordersFingerprint), orders.getSyncFingerprint());
+
+        usersFingerprint.put("tableRows", 9L);
+        clearInvocations(dorisConnectionService, dataTableMapper);
+        DorisMetadataSyncService.SyncResult result = service.syncAllMetadata(1L, true, null);
+
+        assertEquals(1, result.getUnchangedTables());
+        verify(dorisConnectionService).getTableCreateInfo(1L, "dw", "ods_users");
+        verify(dorisConnectionService, never()).getTableCreateInfo(1L, "dw", "ods_orders");
+        ArgumentCaptor<List<DataTable>> captor = tableListCaptor();
+        verify(dataTableMapper).upsertSyncedBatch(captor.capture());
+        assertEquals(Collections.singletonList(users), captor.getValue());
+        assertEquals(Long.valueOf(9L), users.getRowCount());
+        verify(dataTableMapper).touchSyncTime(eq(Collections.singletonList(10L)), any());
+    }
+
+    private static DataTable localTable(Long id, String tableName) {
+        DataTable table = new DataTable();
+        table.setId(id);
+        table.setClusterId(1L);
+        table.setDbName("dw");
+        table.setTableName(tableName);
+        table.setLayer("ODS");
+        table.setStatus("active");
+        table.setIsSynced(1);
+        return table;
+    }
+
+    private static Map<String, Object> fingerprint(String tableName, Long rows) {
+        Map<String, Object> table = new HashMap<>();
+        table.put("tableName", tableName);
+        table.put("tableRows", rows);
+        table.put("columnCount", 1L);
+        table.put("schemaHash", 42L);
+        return table;
+    }
+
+    private void assignGeneratedIds() {
+        long[] nextId = {100L};
+        doAnswer(invocation -> {
+            List<DataTable> tables = invocation.getArgument(0);
+            tables.forEach(table -> table.setId(nextId[0]++));
+            return tables.size();
+        }).when(dataTableMapper).insertBatch(any());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<DataTable>> tableListCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<DataField>> fieldListCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static DataField field(Long id, String name, String type, int order) {
+        DataField field = new DataField();
+        field.setId(id);
+        field.setTableId(10L);
+        field.setFieldName(name);
+        field.setFieldType(type);
+        field.setIsNullable(1);
+        field.setIsPrimary(0);
+        field.setFieldOrder(order);
+        return field;
+    }
+
+    private static Map<String, Object> column(String name, int position) {
+        Map<String, Object> column = new HashMap<>();
+        column.put("columnName", name);
+        column.put("dataType", "bigint");
+        column.put("isNullable", 1);
+        column.put("isPrimary", 0);
+        column.put("ordinalPosition", position);
+        return column;
     }
 }
@@ -0,0 +1,295 @@
+package com.onedata.portal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.InspectionProperties;
+import com.onedata.portal.context.UserContext;
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.LineageDegree;
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.entity.DorisCluster;
+import com.onedata.portal.entity.InspectionIssue;
+import com.onedata.portal.entity.InspectionRecord;
+import com.onedata.portal.entity.InspectionRule;
+import com.onedata.portal.entity.TableStatisticsHistory;
+import com.onedata.portal.mapper.DataLineageMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.mapper.InspectionIssueMapper;
+import com.onedata.portal.mapper.InspectionRecordMapper;
+import com.onedata.portal.mapper.InspectionRuleMapper;
+import com.onedata.portal.mapper.TableStatisticsHistoryMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InspectionServiceTest {
+
+    private static final long GB = 1024L * 1024 * 1024;
+
+    @Mock
+    private InspectionRecordMapper inspectionRecordMapper;
+
+    @Mock
+    private InspectionIssueMapper inspectionIssueMapper;
+
+    @Mock
+    private InspectionRuleMapper inspectionRuleMapper;
+
+    @Mock
+    private DataTableMapper dataTableMapper;
+
+    @Mock
+    private DataLineageMapper dataLineageMapper;
+
+    @Mock
+    private TableStatisticsHistoryMapper tableStatisticsHistoryMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private DorisClusterService dorisClusterService;
+
+    @Mock
+    private DorisConnectionService dorisConnectionService;
+
+    @Spy
+    private InspectionProperties inspectionProperties = new InspectionProperties();
+
+    @InjectMocks
+    private InspectionService service;
+
+    @Test
+    void runFullInspectionSharesTabletSnapshotAcrossRulesAndBatchesIssues() {
+        inspectionProperties.setIssueBatchSize(2);
+        mockRecordInsert();
+        when(inspectionRuleMapper.selectList(any())).thenReturn(Arrays.asList(
+                rule("tablet_count", "{\"maxTablets\": 200, \"warningTablets\": 100}"),
+                rule("tablet_size", "{}"),
+                rule("table_comment", "{}")));
+        when(dorisClusterService.listAll()).thenReturn(Collections.singletonList(dorisCluster()));
+        when(dataTableMapper.selectList(any())).thenReturn(Arrays.asList(table(1L, "ods_big"), table(2L, "ods_small")));
+        Map<String, DorisConnectionService.TableTabletStats> stats = new HashMap<>();
+        stats.put("ods_big", tabletStats(300, 300 * 20 * GB));
+        stats.put("ods_small", tabletStats(10, GB));
+        when(dorisConnectionService.getDatabaseTabletStats(eq(1L), eq("dw"), any())).thenReturn(stats);
+
+        InspectionRecord record = service.runFullInspection("manual", "tester");
+
+        assertEquals("completed", record.getStatus());
+        assertEquals(Integer.valueOf(4), record.getIssueCount());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> tableNames = ArgumentCaptor.forClass(Collection.class);
+        verify(dorisConnectionService, times(1)).getDatabaseTabletStats(eq(1L), eq("dw"), tableNames.capture());
+        assertEquals(Arrays.asList("ods_big", "ods_small"), Arrays.asList(tableNames.getValue().toArray()));
+        verify(dorisConnectionService, never()).getTableTabletStats(anyLong(), anyString(), anyString());
+
+        ArgumentCaptor<List<InspectionIssue>> batches = issuesCaptor();
+        verify(inspectionIssueMapper, times(2)).insertBatch(batches.capture());
+        List<InspectionIssue> first = batches.getAllValues().get(0);
+        assertEquals("tablet_count", first.get(0).getIssueType());
+        assertEquals("ods_big", first.get(0).getResourceName());
+        assertEquals("tablet_size", first.get(1).getIssueType());
+        assertEquals(2, batches.getAllValues().get(1).size());
+        assertEquals(Long.valueOf(10L), batches.getAllValues().get(1).get(0).getRecordId());
+    }
+
+    @Test
+    void rulesAndPrefetchRunWithCallerContext() {
+        mockRecordInsert();
+        when(inspectionRuleMapper.selectList(any())).thenReturn(Arrays.asList(
+                rule("tablet_count", "{\"maxTablets\": 200, \"warningTablets\": 100}"),
+                rule("tablet_size", "{}")));
+        when(dorisClusterService.listAll()).thenReturn(Collections.singletonList(dorisCluster()));
+        when(dataTableMapper.selectList(any())).thenReturn(Collections.singletonList(table(1L, "ods_small")));
+        Set<String> users = ConcurrentHashMap.newKeySet();
+        when(dorisConnectionService.getDatabaseTabletStats(eq(1L), eq("dw"), any())).thenAnswer(invocation -> {
+            users.add(String.valueOf(UserContextHolder.getCurrentUserId()));
+            return Collections.singletonMap("ods_small", tabletStats(10, GB));
+        });
+
+        UserContextHolder.setContext(new UserContext("u1", "u1", null));
+        try {
+            assertEquals("completed", service.runFullInspection("manual", "u1").getStatus());
+        } finally {
+            UserContextHolder.clear();
+        }
+
+        assertEquals(Collections.singleton("u1"), users);
+    }
+
+    @Test
+    void lineageRulesShareOneDegreeAggregation() {
+        // 单线程按提交顺序执行，保证两条规则依次拿到各自的候选表
+        inspectionProperties.setRuleThreads(1);
+        mockRecordInsert();
+        when(inspectionRuleMapper.selectList(any())).thenReturn(Arrays.asList(
+                rule("orphan_tables", "{}"),
+                rule("deprecated_tables", "{}")));
+        when(dorisClusterService.listAll()).thenReturn(Collections.emptyList());
+        DataTable used = table(1L, "dwd_orders");
+        DataTable orphan = table(2L, "tmp_orders");
+        DataTable deprecated = table(3L, "old_orders");
+        deprecated.setStatus("deprecated");
+        when(dataTableMapper.selectList(any()))
+                .thenReturn(Arrays.asList(used, orphan))
+                .thenReturn(Collections.singletonList(deprecated));
+        when(dataLineageMapper.selectDegrees()).thenReturn(Arrays.asList(degree(1L, 0L, 2L), degree(3L, 1L, 0L)));
+
+        InspectionRecord record = service.runFullInspection("manual", "tester");
+
+        assertEquals(Integer.valueOf(2), record.getIssueCount());
+        verify(dataLineageMapper, times(1)).selectDegrees();
+        verify(dataLineageMapper, never()).selectCount(any());
+        ArgumentCaptor<List<InspectionIssue>> batches = issuesCaptor();
+        verify(inspectionIssueMapper).insertBatch(batches.capture());
+        List<InspectionIssue> issues = batches.getValue();
+        assertEquals(Long.valueOf(2L), issues.get(0).getResourceId());
+        assertEquals("orphan_tables", issues.get(0).getIssueType());
+        assertEquals(Long.valueOf(3L), issues.get(1).getResourceId());
+        assertEquals("废弃表仅有上游依赖,已废弃 0 天", issues.get(1).getIssueDescription());
+    }
+
+    @Test
+    void dataVolumeSpikeStreamsHistoryOnceAndComparesAgainstMedian() {
+        mockRecordInsert();
+        when(inspectionRuleMapper.selectList(any())).thenReturn(Collections.singletonList(
+                rule("data_volume_spike", "{\"compareDays\": 7}")));
+        when(dorisClusterService.listAll()).thenReturn(Collections.emptyList());
+        when(dataTableMapper.selectList(any())).thenReturn(Arrays.asList(table(1L, "dwd_orders"), table(2L, "dwd_users")));
+        List<TableStatisticsHistory> series = Arrays.asList(
+                history(1L, 6, 100_000L), history(1L, 4, 101_000L), history(1L, 2, 99_000L), history(1L, 0, 10_000L),
+                history(2L, 6, 20_000L), history(2L, 4, 21_000L), history(2L, 2, 20_500L), history(2L, 0, 20_800L),
+                history(9L, 6, 20_000L), history(9L, 4, 20_000L), history(9L, 2, 20_000L), history(9L, 0, 900_000L));
+        doAnswer(invocation -> {
+            ResultHandler<TableStatisticsHistory> handler = invocation.getArgument(1);
+            DefaultResultContext<TableStatisticsHistory> context = new DefaultResultContext<>();
+            for (TableStatisticsHistory point : series) {
+                context.nextResultObject(point);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(tableStatisticsHistoryMapper).streamSeriesSince(any(LocalDateTime.class), any());
+
+        InspectionRecord record = service.runFullInspection("manual", "tester");
+
+        assertEquals(Integer.valueOf(1), record.getIssueCount());
+        verify(tableStatisticsHistoryMapper, times(1)).streamSeriesSince(any(LocalDateTime.class), any());
+        ArgumentCaptor<List<InspectionIssue>> batches = issuesCaptor();
+        verify(inspectionIssueMapper).insertBatch(batches.capture());
+        InspectionIssue issue = batches.getValue().get(0);
+        assertEquals(Long.valueOf(1L), issue.getResourceId());
+        assertEquals("行数异常下降 90.0%", issue.getIssueDescription());
+        assertEquals("high", issue.getSeverity());
+    }
+
+    @Test
+    void runFullInspectionMarksRecordFailedWhenRuleThrows() {
+        mockRecordInsert();
+        when(inspectionRuleMapper.selectList(any())).thenReturn(Collections.singletonList(rule("table_owner", "{}")));
+        when(dorisClusterService.listAll()).thenReturn(Collections.emptyList());
+        when(dataTableMapper.selectList(any())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(RuntimeException.class, () -> service.runFullInspection("manual", "tester"));
+
+        ArgumentCaptor<InspectionRecord> captor = ArgumentCaptor.forClass(InspectionRecord.class);
+        verify(inspectionRecordMapper).updateById(captor.capture());
+        assertEquals("failed", captor.getValue().getStatus());
+        verify(inspectionIssueMapper, never()).insertBatch(any());
+    }
+
+    private void mockRecordInsert() {
+        doAnswer(invocation -> {
+            InspectionRecord record = invocation.getArgument(0);
+            record.setId(10L);
+            return 1;
+        }).when(inspectionRecordMapper).insert(any(InspectionRecord.class));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<InspectionIssue>> issuesCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static InspectionRule rule(String type, String config) {
+        InspectionRule rule = new InspectionRule();
+        rule.setRuleCode(type);
+        rule.setRuleType(type);
+        rule.setRuleConfig(config);
+        rule.setSeverity("medium");
+        return rule;
+    }
+
+    private static DorisCluster dorisCluster() {
+        DorisCluster cluster = new DorisCluster();
+        cluster.setId(1L);
+        cluster.setSourceType("DORIS");
+        return cluster;
+    }
+
+    private static DataTable table(Long id, String name) {
+        DataTable table = new DataTable();
+        table.setId(id);
+        table.setClusterId(1L);
+        table.setDbName("dw");
+        table.setTableName(name);
+        table.setTableType("OLAP");
+        table.setStatus("active");
+        table.setCreatedAt(LocalDateTime.now().minusDays(60));
+        table.setUpdatedAt(LocalDateTime.now());
+        return table;
+    }
+
+    private static LineageDegree degree(Long tableId, long in, long out) {
+        LineageDegree degree = new LineageDegree();
+        degree.setTableId(tableId);
+        degree.setInDegree(in);
+        degree.setOutDegree(out);
+        return degree;
+    }
+
+    private static TableStatisticsHistory history(Long tableId, int daysAgo, long rowCount) {
+        TableStatisticsHistory history = new TableStatisticsHistory();
+        history.setTableId(tableId);
+        history.setRowCount(rowCount);
+        history.setDataSize(0L);
+        history.setStatisticsTime(LocalDateTime.now().minusDays(daysAgo));
+        return history;
+    }
+
+    private static DorisConnectionService.TableTabletStats tabletStats(long tabletCount, long totalBytes) {
+        DorisConnectionService.TableTabletStats stats = new DorisConnectionService.TableTabletStats();
+        stats.setTabletCount(tabletCount);
+        stats.setTotalDataSizeBytes(totalBytes);
+        stats.setAvgTabletSizeBytes(totalBytes / tabletCount);
+        return stats;
+    }
+}
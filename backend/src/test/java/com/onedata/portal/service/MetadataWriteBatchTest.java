@@ -0,0 +1,120 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.DataField;
+import com.onedata.portal.entity.DataTable;
+import com.onedata.portal.mapper.DataFieldMapper;
+import com.onedata.portal.mapper.DataTableMapper;
+import com.onedata.portal.mapper.TableStatisticsHistoryMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class MetadataWriteBatchTest {
+
+    @Mock
+    private DataTableMapper dataTableMapper;
+
+    @Mock
+    private DataFieldMapper dataFieldMapper;
+
+    @Mock
+    private TableStatisticsHistoryMapper tableStatisticsHistoryMapper;
+
+    @Test
+    void flushInsertsTablesBeforeFieldsAndResolvesGeneratedIds() {
+        doAnswer(invocation -> {
+            List<DataTable> tables = invocation.getArgument(0);
+            tables.forEach(table -> table.setId(42L));
+            return tables.size();
+        }).when(dataTableMapper).insertBatch(any());
+        MetadataWriteBatch batch = newBatch();
+        DataTable table = table(null);
+        DataField field = new DataField();
+        field.setFieldName("id");
+
+        batch.insertTable(table);
+        batch.upsertField(table, field);
+        batch.flush();
+
+        InOrder order = inOrder(dataTableMapper, dataFieldMapper);
+        order.verify(dataTableMapper).insertBatch(any());
+        order.verify(dataFieldMapper).upsertBatch(any());
+        assertEquals(Long.valueOf(42L), field.getTableId());
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushSplitsRowsIntoChunks() {
+        MetadataWriteBatch batch = newBatch();
+        DataTable table = table(7L);
+        int rows = MetadataWriteBatch.ROW_CHUNK_SIZE + 1;
+        for (int i = 0; i < rows; i++) {
+            DataField field = new DataField();
+            field.setFieldName("c" + i);
+            batch.upsertField(table, field);
+        }
+
+        batch.flush();
+
+        ArgumentCaptor<List<DataField>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dataFieldMapper, times(2)).upsertBatch(captor.capture());
+        assertEquals(MetadataWriteBatch.ROW_CHUNK_SIZE, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        verify(dataTableMapper, never()).insertBatch(any());
+    }
+
+    @Test
+    void flushFailsWhenOwnerHasNoId() {
+        MetadataWriteBatch batch = newBatch();
+        batch.upsertField(table(null), new DataField());
+
+        MetadataWriteBatch.FlushException error = assertThrows(MetadataWriteBatch.FlushException.class, batch::flush);
+        assertEquals("表 dw.ods_orders 未生成主键", error.getCause().getMessage());
+    }
+
+    @Test
+    void failedFlushDoesNotRewriteRowsThatWereAlreadyWritten() {
+        MetadataWriteBatch batch = newBatch();
+        DataTable table = table(7L);
+        batch.updateTable(table);
+        batch.upsertField(table, new DataField());
+        doAnswer(invocation -> {
+            throw new IllegalStateException("deadlock");
+        }).doReturn(1).when(dataFieldMapper).upsertBatch(any());
+
+        assertThrows(MetadataWriteBatch.FlushException.class, batch::flush);
+        batch.flush();
+
+        verify(dataTableMapper, times(1)).upsertSyncedBatch(any());
+        verify(dataFieldMapper, times(2)).upsertBatch(any());
+        assertEquals(0, batch.size());
+    }
+
+    private MetadataWriteBatch newBatch() {
+        return new MetadataWriteBatch(dataTableMapper, dataFieldMapper, tableStatisticsHistoryMapper);
+    }
+
+    private static DataTable table(Long id) {
+        DataTable table = new DataTable();
+        table.setId(id);
+        table.setDbName("dw");
+        table.setTableName("ods_orders");
+        return table;
+    }
+}
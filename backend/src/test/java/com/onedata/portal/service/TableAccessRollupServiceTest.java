@@ -0,0 +1,172 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.TableAccessProperties;
+import com.onedata.portal.entity.TableAccessDaily;
+import com.onedata.portal.entity.TableAccessIngestState;
+import com.onedata.portal.mapper.TableAccessDailyMapper;
+import com.onedata.portal.mapper.TableAccessIngestStateMapper;
+import com.onedata.portal.util.TableReferenceMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TableAccessRollupServiceTest {
+
+    @Mock
+    private DorisTableAccessService dorisTableAccessService;
+
+    @Mock
+    private TableReferenceMatcherService tableReferenceMatcherService;
+
+    @Mock
+    private TableAccessDailyMapper tableAccessDailyMapper;
+
+    @Mock
+    private TableAccessIngestStateMapper tableAccessIngestStateMapper;
+
+    @Spy
+    private TableAccessProperties tableAccessProperties = new TableAccessProperties();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TableAccessRollupService service;
+
+    private final DorisTableAccessService.AuditSource source = mock(DorisTableAccessService.AuditSource.class);
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(dorisTableAccessService.resolveAuditSource(1L)).thenReturn(Optional.of(source));
+        lenient().when(tableReferenceMatcherService.getMatcher(1L))
+                .thenReturn(TableReferenceMatcher.of(Arrays.asList("dw.orders", "dw.users")));
+    }
+
+    @Test
+    void ingestRollsUpKnownTablesPerDayAndUserAndAdvancesHighWaterMark() throws Exception {
+        LocalDateTime mark = LocalDateTime.now().minusHours(2);
+        TableAccessIngestState state = new TableAccessIngestState();
+        state.setClusterId(1L);
+        state.setHighWaterMark(mark);
+        state.setCreatedAt(mark);
+        when(tableAccessIngestStateMapper.selectById(1L)).thenReturn(state);
+        when(dorisTableAccessService.queryAuditPage(eq(1L), eq(source), eq(mark), any(), anyInt()))
+                .thenReturn(Arrays.asList(
+                        entry(mark.plusMinutes(1), "SELECT * FROM orders o JOIN dw.tmp t ON o.id = t.id", "alice", 10L),
+                        entry(mark.plusMinutes(2), "select count(*) from `dw`.`orders`", "alice", 30L),
+                        entry(mark.plusMinutes(3), "INSERT INTO users VALUES (1)", null, null)));
+
+        int rows = service.ingest(1L);
+
+        assertEquals(3, rows);
+        ArgumentCaptor<List<TableAccessDaily>> captor = rowsCaptor();
+        verify(tableAccessDailyMapper).upsertBatch(captor.capture());
+        List<TableAccessDaily> rollup = captor.getValue();
+        assertEquals(2, rollup.size());
+        TableAccessDaily orders = rollup.get(0);
+        assertEquals("orders", orders.getTableName());
+        assertEquals("alice", orders.getUserName());
+        assertEquals(Long.valueOf(2L), orders.getAccessCount());
+        assertEquals(Long.valueOf(40L), orders.getDurationSumMs());
+        assertEquals(mark.plusMinutes(1), orders.getFirstAccessTime());
+        assertEquals(mark.plusMinutes(2), orders.getLastAccessTime());
+        assertEquals("", rollup.get(1).getUserName());
+        assertEquals(Long.valueOf(0L), rollup.get(1).getDurationCount());
+        verify(tableAccessIngestStateMapper).updateById(state);
+        assertEquals(Integer.valueOf(3), state.getLastRunRows());
+        assertNull(state.getLastError());
+    }
+
+    @Test
+    void truncatedPageDefersRowsSharingTheLastInstantToNextPage() throws Exception {
+        tableAccessProperties.setPageSize(3);
+        when(tableAccessIngestStateMapper.selectById(1L)).thenReturn(null);
+        LocalDateTime first = LocalDateTime.now().minusDays(1);
+        LocalDateTime second = first.plusSeconds(1);
+        List<LocalDateTime> pageStarts = new ArrayList<>();
+        when(dorisTableAccessService.queryAuditPage(eq(1L), eq(source), any(), any(), eq(3)))
+                .thenAnswer(invocation -> {
+                    LocalDateTime after = invocation.getArgument(2);
+                    pageStarts.add(after);
+                    if (after.isBefore(first)) {
+                        return Arrays.asList(entry(first, "SELECT 1 FROM dw.orders", "alice", null),
+                                entry(second, "SELECT 1 FROM dw.orders", "alice", null),
+                                entry(second, "SELECT 1 FROM dw.orders", "alice", null));
+                    }
+                    return Arrays.asList(entry(second, "SELECT 1 FROM dw.orders", "alice", null),
+                            entry(second, "SELECT 1 FROM dw.orders", "alice", null));
+                });
+
+        int rows = service.ingest(1L);
+
+        assertEquals(3, rows);
+        assertEquals(first, pageStarts.get(1));
+        ArgumentCaptor<List<TableAccessDaily>> captor = rowsCaptor();
+        verify(tableAccessDailyMapper, times(2)).upsertBatch(captor.capture());
+        assertEquals(Long.valueOf(1L), captor.getAllValues().get(0).get(0).getAccessCount());
+        assertEquals(Long.valueOf(2L), captor.getAllValues().get(1).get(0).getAccessCount());
+        verify(tableAccessIngestStateMapper).insert(any(TableAccessIngestState.class));
+    }
+
+    @Test
+    void ingestRecordsMissingAuditSource() {
+        when(tableAccessIngestStateMapper.selectById(1L)).thenReturn(null);
+        when(dorisTableAccessService.resolveAuditSource(1L)).thenReturn(Optional.empty());
+
+        assertEquals(0, service.ingest(1L));
+
+        ArgumentCaptor<TableAccessIngestState> captor = ArgumentCaptor.forClass(TableAccessIngestState.class);
+        verify(tableAccessIngestStateMapper).insert(captor.capture());
+        assertEquals("未检测到可查询的审计表", captor.getValue().getLastError());
+        verify(tableAccessDailyMapper, times(0)).upsertBatch(Collections.emptyList());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<TableAccessDaily>> rowsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static DorisTableAccessService.AuditEntry entry(LocalDateTime time, String stmt, String user,
+            Long queryTimeMs) {
+        DorisTableAccessService.AuditEntry entry = new DorisTableAccessService.AuditEntry();
+        entry.setTime(time);
+        entry.setDatabaseName("dw");
+        entry.setStmt(stmt);
+        entry.setUser(user);
+        entry.setQueryTimeMs(queryTimeMs);
+        return entry;
+    }
+}
@@ -0,0 +1,72 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.context.UserContext;
+import com.onedata.portal.context.UserContextHolder;
+import com.onedata.portal.dto.TableStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TableStatisticsCacheServiceTest {
+
+    private final TableStatisticsCacheService service = new TableStatisticsCacheService();
+
+    @AfterEach
+    void tearDown() {
+        UserContextHolder.clear();
+        service.shutdown();
+    }
+
+    @Test
+    void entriesAreScopedToTheLoadingUser() {
+        List<String> loadedAs = new ArrayList<>();
+
+        as("u1");
+        TableStatistics first = service.getOrLoad(1L, 2L, () -> load(loadedAs, "u1-stats"));
+        as("u2");
+        assertNull(service.get(1L, 2L), "其他用户不应读到 u1 凭据查询的统计信息");
+        TableStatistics second = service.getOrLoad(1L, 2L, () -> load(loadedAs, "u2-stats"));
+        as("u1");
+        TableStatistics cached = service.getOrLoad(1L, 2L, () -> load(loadedAs, "unexpected"));
+
+        assertEquals("u1-stats", first.getTableName());
+        assertEquals("u2-stats", second.getTableName());
+        assertEquals("u1-stats", cached.getTableName());
+        assertEquals(Arrays.asList("u1", "u2"), loadedAs);
+    }
+
+    @Test
+    void removeInvalidatesEveryUsersEntry() {
+        as("u1");
+        service.put(1L, 2L, statistics("u1-stats"));
+        as("u2");
+        service.put(1L, 2L, statistics("u2-stats"));
+
+        service.remove(1L, 2L);
+
+        assertNull(service.get(1L, 2L));
+        as("u1");
+        assertNull(service.get(1L, 2L));
+    }
+
+    private static void as(String userId) {
+        UserContextHolder.setContext(new UserContext(userId, userId, null));
+    }
+
+    private static TableStatistics load(List<String> loadedAs, String tableName) {
+        loadedAs.add(UserContextHolder.getCurrentUserId());
+        return statistics(tableName);
+    }
+
+    private static TableStatistics statistics(String tableName) {
+        TableStatistics statistics = new TableStatistics();
+        statistics.setTableName(tableName);
+        return statistics;
+    }
+}
@@ -0,0 +1,133 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.TaskExecutionStatisticsProperties;
+import com.onedata.portal.entity.TaskExecutionDaily;
+import com.onedata.portal.entity.TaskExecutionRollupState;
+import com.onedata.portal.mapper.TaskExecutionDailyMapper;
+import com.onedata.portal.mapper.TaskExecutionRollupStateMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExecutionRollupServiceTest {
+
+    @Mock
+    private TaskExecutionDailyMapper taskExecutionDailyMapper;
+
+    @Mock
+    private TaskExecutionRollupStateMapper taskExecutionRollupStateMapper;
+
+    @Spy
+    private TaskExecutionStatisticsProperties properties = new TaskExecutionStatisticsProperties();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TaskExecutionRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void firstRunBackfillsFromEarliestExecutionUpToYesterday() {
+        LocalDate today = LocalDate.now();
+        when(taskExecutionDailyMapper.selectEarliestStartTime()).thenReturn(today.minusDays(3).atTime(10, 0));
+
+        int days = service.rollup();
+
+        assertEquals(3, days);
+        verify(taskExecutionDailyMapper).deleteRange(today.minusDays(3), today);
+        verify(taskExecutionDailyMapper).rebuildRange(today.minusDays(3), today);
+        verify(taskExecutionDailyMapper, never()).selectChangedDays(any(), any(), any());
+        verify(taskExecutionRollupStateMapper).insert(any(TaskExecutionRollupState.class));
+    }
+
+    @Test
+    void laterRunRebuildsChangedDaysAndAdvances() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime lastRunAt = LocalDateTime.now().minusMinutes(10);
+        TaskExecutionRollupState state = new TaskExecutionRollupState();
+        state.setId(1L);
+        state.setRolledFrom(today.minusDays(10));
+        state.setRolledUntil(today.minusDays(1));
+        state.setLastRunAt(lastRunAt);
+        state.setLastError("boom");
+        state.setCreatedAt(lastRunAt);
+        when(taskExecutionRollupStateMapper.selectById(1L)).thenReturn(state);
+        when(taskExecutionDailyMapper.selectChangedDays(lastRunAt.minusMinutes(5), today.minusDays(10),
+                today.minusDays(1))).thenReturn(Collections.singletonList(today.minusDays(5)));
+
+        int days = service.rollup();
+
+        assertEquals(2, days);
+        verify(taskExecutionDailyMapper).rebuildRange(today.minusDays(5), today.minusDays(4));
+        verify(taskExecutionDailyMapper).rebuildRange(today.minusDays(1), today);
+        verify(taskExecutionRollupStateMapper).updateById(state);
+        assertEquals(today, state.getRolledUntil());
+        assertNull(state.getLastError());
+    }
+
+    @Test
+    void aggregateReadsWholeRolledDaysAndQueriesEdgesLive() {
+        TaskExecutionRollupState state = new TaskExecutionRollupState();
+        state.setRolledFrom(LocalDate.of(2024, 1, 1));
+        state.setRolledUntil(LocalDate.of(2024, 2, 1));
+        when(taskExecutionRollupStateMapper.selectById(1L)).thenReturn(state);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 10, 8, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 20, 12, 0);
+        TaskExecutionDaily rolled = new TaskExecutionDaily();
+        when(taskExecutionDailyMapper.selectRolledUp(5L, LocalDate.of(2024, 1, 11), LocalDate.of(2024, 1, 20)))
+                .thenReturn(Collections.singletonList(rolled));
+        TaskExecutionDaily head = new TaskExecutionDaily();
+        when(taskExecutionDailyMapper.aggregateLive(5L, start, LocalDateTime.of(2024, 1, 11, 0, 0), end))
+                .thenReturn(Collections.singletonList(head));
+        TaskExecutionDaily tail = new TaskExecutionDaily();
+        when(taskExecutionDailyMapper.aggregateLive(5L, LocalDateTime.of(2024, 1, 20, 0, 0), null, end))
+                .thenReturn(Collections.singletonList(tail));
+
+        List<TaskExecutionDaily> rows = service.aggregate(5L, start, end);
+
+        assertEquals(3, rows.size());
+    }
+
+    @Test
+    void aggregateFallsBackToLiveWithoutRollupCoverage() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 10, 8, 0);
+        when(taskExecutionDailyMapper.aggregateLive(null, start, null, null)).thenReturn(Collections.emptyList());
+
+        service.aggregate(null, start, null);
+
+        verify(taskExecutionDailyMapper, never()).selectRolledUp(any(), any(), any());
+        verify(taskExecutionDailyMapper).aggregateLive(eq(null), eq(start), eq(null), eq(null));
+    }
+}
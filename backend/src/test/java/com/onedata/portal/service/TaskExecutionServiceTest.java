@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onedata.portal.entity.DataTask;
+import com.onedata.portal.entity.TaskExecutionDaily;
 import com.onedata.portal.entity.TaskExecutionLog;
 import com.onedata.portal.mapper.DataTaskMapper;
 import com.onedata.portal.mapper.TaskExecutionLogMapper;
@@ -15,8 +16,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -36,11 +41,15 @@ class TaskExecutionServiceTest {
     @Mock
     private DolphinSchedulerService dolphinSchedulerService;
 
+    @Mock
+    private TaskExecutionRollupService taskExecutionRollupService;
+
     private TaskExecutionService service;
 
     @BeforeEach
     void setUp() {
-        service = new TaskExecutionService(executionLogMapper, dataTaskMapper, dolphinSchedulerService);
+        service = new TaskExecutionService(executionLogMapper, dataTaskMapper, dolphinSchedulerService,
+                taskExecutionRollupService);
     }
 
     @Test
@@ -121,6 +130,70 @@ class TaskExecutionServiceTest {
         verify(executionLogMapper).updateById(any());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getExecutionStatisticsMergesAggregatedRows() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDate day1 = LocalDate.of(2024, 1, 1);
+        LocalDate day2 = LocalDate.of(2024, 1, 2);
+        TaskExecutionDaily success1 = daily(day1, "success", 3L, 3L, 90L, 20, 40);
+        success1.setDurationLe30s(2L);
+        success1.setDurationLe1m(1L);
+        TaskExecutionDaily failed1 = daily(day1, "failed", 1L, 1L, 500L, 500, 500);
+        failed1.setDurationLe10m(1L);
+        TaskExecutionDaily success2 = daily(day2, "success", 4L, 0L, 0L, null, null);
+        TaskExecutionDaily running2 = daily(day2, "running", 2L, 0L, 0L, null, null);
+        when(taskExecutionRollupService.aggregate(7L, start, null))
+                .thenReturn(Arrays.asList(success1, failed1, success2, running2));
+
+        Map<String, Object> stats = service.getExecutionStatistics(7L, start, null);
+
+        assertEquals(10L, stats.get("totalExecutions"));
+        assertEquals(7L, stats.get("successCount"));
+        assertEquals(1L, stats.get("failedCount"));
+        assertEquals(70.0, stats.get("successRate"));
+        assertEquals(10.0, stats.get("failureRate"));
+        assertEquals(2L, ((Map<String, Long>) stats.get("statusDistribution")).get("running"));
+        assertEquals(147.5, stats.get("avgDurationSeconds"));
+        assertEquals(20, stats.get("minDurationSeconds"));
+        assertEquals(500, stats.get("maxDurationSeconds"));
+        // 中位数取 (10s, 30s] 区间内第 2 个时长，区间下界收窄到最小值 20
+        assertEquals(30.0, stats.get("p50DurationSeconds"));
+        assertEquals(500.0, stats.get("p95DurationSeconds"));
+
+        List<Map<String, Object>> trend = (List<Map<String, Object>>) stats.get("executionTrend");
+        assertEquals(2, trend.size());
+        assertEquals("2024-01-01", trend.get(0).get("date"));
+        assertEquals(4L, trend.get(0).get("total"));
+        assertEquals(1L, trend.get(0).get("failed"));
+        assertEquals(6L, trend.get(1).get("total"));
+        assertEquals(4L, trend.get(1).get("success"));
+    }
+
+    @Test
+    void getExecutionStatisticsReturnsZerosWithoutExecutions() {
+        when(taskExecutionRollupService.aggregate(null, null, null)).thenReturn(Collections.emptyList());
+
+        Map<String, Object> stats = service.getExecutionStatistics(null, null, null);
+
+        assertEquals(0L, stats.get("totalExecutions"));
+        assertEquals(0.0, stats.get("successRate"));
+        assertEquals(0, stats.get("maxDurationSeconds"));
+    }
+
+    private TaskExecutionDaily daily(LocalDate date, String status, long count, long durationCount, long durationSum,
+                                     Integer min, Integer max) {
+        TaskExecutionDaily row = new TaskExecutionDaily();
+        row.setStatDate(date);
+        row.setStatus(status);
+        row.setExecutionCount(count);
+        row.setDurationCount(durationCount);
+        row.setDurationSum(durationSum);
+        row.setDurationMin(min);
+        row.setDurationMax(max);
+        return row;
+    }
+
     @SuppressWarnings("unchecked")
     private void mockSelectPage(List<TaskExecutionLog> records) {
         when(executionLogMapper.selectPage(any(Page.class), any())).thenAnswer(invocation -> {
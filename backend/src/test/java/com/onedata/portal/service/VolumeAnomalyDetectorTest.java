@@ -0,0 +1,105 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.entity.TableStatisticsHistory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VolumeAnomalyDetectorTest {
+
+    private static final long MB = 1024L * 1024;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+    @Test
+    void flagsSpikeAgainstStableBaseline() {
+        VolumeAnomalyDetector detector = detector(1L);
+        feed(detector, 1L, 10_000, 10_100, 9_900, 10_050, 30_000);
+
+        List<VolumeAnomalyDetector.VolumeAnomaly> anomalies = detector.finish();
+
+        assertEquals(1, anomalies.size());
+        VolumeAnomalyDetector.VolumeAnomaly anomaly = anomalies.get(0);
+        assertEquals(Long.valueOf(1L), anomaly.getTableId());
+        assertEquals(VolumeAnomalyDetector.METRIC_ROWS, anomaly.getMetric());
+        assertTrue(anomaly.isIncrease());
+        assertEquals(30_000L, anomaly.getCurrent());
+        assertEquals(10_025D, anomaly.getMedian(), 0.001);
+        assertEquals(4, anomaly.getSampleCount());
+        assertEquals(2.0D, anomaly.getGrowthRate(), 0.001);
+        assertEquals(START.plusDays(4), anomaly.getObservedAt());
+    }
+
+    @Test
+    void flagsDropToZero() {
+        VolumeAnomalyDetector detector = detector(1L);
+        feed(detector, 1L, 50_000, 50_000, 50_000, 0);
+
+        List<VolumeAnomalyDetector.VolumeAnomaly> anomalies = detector.finish();
+
+        assertEquals(1, anomalies.size());
+        assertFalse(anomalies.get(0).isIncrease());
+        assertEquals(0D, anomalies.get(0).getRatio(), 0.001);
+    }
+
+    @Test
+    void ignoresTablesWhoseBaselineAlreadySwingsWidely() {
+        VolumeAnomalyDetector detector = detector(1L);
+        // 日常在 1 万到 4 万之间波动，翻倍不足以构成异常
+        feed(detector, 1L, 10_000, 40_000, 12_000, 38_000, 11_000, 42_000, 55_000);
+
+        assertTrue(detector.finish().isEmpty());
+    }
+
+    @Test
+    void skipsSmallTablesShortSeriesAndNonCandidates() {
+        VolumeAnomalyDetector detector = detector(1L, 2L);
+        feed(detector, 1L, 10, 10, 10, 500);
+        feed(detector, 2L, 10_000, 50_000);
+        feed(detector, 3L, 10_000, 10_000, 10_000, 90_000);
+
+        assertTrue(detector.finish().isEmpty());
+    }
+
+    @Test
+    void fallsBackToDataSizeWhenRowCountIsStable() {
+        VolumeAnomalyDetector detector = detector(1L);
+        long[] rows = {10_000, 10_000, 10_000, 10_000};
+        long[] sizes = {200 * MB, 210 * MB, 205 * MB, 900 * MB};
+        for (int i = 0; i < rows.length; i++) {
+            detector.accept(point(1L, i, rows[i], sizes[i]));
+        }
+
+        List<VolumeAnomalyDetector.VolumeAnomaly> anomalies = detector.finish();
+
+        assertEquals(1, anomalies.size());
+        assertEquals(VolumeAnomalyDetector.METRIC_SIZE, anomalies.get(0).getMetric());
+        assertEquals(900 * MB, anomalies.get(0).getCurrent());
+    }
+
+    private static VolumeAnomalyDetector detector(Long... candidates) {
+        return new VolumeAnomalyDetector(new HashSet<>(Arrays.asList(candidates)), 2.0, 0.5, 3.5, 0.3, 3,
+                1000, 100 * MB);
+    }
+
+    private static void feed(VolumeAnomalyDetector detector, Long tableId, long... rowCounts) {
+        for (int i = 0; i < rowCounts.length; i++) {
+            detector.accept(point(tableId, i, rowCounts[i], 0L));
+        }
+    }
+
+    private static TableStatisticsHistory point(Long tableId, int day, long rowCount, long dataSize) {
+        TableStatisticsHistory history = new TableStatisticsHistory();
+        history.setTableId(tableId);
+        history.setRowCount(rowCount);
+        history.setDataSize(dataSize);
+        history.setStatisticsTime(START.plusDays(day));
+        return history;
+    }
+}
@@ -0,0 +1,339 @@
+package com.onedata.portal.service;
+
+import com.onedata.portal.config.WorkflowInstanceSyncProperties;
+import com.onedata.portal.dto.workflow.WorkflowInstanceSummary;
+import com.onedata.portal.entity.DataWorkflow;
+import com.onedata.portal.entity.WorkflowInstanceCache;
+import com.onedata.portal.entity.WorkflowInstanceSyncState;
+import com.onedata.portal.mapper.WorkflowInstanceCacheMapper;
+import com.onedata.portal.mapper.WorkflowInstanceSyncStateMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowInstancePollerTest {
+
+    @Mock
+    private DolphinSchedulerService dolphinSchedulerService;
+
+    @Mock
+    private WorkflowInstanceCacheMapper cacheMapper;
+
+    @Mock
+    private WorkflowInstanceSyncStateMapper syncStateMapper;
+
+    private WorkflowInstanceSyncProperties properties;
+    private WorkflowInstancePoller poller;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WorkflowInstanceSyncProperties();
+        properties.setRequestsPerSecond(1000);
+        poller = new WorkflowInstancePoller(dolphinSchedulerService, new WorkflowInstanceCacheService(cacheMapper),
+                syncStateMapper, properties);
+        when(dolphinSchedulerService.getProjectCode()).thenReturn(7L);
+    }
+
+    @Test
+    void writesOnlyChangedInstancesAndSkipsUnchangedWorkflows() {
+        when(cacheMapper.selectList(any())).thenReturn(Arrays.asList(
+                cache(11L, 1L, 101L, "SUCCESS"),
+                cache(12L, 1L, 100L, "SUCCESS"),
+                cache(21L, 2L, 200L, "RUNNING_EXECUTION"),
+                cache(22L, 2L, 199L, "SUCCESS")));
+        when(dolphinSchedulerService.listWorkflowInstancesAsync(eq(7L), eq(1001L), eq(10), any()))
+                .thenReturn(Mono.just(Arrays.asList(summary(101L, "SUCCESS"), summary(100L, "SUCCESS"))));
+        when(dolphinSchedulerService.listWorkflowInstancesAsync(eq(7L), eq(1002L), eq(10), any()))
+                .thenReturn(Mono.just(Arrays.asList(summary(201L, "RUNNING_EXECUTION"), summary(200L, "SUCCESS"))));
+
+        WorkflowInstancePoller.PollResult result = poller.poll(Arrays.asList(workflow(1L, 1001L), workflow(2L, 1002L)));
+
+        assertEquals(1, result.getChanged());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(0, result.getFailed());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkflowInstanceCache>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(cacheMapper).upsertBatch(upserts.capture());
+        assertEquals(2, upserts.getValue().size());
+        assertEquals(Long.valueOf(201L), upserts.getValue().get(0).getInstanceId());
+        assertEquals("SUCCESS", upserts.getValue().get(1).getState());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(cacheMapper).deleteBatchIds(deleted.capture());
+        assertEquals(Collections.singletonList(22L), new ArrayList<>(deleted.getValue()));
+        verify(cacheMapper, never()).delete(any());
+        verify(cacheMapper, never()).insert(any(WorkflowInstanceCache.class));
+    }
+
+    @Test
+    void failedFetchKeepsExistingCache() {
+        when(cacheMapper.selectList(any())).thenReturn(Collections.singletonList(cache(11L, 1L, 101L, "SUCCESS")));
+        when(dolphinSchedulerService.listWorkflowInstancesAsync(eq(7L), eq(1001L), eq(10), any()))
+                .thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        WorkflowInstancePoller.PollResult result = poller.poll(Collections.singletonList(workflow(1L, 1001L)));
+
+        assertEquals(1, result.getFailed());
+        verify(cacheMapper, never()).deleteBatchIds(any());
+        verify(cacheMapper, never()).upsertBatch(any());
+    }
+
+    @Test
+    void limitsWorkflowsInFlight() {
+        properties.setConcurrency(3);
+        when(cacheMapper.selectList(any())).thenReturn(Collections.emptyList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(dolphinSchedulerService.listWorkflowInstancesAsync(eq(7L), anyLong(), anyInt(), any()))
+                .thenAnswer(invocation -> Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(Duration.ofMillis(20))
+                            .map(tick -> Collections.<WorkflowInstanceSummary>emptyList())
+                            .doOnTerminate(inFlight::decrementAndGet);
+                }));
+        List<DataWorkflow> workflows = new ArrayList<>();
+        for (long i = 1; i <= 12; i++) {
+            workflows.add(workflow(i, 1000L + i));
+        }
+
+        WorkflowInstancePoller.PollResult result = poller.poll(workflows);
+
+        assertEquals(12, result.getUnchanged());
+        assertTrue(maxInFlight.get() <= 3, "在途工作流数超过并发上限: " + maxInFlight.get());
+    }
+
+    @Test
+    void ingestProjectMergesNewInstancesAndAdvancesWatermark() {
+        LocalDateTime highWaterMark = LocalDateTime.now().minusHours(1);
+        WorkflowInstanceSyncState state = new WorkflowInstanceSyncState();
+        state.setProjectCode(7L);
+        state.setHighWaterMark(highWaterMark);
+        state.setCreatedAt(LocalDateTime.now().minusDays(1));
+        when(syncStateMapper.selectById(7L)).thenReturn(state);
+        WorkflowInstanceCache running = cache(21L, 2L, 200L, "RUNNING_EXECUTION");
+        running.setStartTime(Date.from(LocalDateTime.now().minusHours(3).atZone(ZoneId.systemDefault()).toInstant()));
+        when(cacheMapper.selectList(any())).thenReturn(Arrays.asList(cache(11L, 1L, 100L, "SUCCESS"), running));
+        Map<Long, List<WorkflowInstanceSummary>> fetched = new HashMap<>();
+        fetched.put(1001L, Collections.singletonList(summary(101L, "SUCCESS", "2026-10-01 02:00:00")));
+        fetched.put(1002L, Collections.singletonList(summary(200L, "SUCCESS", "2026-10-01 01:00:00")));
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        DolphinSchedulerService.ProjectInstanceListing listing = new DolphinSchedulerService.ProjectInstanceListing();
+        listing.getInstances().putAll(fetched);
+        when(dolphinSchedulerService.listProjectInstancesSince(eq(7L), since.capture(), any(LocalDateTime.class),
+                eq(100), eq(50), any())).thenReturn(listing);
+        properties.setInstanceLimit(1);
+
+        WorkflowInstancePoller.PollResult result = poller.ingestProject(Arrays.asList(
+                workflow(1L, 1001L), workflow(2L, 1002L), workflow(3L, 1003L)));
+
+        assertEquals(2, result.getChanged());
+        assertEquals(1, result.getUnchanged());
+        // 仍在运行的实例把窗口起点回退到其开始时间
+        assertTrue(since.getValue().isBefore(highWaterMark.minusHours(1)));
+        verify(dolphinSchedulerService, never()).listWorkflowInstancesAsync(any(), any(), anyInt(), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkflowInstanceCache>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(cacheMapper, times(2)).upsertBatch(upserts.capture());
+        assertEquals(Long.valueOf(101L), upserts.getAllValues().get(0).get(0).getInstanceId());
+        assertEquals("SUCCESS", upserts.getAllValues().get(1).get(0).getState());
+        // 超出 instanceLimit 的旧实例被删除
+        verify(cacheMapper).deleteBatchIds(Collections.singletonList(11L));
+        ArgumentCaptor<WorkflowInstanceSyncState> saved = ArgumentCaptor.forClass(WorkflowInstanceSyncState.class);
+        verify(syncStateMapper).updateById(saved.capture());
+        assertTrue(saved.getValue().getHighWaterMark().isAfter(highWaterMark));
+        assertEquals(Integer.valueOf(2), saved.getValue().getLastRunInstances());
+        assertNull(saved.getValue().getLastError());
+    }
+
+    @Test
+    void ingestProjectKeepsWatermarkWhenListingFails() {
+        when(syncStateMapper.selectById(7L)).thenReturn(null);
+        when(cacheMapper.selectList(any())).thenReturn(Collections.emptyList());
+        when(dolphinSchedulerService.listProjectInstancesSince(eq(7L), any(), any(), anyInt(), anyInt(), any()))
+                .thenThrow(new IllegalStateException("API Error 10001"));
+
+        WorkflowInstancePoller.PollResult result = poller.ingestProject(Collections.singletonList(workflow(1L, 1001L)));
+
+        assertEquals(1, result.getFailed());
+        ArgumentCaptor<WorkflowInstanceSyncState> saved = ArgumentCaptor.forClass(WorkflowInstanceSyncState.class);
+        verify(syncStateMapper).insert(saved.capture());
+        assertNull(saved.getValue().getHighWaterMark());
+        assertEquals("拉取工作流实例失败: API Error 10001", saved.getValue().getLastError());
+        verify(cacheMapper, never()).upsertBatch(any());
+    }
+
+    @Test
+    void ingestProjectAdvancesWatermarkAndRecordsBackfillWhenListingIsTruncated() {
+        LocalDateTime highWaterMark = LocalDateTime.now().minusHours(1);
+        WorkflowInstanceSyncState state = syncState(highWaterMark);
+        when(cacheMapper.selectList(any())).thenReturn(Collections.emptyList());
+        LocalDateTime oldest = highWaterMark.plusMinutes(20).withNano(0);
+        DolphinSchedulerService.ProjectInstanceListing listing = listing(Collections.singletonMap(1001L,
+                Collections.singletonList(summary(101L, "SUCCESS", "2026-10-01 02:00:00"))), true, 50, oldest,
+                Collections.emptyList());
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(dolphinSchedulerService.listProjectInstancesSince(eq(7L), since.capture(), any(), anyInt(), eq(50), any()))
+                .thenReturn(listing);
+
+        WorkflowInstancePoller.PollResult result = poller.ingestProject(Collections.singletonList(workflow(1L, 1001L)));
+
+        assertEquals(1, result.getChanged());
+        ArgumentCaptor<WorkflowInstanceSyncState> saved = ArgumentCaptor.forClass(WorkflowInstanceSyncState.class);
+        verify(syncStateMapper).updateById(saved.capture());
+        assertTrue(saved.getValue().getHighWaterMark().isAfter(highWaterMark));
+        assertEquals(since.getValue(), state.getBackfillFrom());
+        assertEquals(oldest, state.getBackfillUntil());
+        assertTrue(saved.getValue().getLastError().startsWith("实例列表超过 50 页被截断"),
+                saved.getValue().getLastError());
+    }
+
+    @Test
+    void ingestProjectShrinksBackfillWithRemainingPagesUntilDone() {
+        LocalDateTime highWaterMark = LocalDateTime.now().minusMinutes(5);
+        WorkflowInstanceSyncState state = syncState(highWaterMark);
+        LocalDateTime backfillFrom = LocalDateTime.now().minusHours(3).withNano(0);
+        LocalDateTime backfillUntil = LocalDateTime.now().minusHours(1).withNano(0);
+        state.setBackfillFrom(backfillFrom);
+        state.setBackfillUntil(backfillUntil);
+        when(cacheMapper.selectList(any())).thenReturn(Collections.emptyList());
+        DolphinSchedulerService.ProjectInstanceListing head = listing(Collections.emptyMap(), false, 1, null,
+                Collections.emptyList());
+        when(dolphinSchedulerService.listProjectInstancesSince(eq(7L), any(), any(), anyInt(), eq(50), any()))
+                .thenReturn(head);
+        LocalDateTime reached = backfillUntil.minusMinutes(30);
+        DolphinSchedulerService.ProjectInstanceListing partial = listing(Collections.singletonMap(1001L,
+                Collections.singletonList(summary(90L, "SUCCESS", "2026-10-01 00:30:00"))), true, 49, reached,
+                Collections.emptyList());
+        DolphinSchedulerService.ProjectInstanceListing rest = listing(Collections.emptyMap(), false, 1, null,
+                Collections.emptyList());
+        when(dolphinSchedulerService.listProjectInstancesSince(eq(7L), eq(backfillFrom), any(), anyInt(), eq(49), any()))
+                .thenReturn(partial, rest);
+
+        poller.ingestProject(Collections.singletonList(workflow(1L, 1001L)));
+
+        verify(dolphinSchedulerService).listProjectInstancesSince(eq(7L), eq(backfillFrom), eq(backfillUntil),
+                anyInt(), eq(49), any());
+        verify(cacheMapper).upsertBatch(any());
+        assertEquals(backfillFrom, state.getBackfillFrom());
+        assertEquals(reached, state.getBackfillUntil());
+
+        poller.ingestProject(Collections.singletonList(workflow(1L, 1001L)));
+
+        verify(dolphinSchedulerService).listProjectInstancesSince(eq(7L), eq(backfillFrom), eq(reached),
+                anyInt(), eq(49), any());
+        assertNull(state.getBackfillFrom());
+        assertNull(state.getBackfillUntil());
+        assertNull(state.getLastError());
+    }
+
+    @Test
+    void ingestProjectGivesUpOnUnresolvableInstanceAfterMaxAttempts() {
+        LocalDateTime highWaterMark = LocalDateTime.now().minusHours(1);
+        WorkflowInstanceSyncState state = syncState(highWaterMark);
+        when(cacheMapper.selectList(any())).thenReturn(Collections.emptyList());
+        DolphinSchedulerService.ProjectInstanceListing listing = listing(Collections.emptyMap(), false, 1, null,
+                Collections.singletonList(55L));
+        when(dolphinSchedulerService.listProjectInstancesSince(eq(7L), any(), any(), anyInt(), anyInt(), any()))
+                .thenReturn(listing);
+        List<DataWorkflow> workflows = Collections.singletonList(workflow(1L, 1001L));
+
+        poller.ingestProject(workflows);
+        poller.ingestProject(workflows);
+
+        assertEquals(highWaterMark, state.getHighWaterMark());
+        assertEquals("1 个实例无法确定所属工作流，高水位未推进", state.getLastError());
+
+        poller.ingestProject(workflows);
+
+        assertTrue(state.getHighWaterMark().isAfter(highWaterMark));
+        assertEquals("1 个实例连续 3 轮无法确定所属工作流，已放弃: [55]", state.getLastError());
+    }
+
+    private WorkflowInstanceSyncState syncState(LocalDateTime highWaterMark) {
+        WorkflowInstanceSyncState state = new WorkflowInstanceSyncState();
+        state.setProjectCode(7L);
+        state.setHighWaterMark(highWaterMark);
+        state.setCreatedAt(LocalDateTime.now().minusDays(1));
+        when(syncStateMapper.selectById(7L)).thenReturn(state);
+        return state;
+    }
+
+    private static DolphinSchedulerService.ProjectInstanceListing listing(
+            Map<Long, List<WorkflowInstanceSummary>> instances,
+            boolean truncated,
+            int pages,
+            LocalDateTime oldestStartTime,
+            List<Long> unresolvedInstanceIds) {
+        DolphinSchedulerService.ProjectInstanceListing listing = mock(DolphinSchedulerService.ProjectInstanceListing.class);
+        lenient().when(listing.getInstances()).thenReturn(instances);
+        lenient().when(listing.isTruncated()).thenReturn(truncated);
+        lenient().when(listing.getPages()).thenReturn(pages);
+        lenient().when(listing.getOldestStartTime()).thenReturn(oldestStartTime);
+        lenient().when(listing.getUnresolvedInstanceIds()).thenReturn(unresolvedInstanceIds);
+        return listing;
+    }
+
+    private static DataWorkflow workflow(Long id, Long code) {
+        DataWorkflow workflow = new DataWorkflow();
+        workflow.setId(id);
+        workflow.setWorkflowCode(code);
+        workflow.setWorkflowName("wf_" + id);
+        return workflow;
+    }
+
+    private static WorkflowInstanceSummary summary(Long instanceId, String state) {
+        return summary(instanceId, state, "2026-10-01 01:00:00");
+    }
+
+    private static WorkflowInstanceSummary summary(Long instanceId, String state, String startTime) {
+        return WorkflowInstanceSummary.builder()
+                .instanceId(instanceId)
+                .state(state)
+                .commandType("SCHEDULER")
+                .startTime(startTime)
+                .build();
+    }
+
+    private static WorkflowInstanceCache cache(Long id, Long workflowId, Long instanceId, String state) {
+        WorkflowInstanceCache cache = new WorkflowInstanceCache();
+        cache.setId(id);
+        cache.setWorkflowId(workflowId);
+        cache.setInstanceId(instanceId);
+        cache.setState(state);
+        cache.setTriggerType("SCHEDULER");
+        cache.setStartTime(java.sql.Timestamp.valueOf("2026-10-01 01:00:00"));
+        return cache;
+    }
+}
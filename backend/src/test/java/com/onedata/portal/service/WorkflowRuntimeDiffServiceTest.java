@@ -1,6 +1,7 @@
 package com.onedata.portal.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.dto.workflow.runtime.RuntimeDiffFieldChange;
 import com.onedata.portal.dto.workflow.runtime.RuntimeDiffSummary;
 import com.onedata.portal.dto.workflow.runtime.RuntimeTaskDefinition;
 import com.onedata.portal.dto.workflow.runtime.RuntimeTaskEdge;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -113,6 +115,28 @@ class WorkflowRuntimeDiffServiceTest {
         assertTrue(summary.getScheduleChanges().isEmpty());
     }
 
+    @Test
+    void buildDiffShouldAttachLineDiffForMultiLineSql() {
+        RuntimeWorkflowDefinition baselineDef = definition("wf_a");
+        baselineDef.setTasks(Collections.singletonList(task(1L, "task_1",
+                "SELECT id\nFROM ods.t1\nWHERE dt = '${bizdate}'", 11L, 21L)));
+
+        RuntimeWorkflowDefinition currentDef = definition("wf_a");
+        currentDef.setTasks(Collections.singletonList(task(1L, "task_1",
+                "SELECT id, name\nFROM ods.t1\nWHERE dt = '${bizdate}'", 11L, 21L)));
+
+        RuntimeDiffSummary summary = buildDiff(baselineDef, currentDef,
+                Collections.<RuntimeTaskEdge>emptyList(),
+                Collections.<RuntimeTaskEdge>emptyList());
+
+        RuntimeDiffFieldChange sqlChange = summary.getTaskModified().get(0).getFieldChanges().stream()
+                .filter(change -> "task.sql".equals(change.getField()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals("@@ -1,3 +1,3 @@\n-SELECT id\n+SELECT id, name\n FROM ods.t1\n WHERE dt = '${bizdate}'\n",
+                sqlChange.getDiff());
+    }
+
     @Test
     void buildDiffShouldDetectTaskGroupNameChangesWhenTaskGroupIdMatches() {
         RuntimeWorkflowDefinition baselineDef = definition("wf_a");
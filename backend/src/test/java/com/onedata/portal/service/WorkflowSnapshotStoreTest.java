@@ -0,0 +1,251 @@
+package com.onedata.portal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.WorkflowSnapshotStoreProperties;
+import com.onedata.portal.entity.WorkflowSnapshotChunk;
+import com.onedata.portal.entity.WorkflowVersion;
+import com.onedata.portal.entity.WorkflowVersionChunk;
+import com.onedata.portal.mapper.WorkflowSnapshotChunkMapper;
+import com.onedata.portal.mapper.WorkflowVersionChunkMapper;
+import com.onedata.portal.mapper.WorkflowVersionMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowSnapshotStoreTest {
+
+    @Mock
+    private WorkflowSnapshotChunkMapper workflowSnapshotChunkMapper;
+
+    @Mock
+    private WorkflowVersionChunkMapper workflowVersionChunkMapper;
+
+    @Mock
+    private WorkflowVersionMapper workflowVersionMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 模拟两张表的内容
+     */
+    private final Map<String, WorkflowSnapshotChunk> chunkTable = new HashMap<>();
+    private final List<WorkflowVersionChunk> versionChunkTable = new ArrayList<>();
+    private final List<WorkflowSnapshotChunk> insertedChunks = new ArrayList<>();
+
+    private WorkflowSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(workflowSnapshotChunkMapper.selectExistingHashes(anyList())).thenAnswer(invocation -> {
+            Collection<String> hashes = invocation.getArgument(0);
+            return hashes.stream().filter(chunkTable::containsKey).collect(Collectors.toList());
+        });
+        lenient().when(workflowSnapshotChunkMapper.insertIgnoreBatch(anyList())).thenAnswer(invocation -> {
+            List<WorkflowSnapshotChunk> chunks = invocation.getArgument(0);
+            for (WorkflowSnapshotChunk chunk : chunks) {
+                chunkTable.putIfAbsent(chunk.getChunkHash(), chunk);
+                insertedChunks.add(chunk);
+            }
+            return chunks.size();
+        });
+        lenient().when(workflowSnapshotChunkMapper.selectBatchIds(anyList())).thenAnswer(invocation -> {
+            Collection<String> hashes = invocation.getArgument(0);
+            return hashes.stream().map(chunkTable::get).filter(chunk -> chunk != null).collect(Collectors.toList());
+        });
+        lenient().when(workflowVersionChunkMapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<WorkflowVersionChunk> rows = invocation.getArgument(0);
+            versionChunkTable.addAll(rows);
+            return rows.size();
+        });
+        lenient().when(workflowVersionChunkMapper.selectByVersionId(anyLong())).thenAnswer(invocation -> {
+            Long versionId = invocation.getArgument(0);
+            return versionChunkTable.stream()
+                    .filter(row -> versionId.equals(row.getVersionId()))
+                    .collect(Collectors.toList());
+        });
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        store = newStore();
+    }
+
+    @Test
+    void snapshotShouldRoundTripThroughChunks() throws Exception {
+        String snapshot = snapshot("SELECT 1", "SELECT 2", "SELECT 3");
+
+        store.save(1L, snapshot);
+        String loaded = newStore().load(chunkedVersion(1L));
+
+        assertEquals(objectMapper.readTree(snapshot), objectMapper.readTree(loaded));
+        // schemaVersion/processDefinition/3 个任务/processTaskRelationList/schedule 各一块，空数组不拆分
+        assertEquals(7, versionChunkTable.size());
+    }
+
+    @Test
+    void unchangedTasksShouldNotBeStoredAgain() throws Exception {
+        store.save(1L, snapshot("SELECT 1", "SELECT 2", "SELECT 3"));
+        int firstInserted = insertedChunks.size();
+
+        String second = snapshot("SELECT 1", "SELECT 2 WHERE dt = '${bizdate}'", "SELECT 3");
+        store.save(2L, second);
+
+        assertEquals(1, insertedChunks.size() - firstInserted, "只有改动的任务应写入新块");
+        assertEquals(objectMapper.readTree(second), objectMapper.readTree(newStore().load(chunkedVersion(2L))));
+    }
+
+    @Test
+    void largeChunksShouldBeCompressed() {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sql.append("SELECT col_").append(i).append(" FROM ods.t UNION ALL\n");
+        }
+        store.save(1L, snapshot(sql.toString()));
+
+        WorkflowSnapshotChunk taskChunk = insertedChunks.stream()
+                .filter(chunk -> chunk.getRawSize() > 1000)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals(WorkflowSnapshotStore.CODEC_DEFLATE, taskChunk.getCodec());
+        assertTrue(taskChunk.getStoredSize() < taskChunk.getRawSize() / 4);
+        assertTrue(newStore().load(chunkedVersion(1L)).contains("col_199"));
+    }
+
+    @Test
+    void nonObjectSnapshotShouldBeStoredVerbatim() {
+        store.save(1L, "not json");
+
+        assertEquals("not json", newStore().load(chunkedVersion(1L)));
+    }
+
+    @Test
+    void inlineVersionShouldReadSnapshotColumnLazily() {
+        WorkflowVersion version = new WorkflowVersion();
+        version.setId(3L);
+        version.setSnapshotStorage(WorkflowSnapshotStore.STORAGE_INLINE);
+        when(workflowVersionMapper.selectStructureSnapshot(3L)).thenReturn("{\"a\":1}");
+
+        assertEquals("{\"a\":1}", store.load(version));
+        verify(workflowVersionChunkMapper, never()).selectByVersionId(any());
+    }
+
+    @Test
+    void missingChunkShouldFailLoudly() {
+        store.save(1L, snapshot("SELECT 1"));
+        chunkTable.clear();
+
+        assertThrows(IllegalStateException.class, () -> newStore().load(chunkedVersion(1L)));
+    }
+
+    @Test
+    void legacyMigrationShouldChunkAndMarkVersions() {
+        when(workflowVersionMapper.selectInlineVersionIds(0L, 20)).thenReturn(Collections.singletonList(5L));
+        when(workflowVersionMapper.selectStructureSnapshot(5L)).thenReturn(snapshot("SELECT 1"));
+
+        assertEquals(1, store.migrateLegacy());
+
+        verify(workflowVersionMapper).markChunked(5L);
+        assertTrue(versionChunkTable.stream().allMatch(row -> Long.valueOf(5L).equals(row.getVersionId())));
+    }
+
+    @Test
+    void legacyMigrationShouldSkipFailedVersionAndResumeAfterIt() {
+        when(workflowVersionMapper.selectInlineVersionIds(0L, 20)).thenReturn(Arrays.asList(5L, 6L));
+        when(workflowVersionMapper.selectStructureSnapshot(5L)).thenThrow(new IllegalStateException("损坏"));
+        when(workflowVersionMapper.selectStructureSnapshot(6L)).thenReturn(snapshot("SELECT 1"));
+
+        assertEquals(1, store.migrateLegacy());
+        verify(workflowVersionMapper, never()).markChunked(5L);
+        verify(workflowVersionMapper).markChunked(6L);
+
+        when(workflowVersionMapper.selectInlineVersionIds(6L, 20)).thenReturn(Collections.emptyList());
+        assertEquals(0, store.migrateLegacy());
+        store.migrateLegacy();
+        verify(workflowVersionMapper, times(2)).selectInlineVersionIds(0L, 20);
+    }
+
+    @Test
+    void releaseShouldDropManifestAndPurgeUnreferencedChunks() {
+        when(workflowVersionChunkMapper.selectHashesByVersionIds(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList("h1"));
+
+        store.release(Collections.singletonList(1L));
+
+        verify(workflowVersionChunkMapper).delete(any());
+        verify(workflowSnapshotChunkMapper).deleteUnreferenced(Collections.singletonList("h1"));
+    }
+
+    /**
+     * 新实例没有进程内缓存，读取必然经过块表
+     */
+    private WorkflowSnapshotStore newStore() {
+        return new WorkflowSnapshotStore(workflowSnapshotChunkMapper, workflowVersionChunkMapper,
+                workflowVersionMapper, new WorkflowSnapshotStoreProperties(), transactionTemplate, objectMapper);
+    }
+
+    private static WorkflowVersion chunkedVersion(Long id) {
+        WorkflowVersion version = new WorkflowVersion();
+        version.setId(id);
+        version.setSnapshotStorage(WorkflowSnapshotStore.STORAGE_CHUNKED);
+        return version;
+    }
+
+    private String snapshot(String... sqls) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("schemaVersion", 3);
+        Map<String, Object> process = new HashMap<>();
+        process.put("name", "wf");
+        process.put("globalParams", "[]");
+        root.put("processDefinition", process);
+        List<Map<String, Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < sqls.length; i++) {
+            Map<String, Object> task = new HashMap<>();
+            task.put("code", 1000L + i);
+            task.put("name", "task_" + i);
+            task.put("sql", sqls[i]);
+            tasks.add(task);
+        }
+        root.put("taskDefinitionList", tasks);
+        root.put("processTaskRelationList", Collections.emptyList());
+        root.put("schedule", null);
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
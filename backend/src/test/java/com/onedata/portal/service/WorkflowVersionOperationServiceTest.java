@@ -2,6 +2,7 @@ package com.onedata.portal.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.onedata.portal.dto.workflow.WorkflowVersionCompareRequest;
 import com.onedata.portal.dto.workflow.WorkflowVersionCompareResponse;
@@ -12,10 +13,12 @@ import com.onedata.portal.entity.DataWorkflow;
 import com.onedata.portal.entity.WorkflowPublishRecord;
 import com.onedata.portal.entity.WorkflowRuntimeSyncRecord;
 import com.onedata.portal.entity.WorkflowVersion;
+import com.onedata.portal.entity.WorkflowVersionChangeSet;
 import com.onedata.portal.mapper.DataTaskMapper;
 import com.onedata.portal.mapper.DataWorkflowMapper;
 import com.onedata.portal.mapper.WorkflowPublishRecordMapper;
 import com.onedata.portal.mapper.WorkflowRuntimeSyncRecordMapper;
+import com.onedata.portal.mapper.WorkflowVersionChangeSetMapper;
 import com.onedata.portal.mapper.WorkflowVersionMapper;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,12 +27,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -37,6 +43,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,6 +61,7 @@ class WorkflowVersionOperationServiceTest {
         TableInfoHelper.initTableInfo(assistant, WorkflowVersion.class);
         TableInfoHelper.initTableInfo(assistant, WorkflowPublishRecord.class);
         TableInfoHelper.initTableInfo(assistant, WorkflowRuntimeSyncRecord.class);
+        TableInfoHelper.initTableInfo(assistant, WorkflowVersionChangeSet.class);
     }
 
     @Mock
@@ -73,6 +85,17 @@ class WorkflowVersionOperationServiceTest {
     @Mock
     private WorkflowService workflowService;
 
+    @Mock
+    private WorkflowSnapshotStore workflowSnapshotStore;
+
+    @Mock
+    private WorkflowVersionChangeSetMapper workflowVersionChangeSetMapper;
+
+    /**
+     * 模拟变更集表的内容
+     */
+    private final List<WorkflowVersionChangeSet> changeSetTable = new ArrayList<>();
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private WorkflowVersionOperationService service;
@@ -87,7 +110,11 @@ class WorkflowVersionOperationServiceTest {
                 workflowRuntimeSyncRecordMapper,
                 dataTaskService,
                 workflowService,
+                workflowSnapshotStore,
+                workflowVersionChangeSetMapper,
                 objectMapper);
+        lenient().when(workflowSnapshotStore.load(any()))
+                .thenAnswer(invocation -> invocation.<WorkflowVersion>getArgument(0).getStructureSnapshot());
     }
 
     @Test
@@ -298,6 +325,7 @@ class WorkflowVersionOperationServiceTest {
         assertEquals(4L, response.getDeletedVersionId());
         assertEquals(4, response.getDeletedVersionNo());
         verify(workflowVersionMapper).delete(any());
+        verify(workflowSnapshotStore).release(Collections.singletonList(4L));
         verify(dataWorkflowMapper, never()).update(any(), any());
     }
 
@@ -740,6 +768,126 @@ class WorkflowVersionOperationServiceTest {
         assertListContains(response.getUnchanged().getTasks(), "task_meta", "元数据一致时任务应归类为未变化");
     }
 
+    @Test
+    void adjacentCompareShouldBeServedFromRecordedChangeSet() {
+        useChangeSetTable();
+        List<Map<String, Object>> relations = Collections.singletonList(definitionRelationNode(1L, 2L));
+        WorkflowVersion version1 = version(1L, 11L, 1,
+                platformDefinitionJson("wf_cs", "tg", "select 1", "0 0 1 * * ?", relations));
+        WorkflowVersion version2 = version(2L, 11L, 2,
+                platformDefinitionJson("wf_cs", "tg", "select 2", "0 0 2 * * ?", Collections.emptyList()));
+        when(workflowVersionMapper.selectById(1L)).thenReturn(version1);
+        when(workflowVersionMapper.selectById(2L)).thenReturn(version2);
+
+        WorkflowVersionCompareResponse expected = compare(11L, 1L, 2L);
+        service.recordChangeSet(version1, version1.getStructureSnapshot(), null);
+        service.recordChangeSet(version2, version2.getStructureSnapshot(), version1);
+        clearInvocations(workflowSnapshotStore);
+
+        WorkflowVersionCompareResponse actual = compare(11L, 1L, 2L);
+
+        verify(workflowSnapshotStore, never()).load(any());
+        assertSameDiff(expected, actual);
+        assertEquals(expected.getRawDiff(), actual.getRawDiff());
+        assertListContains(actual.getRemoved().getEdges(), "extract_user_def", "删除的连线应带任务名");
+    }
+
+    @Test
+    void rangeCompareShouldComposeChangeSetsAndCancelRevertedChanges() {
+        useChangeSetTable();
+        List<Map<String, Object>> relations = Collections.singletonList(definitionRelationNode(1L, 2L));
+        WorkflowVersion version1 = version(1L, 11L, 1,
+                platformDefinitionJson("wf_cs", "tg", "select 1", "0 0 1 * * ?", relations));
+        WorkflowVersion version2 = version(2L, 11L, 2,
+                platformDefinitionJson("wf_cs", "tg", "select 2", "0 0 1 * * ?", Collections.emptyList()));
+        WorkflowVersion version3 = version(3L, 11L, 3,
+                platformDefinitionJson("wf_cs", "tg", "select 1", "0 0 3 * * ?", relations));
+        when(workflowVersionMapper.selectById(1L)).thenReturn(version1);
+        when(workflowVersionMapper.selectById(3L)).thenReturn(version3);
+
+        WorkflowVersionCompareResponse expected = compare(11L, 1L, 3L);
+        service.recordChangeSet(version1, version1.getStructureSnapshot(), null);
+        service.recordChangeSet(version2, version2.getStructureSnapshot(), version1);
+        service.recordChangeSet(version3, version3.getStructureSnapshot(), version2);
+        clearInvocations(workflowSnapshotStore);
+
+        WorkflowVersionCompareResponse actual = compare(11L, 1L, 3L);
+
+        verify(workflowSnapshotStore, never()).load(any());
+        assertSameDiff(expected, actual);
+        assertTrue(actual.getModified().getTasks().isEmpty(), "改回原值的任务不应算作变更");
+        assertTrue(actual.getRemoved().getEdges().isEmpty(), "删除后恢复的连线不应算作变更");
+        assertListContains(actual.getModified().getSchedules(), "0 0 3 * * ?", "应识别调度变更");
+        assertTrue(actual.getRawDiff().contains("@@ schedule"), actual.getRawDiff());
+    }
+
+    @Test
+    void deletingMiddleVersionShouldMergeChangeSetsOfItsNeighbours() {
+        useChangeSetTable();
+        List<Map<String, Object>> relations = Collections.singletonList(definitionRelationNode(1L, 2L));
+        WorkflowVersion version1 = version(1L, 11L, 1,
+                platformDefinitionJson("wf_cs", "tg", "select 1", "0 0 1 * * ?", relations));
+        WorkflowVersion version2 = version(2L, 11L, 2,
+                platformDefinitionJson("wf_cs", "tg", "select 2", "0 0 1 * * ?", Collections.emptyList()));
+        WorkflowVersion version3 = version(3L, 11L, 3,
+                platformDefinitionJson("wf_cs", "tg", "select 2", "0 0 3 * * ?", relations));
+        when(workflowVersionMapper.selectById(1L)).thenReturn(version1);
+        when(workflowVersionMapper.selectById(2L)).thenReturn(version2);
+        when(workflowVersionMapper.selectById(3L)).thenReturn(version3);
+
+        WorkflowVersionCompareResponse expected = compare(11L, 1L, 3L);
+        service.recordChangeSet(version1, version1.getStructureSnapshot(), null);
+        service.recordChangeSet(version2, version2.getStructureSnapshot(), version1);
+        service.recordChangeSet(version3, version3.getStructureSnapshot(), version2);
+
+        DataWorkflow workflow = new DataWorkflow();
+        workflow.setId(11L);
+        workflow.setCurrentVersionId(3L);
+        WorkflowPublishRecord latestSuccess = new WorkflowPublishRecord();
+        latestSuccess.setWorkflowId(11L);
+        latestSuccess.setVersionId(3L);
+        latestSuccess.setStatus("success");
+        when(dataWorkflowMapper.selectById(11L)).thenReturn(workflow);
+        when(workflowPublishRecordMapper.selectOne(any())).thenReturn(latestSuccess);
+        when(workflowVersionMapper.delete(any())).thenReturn(1);
+
+        service.deleteVersion(11L, 2L);
+        clearInvocations(workflowSnapshotStore);
+
+        assertEquals(2, changeSetTable.size(), "被删版本的变更集应并入后继版本");
+        WorkflowVersionChangeSet merged = changeSetTable.stream()
+                .filter(row -> Long.valueOf(3L).equals(row.getVersionId()))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(merged);
+        assertEquals(1L, merged.getBaseVersionId());
+
+        WorkflowVersionCompareResponse actual = compare(11L, 1L, 3L);
+
+        verify(workflowSnapshotStore, never()).load(any());
+        assertSameDiff(expected, actual);
+        assertTrue(actual.getRemoved().getEdges().isEmpty(), "删除后恢复的连线不应算作变更");
+        assertListContains(actual.getModified().getSchedules(), "0 0 3 * * ?", "应识别调度变更");
+        assertTrue(actual.getRawDiff().contains("--- v1"), actual.getRawDiff());
+    }
+
+    @Test
+    void compareShouldFallBackToSnapshotsWhenChangeSetChainIsBroken() {
+        useChangeSetTable();
+        WorkflowVersion version1 = version(1L, 11L, 1, canonicalSnapshot("wf", "task_a"));
+        WorkflowVersion version2 = version(2L, 11L, 2, canonicalSnapshot("wf", "task_b"));
+        WorkflowVersion version3 = version(3L, 11L, 3, canonicalSnapshot("wf", "task_c"));
+        when(workflowVersionMapper.selectById(1L)).thenReturn(version1);
+        when(workflowVersionMapper.selectById(3L)).thenReturn(version3);
+        service.recordChangeSet(version3, version3.getStructureSnapshot(), version2);
+        clearInvocations(workflowSnapshotStore);
+
+        WorkflowVersionCompareResponse response = compare(11L, 1L, 3L);
+
+        verify(workflowSnapshotStore, atLeastOnce()).load(any());
+        assertListContains(response.getModified().getTasks(), "task_c", "应按完整快照比对");
+    }
+
     private WorkflowVersion version(Long id, Long workflowId, Integer versionNo, String snapshot) {
         return versionWithSchema(id, workflowId, versionNo, snapshot, 3);
     }
@@ -765,6 +913,49 @@ class WorkflowVersionOperationServiceTest {
         return service.compare(workflowId, request);
     }
 
+    private void useChangeSetTable() {
+        when(workflowVersionChangeSetMapper.insert(any(WorkflowVersionChangeSet.class))).thenAnswer(invocation -> {
+            WorkflowVersionChangeSet changeSet = invocation.getArgument(0);
+            changeSet.setId((long) changeSetTable.size() + 1);
+            changeSetTable.add(changeSet);
+            return 1;
+        });
+        lenient().when(workflowVersionChangeSetMapper.selectChain(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Long workflowId = invocation.getArgument(0);
+            int from = invocation.getArgument(1);
+            int to = invocation.getArgument(2);
+            return changeSetTable.stream()
+                    .filter(row -> workflowId.equals(row.getWorkflowId()))
+                    .filter(row -> row.getVersionNo() > from && row.getVersionNo() <= to)
+                    .sorted((a, b) -> Integer.compare(a.getVersionNo(), b.getVersionNo()))
+                    .collect(Collectors.toList());
+        });
+        lenient().when(workflowVersionChangeSetMapper.selectById(any())).thenAnswer(invocation -> changeSetTable.stream()
+                .filter(row -> Objects.equals(row.getId(), invocation.getArgument(0)))
+                .findFirst()
+                .orElse(null));
+        lenient().when(workflowVersionChangeSetMapper.selectOne(any())).thenAnswer(invocation -> {
+            LambdaQueryWrapper<WorkflowVersionChangeSet> query = invocation.getArgument(0);
+            boolean byBase = query.getSqlSegment().contains("base_version_id");
+            Object id = query.getParamNameValuePairs().values().iterator().next();
+            return changeSetTable.stream()
+                    .filter(row -> Objects.equals(byBase ? row.getBaseVersionId() : row.getVersionId(), id))
+                    .findFirst()
+                    .orElse(null);
+        });
+        lenient().when(workflowVersionChangeSetMapper.deleteById(any(Serializable.class))).thenAnswer(invocation ->
+                changeSetTable.removeIf(row -> Objects.equals(row.getId(), invocation.getArgument(0))) ? 1 : 0);
+    }
+
+    private void assertSameDiff(WorkflowVersionCompareResponse expected, WorkflowVersionCompareResponse actual) {
+        assertEquals(expected.getSummary(), actual.getSummary());
+        assertEquals(expected.getChanged(), actual.getChanged());
+        assertEquals(expected.getAdded(), actual.getAdded());
+        assertEquals(expected.getRemoved(), actual.getRemoved());
+        assertEquals(expected.getModified(), actual.getModified());
+        assertEquals(expected.getUnchanged(), actual.getUnchanged());
+    }
+
     private void assertListContains(List<String> values, String expectedPart, String message) {
         assertTrue(values.stream().anyMatch(item -> item.contains(expectedPart)),
                 message + "，实际内容: " + values);
@@ -0,0 +1,183 @@
+package com.onedata.portal.service.dolphin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.DolphinClientProperties;
+import com.onedata.portal.entity.DolphinConfig;
+import com.onedata.portal.service.DolphinConfigService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DolphinOpenApiClientCoalescingTest {
+
+    private static final String DEFINITION_PATH = "/projects/1/process-definition/100";
+    private static final String DEFINITION_BODY = "{\"code\":0,\"data\":{\"processDefinition\":{\"name\":\"wf_demo\"}}}";
+
+    @Mock
+    private DolphinConfigService dolphinConfigService;
+
+    private HttpServer server;
+    private DolphinOpenApiClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+
+        DolphinConfig config = new DolphinConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        config.setToken("test-token");
+        when(dolphinConfigService.getActiveConfig()).thenReturn(config);
+
+        DolphinClientProperties properties = new DolphinClientProperties();
+        properties.getRetry().setMinBackoffMs(1);
+        properties.getRetry().setMaxBackoffMs(5);
+        client = new DolphinOpenApiClient(dolphinConfigService, new ObjectMapper(), WebClient.builder(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void concurrentIdenticalGetsShouldShareOneUpstreamCall() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext(DEFINITION_PATH, exchange -> {
+            hits.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, DEFINITION_BODY);
+        });
+
+        CompletableFuture<JsonNode> first = client.getProcessDefinitionAsync(1L, 100L).toFuture();
+        CompletableFuture<JsonNode> second = client.getProcessDefinitionAsync(1L, 100L).toFuture();
+        release.countDown();
+
+        JsonNode left = first.get(5, TimeUnit.SECONDS);
+        JsonNode right = second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, hits.get(), "并发的相同请求应只访问上游一次");
+        assertEquals("wf_demo", left.path("processDefinition").path("name").asText());
+        assertEquals(left, right);
+        assertNotSame(left, right, "每个调用方应拿到独立副本");
+
+        // 请求结束后不再复用结果
+        client.getProcessDefinition(1L, 100L);
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void serverErrorShouldBeRetried() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext(DEFINITION_PATH, exchange -> {
+            if (hits.incrementAndGet() == 1) {
+                respond(exchange, 503, "{\"msg\":\"unavailable\"}");
+            } else {
+                respond(exchange, 200, DEFINITION_BODY);
+            }
+        });
+
+        JsonNode definition = client.getProcessDefinition(1L, 100L);
+
+        assertEquals(2, hits.get());
+        assertEquals("wf_demo", definition.path("processDefinition").path("name").asText());
+    }
+
+    @Test
+    void clientAndApiErrorsShouldNotBeRetried() {
+        AtomicInteger badRequestHits = new AtomicInteger();
+        server.createContext(DEFINITION_PATH, exchange -> {
+            badRequestHits.incrementAndGet();
+            respond(exchange, 400, "{\"msg\":\"bad request\"}");
+        });
+        AtomicInteger apiErrorHits = new AtomicInteger();
+        server.createContext("/projects/1/process-definition/query-task-definition-list", exchange -> {
+            apiErrorHits.incrementAndGet();
+            respond(exchange, 200, "{\"code\":50001,\"msg\":\"definition not found\"}");
+        });
+
+        assertThrows(RuntimeException.class, () -> client.getProcessDefinition(1L, 100L));
+        assertNull(client.queryTaskDefinitionList(1L, 100L));
+
+        assertEquals(1, badRequestHits.get());
+        assertEquals(1, apiErrorHits.get());
+    }
+
+    @Test
+    void retriesShouldStopAtConfiguredLimit() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext(DEFINITION_PATH, exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 500, "{\"msg\":\"boom\"}");
+        });
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> client.getProcessDefinition(1L, 100L));
+
+        assertEquals(3, hits.get(), "默认重试 2 次");
+        assertTrue(ex.getMessage().contains("500"), ex.getMessage());
+    }
+
+    @Test
+    void retriesShouldStopAtOverallDeadline() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext(DEFINITION_PATH, exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 500, "{\"msg\":\"boom\"}");
+        });
+        DolphinClientProperties properties = new DolphinClientProperties();
+        properties.getRetry().setMaxRetries(10);
+        properties.getRetry().setMinBackoffMs(200);
+        properties.getRetry().setMaxBackoffMs(200);
+        properties.getRetry().setJitter(0);
+        properties.getRetry().setDeadlineMs(300);
+        DolphinOpenApiClient bounded = new DolphinOpenApiClient(dolphinConfigService, new ObjectMapper(),
+                WebClient.builder(), properties);
+
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> bounded.getProcessDefinition(1L, 100L));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000, "超过总时限后应放弃剩余重试");
+        assertTrue(hits.get() < 11, "不应执行完全部重试");
+        bounded.shutdown();
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -122,6 +122,34 @@ class DolphinOpenApiClientExportCompatibilityTest {
         assertTrue(ex.getMessage().contains("/process-definition/batch-export [status=500"), ex.getMessage());
     }
 
+    @Test
+    void exportShouldStreamPayloadLargerThanCodecBuffer() {
+        StringBuilder tasks = new StringBuilder();
+        for (int i = 0; i < 4000; i++) {
+            if (i > 0) {
+                tasks.append(',');
+            }
+            tasks.append("{\"code\":").append(i).append(",\"name\":\"task_").append(i)
+                    .append("\",\"taskParams\":{\"sql\":\"select * from ods.table_").append(i).append("\"}}");
+        }
+        String body = "[{\"workflowDefinition\":{\"code\":1004,\"name\":\"wf_large\"},\"taskDefinitionList\":["
+                + tasks + "]}]";
+        assertTrue(body.length() > 256 * 1024, "payload should exceed the default 256KB codec buffer");
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/projects/1/workflow-definition/batch-export", jsonHandler(200, body, hits));
+
+        JsonNode exported = client.exportDefinitionByCode(1L, 1004L);
+        long[] payloadSize = new long[1];
+        Integer size = client.exportDefinitionByCode(1L, 1004L, payload -> {
+            payloadSize[0] = java.nio.file.Files.size(payload);
+            return (int) payloadSize[0];
+        });
+
+        assertEquals(4000, exported.path("taskDefinitionList").size());
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, payloadSize[0]);
+        assertNotNull(size);
+    }
+
     private HttpHandler jsonHandler(int status, String body, AtomicInteger counter) {
         return exchange -> {
             try {
@@ -0,0 +1,169 @@
+package com.onedata.portal.service.dolphin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onedata.portal.config.DolphinClientProperties;
+import com.onedata.portal.dto.CacheStatistics;
+import com.onedata.portal.entity.DolphinConfig;
+import com.onedata.portal.service.DolphinConfigService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DolphinOpenApiClientReferenceCacheTest {
+
+    private static final String TENANTS_BODY =
+            "{\"code\":0,\"data\":[{\"tenantCode\":\"etl\"},{\"tenantCode\":\"ads\"}]}";
+
+    @Mock
+    private DolphinConfigService dolphinConfigService;
+
+    private HttpServer server;
+    private DolphinConfig config;
+    private DolphinClientProperties properties;
+    private DolphinOpenApiClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+
+        config = new DolphinConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        config.setToken("test-token");
+        when(dolphinConfigService.getActiveConfig()).thenReturn(config);
+
+        properties = new DolphinClientProperties();
+        properties.getRetry().setMaxRetries(0);
+        client = new DolphinOpenApiClient(dolphinConfigService, new ObjectMapper(), WebClient.builder(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void repeatedLookupsShouldBeServedFromCache() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/tenants/list", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 200, TENANTS_BODY);
+        });
+
+        assertEquals(Arrays.asList("etl", "ads"), client.listTenants());
+        assertEquals(Arrays.asList("etl", "ads"), client.listTenants());
+
+        assertEquals(1, hits.get());
+        CacheStatistics stats = client.getReferenceCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5D, stats.getHitRate(), 1e-9);
+        assertEquals(1, stats.getLoadSuccessCount());
+        assertTrue(stats.getAverageLoadTimeMs() > 0D);
+    }
+
+    @Test
+    void invalidationShouldReloadFromUpstream() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/tenants/list", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 200, TENANTS_BODY);
+        });
+        AtomicInteger datasourceHits = new AtomicInteger();
+        server.createContext("/datasources", exchange -> {
+            datasourceHits.incrementAndGet();
+            respond(exchange, 200, "{\"code\":0,\"data\":{\"totalList\":[{\"id\":1,\"name\":\"doris\"}]}}");
+        });
+
+        client.listTenants();
+        client.listDatasources(1, 100);
+        client.invalidateReferenceData(DolphinOpenApiClient.REF_DATASOURCES);
+        client.listTenants();
+        client.listDatasources(1, 100);
+        assertEquals(1, hits.get(), "按接口失效不应影响其他参考数据");
+        assertEquals(2, datasourceHits.get());
+
+        client.invalidateReferenceData();
+        client.listTenants();
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void failuresShouldNotBeCached() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/tenants/list", exchange -> {
+            if (hits.incrementAndGet() == 1) {
+                respond(exchange, 500, "{\"msg\":\"boom\"}");
+            } else {
+                respond(exchange, 200, TENANTS_BODY);
+            }
+        });
+
+        assertEquals(Collections.emptyList(), client.listTenants());
+        assertEquals(Arrays.asList("etl", "ads"), client.listTenants());
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void taskGroupNameLookupShouldBypassCache() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/task-group/list-paging", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 200, "{\"code\":0,\"data\":{\"totalList\":[{\"id\":3,\"name\":\"tg_etl\"}]}}");
+        });
+
+        client.listTaskGroups(1, 200, null, null);
+        client.listTaskGroups(1, 200, null, null);
+        client.listTaskGroups(1, 200, "tg_etl", null);
+        client.listTaskGroups(1, 200, "tg_etl", null);
+
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void disabledCacheShouldAlwaysCallUpstream() {
+        properties.getReferenceCache().setEnabled(false);
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/environment/query-environment-list", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 200, "{\"code\":0,\"data\":[{\"code\":11,\"name\":\"prod\"}]}");
+        });
+
+        client.listEnvironments();
+        client.listEnvironments();
+
+        assertEquals(2, hits.get());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } finally {
+            exchange.close();
+        }
+    }
+}
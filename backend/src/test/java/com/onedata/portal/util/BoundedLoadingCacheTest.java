@@ -0,0 +1,160 @@
+package com.onedata.portal.util;
+
+import com.onedata.portal.dto.CacheStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedLoadingCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenSizeOrWeightExceeded() {
+        BoundedLoadingCache<String, String> cache = BoundedLoadingCache.<String, String>builder("test")
+            .maximumSize(2)
+            .maximumWeight(10, String::length)
+            .ticker(now::get)
+            .build();
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.getIfPresent("a");
+        cache.put("c", "3");
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("1", cache.getIfPresent("a"));
+
+        cache.put("d", "12345678");
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent("c"));
+        assertEquals("12345678", cache.getIfPresent("d"));
+        assertEquals(2, cache.stats().getEvictionCount());
+        assertEquals(9, cache.stats().getWeight());
+    }
+
+    @Test
+    void expiresEntriesAndInvalidatesByGroup() {
+        BoundedLoadingCache<long[], String> cache = BoundedLoadingCache.<long[], String>builder("test")
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .groupBy(key -> key[0])
+            .ticker(now::get)
+            .build();
+        long[] first = {1L, 1L};
+        long[] second = {1L, 2L};
+        long[] other = {2L, 1L};
+        cache.put(first, "a");
+        cache.put(second, "b");
+        cache.put(other, "c");
+
+        cache.invalidateGroup(1L);
+        assertNull(cache.getIfPresent(first));
+        assertNull(cache.getIfPresent(second));
+        assertEquals("c", cache.getIfPresent(other));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertNull(cache.getIfPresent(other));
+        assertEquals(1, cache.stats().getExpiredCount());
+    }
+
+    @Test
+    void concurrentMissesShareSingleLoad() throws Exception {
+        BoundedLoadingCache<String, String> cache = BoundedLoadingCache.<String, String>builder("test").build();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "v";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("v", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getLoadSuccessCount());
+    }
+
+    @Test
+    void refreshesAheadOfExpiryAndKeepsServingOldValue() {
+        List<Runnable> scheduled = new ArrayList<>();
+        BoundedLoadingCache<String, String> cache = BoundedLoadingCache.<String, String>builder("test")
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .refreshAfterWrite(Duration.ofSeconds(8), scheduled::add)
+            .ticker(now::get)
+            .build();
+        cache.put("k", "old");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertEquals("old", cache.get("k", () -> "new"));
+        assertEquals("old", cache.get("k", () -> "newer"));
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+        assertEquals("new", cache.getIfPresent("k"));
+        CacheStatistics stats = cache.stats();
+        assertEquals(1, stats.getRefreshCount());
+        assertEquals(3, stats.getHitCount());
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndPropagates() {
+        BoundedLoadingCache<String, String> cache = BoundedLoadingCache.<String, String>builder("test").build();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> cache.get("k", () -> {
+                throw new IllegalArgumentException("表不存在");
+            }));
+        assertEquals("表不存在", error.getMessage());
+        assertEquals("v", cache.get("k", () -> "v"));
+        assertEquals(1, cache.stats().getLoadFailureCount());
+    }
+
+    @Test
+    void loadInvalidatedWhileInFlightIsNotCached() {
+        BoundedLoadingCache<long[], String> cache = BoundedLoadingCache.<long[], String>builder("test")
+            .groupBy(key -> key[0])
+            .build();
+        long[] key = {1L, 1L};
+
+        assertEquals("stale", cache.get(key, () -> {
+            cache.invalidateGroup(1L);
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent(key));
+
+        assertEquals("stale", cache.refresh(key, () -> {
+            cache.invalidateAll();
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent(key));
+
+        assertEquals("fresh", cache.get(key, () -> "fresh"));
+        assertEquals("fresh", cache.getIfPresent(key));
+    }
+}
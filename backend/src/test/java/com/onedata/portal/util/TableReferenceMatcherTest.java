@@ -0,0 +1,123 @@
+package com.onedata.portal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableReferenceMatcherTest {
+
+    /**
+     * 原 DorisTableAccessService 使用的正则提取规则，用于校验匹配器结果一致
+     */
+    private static final List<Pattern> LEGACY_PATTERNS = Arrays.asList(
+            Pattern.compile("\\b(?:FROM|JOIN)\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
+                    Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\bINSERT\\s+INTO\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
+                    Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\bUPDATE\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
+                    Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\bDELETE\\s+FROM\\s+(?:`?([a-zA-Z0-9_]+)`?\\.)?`?([a-zA-Z0-9_]+)`?",
+                    Pattern.CASE_INSENSITIVE));
+
+    private static final String[] TEMPLATES = {
+        "SELECT a, b FROM %s WHERE id = 1",
+        "select * from %s a join %s b on a.id = b.id",
+        "INSERT INTO %s SELECT * FROM %s",
+        "update %s set c = 1 where id in (select id from %s)",
+        "DELETE FROM %s WHERE dt < '2024-01-01'",
+        "SELECT t.col FROM (SELECT * FROM %s) t LEFT JOIN %s u ON t.id = u.id",
+        "WITH cte AS (SELECT * FROM %s) SELECT * FROM cte JOIN\n\t%s x USING (id)",
+        "select count(*) from %s where name = 'from %s'"
+    };
+
+    @Test
+    void matchesQualifiedAndDefaultDbReferencesOfKnownTables() {
+        TableReferenceMatcher matcher = TableReferenceMatcher.of(Arrays.asList("dw.orders", "`DW`.`Users`",
+                "ods.orders", "invalid"));
+
+        assertEquals(3, matcher.size());
+        assertEquals(set("dw.orders", "dw.users"),
+                matcher.match("SELECT * FROM Orders o JOIN `dw`.`users` u ON o.uid = u.id", "dw"));
+        assertEquals(set("ods.orders"), matcher.match("insert into orders select * from tmp.orders", "ods"));
+        assertEquals(set("dw.orders"), matcher.match("UPDATE dw.orders SET users = 1", null));
+        assertTrue(matcher.match("SELECT orders FROM t WHERE dw.orders.id = 1", "dw").isEmpty());
+        assertTrue(matcher.match("SELECT * FROM orders_bak JOIN dw.orders_v2", "dw").isEmpty());
+        assertTrue(matcher.match("SELECT * FROM orders", null).isEmpty());
+        assertTrue(TableReferenceMatcher.of(Collections.emptyList()).match("SELECT * FROM orders", "dw").isEmpty());
+    }
+
+    @Test
+    void agreesWithLegacyRegexExtractionOnGeneratedCorpus() {
+        List<String> known = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            known.add("dw.t" + i);
+            known.add("ods.t" + (i + 100));
+        }
+        Set<String> knownSet = new HashSet<>(known);
+        TableReferenceMatcher matcher = TableReferenceMatcher.of(known);
+        String[] defaultDbs = {"dw", "ods", "tmp", null};
+        Random random = new Random(42L);
+
+        for (int i = 0; i < 20_000; i++) {
+            String template = TEMPLATES[random.nextInt(TEMPLATES.length)];
+            String sql = String.format(template, randomTable(random), randomTable(random));
+            String defaultDb = defaultDbs[random.nextInt(defaultDbs.length)];
+
+            Set<String> expected = new HashSet<>();
+            for (String ref : legacyExtract(sql, defaultDb)) {
+                if (knownSet.contains(ref)) {
+                    expected.add(ref);
+                }
+            }
+            assertEquals(expected, matcher.match(sql, defaultDb), sql + " @ " + defaultDb);
+        }
+    }
+
+    private static String randomTable(Random random) {
+        String name = "t" + random.nextInt(320);
+        switch (random.nextInt(6)) {
+            case 0:
+                return "dw." + name;
+            case 1:
+                return "`ods`.`" + name + "`";
+            case 2:
+                return "tmp." + name;
+            case 3:
+                return name.toUpperCase(Locale.ROOT);
+            case 4:
+                return "`" + name + "`";
+            default:
+                return name;
+        }
+    }
+
+    private static Set<String> legacyExtract(String sql, String defaultDb) {
+        Set<String> refs = new HashSet<>();
+        for (Pattern pattern : LEGACY_PATTERNS) {
+            Matcher matcher = pattern.matcher(sql);
+            while (matcher.find()) {
+                String db = matcher.group(1) != null ? matcher.group(1).toLowerCase(Locale.ROOT) : defaultDb;
+                if (db != null) {
+                    refs.add(db + "." + matcher.group(2).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return refs;
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
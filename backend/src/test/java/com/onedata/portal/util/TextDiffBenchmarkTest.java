@@ -0,0 +1,78 @@
+package com.onedata.portal.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 版本快照比对的耗时基准，默认不执行：mvn test -Dtest=TextDiffBenchmarkTest -Dbenchmark=true
+ * <p>
+ * 对比逐行 Myers 与按块预匹配两种方式，输入为 300/1000 个任务、改动 1% 任务的合成快照。
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TextDiffBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 20;
+
+    @Test
+    void compareSnapshots() {
+        for (int tasks : new int[] {300, 1000}) {
+            List<List<String>> left = snapshotBlocks(tasks, 0);
+            List<List<String>> right = snapshotBlocks(tasks, 100);
+            List<String> leftLines = TextDiff.flatten(left);
+            List<String> rightLines = TextDiff.flatten(right);
+
+            long lineNanos = measure(() -> TextDiff.formatUnified(leftLines, rightLines,
+                    TextDiff.diff(leftLines, rightLines), TextDiff.DEFAULT_CONTEXT_LINES));
+            long blockNanos = measure(() -> TextDiff.formatUnified(leftLines, rightLines,
+                    TextDiff.diffBlocks(left, right), TextDiff.DEFAULT_CONTEXT_LINES));
+            System.out.printf("tasks=%d lines=%d line-diff=%d ns/op block-diff=%d ns/op%n",
+                    tasks, leftLines.size(), lineNanos, blockNanos);
+        }
+    }
+
+    private static long measure(Runnable action) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - start) / MEASURE_ITERATIONS;
+    }
+
+    /**
+     * 每 changeEvery 个任务修改一次 SQL，changeEvery 小于等于 0 时不修改
+     */
+    private static List<List<String>> snapshotBlocks(int tasks, int changeEvery) {
+        List<List<String>> blocks = new ArrayList<>();
+        List<String> head = new ArrayList<>();
+        head.add("{");
+        head.add("  \"tasks\" : [");
+        blocks.add(head);
+        for (int i = 0; i < tasks; i++) {
+            boolean changed = changeEvery > 0 && i % changeEvery == 0;
+            List<String> task = new ArrayList<>();
+            task.add("    {");
+            task.add("      \"taskCode\" : " + (100000 + i) + ",");
+            task.add("      \"taskName\" : \"task_" + i + "\",");
+            task.add("      \"sql\" : \"insert into t_" + i + " select * from s_" + i
+                    + (changed ? " where dt = '${bizdate}'" : "") + "\",");
+            task.add("      \"priority\" : \"MEDIUM\",");
+            task.add("      \"timeoutSeconds\" : 3600");
+            task.add(i < tasks - 1 ? "    }," : "    }");
+            blocks.add(task);
+        }
+        List<String> tail = new ArrayList<>();
+        tail.add("  ]");
+        tail.add("}");
+        blocks.add(tail);
+        return blocks;
+    }
+}
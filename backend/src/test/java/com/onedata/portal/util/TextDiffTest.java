@@ -0,0 +1,166 @@
+package com.onedata.portal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextDiffTest {
+
+    @Test
+    void editScriptIsMinimalAndReconstructsRightSide() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<String> left = randomLines(random, random.nextInt(30));
+            List<String> right = mutate(random, left);
+
+            List<TextDiff.Edit> edits = TextDiff.diff(left, right);
+
+            assertEquals(right, apply(left, right, edits));
+            int changed = 0;
+            for (TextDiff.Edit edit : edits) {
+                if (edit.getType() != TextDiff.Type.EQUAL) {
+                    changed += (edit.getLeftEnd() - edit.getLeftStart()) + (edit.getRightEnd() - edit.getRightStart());
+                }
+            }
+            assertEquals(left.size() + right.size() - 2 * lcsLength(left, right), changed,
+                    "编辑距离应与 LCS 一致: " + left + " -> " + right);
+        }
+    }
+
+    @Test
+    void unifiedOutputKeepsContextAndSplitsDistantHunks() {
+        List<String> left = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            left.add("line" + i);
+        }
+        List<String> right = new ArrayList<>(left);
+        right.set(1, "changed2");
+        right.remove(17);
+
+        String diff = TextDiff.unified(left, right, 1);
+
+        assertEquals("@@ -1,3 +1,3 @@\n"
+                + " line1\n"
+                + "-line2\n"
+                + "+changed2\n"
+                + " line3\n"
+                + "@@ -17,3 +17,2 @@\n"
+                + " line17\n"
+                + "-line18\n"
+                + " line19\n", diff);
+        assertEquals("", TextDiff.unified(left, left, 3));
+    }
+
+    @Test
+    void unifiedOutputHandlesEmptySides() {
+        assertEquals("@@ -0,0 +1,2 @@\n+a\n+b\n", TextDiff.unified(Collections.emptyList(), Arrays.asList("a", "b"), 3));
+        assertEquals("@@ -1,1 +0,0 @@\n-a\n", TextDiff.unified(Collections.singletonList("a"), Collections.emptyList(), 3));
+    }
+
+    @Test
+    void blockDiffMatchesLineDiffOnChangedBlocks() {
+        List<List<String>> left = Arrays.asList(
+                Collections.singletonList("{"),
+                Arrays.asList("  a", "  b", "  c"),
+                Arrays.asList("  d", "  e"),
+                Collections.singletonList("}"));
+        List<List<String>> right = Arrays.asList(
+                Collections.singletonList("{"),
+                Arrays.asList("  a", "  B", "  c"),
+                Arrays.asList("  d", "  e"),
+                Arrays.asList("  f"),
+                Collections.singletonList("}"));
+
+        List<String> leftLines = TextDiff.flatten(left);
+        List<String> rightLines = TextDiff.flatten(right);
+        List<TextDiff.Edit> edits = TextDiff.diffBlocks(left, right);
+
+        assertEquals(rightLines, apply(leftLines, rightLines, edits));
+        assertEquals(TextDiff.unified(leftLines, rightLines, 3),
+                TextDiff.formatUnified(leftLines, rightLines, edits, 3));
+    }
+
+    @Test
+    void largeInputsFinishWithoutQuadraticMemory() {
+        List<String> left = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            left.add("\"field" + i + "\" : " + i);
+        }
+        List<String> right = new ArrayList<>(left);
+        right.set(50_000, "changed");
+        right.add(150_000, "inserted");
+
+        List<TextDiff.Edit> edits = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> TextDiff.diff(left, right));
+
+        assertEquals(right, apply(left, right, edits));
+        assertTrue(edits.size() <= 7);
+    }
+
+    private static List<String> apply(List<String> left, List<String> right, List<TextDiff.Edit> edits) {
+        List<String> result = new ArrayList<>();
+        int leftPos = 0;
+        int rightPos = 0;
+        for (TextDiff.Edit edit : edits) {
+            assertEquals(leftPos, edit.getLeftStart());
+            assertEquals(rightPos, edit.getRightStart());
+            if (edit.getType() == TextDiff.Type.EQUAL) {
+                assertEquals(left.subList(edit.getLeftStart(), edit.getLeftEnd()),
+                        right.subList(edit.getRightStart(), edit.getRightEnd()));
+                result.addAll(left.subList(edit.getLeftStart(), edit.getLeftEnd()));
+            } else if (edit.getType() == TextDiff.Type.INSERT) {
+                result.addAll(right.subList(edit.getRightStart(), edit.getRightEnd()));
+            }
+            leftPos = edit.getLeftEnd();
+            rightPos = edit.getRightEnd();
+        }
+        assertEquals(left.size(), leftPos);
+        assertEquals(right.size(), rightPos);
+        return result;
+    }
+
+    private static int lcsLength(List<String> left, List<String> right) {
+        int[][] matrix = new int[left.size() + 1][right.size() + 1];
+        for (int i = 1; i <= left.size(); i++) {
+            for (int j = 1; j <= right.size(); j++) {
+                matrix[i][j] = left.get(i - 1).equals(right.get(j - 1))
+                        ? matrix[i - 1][j - 1] + 1
+                        : Math.max(matrix[i - 1][j], matrix[i][j - 1]);
+            }
+        }
+        return matrix[left.size()][right.size()];
+    }
+
+    private static List<String> randomLines(Random random, int size) {
+        List<String> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(String.valueOf((char) ('a' + random.nextInt(4))));
+        }
+        return lines;
+    }
+
+    private static List<String> mutate(Random random, List<String> source) {
+        List<String> result = new ArrayList<>(source);
+        int changes = random.nextInt(8);
+        for (int i = 0; i < changes; i++) {
+            int op = random.nextInt(3);
+            if (op == 0 || result.isEmpty()) {
+                result.add(random.nextInt(result.size() + 1), String.valueOf((char) ('a' + random.nextInt(4))));
+            } else if (op == 1) {
+                result.remove(random.nextInt(result.size()));
+            } else {
+                result.set(random.nextInt(result.size()), String.valueOf((char) ('a' + random.nextInt(4))));
+            }
+        }
+        return result;
+    }
+}
@@ -1,12 +1,40 @@
 import request from '@/utils/request'
 
+// 后端以二维数组返回结果行，这里按列名还原为行对象
+export const toRowObjects = (columns = [], rows = []) => {
+  if (!Array.isArray(rows)) return []
+  return rows.map((row) => {
+    if (!Array.isArray(row)) return row
+    const item = {}
+    columns.forEach((column, index) => {
+      item[column] = row[index]
+    })
+    return item
+  })
+}
+
+const normalizeQueryResponse = (res) => {
+  if (!res || typeof res !== 'object') return res
+  if (Array.isArray(res.resultSets)) {
+    res.resultSets.forEach((resultSet) => {
+      if (resultSet) resultSet.rows = toRowObjects(resultSet.columns, resultSet.rows)
+    })
+  }
+  if (Array.isArray(res.rows)) {
+    res.rows = toRowObjects(res.columns, res.rows)
+  }
+  return res
+}
+
 export const dataQueryApi = {
   analyze(data, config = {}) {
     return request.post('/v1/data-query/analyze', data, { timeout: 30000, skipErrorMessage: true, ...config })
   },
 
   execute(data, config = {}) {
-    return request.post('/v1/data-query/execute', data, { timeout: 300000, skipErrorMessage: true, ...config })
+    return request
+      .post('/v1/data-query/execute', data, { timeout: 300000, skipErrorMessage: true, ...config })
+      .then(normalizeQueryResponse)
   },
 
   stop(data, config = {}) {
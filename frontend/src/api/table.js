@@ -1,4 +1,5 @@
 import request from '@/utils/request'
+import { toRowObjects } from './query'
 
 const withCluster = (clusterId) =>
   clusterId === null || clusterId === undefined ? {} : { params: { clusterId } }
@@ -126,9 +127,11 @@ export const tableApi = {
 
   // 预览表数据
   previewTableData(id, clusterId = null, limit = 100) {
-    return request.get(`/v1/tables/${id}/preview`, {
-      params: { clusterId, limit }
-    })
+    return request
+      .get(`/v1/tables/${id}/preview`, {
+        params: { clusterId, limit }
+      })
+      .then((res) => toRowObjects(res?.columns, res?.rows))
   },
 
   // 创建表